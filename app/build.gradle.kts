@@ -75,6 +75,7 @@ android {
         val localBroadcastPermission = "PRIVATE_BROADCAST"
         manifestPlaceholders["broadcastPermission"] = localBroadcastPermission
         buildConfigField("String", "PERMISSION_LOCAL_BROADCAST", "\"$localBroadcastPermission\"")
+        buildConfigField("boolean", "FAIL_ON_MAIN_THREAD_QUERIES", "false")
     }
 
     flavorDimensions += "default"
@@ -110,6 +111,11 @@ android {
     }
 
     buildTypes {
+        debug {
+            // database queries on the main thread throw, -PrecordMainThreadQueries only logs them
+            val failOnMainThreadQueries = !providers.gradleProperty("recordMainThreadQueries").isPresent
+            buildConfigField("boolean", "FAIL_ON_MAIN_THREAD_QUERIES", failOnMainThreadQueries.toString())
+        }
         release {
             isMinifyEnabled = false
             proguardFiles(
@@ -117,6 +123,12 @@ android {
                 "proguard-rules.pro"
             )
         }
+        // release build that can be installed next to the test APK of :microbenchmark
+        create("benchmark") {
+            initWith(getByName("release"))
+            signingConfig = signingConfigs.getByName("debug")
+            matchingFallbacks += listOf("release")
+        }
     }
 
     packaging {
@@ -266,7 +278,6 @@ dependencies {
     compileOnly("javax.annotation:javax.annotation-api:1.3.2")
     kapt("javax.annotation:javax.annotation-api:1.3.2")
 
-    implementation("org.greenrobot:eventbus:3.3.1")
     implementation("net.zetetic:sqlcipher-android:4.18.0")
 
     implementation("androidx.room:room-runtime:$roomVersion")
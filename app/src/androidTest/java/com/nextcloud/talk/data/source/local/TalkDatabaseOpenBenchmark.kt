@@ -0,0 +1,138 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package com.nextcloud.talk.data.source.local
+
+import android.content.Context
+import android.os.SystemClock
+import android.util.Log
+import androidx.room.Room
+import androidx.room.RoomDatabase
+import androidx.sqlite.db.SupportSQLiteOpenHelper
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.nextcloud.talk.chat.data.model.ChatMessage
+import com.nextcloud.talk.data.database.mappers.asEntity
+import com.nextcloud.talk.data.database.model.ChatMessageEntity
+import com.nextcloud.talk.data.user.model.UserEntity
+import com.nextcloud.talk.models.json.conversations.Conversation
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.runBlocking
+import net.zetetic.database.sqlcipher.SupportOpenHelperFactory
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Compares the SQLCipher defaults with the settings of [TalkDatabase]: opening the database (key derivation and
+ * schema validation) and reading pages of cached messages. The timings are logged with the tag of this class.
+ */
+@RunWith(AndroidJUnit4::class)
+class TalkDatabaseOpenBenchmark {
+
+    private lateinit var context: Context
+
+    @Before
+    fun setUp() {
+        context = ApplicationProvider.getApplicationContext()
+        System.loadLibrary(TalkDatabase.SQL_CIPHER_LIBRARY)
+    }
+
+    @Test
+    fun compareDefaultAndTunedSettings() {
+        val defaults = measure("default", SupportOpenHelperFactory(PASSPHRASE), RoomDatabase.JournalMode.TRUNCATE)
+        val tuned = measure(
+            "tuned",
+            SupportOpenHelperFactory(PASSPHRASE, ConnectionTuningHook, true),
+            RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING
+        )
+
+        assertEquals(defaults.messagesRead, tuned.messagesRead)
+    }
+
+    private fun measure(
+        name: String,
+        factory: SupportOpenHelperFactory,
+        journalMode: RoomDatabase.JournalMode
+    ): Result {
+        val dbName = "benchmark-$name.sqlite"
+        context.deleteDatabase(dbName)
+        fill(build(dbName, factory, journalMode))
+
+        val openStart = SystemClock.elapsedRealtimeNanos()
+        val db = build(dbName, factory, journalMode)
+        db.openHelper.writableDatabase
+        val openMillis = (SystemClock.elapsedRealtimeNanos() - openStart) / NANOS_PER_MILLI
+
+        val readStart = SystemClock.elapsedRealtimeNanos()
+        var messagesRead = 0
+        repeat(READ_ITERATIONS) {
+            messagesRead += runBlocking {
+                db.chatMessagesDao().getMessagesForConversation(INTERNAL_CONVERSATION_ID, null).first().size
+            }
+        }
+        val readMillis = (SystemClock.elapsedRealtimeNanos() - readStart) / NANOS_PER_MILLI
+        db.close()
+        context.deleteDatabase(dbName)
+
+        Log.i(
+            TAG,
+            "$name: open $openMillis ms, $READ_ITERATIONS reads of $MESSAGE_COUNT messages $readMillis ms"
+        )
+        return Result(openMillis, readMillis, messagesRead)
+    }
+
+    private fun build(
+        dbName: String,
+        factory: SupportSQLiteOpenHelper.Factory,
+        journalMode: RoomDatabase.JournalMode
+    ): TalkDatabase =
+        Room.databaseBuilder(context, TalkDatabase::class.java, dbName)
+            .openHelperFactory(factory)
+            .setJournalMode(journalMode)
+            .allowMainThreadQueries()
+            .build()
+
+    private fun fill(db: TalkDatabase) {
+        db.usersDao().saveUser(UserEntity(id = ACCOUNT_ID, userId = "me", username = "me", baseUrl = BASE_URL))
+        runBlocking {
+            db.conversationsDao().upsertConversations(ACCOUNT_ID, listOf(Conversation(token = TOKEN).asEntity(ACCOUNT_ID)))
+            db.chatMessagesDao().upsertChatMessages((1L..MESSAGE_COUNT).map { message(it) })
+        }
+        db.close()
+    }
+
+    private fun message(id: Long) =
+        ChatMessageEntity(
+            internalId = "$INTERNAL_CONVERSATION_ID@$id",
+            accountId = ACCOUNT_ID,
+            token = TOKEN,
+            id = id,
+            internalConversationId = INTERNAL_CONVERSATION_ID,
+            actorDisplayName = "User",
+            message = "Message number $id with some text to fill the page",
+            actorId = "user",
+            actorType = "users",
+            messageType = "comment",
+            systemMessageType = ChatMessage.SystemMessageType.DUMMY,
+            timestamp = id
+        )
+
+    private data class Result(val openMillis: Long, val readMillis: Long, val messagesRead: Int)
+
+    companion object {
+        private val TAG = TalkDatabaseOpenBenchmark::class.java.simpleName
+        private val PASSPHRASE = "benchmark".toByteArray(Charsets.UTF_8)
+        private const val ACCOUNT_ID = 1L
+        private const val TOKEN = "benchmark"
+        private const val INTERNAL_CONVERSATION_ID = "$ACCOUNT_ID@$TOKEN"
+        private const val BASE_URL = "https://server.example.com"
+        private const val MESSAGE_COUNT = 2_000L
+        private const val READ_ITERATIONS = 20
+        private const val NANOS_PER_MILLI = 1_000_000L
+    }
+}
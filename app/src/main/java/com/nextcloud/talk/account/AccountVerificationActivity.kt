@@ -59,8 +59,7 @@ import io.reactivex.Observer
 import io.reactivex.android.schedulers.AndroidSchedulers
 import io.reactivex.disposables.Disposable
 import io.reactivex.schedulers.Schedulers
-import org.greenrobot.eventbus.Subscribe
-import org.greenrobot.eventbus.ThreadMode
+import kotlinx.coroutines.Dispatchers
 import java.net.CookieManager
 import javax.inject.Inject
 
@@ -335,8 +334,12 @@ class AccountVerificationActivity : BaseActivity() {
             })
     }
 
+    override fun subscribeEvents() {
+        super.subscribeEvents()
+        subscribeEvent(EventStatus::class.java, Dispatchers.IO) { onMessageEvent(it) }
+    }
+
     @SuppressLint("SetTextI18n")
-    @Subscribe(threadMode = ThreadMode.BACKGROUND)
     fun onMessageEvent(eventStatus: EventStatus) {
         Log.d(TAG, "caught EventStatus of type " + eventStatus.eventType.toString())
         if (internalAccountId != eventStatus.userId) {
@@ -39,6 +39,7 @@ import com.nextcloud.talk.account.SwitchAccountActivity
 import com.nextcloud.talk.application.NextcloudTalkApplication
 import com.nextcloud.talk.chat.ChatActivity
 import com.nextcloud.talk.events.CertificateEvent
+import com.nextcloud.talk.events.EventHub
 import com.nextcloud.talk.events.RemoteWipeEvent
 import com.nextcloud.talk.activities.MainActivity
 import com.nextcloud.talk.lock.LockedActivity
@@ -55,9 +56,8 @@ import com.nextcloud.talk.utils.message.MessageUtils
 import com.nextcloud.talk.utils.preferences.AppPreferences
 import com.nextcloud.talk.logger.Logger
 import com.nextcloud.talk.utils.ssl.TrustManager
-import org.greenrobot.eventbus.EventBus
-import org.greenrobot.eventbus.Subscribe
-import org.greenrobot.eventbus.ThreadMode
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.Dispatchers
 import java.security.cert.CertificateParsingException
 import java.security.cert.X509Certificate
 import java.text.DateFormat
@@ -73,7 +73,9 @@ open class BaseActivity : AppCompatActivity() {
     }
 
     @Inject
-    lateinit var eventBus: EventBus
+    lateinit var eventBus: EventHub
+
+    private val eventSubscriptions = mutableListOf<EventHub.EventSubscription<*>>()
 
     @Inject
     lateinit var appPreferences: AppPreferences
@@ -139,7 +141,7 @@ open class BaseActivity : AppCompatActivity() {
 
     public override fun onStart() {
         super.onStart()
-        eventBus.register(this)
+        registerEventSubscriptions()
     }
 
     protected open val skipLockCheckOnResume: Boolean = false
@@ -173,7 +175,7 @@ open class BaseActivity : AppCompatActivity() {
     public override fun onStop() {
         logger.d(this::class.java.simpleName, "onStop")
         super.onStop()
-        eventBus.unregister(this)
+        unregisterEventSubscriptions()
     }
 
     public override fun onDestroy() {
@@ -313,12 +315,41 @@ open class BaseActivity : AppCompatActivity() {
         }
     }
 
-    @Subscribe(threadMode = ThreadMode.MAIN)
+    /**
+     * Subscribes to the events this activity handles while it is started. Does nothing if already subscribed.
+     */
+    protected fun registerEventSubscriptions() {
+        if (eventSubscriptions.isEmpty()) {
+            subscribeEvents()
+        }
+    }
+
+    protected fun unregisterEventSubscriptions() {
+        eventSubscriptions.forEach { it.cancel() }
+        eventSubscriptions.clear()
+    }
+
+    /**
+     * Registers the event handlers of this activity via [subscribeEvent]. Overrides must call super.
+     */
+    protected open fun subscribeEvents() {
+        subscribeEvent(CertificateEvent::class.java, Dispatchers.Main.immediate) { onMessageEvent(it) }
+        subscribeEvent(RemoteWipeEvent::class.java, Dispatchers.Main.immediate) { onRemoteWipeEvent(it) }
+    }
+
+    protected fun <T : Any> subscribeEvent(
+        eventType: Class<T>,
+        dispatcher: CoroutineDispatcher,
+        sticky: Boolean = false,
+        handler: (T) -> Unit
+    ) {
+        eventSubscriptions += eventBus.subscribe(eventType, dispatcher, sticky, handler)
+    }
+
     fun onMessageEvent(event: CertificateEvent) {
         showCertificateDialog(event.x509Certificate, event.trustManager, event.sslErrorHandler)
     }
 
-    @Subscribe(threadMode = ThreadMode.MAIN)
     fun onRemoteWipeEvent(event: RemoteWipeEvent) {
         Toast.makeText(context, R.string.nc_remote_wipe_logged_out, Toast.LENGTH_LONG).show()
         val intent = Intent(this, MainActivity::class.java)
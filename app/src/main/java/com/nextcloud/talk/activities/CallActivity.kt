@@ -54,6 +54,7 @@ import androidx.core.app.NotificationManagerCompat
 import androidx.core.graphics.drawable.DrawableCompat
 import androidx.core.net.toUri
 import androidx.lifecycle.ViewModelProvider
+import androidx.lifecycle.lifecycleScope
 import autodagger.AutoInjector
 import com.bluelinelabs.logansquare.LoganSquare
 import com.google.android.material.dialog.MaterialAlertDialogBuilder
@@ -66,12 +67,15 @@ import com.nextcloud.talk.call.CallParticipantList
 import com.nextcloud.talk.call.LocalStateBroadcaster
 import com.nextcloud.talk.call.LocalStateBroadcasterMcu
 import com.nextcloud.talk.call.LocalStateBroadcasterNoMcu
+import com.nextcloud.talk.call.McuStreamQualityRequester
 import com.nextcloud.talk.call.MediaConstraintsHelper
 import com.nextcloud.talk.call.MessageSender
 import com.nextcloud.talk.call.MessageSenderMcu
 import com.nextcloud.talk.call.MessageSenderNoMcu
 import com.nextcloud.talk.call.MutableLocalCallParticipantModel
 import com.nextcloud.talk.call.ReactionAnimator
+import com.nextcloud.talk.call.SizeBasedVideoSinkPolicy
+import com.nextcloud.talk.call.VideoSinkController
 import com.nextcloud.talk.call.components.ParticipantGrid
 import com.nextcloud.talk.call.components.SelfVideoView
 import com.nextcloud.talk.call.components.screenshare.ScreenShareComponent
@@ -100,6 +104,8 @@ import com.nextcloud.talk.models.json.signaling.NCSignalingMessage
 import com.nextcloud.talk.models.json.signaling.Signaling
 import com.nextcloud.talk.models.json.signaling.SignalingOverall
 import com.nextcloud.talk.models.json.signaling.settings.SignalingSettingsOverall
+import com.nextcloud.talk.participants.ParticipantStore
+import com.nextcloud.talk.participants.ParticipantStoreUpdater
 import com.nextcloud.talk.raisehand.viewmodel.RaiseHandViewModel
 import com.nextcloud.talk.raisehand.viewmodel.RaiseHandViewModel.LoweredHandState
 import com.nextcloud.talk.raisehand.viewmodel.RaiseHandViewModel.RaisedHandState
@@ -165,8 +171,6 @@ import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.launch
 import okhttp3.Cache
 import org.apache.commons.lang3.StringEscapeUtils
-import org.greenrobot.eventbus.Subscribe
-import org.greenrobot.eventbus.ThreadMode
 import org.webrtc.AudioSource
 import org.webrtc.AudioTrack
 import org.webrtc.Camera1Enumerator
@@ -220,6 +224,9 @@ class CallActivity : CallBaseActivity() {
     lateinit var viewModelFactory: ViewModelProvider.Factory
     lateinit var callViewModel: CallViewModel
 
+    @Inject
+    lateinit var participantStore: ParticipantStore
+
     var audioManager: WebRtcAudioManager? = null
     var callRecordingViewModel: CallRecordingViewModel? = null
     var raiseHandViewModel: RaiseHandViewModel? = null
@@ -300,6 +307,10 @@ class CallActivity : CallBaseActivity() {
             endCallForAll = false
         )
     }
+    private val participantStoreUpdater by lazy {
+        ParticipantStoreUpdater(participantStore, conversationUser, roomToken!!, lifecycleScope)
+    }
+
     private val offerMessageListener = OfferMessageListener { sessionId, roomType, sdp, nick ->
         getOrCreatePeerConnectionWrapperForSessionIdAndType(
             sessionId,
@@ -312,6 +323,10 @@ class CallActivity : CallBaseActivity() {
     private var webSocketConnectionHelper: WebSocketConnectionHelper? = null
     private var joinRoomInitiated = false
     private var hasMCU = false
+    private val videoSinkController = VideoSinkController(
+        SizeBasedVideoSinkPolicy(),
+        McuStreamQualityRequester(hasMcu = { hasMCU }, signalingMessageSender = { signalingMessageSender })
+    )
     private var hasExternalSignalingServer = false
     private var conversationPassword: String? = null
     private var powerManagerUtils: PowerManagerUtils? = null
@@ -435,7 +450,8 @@ class CallActivity : CallBaseActivity() {
                         onClick = {},
                         onScreenShareIconClick = {
                             callViewModel.setActiveScreenShareSession(it)
-                        }
+                        },
+                        videoSinkController = videoSinkController
                     )
                 }
             }
@@ -452,6 +468,7 @@ class CallActivity : CallBaseActivity() {
         }
         processExtras(intent.extras!!)
         conversationUser = currentUserProviderOld.currentUser.blockingGet()
+        observeStoredParticipants()
 
         credentials = ApiUtils.getCredentials(conversationUser!!.username, conversationUser!!.token)
         if (TextUtils.isEmpty(baseUrl)) {
@@ -570,6 +587,20 @@ class CallActivity : CallBaseActivity() {
         }
     }
 
+    @Suppress("Detekt.TooGenericExceptionCaught")
+    private fun observeStoredParticipants() {
+        val user = conversationUser ?: return
+        val token = roomToken ?: return
+        callViewModel.observeStoredParticipants(participantStore.observeParticipants("${user.id}@$token"))
+        lifecycleScope.launch {
+            try {
+                participantStore.reconcileIfStale(user, token)
+            } catch (e: Exception) {
+                Log.e(TAG, "Failed to reconcile the participants", e)
+            }
+        }
+    }
+
     private fun processExtras(extras: Bundle) {
         roomId = extras.getString(KEY_ROOM_ID, "")
         roomToken = extras.getString(KEY_ROOM_TOKEN, "")
@@ -1378,6 +1409,7 @@ class CallActivity : CallBaseActivity() {
         if (signalingMessageReceiver != null) {
             signalingMessageReceiver!!.removeListener(localParticipantMessageListener)
             signalingMessageReceiver!!.removeListener(offerMessageListener)
+            signalingMessageReceiver!!.removeListener(participantStoreUpdater)
         }
         if (localStream != null) {
             localStream!!.dispose()
@@ -1511,6 +1543,7 @@ class CallActivity : CallBaseActivity() {
                         signalingMessageReceiver = internalSignalingMessageReceiver
                         signalingMessageReceiver!!.addListener(localParticipantMessageListener)
                         signalingMessageReceiver!!.addListener(offerMessageListener)
+                        signalingMessageReceiver!!.addListener(participantStoreUpdater)
                         signalingMessageSender = internalSignalingMessageSender
 
                         hasMCU = false
@@ -1816,6 +1849,7 @@ class CallActivity : CallBaseActivity() {
             signalingMessageReceiver = webSocketClient!!.getSignalingMessageReceiver()
             signalingMessageReceiver!!.addListener(localParticipantMessageListener)
             signalingMessageReceiver!!.addListener(offerMessageListener)
+            signalingMessageReceiver!!.addListener(participantStoreUpdater)
             signalingMessageSender = webSocketClient!!.signalingMessageSender
 
             // If the connection with the signaling server was not established yet the value will be false, but it will
@@ -1853,8 +1887,15 @@ class CallActivity : CallBaseActivity() {
         fetchSignalingSettings()
     }
 
+    override fun subscribeEvents() {
+        super.subscribeEvents()
+        subscribeEvent(WebSocketCommunicationEvent::class.java, Dispatchers.IO) { onMessageEvent(it) }
+        subscribeEvent(ConfigurationChangeEvent::class.java, Dispatchers.Main.immediate) { onMessageEvent(it) }
+        subscribeEvent(ProximitySensorEvent::class.java, Dispatchers.Main.immediate) { onMessageEvent(it) }
+        subscribeEvent(NetworkEvent::class.java, Dispatchers.IO) { onMessageEvent(it) }
+    }
+
     @Suppress("Detekt.NestedBlockDepth")
-    @Subscribe(threadMode = ThreadMode.BACKGROUND)
     fun onMessageEvent(webSocketCommunicationEvent: WebSocketCommunicationEvent) {
         if (currentCallStatus === CallStatus.LEAVING) {
             return
@@ -2574,13 +2615,11 @@ class CallActivity : CallBaseActivity() {
         initPipMode()
     }
 
-    @Subscribe(threadMode = ThreadMode.MAIN)
     fun onMessageEvent(configurationChangeEvent: ConfigurationChangeEvent?) {
         powerManagerUtils!!.setOrientation(Objects.requireNonNull(resources).configuration.orientation)
         initPipMode()
     }
 
-    @Subscribe(threadMode = ThreadMode.MAIN)
     fun onMessageEvent(proximitySensorEvent: ProximitySensorEvent) {
         if (!isVoiceOnlyCall) {
             val enableVideo = proximitySensorEvent.proximitySensorEventType ==
@@ -3038,7 +3077,6 @@ class CallActivity : CallBaseActivity() {
         }
     }
 
-    @Subscribe(threadMode = ThreadMode.BACKGROUND)
     fun onMessageEvent(networkEvent: NetworkEvent) {
         if (networkEvent.networkConnectionEvent == NetworkEvent.NetworkConnectionEvent.NETWORK_CONNECTED) {
             if (handler != null) {
@@ -9,7 +9,10 @@ package com.nextcloud.talk.activities
 import android.util.Log
 import androidx.lifecycle.ViewModel
 import androidx.lifecycle.viewModelScope
+import com.nextcloud.talk.models.json.participants.Participant
 import com.nextcloud.talk.signaling.SignalingMessageReceiver
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.StateFlow
 import kotlinx.coroutines.flow.asStateFlow
@@ -27,6 +30,26 @@ class CallViewModel @Inject constructor() : ViewModel() {
     private val _activeScreenShareSession = MutableStateFlow<ParticipantUiState?>(null)
     val activeScreenShareSession: StateFlow<ParticipantUiState?> = _activeScreenShareSession.asStateFlow()
 
+    private var storedParticipants: Map<Pair<Participant.ActorType, String>, Participant> = emptyMap()
+    private var storedParticipantsJob: Job? = null
+
+    /**
+     * Observes the stored participants of the conversation, see
+     * [com.nextcloud.talk.participants.ParticipantStore.observeParticipants]. Call participants whose signaling
+     * session provides no name are shown with their stored display name.
+     */
+    fun observeStoredParticipants(participants: Flow<List<Participant>>) {
+        storedParticipantsJob?.cancel()
+        storedParticipantsJob = viewModelScope.launch {
+            participants.collect { stored ->
+                storedParticipants = stored
+                    .filter { it.calculatedActorId != null }
+                    .associateBy { it.calculatedActorType to it.calculatedActorId!! }
+                participantHandlers.values.forEach { applyStoredNick(it) }
+            }
+        }
+    }
+
     fun getParticipant(sessionId: String?): ParticipantHandler? {
         if (sessionId == null) {
             Log.w(TAG, "Attempted to get participant with null sessionId.")
@@ -61,11 +84,24 @@ class CallViewModel @Inject constructor() : ViewModel() {
 
         viewModelScope.launch {
             participantHandler.uiState.collect {
+                applyStoredNick(participantHandler)
                 _participants.value = participantHandlers.values.map { it.uiState.value }
             }
         }
     }
 
+    private fun applyStoredNick(participantHandler: ParticipantHandler) {
+        val state = participantHandler.uiState.value
+        if (!state.nick.isNullOrBlank() && state.nick != ParticipantHandler.DEFAULT_NICK) {
+            return
+        }
+        val actorType = state.actorType ?: return
+        val actorId = state.actorId ?: return
+        storedParticipants[actorType to actorId]?.displayName
+            ?.takeIf { it.isNotBlank() }
+            ?.let { participantHandler.updateNick(it) }
+    }
+
     fun onShareScreen(sessionId: String?) {
         setActiveScreenShareSession(sessionId)
     }
@@ -89,6 +125,7 @@ class CallViewModel @Inject constructor() : ViewModel() {
     }
 
     public override fun onCleared() {
+        storedParticipantsJob?.cancel()
         participantHandlers.values.forEach { it.destroy() }
         participantHandlers.clear()
         _participants.value = emptyList()
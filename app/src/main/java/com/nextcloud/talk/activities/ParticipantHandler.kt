@@ -33,7 +33,7 @@ class ParticipantHandler(
             sessionKey = sessionId,
             baseUrl = baseUrl,
             roomToken = roomToken,
-            nick = "Guest",
+            nick = DEFAULT_NICK,
             isConnected = false,
             isAudioEnabled = false,
             isStreamEnabled = false,
@@ -232,7 +232,7 @@ class ParticipantHandler(
         iceConnectionState == IceConnectionState.CONNECTED ||
             iceConnectionState == IceConnectionState.COMPLETED
 
-    fun updateNick(nick: String?) = _uiState.update { it.copy(nick = nick ?: "Guest") }
+    fun updateNick(nick: String?) = _uiState.update { it.copy(nick = nick ?: DEFAULT_NICK) }
 
     fun updateIsInternal(isInternal: Boolean) = _uiState.update { it.copy(isInternal = isInternal) }
 
@@ -257,5 +257,6 @@ class ParticipantHandler(
 
     companion object {
         private val TAG = ParticipantHandler::class.java.simpleName
+        const val DEFAULT_NICK = "Guest"
     }
 }
@@ -23,6 +23,7 @@ import com.nextcloud.talk.models.json.generic.GenericOverall
 import com.nextcloud.talk.models.json.hovercard.HoverCardOverall
 import com.nextcloud.talk.models.json.invitation.InvitationOverall
 import com.nextcloud.talk.models.json.participants.AddParticipantOverall
+import com.nextcloud.talk.models.json.participants.ParticipantsOverall
 import com.nextcloud.talk.models.json.participants.TalkBan
 import com.nextcloud.talk.models.json.participants.TalkBanOverall
 import com.nextcloud.talk.models.json.profile.ProfileOverall
@@ -136,6 +137,13 @@ interface NcApiCoroutines {
         @QueryMap options: Map<String, String>?
     ): AddParticipantOverall
 
+    @GET
+    suspend fun getParticipants(
+        @Header("Authorization") authorization: String,
+        @Url url: String,
+        @QueryMap fields: Map<String, Boolean>
+    ): ParticipantsOverall
+
     @POST
     suspend fun makeRoomPublic(@Header("Authorization") authorization: String, @Url url: String): GenericOverall
 
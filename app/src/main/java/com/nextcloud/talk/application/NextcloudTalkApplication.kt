@@ -19,6 +19,7 @@ import androidx.lifecycle.DefaultLifecycleObserver
 import androidx.lifecycle.LifecycleObserver
 import androidx.lifecycle.LifecycleOwner
 import androidx.lifecycle.ProcessLifecycleOwner
+import androidx.work.Data
 import androidx.work.ExistingPeriodicWorkPolicy
 import androidx.work.OneTimeWorkRequest
 import androidx.work.PeriodicWorkRequest
@@ -39,6 +40,8 @@ import com.nextcloud.talk.diagnosis.toMarkdown
 import com.nextcloud.talk.errorhandling.ExceptionHandler
 import com.nextcloud.talk.logger.LoggerImpl
 import com.nextcloud.talk.account.BrowserLoginActivity
+import com.nextcloud.talk.avatar.AvatarFetcher
+import com.nextcloud.talk.avatar.AvatarRepository
 import com.nextcloud.talk.dagger.modules.BusModule
 import com.nextcloud.talk.dagger.modules.ContextModule
 import com.nextcloud.talk.dagger.modules.DaosModule
@@ -48,9 +51,11 @@ import com.nextcloud.talk.dagger.modules.RepositoryModule
 import com.nextcloud.talk.dagger.modules.RestModule
 import com.nextcloud.talk.dagger.modules.UtilsModule
 import com.nextcloud.talk.dagger.modules.ViewModelModule
+import com.nextcloud.talk.data.source.local.TalkDatabase
 import com.nextcloud.talk.filebrowser.webdav.DavUtils
 import com.nextcloud.talk.jobs.AccountRemovalWorker
 import com.nextcloud.talk.jobs.CapabilitiesWorker
+import com.nextcloud.talk.jobs.ChatCacheMaintenanceWorker
 import com.nextcloud.talk.jobs.SignalingSettingsWorker
 import com.nextcloud.talk.jobs.WebsocketConnectionsWorker
 import com.nextcloud.talk.ui.theme.ThemeModule
@@ -114,6 +119,9 @@ class NextcloudTalkApplication :
 
     @Inject
     lateinit var logger: LoggerImpl
+
+    @Inject
+    lateinit var avatarRepository: AvatarRepository
     //endregion
 
     //region private methods
@@ -170,6 +178,8 @@ class NextcloudTalkApplication :
             return
         }
 
+        TalkDatabase.prewarm(applicationContext)
+
         RxJavaPlugins.setErrorHandler { e ->
             var throwable: Throwable = if (e is UndeliverableException) e.cause ?: e else e
             if (throwable is IOException || throwable is SocketException) {
@@ -256,12 +266,16 @@ class NextcloudTalkApplication :
             CapabilitiesWorker::class.java,
             HALF_DAY,
             TimeUnit.HOURS
-        ).build()
+        )
+            .setInputData(Data.Builder().putBoolean(CapabilitiesWorker.KEY_SKIP_UP_TO_DATE, true).build())
+            .build()
         WorkManager.getInstance(applicationContext).enqueueUniquePeriodicWork(
             "DailyCapabilitiesUpdateWork",
             ExistingPeriodicWorkPolicy.REPLACE,
             periodicCapabilitiesUpdateWork
         )
+
+        ChatCacheMaintenanceWorker.schedule(applicationContext)
     }
 
     override fun onTerminate() {
@@ -295,6 +309,8 @@ class NextcloudTalkApplication :
                     add(GifDecoder.Factory())
                 }
                 add(SvgDecoder.Factory())
+                add(AvatarFetcher.Factory(avatarRepository))
+                add(AvatarFetcher.AvatarKeyer(avatarRepository))
             }
 
         if (BuildConfig.DEBUG) {
@@ -0,0 +1,70 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.avatar
+
+import com.nextcloud.talk.data.user.model.User
+import com.nextcloud.talk.utils.ApiUtils
+
+/**
+ * Identifies an avatar independent of the theme and of the size it is shown in, so the image is only stored once by
+ * [AvatarRepository]. Can be used as data of a Coil image request, see [AvatarFetcher].
+ *
+ * [version] is the avatarVersion of a conversation. Versioned avatars never change, a new version is a new image.
+ * It must be null for one-to-one conversations: their avatar is the peer's user avatar, whose changes do not change
+ * the avatarVersion of the conversation.
+ */
+data class Avatar(
+    val accountId: Long,
+    val baseUrl: String,
+    val credentials: String?,
+    val type: Type,
+    val id: String,
+    val version: String? = null
+) {
+    enum class Type {
+        USER,
+        GUEST,
+        CONVERSATION
+    }
+
+    val storageKey: String
+        get() = "${type.name.lowercase()}/$id"
+
+    /**
+     * The image is always requested in the light variant and in the big size, the dark variant and the sizes of the
+     * different surfaces are derived locally.
+     */
+    val url: String
+        get() =
+            when (type) {
+                Type.USER -> ApiUtils.getUrlForAvatar(baseUrl, id, requestBigSize = true, darkMode = false)
+                Type.GUEST -> ApiUtils.getUrlForGuestAvatar(baseUrl, id, requestBigSize = true)
+                Type.CONVERSATION -> ApiUtils.getUrlForConversationAvatarWithVersion(1, baseUrl, id, false, version)
+            }
+
+    // the credentials must not end up in logs
+    override fun toString(): String = "Avatar($accountId/$storageKey@$version)"
+
+    companion object {
+        fun ofUser(user: User, userId: String): Avatar = of(user, Type.USER, userId)
+
+        fun ofGuest(user: User, displayName: String): Avatar = of(user, Type.GUEST, displayName)
+
+        fun ofConversation(user: User, token: String, avatarVersion: String? = null): Avatar =
+            of(user, Type.CONVERSATION, token, avatarVersion)
+
+        private fun of(user: User, type: Type, id: String, version: String? = null): Avatar {
+            val credentials = if (user.username != null && user.token != null) {
+                ApiUtils.getCredentials(user.username, user.token)
+            } else {
+                null
+            }
+            return Avatar(user.id!!, user.baseUrl!!, credentials, type, id, version)
+        }
+    }
+}
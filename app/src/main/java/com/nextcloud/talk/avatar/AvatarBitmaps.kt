@@ -0,0 +1,60 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.avatar
+
+import android.graphics.Bitmap
+import android.graphics.Color
+import androidx.core.graphics.ColorUtils
+
+internal object AvatarBitmaps {
+
+    /**
+     * Crops [bitmap] to its centered square and scales it to [sizePx] x [sizePx].
+     */
+    fun toExactSize(bitmap: Bitmap, sizePx: Int): Bitmap {
+        if (bitmap.width == sizePx && bitmap.height == sizePx) {
+            return bitmap
+        }
+        val side = minOf(bitmap.width, bitmap.height)
+        val square = if (bitmap.width == bitmap.height) {
+            bitmap
+        } else {
+            Bitmap.createBitmap(bitmap, (bitmap.width - side) / 2, (bitmap.height - side) / 2, side, side)
+        }
+        return Bitmap.createScaledBitmap(square, sizePx, sizePx, true)
+    }
+
+    /**
+     * The dark variant of a server generated avatar keeps the hues of the light one but swaps light and dark: a
+     * light background with a saturated initial becomes a dark background with a light initial. Inverting the
+     * lightness of every pixel gives that variant without downloading it.
+     */
+    fun deriveDarkVariant(bitmap: Bitmap): Bitmap {
+        val width = bitmap.width
+        val height = bitmap.height
+        val pixels = IntArray(width * height)
+        bitmap.getPixels(pixels, 0, width, 0, 0, width, height)
+
+        val hsl = FloatArray(HSL_COMPONENTS)
+        for (i in pixels.indices) {
+            val alpha = Color.alpha(pixels[i])
+            if (alpha != 0) {
+                ColorUtils.colorToHSL(pixels[i], hsl)
+                hsl[LIGHTNESS] = 1f - hsl[LIGHTNESS]
+                pixels[i] = ColorUtils.setAlphaComponent(ColorUtils.HSLToColor(hsl), alpha)
+            }
+        }
+
+        val result = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888)
+        result.setPixels(pixels, 0, width, 0, 0, width, height)
+        return result
+    }
+
+    private const val HSL_COMPONENTS = 3
+    private const val LIGHTNESS = 2
+}
@@ -0,0 +1,42 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.avatar
+
+import android.content.Context
+import android.graphics.Bitmap
+import android.graphics.drawable.BitmapDrawable
+import coil.imageLoader
+import coil.request.CachePolicy
+import coil.request.ImageRequest
+import coil.size.Scale
+import java.io.File
+
+/**
+ * Decodes a stored avatar image to a bitmap that covers at least [sizePx] x [sizePx].
+ */
+fun interface AvatarDecoder {
+    suspend fun decode(file: File, sizePx: Int): Bitmap?
+}
+
+/**
+ * Decodes with Coil, which subsamples large images while decoding and renders the SVG avatars the server generates
+ * for conversations. Coil's caches are bypassed, the decoded avatar is cached by [AvatarFetcher] instead.
+ */
+class CoilAvatarDecoder(private val context: Context) : AvatarDecoder {
+    override suspend fun decode(file: File, sizePx: Int): Bitmap? {
+        val request = ImageRequest.Builder(context)
+            .data(file)
+            .size(sizePx)
+            .scale(Scale.FILL)
+            .allowHardware(false)
+            .memoryCachePolicy(CachePolicy.DISABLED)
+            .diskCachePolicy(CachePolicy.DISABLED)
+            .build()
+        return (context.imageLoader.execute(request).drawable as? BitmapDrawable)?.bitmap
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.avatar
+
+import androidx.core.graphics.drawable.toDrawable
+import coil.ImageLoader
+import coil.decode.DataSource
+import coil.fetch.DrawableResult
+import coil.fetch.FetchResult
+import coil.fetch.Fetcher
+import coil.key.Keyer
+import coil.request.Options
+import coil.size.pxOrElse
+import com.nextcloud.talk.utils.DisplayUtils
+import java.io.IOException
+
+/**
+ * Serves Coil image requests with an [Avatar] as data from the [AvatarRepository], in the theme of the request's
+ * context and in the requested size.
+ *
+ * Set the [FORCE_REFRESH] parameter to download the avatar again, e.g. after it was changed.
+ */
+class AvatarFetcher(
+    private val avatar: Avatar,
+    private val options: Options,
+    private val repository: AvatarRepository
+) : Fetcher {
+
+    override suspend fun fetch(): FetchResult {
+        val sizePx = maxOf(
+            options.size.width.pxOrElse { DEFAULT_SIZE_PX },
+            options.size.height.pxOrElse { DEFAULT_SIZE_PX }
+        )
+        val bitmap = repository.load(
+            avatar,
+            sizePx,
+            dark = DisplayUtils.isDarkModeOn(options.context),
+            forceRefresh = options.parameters.value<Boolean>(FORCE_REFRESH) == true
+        ) ?: throw IOException("No image for $avatar")
+
+        return DrawableResult(
+            drawable = bitmap.toDrawable(options.context.resources),
+            isSampled = true,
+            dataSource = DataSource.DISK
+        )
+    }
+
+    class Factory(private val repository: AvatarRepository) : Fetcher.Factory<Avatar> {
+        override fun create(data: Avatar, options: Options, imageLoader: ImageLoader): Fetcher =
+            AvatarFetcher(data, options, repository)
+    }
+
+    class AvatarKeyer(private val repository: AvatarRepository) : Keyer<Avatar> {
+        override fun key(data: Avatar, options: Options): String =
+            repository.cacheKey(data, DisplayUtils.isDarkModeOn(options.context))
+    }
+
+    companion object {
+        const val FORCE_REFRESH = "avatar#forceRefresh"
+        private const val DEFAULT_SIZE_PX = 256
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.avatar
+
+import android.graphics.Bitmap
+import android.util.Log
+import com.nextcloud.talk.data.database.dao.AvatarsDao
+import com.nextcloud.talk.data.database.model.AvatarEntity
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.Semaphore
+import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.sync.withPermit
+import kotlinx.coroutines.withContext
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.Response
+import okio.buffer
+import okio.sink
+import java.io.File
+import java.io.IOException
+import java.net.HttpURLConnection
+import java.security.MessageDigest
+
+/**
+ * Single source of the avatars shown in the conversation list, the notifications and the share shortcuts.
+ *
+ * Each avatar is stored once per account and [Avatar.storageKey], in the light variant and the big size. The dark
+ * variant of server generated avatars and the size needed by a surface are derived from that copy, so switching the
+ * theme or showing the avatar somewhere else does not download it again.
+ *
+ * Versioned avatars are immutable and never revalidated. Unversioned avatars (users, guests and one-to-one
+ * conversations) are revalidated with a conditional request at most once per [REVALIDATE_INTERVAL_MILLIS]. If the
+ * revalidation fails the stored image is kept.
+ */
+class AvatarRepository(
+    private val okHttpClient: OkHttpClient,
+    private val dao: AvatarsDao,
+    private val directory: File,
+    private val decoder: AvatarDecoder,
+    private val clock: () -> Long = System::currentTimeMillis
+) {
+
+    // one lock per stored avatar while it is being loaded, removed again by the last loader
+    private val locks = HashMap<String, KeyLock>()
+    private val downloads = Semaphore(MAX_CONCURRENT_DOWNLOADS)
+
+    /**
+     * Returns the avatar as a bitmap of exactly [sizePx] x [sizePx], or null if it is neither stored nor can be
+     * downloaded. [forceRefresh] downloads the image even if the stored one is current, e.g. after it was changed.
+     */
+    suspend fun load(avatar: Avatar, sizePx: Int, dark: Boolean, forceRefresh: Boolean = false): Bitmap? {
+        val stored = withContext(Dispatchers.IO) { ensureStored(avatar, forceRefresh) } ?: return null
+        val decoded = decoder.decode(fileOf(avatar.accountId, avatar.storageKey), sizePx) ?: return null
+        val bitmap = AvatarBitmaps.toExactSize(decoded, sizePx)
+        return if (dark && !stored.isCustom) AvatarBitmaps.deriveDarkVariant(bitmap) else bitmap
+    }
+
+    /**
+     * Key of the decoded avatar in memory caches. For unversioned avatars it changes every
+     * [REVALIDATE_INTERVAL_MILLIS], so an avatar kept in memory is revalidated on the same schedule.
+     */
+    fun cacheKey(avatar: Avatar, dark: Boolean): String {
+        val generation = avatar.version ?: "r${clock() / REVALIDATE_INTERVAL_MILLIS}"
+        val theme = if (dark) "dark" else "light"
+        return "avatar:${avatar.accountId}/${avatar.storageKey}@$generation:$theme"
+    }
+
+    fun deleteAvatarsOfAccount(accountId: Long) {
+        dao.getAvatarKeysOfAccount(accountId).forEach { fileOf(accountId, it).delete() }
+        dao.deleteAvatarsOfAccount(accountId)
+    }
+
+    private suspend fun ensureStored(avatar: Avatar, forceRefresh: Boolean): AvatarEntity? =
+        withKeyLock("${avatar.accountId}/${avatar.storageKey}") {
+            val stored = dao.getAvatar(avatar.accountId, avatar.storageKey)
+                ?.takeIf { fileOf(avatar.accountId, avatar.storageKey).exists() }
+            when {
+                stored == null -> download(avatar, null)
+
+                forceRefresh -> download(avatar, null) ?: stored
+
+                avatar.version != null && avatar.version != stored.avatarVersion -> download(avatar, null) ?: stored
+
+                // unversioned requests accept any stored version, otherwise alternating requests would download
+                // the avatar over and over
+                avatar.version != null || clock() - stored.checkedAt < REVALIDATE_INTERVAL_MILLIS -> stored
+
+                else -> download(avatar, stored) ?: stored.copy(checkedAt = clock()).also { dao.upsertAvatar(it) }
+            }
+        }
+
+    private suspend fun <T> withKeyLock(key: String, block: suspend () -> T): T {
+        val lock = synchronized(locks) {
+            locks.getOrPut(key) { KeyLock() }.also { it.users++ }
+        }
+        try {
+            return lock.mutex.withLock { block() }
+        } finally {
+            synchronized(locks) {
+                lock.users--
+                if (lock.users == 0) {
+                    locks.remove(key)
+                }
+            }
+        }
+    }
+
+    private suspend fun download(avatar: Avatar, revalidated: AvatarEntity?): AvatarEntity? =
+        downloads.withPermit {
+            val requestBuilder = Request.Builder().url(avatar.url)
+            avatar.credentials?.let { requestBuilder.header("Authorization", it) }
+            revalidated?.etag?.let { requestBuilder.header("If-None-Match", it) }
+
+            try {
+                okHttpClient.newCall(requestBuilder.build()).execute().use { response ->
+                    when {
+                        revalidated != null && response.code == HttpURLConnection.HTTP_NOT_MODIFIED ->
+                            revalidated.copy(checkedAt = clock())
+
+                        response.isSuccessful -> store(avatar, response)
+
+                        else -> {
+                            Log.w(TAG, "Could not download $avatar: HTTP ${response.code}")
+                            null
+                        }
+                    }
+                }?.also { dao.upsertAvatar(it) }
+            } catch (e: IOException) {
+                Log.w(TAG, "Could not download $avatar", e)
+                null
+            }
+        }
+
+    private fun store(avatar: Avatar, response: Response): AvatarEntity? {
+        val body = response.body ?: return null
+        val file = fileOf(avatar.accountId, avatar.storageKey)
+        val partFile = File(directory, file.name + PART_SUFFIX)
+        directory.mkdirs()
+        partFile.sink().buffer().use { it.writeAll(body.source()) }
+        if (!partFile.renameTo(file)) {
+            partFile.delete()
+            throw IOException("Could not store $avatar")
+        }
+        return AvatarEntity(
+            accountId = avatar.accountId,
+            avatarKey = avatar.storageKey,
+            avatarVersion = avatar.version,
+            etag = response.header("ETag"),
+            // without the header it is unknown how the avatar was made, so it is shown as it is in both themes
+            isCustom = response.header(IS_CUSTOM_AVATAR_HEADER) != "0",
+            checkedAt = clock()
+        )
+    }
+
+    private fun fileOf(accountId: Long, avatarKey: String): File {
+        val digest = MessageDigest.getInstance("SHA-256").digest("$accountId/$avatarKey".toByteArray())
+        return File(directory, digest.joinToString("") { "%02x".format(it) })
+    }
+
+    private class KeyLock {
+        val mutex = Mutex()
+        var users = 0
+    }
+
+    companion object {
+        private val TAG = AvatarRepository::class.java.simpleName
+        const val DIRECTORY_NAME = "avatars"
+        const val REVALIDATE_INTERVAL_MILLIS = 6 * 60 * 60 * 1000L
+        private const val MAX_CONCURRENT_DOWNLOADS = 4
+        private const val IS_CUSTOM_AVATAR_HEADER = "X-NC-IsCustomAvatar"
+        private const val PART_SUFFIX = ".part"
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.call
+
+import com.nextcloud.talk.models.json.signaling.NCMessagePayload
+import com.nextcloud.talk.models.json.signaling.NCSignalingMessage
+import com.nextcloud.talk.signaling.SignalingMessageSender
+
+/**
+ * Selects the simulcast layer the MCU sends of the video of a participant, the same way the web client does with a
+ * "selectStream" message to the publisher's session. Without the MCU the participants' streams are received peer to
+ * peer and nothing is sent.
+ */
+class McuStreamQualityRequester(
+    private val hasMcu: () -> Boolean,
+    private val signalingMessageSender: () -> SignalingMessageSender?
+) : StreamQualityRequester {
+
+    override fun requestQuality(sessionId: String, quality: StreamQuality) {
+        if (!hasMcu()) {
+            return
+        }
+
+        val payload = NCMessagePayload()
+        if (quality == StreamQuality.PAUSED) {
+            payload.video = false
+        } else {
+            payload.video = true
+            payload.substream = quality.substream
+            payload.temporal = quality.temporal
+        }
+
+        val message = NCSignalingMessage()
+        message.to = sessionId
+        message.type = SELECT_STREAM_MESSAGE_TYPE
+        message.roomType = VIDEO_ROOM_TYPE
+        message.payload = payload
+
+        signalingMessageSender()?.send(message)
+    }
+
+    companion object {
+        const val SELECT_STREAM_MESSAGE_TYPE = "selectStream"
+        private const val VIDEO_ROOM_TYPE = "video"
+    }
+}
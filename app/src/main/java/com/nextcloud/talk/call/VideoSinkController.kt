@@ -0,0 +1,136 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.call
+
+/**
+ * Quality of a received video stream. With the MCU each quality selects a simulcast layer of the publisher, i.e. the
+ * spatial [substream] and the [temporal] layer. [PAUSED] stops receiving the video of the stream.
+ */
+enum class StreamQuality(val substream: Int, val temporal: Int) {
+    PAUSED(0, 0),
+    LOW(0, 1),
+    MEDIUM(1, 2),
+    HIGH(2, 2)
+}
+
+/**
+ * Whether a video tile is visible on screen, and its size in pixels.
+ */
+data class VideoTileState(val isVisible: Boolean, val widthPx: Int, val heightPx: Int)
+
+/**
+ * Decides the [StreamQuality] a video tile needs.
+ */
+fun interface VideoSinkPolicy {
+    fun qualityFor(tile: VideoTileState): StreamQuality
+}
+
+/**
+ * Pauses the streams of hidden tiles and picks the smallest simulcast layer that still covers the tile. Publishers
+ * send their video in full, half and quarter resolution, so for a 720p camera a tile up to [lowQualityMaxPx] is
+ * covered by the quarter and a tile up to [mediumQualityMaxPx] by the half resolution layer.
+ */
+class SizeBasedVideoSinkPolicy(
+    private val lowQualityMaxPx: Int = LOW_QUALITY_MAX_PX,
+    private val mediumQualityMaxPx: Int = MEDIUM_QUALITY_MAX_PX
+) : VideoSinkPolicy {
+
+    override fun qualityFor(tile: VideoTileState): StreamQuality {
+        val longestSidePx = maxOf(tile.widthPx, tile.heightPx)
+        return when {
+            !tile.isVisible || longestSidePx <= 0 -> StreamQuality.PAUSED
+            longestSidePx <= lowQualityMaxPx -> StreamQuality.LOW
+            longestSidePx <= mediumQualityMaxPx -> StreamQuality.MEDIUM
+            else -> StreamQuality.HIGH
+        }
+    }
+
+    companion object {
+        const val LOW_QUALITY_MAX_PX = 320
+        const val MEDIUM_QUALITY_MAX_PX = 640
+    }
+}
+
+/**
+ * The video track of a tile together with the sink that renders it.
+ */
+interface VideoTrackSink {
+    fun attach()
+    fun detach()
+}
+
+/**
+ * Asks the server to send a stream of a participant in the given quality.
+ */
+fun interface StreamQualityRequester {
+    fun requestQuality(sessionId: String, quality: StreamQuality)
+}
+
+/**
+ * Keeps the video sinks of the call grid attached only while their tile is visible.
+ *
+ * Every tile showing a video [bind]s its [VideoTrackSink] and reports its visibility and size with [update]. The
+ * [policy] maps that to a [StreamQuality]: paused tiles have their sink detached, so the video is no longer rendered,
+ * and the [requester], if any, asks the server for the matching stream, e.g. a lower simulcast layer for small tiles.
+ * A tile that is [unbind]ed has its stream paused.
+ *
+ * All functions must be called from the main thread.
+ */
+class VideoSinkController(
+    private val policy: VideoSinkPolicy,
+    private val requester: StreamQualityRequester? = null
+) {
+
+    private class Tile(val sink: VideoTrackSink) {
+        var isAttached = false
+        var quality: StreamQuality? = null
+    }
+
+    private val tiles = HashMap<String, Tile>()
+
+    fun bind(sessionId: String, sink: VideoTrackSink) {
+        tiles.put(sessionId, Tile(sink))?.let { detach(it) }
+    }
+
+    fun update(sessionId: String, state: VideoTileState) {
+        val tile = tiles[sessionId] ?: return
+        val quality = policy.qualityFor(state)
+        if (quality == tile.quality) {
+            return
+        }
+        tile.quality = quality
+
+        if (quality == StreamQuality.PAUSED) {
+            detach(tile)
+        } else if (!tile.isAttached) {
+            tile.sink.attach()
+            tile.isAttached = true
+        }
+        requester?.requestQuality(sessionId, quality)
+    }
+
+    /**
+     * Releases the tile of [sessionId] if it still belongs to [sink], a new tile of the same session might have been
+     * bound already.
+     */
+    fun unbind(sessionId: String, sink: VideoTrackSink) {
+        val tile = tiles[sessionId]?.takeIf { it.sink === sink } ?: return
+        tiles.remove(sessionId)
+        detach(tile)
+        if (tile.quality != null && tile.quality != StreamQuality.PAUSED) {
+            requester?.requestQuality(sessionId, StreamQuality.PAUSED)
+        }
+    }
+
+    private fun detach(tile: Tile) {
+        if (tile.isAttached) {
+            tile.sink.detach()
+            tile.isAttached = false
+        }
+    }
+}
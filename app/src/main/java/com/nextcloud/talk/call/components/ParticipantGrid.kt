@@ -31,6 +31,7 @@ import org.webrtc.EglBase
 import kotlin.math.ceil
 import android.util.Log
 import com.nextcloud.talk.activities.ParticipantUiState
+import com.nextcloud.talk.call.VideoSinkController
 
 @SuppressLint("UnusedBoxWithConstraintsScope")
 @Suppress("LongParameterList", "LongMethod")
@@ -41,7 +42,8 @@ fun ParticipantGrid(
     participantUiStates: List<ParticipantUiState>,
     isVoiceOnlyCall: Boolean,
     onClick: () -> Unit,
-    onScreenShareIconClick: ((String?) -> Unit?)?
+    onScreenShareIconClick: ((String?) -> Unit?)?,
+    videoSinkController: VideoSinkController? = null
 ) {
     Log.d("ParticipantGrid", "participantUiStates.size in Grid:" + participantUiStates.size)
 
@@ -121,7 +123,8 @@ fun ParticipantGrid(
                         .fillMaxWidth(),
                     eglBase = eglBase,
                     isVoiceOnlyCall = isVoiceOnlyCall,
-                    onScreenShareIconClick = onScreenShareIconClick
+                    onScreenShareIconClick = onScreenShareIconClick,
+                    videoSinkController = videoSinkController
                 )
             }
         }
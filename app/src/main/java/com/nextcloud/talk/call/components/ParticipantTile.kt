@@ -39,6 +39,7 @@ import androidx.compose.ui.unit.dp
 import androidx.compose.ui.unit.min
 import com.nextcloud.talk.R
 import com.nextcloud.talk.activities.ParticipantUiState
+import com.nextcloud.talk.call.VideoSinkController
 import com.nextcloud.talk.utils.ColorGenerator
 import org.webrtc.EglBase
 import kotlin.String
@@ -55,7 +56,8 @@ fun ParticipantTile(
     eglBase: EglBase?,
     modifier: Modifier = Modifier,
     isVoiceOnlyCall: Boolean,
-    onScreenShareIconClick: ((String?) -> Unit?)?
+    onScreenShareIconClick: ((String?) -> Unit?)?,
+    videoSinkController: VideoSinkController? = null
 ) {
     val displayName = if (participantUiState.nick.isNullOrEmpty()) {
         stringResource(R.string.nc_nick_guest)
@@ -73,7 +75,12 @@ fun ParticipantTile(
         val avatarSize = min(maxWidth, maxHeight) * AVATAR_SIZE_FACTOR
 
         if (!isVoiceOnlyCall && participantUiState.isStreamEnabled && participantUiState.mediaStream != null) {
-            WebRTCVideoView(participantUiState.mediaStream, eglBase)
+            WebRTCVideoView(
+                mediaStream = participantUiState.mediaStream,
+                eglBase = eglBase,
+                sessionId = participantUiState.sessionKey,
+                videoSinkController = videoSinkController
+            )
         } else {
             AvatarWithFallback(
                 participant = participantUiState,
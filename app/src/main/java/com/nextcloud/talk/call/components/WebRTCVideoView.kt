@@ -10,26 +10,83 @@ package com.nextcloud.talk.call.components
 import androidx.compose.foundation.layout.fillMaxSize
 import androidx.compose.runtime.Composable
 import androidx.compose.ui.Modifier
+import androidx.compose.ui.layout.LayoutCoordinates
+import androidx.compose.ui.layout.boundsInWindow
+import androidx.compose.ui.layout.onGloballyPositioned
 import androidx.compose.ui.viewinterop.AndroidView
+import com.nextcloud.talk.call.VideoSinkController
+import com.nextcloud.talk.call.VideoTileState
+import com.nextcloud.talk.call.VideoTrackSink
 import org.webrtc.EglBase
 import org.webrtc.MediaStream
 import org.webrtc.SurfaceViewRenderer
+import org.webrtc.VideoSink
 
+/**
+ * Renders the video of [mediaStream]. With a [videoSinkController] the video is only rendered while the view is
+ * visible, see [VideoSinkController], otherwise for as long as the view exists.
+ */
 @Composable
-fun WebRTCVideoView(mediaStream: MediaStream, eglBase: EglBase?) {
+fun WebRTCVideoView(
+    mediaStream: MediaStream,
+    eglBase: EglBase?,
+    sessionId: String? = null,
+    videoSinkController: VideoSinkController? = null
+) {
+    val controller = if (sessionId != null) videoSinkController else null
+
     AndroidView(
         factory = { context ->
             SurfaceViewRenderer(context).apply {
                 init(eglBase?.eglBaseContext, null)
                 setEnableHardwareScaler(true)
                 setMirror(false)
-                mediaStream.videoTracks?.firstOrNull()?.addSink(this)
+                val sink = MediaStreamVideoSink(mediaStream, this)
+                tag = sink
+                if (controller != null) {
+                    controller.bind(sessionId!!, sink)
+                } else {
+                    sink.attach()
+                }
             }
         },
-        modifier = Modifier.fillMaxSize(),
+        modifier = if (controller != null) {
+            Modifier
+                .fillMaxSize()
+                .onGloballyPositioned { controller.update(sessionId!!, it.toVideoTileState()) }
+        } else {
+            Modifier.fillMaxSize()
+        },
         onRelease = {
-            mediaStream.videoTracks?.firstOrNull()?.removeSink(it)
+            val sink = it.tag as VideoTrackSink
+            if (controller != null) {
+                controller.unbind(sessionId!!, sink)
+            } else {
+                sink.detach()
+            }
             it.release()
         }
     )
 }
+
+private fun LayoutCoordinates.toVideoTileState(): VideoTileState {
+    // the bounds in the window are clipped by the grid and the window, so they are empty for tiles off screen
+    val visibleBounds = boundsInWindow()
+    return VideoTileState(
+        isVisible = isAttached && visibleBounds.width > 0f && visibleBounds.height > 0f,
+        widthPx = size.width,
+        heightPx = size.height
+    )
+}
+
+private class MediaStreamVideoSink(private val mediaStream: MediaStream, private val sink: VideoSink) :
+    VideoTrackSink {
+
+    override fun attach() {
+        mediaStream.videoTracks?.firstOrNull()?.addSink(sink)
+    }
+
+    override fun detach() {
+        mediaStream.videoTracks?.firstOrNull()?.removeSink(sink)
+    }
+}
@@ -132,6 +132,7 @@ import com.nextcloud.talk.conversationinfo.viewmodel.ConversationInfoViewModel
 import com.nextcloud.talk.conversationlist.ConversationsListActivity
 import com.nextcloud.talk.dagger.modules.ViewModelFactoryWithParams
 import com.nextcloud.talk.data.database.model.SendStatus
+import com.nextcloud.talk.data.database.retention.ChatCacheRetention
 import com.nextcloud.talk.data.network.NetworkMonitor
 import com.nextcloud.talk.data.user.model.User
 import com.nextcloud.talk.databinding.ActivityChatBinding
@@ -150,6 +151,8 @@ import com.nextcloud.talk.models.json.conversations.ConversationEnums
 import com.nextcloud.talk.models.json.participants.Participant
 import com.nextcloud.talk.models.json.signaling.settings.SignalingSettingsOverall
 import com.nextcloud.talk.models.json.threads.ThreadInfo
+import com.nextcloud.talk.participants.ParticipantStore
+import com.nextcloud.talk.participants.ParticipantStoreUpdater
 import com.nextcloud.talk.polls.ui.PollCreateDialogFragment
 import com.nextcloud.talk.polls.ui.PollMainDialogFragment
 import com.nextcloud.talk.remotefilebrowser.activities.RemoteFileBrowserActivity
@@ -199,6 +202,7 @@ import com.nextcloud.talk.utils.ParticipantPermissions
 import com.nextcloud.talk.utils.SpreedFeatures
 import com.nextcloud.talk.utils.UriUtils
 import com.nextcloud.talk.utils.VibrationUtils
+import com.nextcloud.talk.utils.WaveformCache
 import com.nextcloud.talk.utils.bundle.BundleKeys
 import com.nextcloud.talk.utils.bundle.BundleKeys.KEY_CALL_VOICE_ONLY
 import com.nextcloud.talk.utils.bundle.BundleKeys.KEY_CONVERSATION_NAME
@@ -240,8 +244,6 @@ import kotlinx.coroutines.flow.onEach
 import kotlinx.coroutines.isActive
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.withContext
-import org.greenrobot.eventbus.Subscribe
-import org.greenrobot.eventbus.ThreadMode
 import java.io.File
 import java.io.IOException
 import java.net.HttpURLConnection
@@ -290,6 +292,12 @@ class ChatActivity :
     @Inject
     lateinit var chatViewModelFactory: ChatViewModel.ChatViewModelFactory
 
+    @Inject
+    lateinit var participantStore: ParticipantStore
+
+    @Inject
+    lateinit var chatCacheRetention: ChatCacheRetention
+
     val chatViewModel: ChatViewModel by viewModels {
         ViewModelFactoryWithParams(ChatViewModel::class.java) {
             chatViewModelFactory.build(
@@ -509,7 +517,11 @@ class ChatActivity :
 
     private lateinit var messageInputFragment: MessageInputFragment
 
-    val typingParticipants = HashMap<String, TypingParticipant>()
+    private val typingParticipants by lazy {
+        TypingParticipants(lifecycleScope) { names -> typingParticipantNames = names }
+    }
+
+    var typingSignalDispatcher: TypingSignalDispatcher? = null
 
     private val localParticipantMessageListener = SignalingMessageReceiver.LocalParticipantMessageListener { token ->
         if (CallActivity.active) {
@@ -523,40 +535,29 @@ class ChatActivity :
         }
     }
 
+    private val participantStoreUpdater by lazy {
+        ParticipantStoreUpdater(participantStore, conversationUser, roomToken, lifecycleScope)
+    }
+
     private val conversationMessageListener = object : SignalingMessageReceiver.ConversationMessageListener {
         override fun onStartTyping(userId: String?, session: String?) {
-            val userIdOrGuestSession = userId ?: session
+            val userIdOrGuestSession = userId ?: session ?: return
 
             if (isTypingStatusEnabled() && conversationUser.userId != userIdOrGuestSession) {
-                var displayName = webSocketInstance?.getDisplayNameForSession(session)
-
-                if (displayName != null && !typingParticipants.contains(userIdOrGuestSession)) {
-                    if (displayName == "") {
-                        displayName = context.resources?.getString(R.string.nc_guest)!!
-                    }
-
-                    runOnUiThread {
-                        val typingParticipant = TypingParticipant(userIdOrGuestSession!!, displayName) {
-                            typingParticipants.remove(userIdOrGuestSession)
-                            updateTypingIndicator()
-                        }
-
-                        typingParticipants[userIdOrGuestSession] = typingParticipant
-                        updateTypingIndicator()
-                    }
-                } else if (typingParticipants.contains(userIdOrGuestSession)) {
-                    typingParticipants[userIdOrGuestSession]?.restartTimer()
+                var displayName = webSocketInstance?.getDisplayNameForSession(session) ?: return
+                if (displayName == "") {
+                    displayName = context.resources?.getString(R.string.nc_guest)!!
                 }
+
+                runOnUiThread { typingParticipants.onStartTyping(userIdOrGuestSession, displayName) }
             }
         }
 
         override fun onStopTyping(userId: String?, session: String?) {
-            val userIdOrGuestSession = userId ?: session
+            val userIdOrGuestSession = userId ?: session ?: return
 
             if (isTypingStatusEnabled() && conversationUser.userId != userId) {
-                typingParticipants[userIdOrGuestSession]?.cancelTimer()
-                typingParticipants.remove(userIdOrGuestSession)
-                updateTypingIndicator()
+                runOnUiThread { typingParticipants.onStopTyping(userIdOrGuestSession) }
             }
         }
 
@@ -627,6 +628,7 @@ class ChatActivity :
                         urlForChatting,
                         conversationThreadId
                     )
+                    chatCacheRetention.markOpened(user.id!!, roomToken)
 
                     conversationThreadId?.let {
                         val threadUrl = ApiUtils.getUrlForThread(
@@ -1125,14 +1127,18 @@ class ChatActivity :
         fun setUpWaveform(message: ChatMessage, file: File) {
             if (message.voiceMessageFloatArray != null) return
 
-            val filename = message.fileParameters.name
+            val cacheKey = WaveformCache.key(conversationUser.id!!, message.fileParameters.id)
             message.isDownloadingVoiceMessage = true
 
             chatViewModel.syncVoiceMessageUiState(message)
 
             CoroutineScope(Dispatchers.Default).launch {
-                val waveform = AudioUtils.audioFileToFloatArray(file)
-                appPreferences.saveWaveFormForFile(filename, waveform.toTypedArray())
+                val waveform = WaveformCache.get(context, cacheKey)
+                    ?: AudioUtils.audioFileToFloatArray(file).also { decoded ->
+                        if (decoded.any { it > 0f }) {
+                            WaveformCache.put(context, cacheKey, decoded)
+                        }
+                    }
                 message.voiceMessageFloatArray = waveform
 
                 withContext(Dispatchers.Main) {
@@ -2022,6 +2028,7 @@ class ChatActivity :
 
         webSocketInstance?.getSignalingMessageReceiver()?.addListener(localParticipantMessageListener)
         webSocketInstance?.getSignalingMessageReceiver()?.addListener(conversationMessageListener)
+        webSocketInstance?.getSignalingMessageReceiver()?.addListener(participantStoreUpdater)
 
         cancelNotificationsForCurrentConversation()
 
@@ -2067,11 +2074,6 @@ class ChatActivity :
         }
     }
 
-    private fun updateTypingIndicator() {
-        val names = typingParticipants.values.map { it.name }
-        runOnUiThread { typingParticipantNames = names }
-    }
-
     private fun isTypingStatusEnabled(): Boolean =
         webSocketInstance != null &&
             !CapabilitiesUtil.isTypingStatusPrivate(conversationUser!!)
@@ -2921,10 +2923,11 @@ class ChatActivity :
 
         logConversationInfos("onPause")
 
-        eventBus.unregister(this)
+        unregisterEventSubscriptions()
 
         webSocketInstance?.getSignalingMessageReceiver()?.removeListener(localParticipantMessageListener)
         webSocketInstance?.getSignalingMessageReceiver()?.removeListener(conversationMessageListener)
+        webSocketInstance?.getSignalingMessageReceiver()?.removeListener(participantStoreUpdater)
 
         findViewById<View>(R.id.toolbar)?.setOnClickListener(null)
 
@@ -3091,8 +3094,10 @@ class ChatActivity :
                         }
 
                         signalingMessageSender = webSocketInstance?.signalingMessageSender
+                        typingSignalDispatcher = webSocketInstance?.let { TypingSignalDispatcher.forWebSocket(it) }
                         webSocketInstance?.getSignalingMessageReceiver()?.addListener(localParticipantMessageListener)
                         webSocketInstance?.getSignalingMessageReceiver()?.addListener(conversationMessageListener)
+                        webSocketInstance?.getSignalingMessageReceiver()?.addListener(participantStoreUpdater)
                     }
 
                     override fun onError(e: Throwable) {
@@ -3114,8 +3119,10 @@ class ChatActivity :
                 )
 
                 signalingMessageSender = webSocketInstance?.signalingMessageSender
+                typingSignalDispatcher = TypingSignalDispatcher.forWebSocket(webSocketInstance!!)
                 webSocketInstance?.getSignalingMessageReceiver()?.addListener(localParticipantMessageListener)
                 webSocketInstance?.getSignalingMessageReceiver()?.addListener(conversationMessageListener)
+                webSocketInstance?.getSignalingMessageReceiver()?.addListener(participantStoreUpdater)
             } else {
                 Log.d(TAG, "webSocketInstance not set up. This is only expected when not using the HPB")
             }
@@ -3621,13 +3628,14 @@ class ChatActivity :
             token = roomToken,
             messageId = message.jsonMessageId.toString()
         )
+        val messageId = message.jsonMessageId.toLong()
         binding.genericComposeView.apply {
             val shouldDismiss = mutableStateOf(false)
             setContent {
                 GetPinnedOptionsDialog(shouldDismiss, context, viewThemeUtils) { zonedDateTime ->
                     zonedDateTime?.let {
-                        chatViewModel.pinMessage(credentials!!, url, pinUntil = zonedDateTime.toEpochSecond().toInt())
-                    } ?: chatViewModel.pinMessage(credentials!!, url)
+                        chatViewModel.pinMessage(credentials!!, url, messageId, zonedDateTime.toEpochSecond().toInt())
+                    } ?: chatViewModel.pinMessage(credentials!!, url, messageId)
 
                     shouldDismiss.value = true
                 }
@@ -3642,7 +3650,7 @@ class ChatActivity :
             token = roomToken,
             messageId = message.jsonMessageId.toString()
         )
-        chatViewModel.unPinMessage(credentials!!, url)
+        chatViewModel.unPinMessage(credentials!!, url, message.jsonMessageId.toLong())
     }
 
     private fun markAsRead(messageId: Int) {
@@ -3697,6 +3705,11 @@ class ChatActivity :
     fun translateMessage(message: ChatMessage?) {
         val bundle = Bundle()
         bundle.putString(BundleKeys.KEY_TRANSLATE_MESSAGE, message?.getRichText())
+        if (message != null) {
+            bundle.putString(BundleKeys.KEY_ROOM_TOKEN, roomToken)
+            bundle.putString(BundleKeys.KEY_MESSAGE_ID, message.jsonMessageId.toString())
+            bundle.putLong(BundleKeys.KEY_LAST_EDIT_TIMESTAMP, message.lastEditTimestamp ?: 0)
+        }
 
         val intent = Intent(this, TranslateActivity::class.java)
         intent.putExtras(bundle)
@@ -3977,7 +3990,12 @@ class ChatActivity :
         return isUserAllowedByPrivileges
     }
 
-    @Subscribe(threadMode = ThreadMode.BACKGROUND)
+    override fun subscribeEvents() {
+        super.subscribeEvents()
+        subscribeEvent(WebSocketCommunicationEvent::class.java, Dispatchers.IO) { onMessageEvent(it) }
+        subscribeEvent(UserMentionClickEvent::class.java, Dispatchers.Main.immediate) { onMessageEvent(it) }
+    }
+
     fun onMessageEvent(webSocketCommunicationEvent: WebSocketCommunicationEvent) {
         when (webSocketCommunicationEvent.type) {
             "roomUpdated" -> {
@@ -3991,7 +4009,6 @@ class ChatActivity :
         }
     }
 
-    @Subscribe(threadMode = ThreadMode.MAIN)
     fun onMessageEvent(userMentionClickEvent: UserMentionClickEvent) {
         if (currentConversation?.type != ConversationEnums.ConversationType.ROOM_TYPE_ONE_TO_ONE_CALL ||
             currentConversation?.name != userMentionClickEvent.userId
@@ -0,0 +1,129 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.chat
+
+import android.util.Log
+import com.nextcloud.talk.models.json.mention.Mention
+import com.nextcloud.talk.models.json.participants.Participant
+import io.reactivex.Observable
+import io.reactivex.Scheduler
+import io.reactivex.android.schedulers.AndroidSchedulers
+import io.reactivex.disposables.Disposable
+import io.reactivex.schedulers.Schedulers
+import java.util.concurrent.TimeUnit
+
+/**
+ * Mention suggestions for one conversation.
+ *
+ * Each query is answered right away from a [MentionPrefixIndex] over the known participants and the mentions the
+ * server suggested before. The server is asked as well, as it also knows groups, teams and participants that were
+ * not seen yet, but only once the query did not change for [debounceMillis]. A new query cancels the pending or
+ * running request of the previous one, so responses can not arrive out of order. Server answers are cached per
+ * query, so deleting characters does not ask the server again.
+ */
+@Suppress("LongParameterList")
+class MentionAutocompleteEngine @JvmOverloads constructor(
+    private val remoteSuggestions: (String) -> Observable<List<Mention>>,
+    private val onSuggestions: (List<Mention>) -> Unit,
+    private val limit: Int = DEFAULT_LIMIT,
+    private val debounceMillis: Long = DEBOUNCE_MILLIS,
+    private val timerScheduler: Scheduler = Schedulers.computation(),
+    private val resultScheduler: Scheduler = AndroidSchedulers.mainThread()
+) {
+
+    private val index = MentionPrefixIndex()
+    private val remoteResults = object : LinkedHashMap<String, List<Mention>>(REMOTE_CACHE_SIZE, LOAD_FACTOR, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, List<Mention>>?): Boolean =
+            size > REMOTE_CACHE_SIZE
+    }
+    private var remoteRequest: Disposable? = null
+    private var currentQuery: String? = null
+
+    fun addKnownMentions(mentions: Collection<Mention>) {
+        index.addAll(mentions)
+    }
+
+    fun query(query: String) {
+        currentQuery = query
+        remoteRequest?.dispose()
+
+        val cached = remoteResults[query]
+        if (cached != null) {
+            onSuggestions(merge(cached, index.find(query, limit)))
+            return
+        }
+        onSuggestions(index.find(query, limit))
+
+        remoteRequest = Observable.timer(debounceMillis, TimeUnit.MILLISECONDS, timerScheduler)
+            .flatMap { remoteSuggestions(query) }
+            .observeOn(resultScheduler)
+            .subscribe(
+                { mentions -> onRemoteSuggestions(query, mentions) },
+                { e -> Log.e(TAG, "failed to get mention suggestions", e) }
+            )
+    }
+
+    /**
+     * Cancels the pending server request, e.g. because the suggestions are no longer shown.
+     */
+    fun cancel() {
+        currentQuery = null
+        remoteRequest?.dispose()
+        remoteRequest = null
+    }
+
+    private fun onRemoteSuggestions(query: String, mentions: List<Mention>) {
+        remoteResults[query] = mentions
+        index.addAll(mentions)
+        if (query == currentQuery) {
+            onSuggestions(merge(mentions, index.find(query, limit)))
+        }
+    }
+
+    /**
+     * The server suggestions in the order of the server, followed by the local ones the server did not return.
+     */
+    private fun merge(remote: List<Mention>, local: List<Mention>): List<Mention> {
+        val merged = LinkedHashMap<String, Mention>()
+        (remote + local).forEach { mention ->
+            MentionPrefixIndex.identityOf(mention)?.let { merged.putIfAbsent(it, mention) }
+        }
+        return merged.values.take(maxOf(limit, remote.size))
+    }
+
+    companion object {
+        private val TAG = MentionAutocompleteEngine::class.java.simpleName
+        const val DEFAULT_LIMIT = 5
+        const val DEBOUNCE_MILLIS = 250L
+        private const val REMOTE_CACHE_SIZE = 32
+        private const val LOAD_FACTOR = 0.75f
+        private const val SOURCE_USERS = "users"
+
+        /**
+         * Mentions for the participants of a conversation that are users, except [ownUserId].
+         */
+        fun mentionsOf(participants: List<Participant>, ownUserId: String?, roomToken: String?): List<Mention> =
+            participants.mapNotNull { participant ->
+                val actorId = participant.actorId
+                if (participant.actorType != Participant.ActorType.USERS || actorId == null || actorId == ownUserId) {
+                    null
+                } else {
+                    Mention(
+                        mentionId = null,
+                        id = actorId,
+                        label = participant.displayName.orEmpty(),
+                        source = SOURCE_USERS,
+                        status = participant.status,
+                        statusIcon = participant.statusIcon,
+                        statusMessage = participant.statusMessage,
+                        roomToken = roomToken
+                    )
+                }
+            }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.chat
+
+import com.nextcloud.talk.models.json.mention.Mention
+import java.util.Locale
+
+/**
+ * Prefix index over the mentions known for a conversation.
+ *
+ * Every mention is indexed under its id, its full label and each word of its label, so "ali" finds "Alice Smith"
+ * and "smi" does too. The keys are kept in a sorted array, a lookup is a binary search for the first key with the
+ * prefix followed by a scan over the matching keys.
+ */
+class MentionPrefixIndex {
+
+    private val mentions = LinkedHashMap<String, Mention>()
+    private var keys: Array<String> = emptyArray()
+    private var entries: Array<Mention> = emptyArray()
+
+    val size: Int
+        get() = mentions.size
+
+    /**
+     * Adds [newMentions] to the index, replacing known mentions with the same source and id.
+     */
+    fun addAll(newMentions: Collection<Mention>) {
+        var changed = false
+        for (mention in newMentions) {
+            val identity = identityOf(mention) ?: continue
+            if (mentions[identity] != mention) {
+                mentions[identity] = mention
+                changed = true
+            }
+        }
+        if (changed) {
+            rebuild()
+        }
+    }
+
+    /**
+     * Returns up to [limit] mentions with a key starting with [prefix], in key order. An empty prefix matches all
+     * mentions.
+     */
+    fun find(prefix: String, limit: Int): List<Mention> {
+        val normalizedPrefix = normalize(prefix)
+        val result = LinkedHashMap<String, Mention>()
+        var position = lowerBound(normalizedPrefix)
+        while (position < keys.size && result.size < limit && keys[position].startsWith(normalizedPrefix)) {
+            val mention = entries[position]
+            result.putIfAbsent(identityOf(mention)!!, mention)
+            position++
+        }
+        return result.values.toList()
+    }
+
+    private fun rebuild() {
+        val indexed = mentions.values.flatMap { mention ->
+            keysOf(mention).map { key -> key to mention }
+        }.sortedBy { it.first }
+        keys = Array(indexed.size) { indexed[it].first }
+        entries = Array(indexed.size) { indexed[it].second }
+    }
+
+    private fun lowerBound(prefix: String): Int {
+        var low = 0
+        var high = keys.size
+        while (low < high) {
+            val middle = (low + high) ushr 1
+            if (keys[middle] < prefix) {
+                low = middle + 1
+            } else {
+                high = middle
+            }
+        }
+        return low
+    }
+
+    private fun keysOf(mention: Mention): Set<String> {
+        val label = normalize(mention.label.orEmpty())
+        return buildSet {
+            mention.id?.let { add(normalize(it)) }
+            if (label.isNotEmpty()) {
+                add(label)
+                label.split(WHITESPACE).filter { it.isNotEmpty() }.forEach { add(it) }
+            }
+        }
+    }
+
+    companion object {
+        private val WHITESPACE = Regex("\\s+")
+
+        private fun normalize(value: String): String = value.trim().lowercase(Locale.ROOT)
+
+        fun identityOf(mention: Mention): String? = mention.id?.let { "${mention.source}/$it" }
+    }
+}
@@ -65,7 +65,6 @@ import com.nextcloud.talk.jobs.UploadAndShareFilesWorker
 import com.nextcloud.talk.models.json.capabilities.SpreedCapability
 import com.nextcloud.talk.models.json.chat.ChatUtils
 import com.nextcloud.talk.models.json.mention.Mention
-import com.nextcloud.talk.models.json.signaling.NCSignalingMessage
 import com.nextcloud.talk.presenters.MentionAutocompletePresenter
 import com.nextcloud.talk.ui.CallStartedBanner
 import com.nextcloud.talk.ui.MicInputCloud
@@ -845,15 +844,7 @@ class MessageInputFragment : Fragment() {
 
     fun updateOwnTypingStatus(typedText: CharSequence) {
         fun sendStartTypingSignalingMessage() {
-            val concurrentSafeHashMap = chatActivity.webSocketInstance?.getUserMap()
-            if (concurrentSafeHashMap != null) {
-                for ((sessionId, _) in concurrentSafeHashMap) {
-                    val ncSignalingMessage = NCSignalingMessage()
-                    ncSignalingMessage.to = sessionId
-                    ncSignalingMessage.type = TYPING_STARTED_SIGNALING_MESSAGE_TYPE
-                    chatActivity.signalingMessageSender!!.send(ncSignalingMessage)
-                }
-            }
+            chatActivity.typingSignalDispatcher?.sendStartedTyping()
         }
 
         if (isTypingStatusEnabled()) {
@@ -892,15 +883,7 @@ class MessageInputFragment : Fragment() {
             typingTimer = null
             typedWhileTypingTimerIsRunning = false
 
-            val concurrentSafeHashMap = chatActivity.webSocketInstance?.getUserMap()
-            if (concurrentSafeHashMap != null) {
-                for ((sessionId, _) in concurrentSafeHashMap) {
-                    val ncSignalingMessage = NCSignalingMessage()
-                    ncSignalingMessage.to = sessionId
-                    ncSignalingMessage.type = TYPING_STOPPED_SIGNALING_MESSAGE_TYPE
-                    chatActivity.signalingMessageSender?.send(ncSignalingMessage)
-                }
-            }
+            chatActivity.typingSignalDispatcher?.sendStoppedTyping()
         }
     }
 
@@ -1041,7 +1024,10 @@ class MessageInputFragment : Fragment() {
                     token = chatActivity.roomToken,
                     messageId = message.jsonMessageId.toString()
                 ),
-                editedMessageText
+                editedMessageText,
+                chatActivity.conversationUser!!.id!!,
+                chatActivity.roomToken,
+                message.jsonMessageId.toLong()
             )
         }
     }
@@ -1172,8 +1158,6 @@ class MessageInputFragment : Fragment() {
         private val TAG: String = MessageInputFragment::class.java.simpleName
         private const val TYPING_DURATION_TO_SEND_NEXT_TYPING_MESSAGE = 10000L
         private const val TYPING_INTERVAL_TO_SEND_NEXT_TYPING_MESSAGE = 1000L
-        private const val TYPING_STARTED_SIGNALING_MESSAGE_TYPE = "startedTyping"
-        private const val TYPING_STOPPED_SIGNALING_MESSAGE_TYPE = "stoppedTyping"
         private const val QUOTED_MESSAGE_IMAGE_MAX_HEIGHT = 96f
         private const val MENTION_AUTO_COMPLETE_ELEVATION = 6f
         private const val MINIMUM_VOICE_RECORD_DURATION: Int = 1000
@@ -0,0 +1,97 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package com.nextcloud.talk.chat
+
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+
+/**
+ * The participants currently typing in the conversation.
+ *
+ * A participant is shown until it stops typing or [TYPING_DURATION_TO_HIDE_TYPING_MESSAGE] passed since its last
+ * typing signal. All deadlines share one expiry job in [scope], which wakes up at the earliest deadline.
+ *
+ * Not thread safe, all functions must be called on the thread of [scope].
+ */
+class TypingParticipants(
+    private val scope: CoroutineScope,
+    private val clock: () -> Long = System::currentTimeMillis,
+    private val onChanged: (names: List<String>) -> Unit
+) {
+
+    private class Typist(val name: String, var deadline: Long)
+
+    private val typists = LinkedHashMap<String, Typist>()
+    private var expiryJob: Job? = null
+    private var expiryScheduledAt = Long.MAX_VALUE
+
+    val names: List<String>
+        get() = typists.values.map { it.name }
+
+    operator fun contains(userIdOrGuestSession: String): Boolean = typists.containsKey(userIdOrGuestSession)
+
+    fun onStartTyping(userIdOrGuestSession: String, name: String) {
+        val deadline = clock() + TYPING_DURATION_TO_HIDE_TYPING_MESSAGE
+        val typist = typists[userIdOrGuestSession]
+        if (typist != null) {
+            typist.deadline = deadline
+        } else {
+            typists[userIdOrGuestSession] = Typist(name, deadline)
+            onChanged(names)
+        }
+        scheduleExpiry(deadline)
+    }
+
+    fun onStopTyping(userIdOrGuestSession: String) {
+        if (typists.remove(userIdOrGuestSession) != null) {
+            onChanged(names)
+        }
+    }
+
+    fun clear() {
+        expiryJob?.cancel()
+        expiryJob = null
+        expiryScheduledAt = Long.MAX_VALUE
+        if (typists.isNotEmpty()) {
+            typists.clear()
+            onChanged(names)
+        }
+    }
+
+    /**
+     * Refreshing a typist only moves its deadline later, so a job that wakes up earlier is kept. It looks for the
+     * next deadline when it wakes up.
+     */
+    private fun scheduleExpiry(deadline: Long) {
+        if (expiryJob?.isActive == true && expiryScheduledAt <= deadline) {
+            return
+        }
+        expiryJob?.cancel()
+        expiryScheduledAt = deadline
+        expiryJob = scope.launch {
+            delay(deadline - clock())
+            expire()
+        }
+    }
+
+    private fun expire() {
+        expiryJob = null
+        expiryScheduledAt = Long.MAX_VALUE
+
+        val now = clock()
+        if (typists.values.removeAll { it.deadline <= now }) {
+            onChanged(names)
+        }
+        typists.values.minOfOrNull { it.deadline }?.let { scheduleExpiry(it) }
+    }
+
+    companion object {
+        const val TYPING_DURATION_TO_HIDE_TYPING_MESSAGE = 15000L
+    }
+}
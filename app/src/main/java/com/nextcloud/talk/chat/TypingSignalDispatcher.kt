@@ -0,0 +1,87 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package com.nextcloud.talk.chat
+
+import com.nextcloud.talk.models.json.signaling.NCSignalingMessage
+import com.nextcloud.talk.webrtc.WebSocketInstance
+
+/**
+ * Tells the other participants of the conversation that the user started or stopped typing.
+ *
+ * If the signaling server accepts messages addressed to the room, a single message reaches everyone. Otherwise one
+ * message per session is sent, to at most [maxUnicastRecipients] sessions. A stop is only sent after a start.
+ */
+class TypingSignalDispatcher(
+    private val transport: Transport,
+    private val maxUnicastRecipients: Int = MAX_UNICAST_RECIPIENTS
+) {
+
+    interface Transport {
+        fun supportsRoomMessages(): Boolean
+
+        /**
+         * The sessions in the room, without the own one.
+         */
+        fun sessionIds(): Collection<String>
+
+        fun sendToRoom(ncSignalingMessage: NCSignalingMessage)
+
+        fun sendToSession(ncSignalingMessage: NCSignalingMessage)
+    }
+
+    private var typingAnnounced = false
+
+    fun sendStartedTyping() {
+        typingAnnounced = true
+        dispatch(TYPING_STARTED_SIGNALING_MESSAGE_TYPE)
+    }
+
+    fun sendStoppedTyping() {
+        if (typingAnnounced) {
+            typingAnnounced = false
+            dispatch(TYPING_STOPPED_SIGNALING_MESSAGE_TYPE)
+        }
+    }
+
+    private fun dispatch(type: String) {
+        if (transport.supportsRoomMessages()) {
+            transport.sendToRoom(NCSignalingMessage().also { it.type = type })
+            return
+        }
+
+        transport.sessionIds().take(maxUnicastRecipients).forEach { sessionId ->
+            val ncSignalingMessage = NCSignalingMessage()
+            ncSignalingMessage.to = sessionId
+            ncSignalingMessage.type = type
+            transport.sendToSession(ncSignalingMessage)
+        }
+    }
+
+    private class WebSocketTransport(private val webSocketInstance: WebSocketInstance) : Transport {
+        override fun supportsRoomMessages(): Boolean = webSocketInstance.supportsRoomMessages()
+
+        override fun sessionIds(): Collection<String> =
+            webSocketInstance.getUserMap().keys.filterNotNull().filter { it != webSocketInstance.sessionId }
+
+        override fun sendToRoom(ncSignalingMessage: NCSignalingMessage) {
+            webSocketInstance.signalingMessageSender.sendToRoom(ncSignalingMessage)
+        }
+
+        override fun sendToSession(ncSignalingMessage: NCSignalingMessage) {
+            webSocketInstance.signalingMessageSender.send(ncSignalingMessage)
+        }
+    }
+
+    companion object {
+        const val TYPING_STARTED_SIGNALING_MESSAGE_TYPE = "startedTyping"
+        const val TYPING_STOPPED_SIGNALING_MESSAGE_TYPE = "stoppedTyping"
+        private const val MAX_UNICAST_RECIPIENTS = 50
+
+        fun forWebSocket(webSocketInstance: WebSocketInstance): TypingSignalDispatcher =
+            TypingSignalDispatcher(WebSocketTransport(webSocketInstance))
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.chat.data
+
+import android.util.Log
+import com.nextcloud.talk.chat.data.network.OpenGraphSource
+import com.nextcloud.talk.data.database.dao.LinkPreviewsDao
+import com.nextcloud.talk.data.database.model.LinkPreviewEntity
+import com.nextcloud.talk.data.user.model.User
+import com.nextcloud.talk.models.json.opengraph.OpenGraphObject
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.CoroutineStart
+import kotlinx.coroutines.Deferred
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.withContext
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
+
+/**
+ * Link previews of chat messages.
+ *
+ * A preview is looked up in three layers: a bounded in-memory LRU, the LinkPreviews table and finally the reference
+ * API of the server. Concurrent lookups of the same link share one server request, which runs in [scope] so it is
+ * not cancelled when one of the waiting messages leaves the screen.
+ *
+ * Previews are kept for [PREVIEW_MAX_AGE_MILLIS]. That the server has no preview for a link is remembered for the
+ * shorter [MISSING_PREVIEW_MAX_AGE_MILLIS]. Failed requests are not remembered.
+ */
+class LinkPreviewRepository(
+    private val source: OpenGraphSource,
+    private val dao: LinkPreviewsDao,
+    private val scope: CoroutineScope,
+    private val ioDispatcher: CoroutineDispatcher = Dispatchers.IO,
+    private val clock: () -> Long = System::currentTimeMillis
+) {
+
+    private val inFlight = ConcurrentHashMap<String, Deferred<LinkPreviewEntity?>>()
+
+    private val memoryCache = object : LinkedHashMap<String, LinkPreviewEntity>(MEMORY_CACHE_SIZE, LOAD_FACTOR, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, LinkPreviewEntity>?): Boolean =
+            size > MEMORY_CACHE_SIZE
+    }
+
+    suspend fun getLinkPreview(user: User, url: String): OpenGraphObject? {
+        val accountId = user.id ?: return null
+        val key = "$accountId/$url"
+
+        val cached = synchronized(memoryCache) { memoryCache[key] }
+        val entity = if (cached != null && isFresh(cached)) {
+            cached
+        } else {
+            val created = scope.async(start = CoroutineStart.LAZY) { load(user, accountId, url) }
+            created.invokeOnCompletion { inFlight.remove(key, created) }
+            val existing = inFlight.putIfAbsent(key, created)
+            if (existing != null) {
+                created.cancel()
+                existing
+            } else {
+                created.also { it.start() }
+            }.await()
+        }
+        return entity?.toOpenGraphObject()
+    }
+
+    private suspend fun load(user: User, accountId: Long, url: String): LinkPreviewEntity? {
+        val key = "$accountId/$url"
+        val stored = withContext(ioDispatcher) { dao.getLinkPreview(accountId, url) }
+        val entity = if (stored != null && isFresh(stored)) stored else fetch(user, accountId, url)
+        entity?.let { synchronized(memoryCache) { memoryCache[key] = it } }
+        return entity
+    }
+
+    @Suppress("Detekt.TooGenericExceptionCaught")
+    private suspend fun fetch(user: User, accountId: Long, url: String): LinkPreviewEntity? {
+        val openGraph = try {
+            withContext(ioDispatcher) { source.getOpenGraph(user, url) }
+        } catch (e: CancellationException) {
+            throw e
+        } catch (e: Exception) {
+            Log.w(TAG, "Could not load the link preview of $url", e)
+            return null
+        }
+
+        val now = clock()
+        val entity = if (openGraph != null) {
+            LinkPreviewEntity(
+                accountId = accountId,
+                url = url,
+                hasPreview = true,
+                referenceId = openGraph.id,
+                name = openGraph.name,
+                description = openGraph.description,
+                thumb = openGraph.thumb,
+                link = openGraph.link,
+                fetchedAt = now
+            )
+        } else {
+            LinkPreviewEntity(accountId = accountId, url = url, hasPreview = false, fetchedAt = now)
+        }
+        withContext(ioDispatcher) {
+            dao.upsertLinkPreview(entity)
+            dao.deleteLinkPreviewsOlderThan(now - PREVIEW_MAX_AGE_MILLIS)
+        }
+        return entity
+    }
+
+    private fun isFresh(entity: LinkPreviewEntity): Boolean {
+        val maxAge = if (entity.hasPreview) PREVIEW_MAX_AGE_MILLIS else MISSING_PREVIEW_MAX_AGE_MILLIS
+        return clock() - entity.fetchedAt < maxAge
+    }
+
+    private fun LinkPreviewEntity.toOpenGraphObject(): OpenGraphObject? =
+        if (hasPreview) OpenGraphObject(referenceId, name, description, thumb, link) else null
+
+    companion object {
+        private val TAG = LinkPreviewRepository::class.java.simpleName
+        private const val MEMORY_CACHE_SIZE = 100
+        private const val LOAD_FACTOR = 0.75f
+        val PREVIEW_MAX_AGE_MILLIS = TimeUnit.DAYS.toMillis(7)
+        val MISSING_PREVIEW_MAX_AGE_MILLIS = TimeUnit.HOURS.toMillis(1)
+    }
+}
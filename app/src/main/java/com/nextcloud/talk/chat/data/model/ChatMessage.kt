@@ -190,12 +190,14 @@ data class ChatMessage(
             return markdownUrl
         }
 
-        val text: CharSequence = StringBuffer(messageText)
-        val regexFromServer = serverReferenceRegex?.toRegex(regexOptions)
-        val serverMatch = regexFromServer?.find(text)?.groups?.get(0)?.value?.trim()
+        val serverMatch = serverReferenceRegex?.let { compiledServerReferenceRegex(it) }
+            ?.find(messageText)
+            ?.groups
+            ?.get(0)
+            ?.value
+            ?.trim()
 
-        return serverMatch ?: REGEX_STRING_DEFAULT.toRegex(regexOptions)
-            .find(text)
+        return serverMatch ?: DEFAULT_URL_REGEX.find(messageText)
             ?.groups
             ?.get(0)
             ?.value
@@ -347,5 +349,21 @@ data class ChatMessage(
 
         private const val REGEX_STRING_DEFAULT =
             """(\s|\n|^)(https?:\/\/)((?:[-A-Z0-9+_]+\.)+[-A-Z]+(?:\/[-A-Z0-9+&@#%?=~_|!:,.;()]*)*)(\s|\n|$)"""
+        private val DEFAULT_URL_REGEX = REGEX_STRING_DEFAULT.toRegex(regexOptions)
+
+        /**
+         * The reference regex of the server rarely changes, so the last compiled one is kept.
+         */
+        @Volatile
+        private var lastServerReferenceRegex: Pair<String, Regex>? = null
+
+        private fun compiledServerReferenceRegex(pattern: String): Regex {
+            lastServerReferenceRegex?.let { (lastPattern, regex) ->
+                if (lastPattern == pattern) {
+                    return regex
+                }
+            }
+            return pattern.toRegex(regexOptions).also { lastServerReferenceRegex = pattern to it }
+        }
     }
 }
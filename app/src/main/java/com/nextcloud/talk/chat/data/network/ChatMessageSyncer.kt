@@ -21,6 +21,7 @@ import com.nextcloud.talk.data.database.model.ChatMessageEntity
 import com.nextcloud.talk.data.network.NetworkMonitor
 import com.nextcloud.talk.data.user.model.User
 import com.nextcloud.talk.models.json.chat.ChatMessageJson
+import com.nextcloud.talk.shareditems.repositories.SharedItemsIndex
 import com.nextcloud.talk.utils.SpreedFeatures
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.delay
@@ -50,7 +51,8 @@ class ChatMessageSyncer @Inject constructor(
     private val chatBlocksDao: ChatBlocksDao,
     private val network: ChatNetworkDataSource,
     private val networkMonitor: NetworkMonitor,
-    private val conversationListUpdater: ConversationListUpdater
+    private val conversationListUpdater: ConversationListUpdater,
+    private val sharedItemsIndex: SharedItemsIndex
 ) {
 
     /**
@@ -804,6 +806,7 @@ class ChatMessageSyncer @Inject constructor(
             Log.w(TAG, "Skip persisting messages from signaling: conversation not in DB yet. Swallowed exception: $e")
             return emptyList()
         }
+        sharedItemsIndex.indexMessages(target.internalConversationId, chatMessageEntities)
 
         if (emitOnIncoming) {
             val hasIncomingFromOther = chatMessages.any { msg ->
@@ -857,6 +860,7 @@ class ChatMessageSyncer @Inject constructor(
                     // delete the messages and chatBlocks older than the system message.
                     chatDao.deleteMessagesOlderThan(target.internalConversationId, messageJson.id)
                     chatBlocksDao.deleteChatBlocksOlderThan(target.internalConversationId, messageJson.id)
+                    sharedItemsIndex.removeItemsOlderThan(target.internalConversationId, messageJson.id)
                 }
 
                 ChatMessage.SystemMessageType.LOBBY_NONE,
@@ -904,6 +908,7 @@ class ChatMessageSyncer @Inject constructor(
         }
 
         chatDao.upsertChatMessage(parentMessageEntity)
+        sharedItemsIndex.indexMessages(target.internalConversationId, listOf(parentMessageEntity))
     }
 
     /**
@@ -0,0 +1,205 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.chat.data.network
+
+import android.util.Log
+import com.nextcloud.talk.data.database.dao.ChatBlocksDao
+import com.nextcloud.talk.data.database.dao.ChatMessagesDao
+import com.nextcloud.talk.data.database.mappers.asEntity
+import com.nextcloud.talk.data.database.model.ChatBlockEntity
+import com.nextcloud.talk.data.database.model.ChatMessageEntity
+import kotlinx.coroutines.flow.first
+import javax.inject.Inject
+
+/**
+ * Resolves the context of a message, i.e. the message with up to `limit` messages before and after it, e.g. to jump to
+ * a search hit or a quoted reply.
+ *
+ * If a chat block containing the message is stored, the context is read from the database. Only the edges the block
+ * does not cover yet are fetched, and they are persisted and merged into the block, so the block grows with every
+ * jump. An edge counts as covered when the block holds `limit` messages on that side, when the block reaches the
+ * start of the chat or, for newer messages, when it is the newest block, which the chat's own sync keeps current.
+ * If the edges can not be fetched, e.g. when offline, the stored part of the context is returned.
+ *
+ * Without a block containing the message the whole context is fetched and persisted as a new block.
+ */
+class MessageContextLoader @Inject constructor(
+    private val chatDao: ChatMessagesDao,
+    private val chatBlocksDao: ChatBlocksDao,
+    private val network: ChatNetworkDataSource,
+    private val syncer: ChatMessageSyncer
+) {
+
+    /**
+     * Returns the context of [messageId] in [target], oldest message first. Outside of a thread the replies of
+     * threads are left out, like in the chat itself.
+     *
+     * A [contextThreadId] other than the one of [target], e.g. for a thread reply found by searching the whole
+     * conversation, is always fetched, as the blocks of [target] do not contain the messages of that thread.
+     */
+    suspend fun loadMessageContext(
+        target: ChatMessageSyncer.SyncTarget,
+        messageId: Long,
+        limit: Int,
+        contextThreadId: Long? = target.threadId,
+        events: ChatMessageSyncer.Events = ChatMessageSyncer.NO_EVENTS
+    ): List<ChatMessageEntity> {
+        if (contextThreadId != target.threadId) {
+            return fetchContext(target, messageId, limit, contextThreadId, events)
+        }
+        val block = getBlockContainingStoredMessage(target, messageId)
+            ?: return fetchContext(target, messageId, limit, contextThreadId, events)
+
+        val stored = readContext(target, block, messageId, limit)
+        val missingOlder = if (block.hasHistory) limit - stored.olderCount else 0
+        val missingNewer = if (isNewestBlock(target, block)) 0 else limit - stored.newerCount
+        if (missingOlder <= 0 && missingNewer <= 0) {
+            Log.d(TAG, "Context of $messageId read from block ${block.oldestMessageId}..${block.newestMessageId}")
+            return stored.messages
+        }
+
+        if (missingOlder > 0) {
+            fetchEdge(target, block.oldestMessageId, missingOlder, lookIntoFuture = false, events)
+        }
+        if (missingNewer > 0) {
+            fetchEdge(target, block.newestMessageId, missingNewer, lookIntoFuture = true, events)
+        }
+
+        val grownBlock = getBlockContainingStoredMessage(target, messageId) ?: block
+        return readContext(target, grownBlock, messageId, limit).messages
+    }
+
+    private suspend fun getBlockContainingStoredMessage(
+        target: ChatMessageSyncer.SyncTarget,
+        messageId: Long
+    ): ChatBlockEntity? {
+        val block = chatBlocksDao.getChatBlocksContainingMessageId(
+            internalConversationId = target.internalConversationId,
+            threadId = target.threadId,
+            messageId = messageId
+        ).first().firstOrNull() ?: return null
+
+        return block.takeIf { chatDao.getChatMessageEntity(target.internalConversationId, messageId) != null }
+    }
+
+    private suspend fun isNewestBlock(target: ChatMessageSyncer.SyncTarget, block: ChatBlockEntity): Boolean {
+        val newestBlock = chatBlocksDao.getLatestChatBlock(target.internalConversationId, target.threadId).first()
+        return newestBlock == null || block.newestMessageId >= newestBlock.newestMessageId
+    }
+
+    private suspend fun readContext(
+        target: ChatMessageSyncer.SyncTarget,
+        block: ChatBlockEntity,
+        messageId: Long,
+        limit: Int
+    ): StoredContext {
+        val olderAndMessage = chatDao.getMessagesOfRangeUpTo(
+            internalConversationId = target.internalConversationId,
+            threadId = target.threadId,
+            oldestMessageId = block.oldestMessageId,
+            messageId = messageId,
+            limit = limit + 1
+        )
+        val newer = chatDao.getMessagesOfRangeAfter(
+            internalConversationId = target.internalConversationId,
+            threadId = target.threadId,
+            messageId = messageId,
+            newestMessageId = block.newestMessageId,
+            limit = limit
+        )
+        return StoredContext(
+            messages = withoutThreadReplies(target, olderAndMessage.asReversed() + newer),
+            olderCount = olderAndMessage.size - 1,
+            newerCount = newer.size
+        )
+    }
+
+    private suspend fun fetchEdge(
+        target: ChatMessageSyncer.SyncTarget,
+        edgeMessageId: Long,
+        limit: Int,
+        lookIntoFuture: Boolean,
+        events: ChatMessageSyncer.Events
+    ) {
+        Log.d(TAG, "Fetching $limit message(s) ${if (lookIntoFuture) "after" else "before"} $edgeMessageId")
+        val outcome = syncer.pullAndPersistMessages(
+            target,
+            syncer.buildFieldMap(
+                lookIntoFuture = lookIntoFuture,
+                timeout = 0,
+                includeLastKnown = false,
+                lastKnown = edgeMessageId.toInt(),
+                limit = limit,
+                threadId = target.threadId
+            ),
+            events
+        )
+        if (outcome.syncFailed) {
+            Log.w(TAG, "Could not fetch the messages next to $edgeMessageId, using the stored context")
+        }
+    }
+
+    private suspend fun fetchContext(
+        target: ChatMessageSyncer.SyncTarget,
+        messageId: Long,
+        limit: Int,
+        contextThreadId: Long?,
+        events: ChatMessageSyncer.Events
+    ): List<ChatMessageEntity> {
+        Log.d(TAG, "Fetching the context of $messageId")
+        val messages = network.getContextForChatMessage(
+            credentials = target.credentials,
+            baseUrl = target.user.baseUrl!!,
+            token = target.roomToken,
+            messageId = messageId.toString(),
+            limit = limit,
+            threadId = contextThreadId?.toInt()
+        )
+
+        val filteredMessages = if (contextThreadId == null) {
+            messages.filter { !it.hasThread || it.threadId == it.id }
+        } else {
+            messages
+        }
+
+        require(filteredMessages.isNotEmpty()) { "No context messages returned" }
+
+        val persisted = syncer.persistChatMessagesAndHandleSystemMessages(target, filteredMessages, events = events)
+        if (persisted.isNotEmpty()) {
+            chatBlocksDao.upsertAndMergeConnectedChatBlocks(
+                ChatBlockEntity(
+                    internalConversationId = target.internalConversationId,
+                    accountId = target.accountId,
+                    token = target.roomToken,
+                    threadId = target.threadId,
+                    oldestMessageId = persisted.minOf { it.id },
+                    newestMessageId = persisted.maxOf { it.id },
+                    hasHistory = true
+                )
+            )
+        }
+
+        return filteredMessages.map { it.asEntity(target.accountId) }.sortedBy { it.id }
+    }
+
+    private fun withoutThreadReplies(
+        target: ChatMessageSyncer.SyncTarget,
+        messages: List<ChatMessageEntity>
+    ): List<ChatMessageEntity> =
+        if (target.threadId == null) {
+            messages.filter { !it.isThread || it.threadId == it.id }
+        } else {
+            messages
+        }
+
+    private class StoredContext(val messages: List<ChatMessageEntity>, val olderCount: Int, val newerCount: Int)
+
+    companion object {
+        private val TAG = MessageContextLoader::class.java.simpleName
+    }
+}
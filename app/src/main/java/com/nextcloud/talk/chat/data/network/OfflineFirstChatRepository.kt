@@ -17,12 +17,10 @@ import com.nextcloud.talk.data.database.dao.ChatBlocksDao
 import com.nextcloud.talk.data.database.dao.ChatMessagesDao
 import com.nextcloud.talk.data.database.mappers.asEntity
 import com.nextcloud.talk.data.database.mappers.toDomainModel
-import com.nextcloud.talk.data.database.model.ChatBlockEntity
 import com.nextcloud.talk.data.database.model.ChatMessageEntity
 import com.nextcloud.talk.data.database.model.SendStatus
 import com.nextcloud.talk.data.network.NetworkMonitor
 import com.nextcloud.talk.data.user.model.User
-import com.nextcloud.talk.extensions.toIntOrZero
 import com.nextcloud.talk.logger.Logger
 import com.nextcloud.talk.models.domain.ConversationModel
 import com.nextcloud.talk.models.json.chat.ChatMessageJson
@@ -30,6 +28,7 @@ import com.nextcloud.talk.models.json.chat.ChatOverallSingleMessage
 import com.nextcloud.talk.models.json.converters.EnumActorTypeConverter
 import com.nextcloud.talk.models.json.generic.GenericOverall
 import com.nextcloud.talk.models.json.participants.Participant
+import com.nextcloud.talk.outbox.Outbox
 import com.nextcloud.talk.utils.bundle.BundleKeys
 import com.nextcloud.talk.utils.message.SendMessageUtils
 import kotlinx.coroutines.delay
@@ -58,7 +57,9 @@ class OfflineFirstChatRepository @Inject constructor(
     private val network: ChatNetworkDataSource,
     private val networkMonitor: NetworkMonitor,
     private val syncer: ChatMessageSyncer,
-    private val conversationListUpdater: ConversationListUpdater
+    private val conversationListUpdater: ConversationListUpdater,
+    private val outbox: Outbox,
+    private val messageContextLoader: MessageContextLoader
 ) : ChatMessageRepository {
 
     lateinit var currentUser: User
@@ -464,41 +465,19 @@ class OfflineFirstChatRepository @Inject constructor(
         threadId: Long?
     ): Result<ChatMessageRepository.MessagesRange> =
         runCatching {
-            val messages = network.getContextForChatMessage(
-                credentials = credentials,
-                baseUrl = currentUser.baseUrl!!,
-                token = roomToken,
-                messageId = messageId.toString(),
+            val messages = messageContextLoader.loadMessageContext(
+                target = syncTarget,
+                messageId = messageId,
                 limit = limit,
-                threadId = threadId?.toInt()
+                contextThreadId = threadId,
+                events = syncEvents
             )
 
-            val filteredMessages = if (threadId == null) {
-                messages.filter { !it.hasThread || it.threadId == it.id }
-            } else {
-                messages
-            }
-
-            require(filteredMessages.isNotEmpty()) { "No context messages returned" }
-
-            val persisted = persistChatMessagesAndHandleSystemMessages(filteredMessages)
-            val oldestId = persisted.minOf { it.id }
-            val newestId = persisted.maxOf { it.id }
-
-            val block = ChatBlockEntity(
-                internalConversationId = internalConversationId,
-                accountId = currentUser.id!!,
-                token = roomToken,
-                threadId = this.threadId,
-                oldestMessageId = oldestId,
-                newestMessageId = newestId,
-                hasHistory = true
-            )
-            chatBlocksDao.upsertAndMergeConnectedChatBlocks(block)
+            require(messages.isNotEmpty()) { "No context messages returned" }
 
             ChatMessageRepository.MessagesRange(
-                oldestMessageId = oldestId,
-                newestMessageId = newestId
+                oldestMessageId = messages.first().id,
+                newestMessageId = messages.last().id
             )
         }
 
@@ -815,24 +794,12 @@ class OfflineFirstChatRepository @Inject constructor(
         // text here: their "message" field is just the "{file}" sentinel, and a failed/interrupted upload
         // needs a real re-upload, not a bogus text message reusing its referenceId.
         val unsentTextMessages = tempMessages.filterNot { it.messageParameters?.containsKey("file") == true }
-        unsentTextMessages.sortedBy { it.internalId }.onEach {
-            sendChatMessage(
-                credentials,
-                url,
-                it.message,
-                it.actorDisplayName,
-                it.parentMessageId?.toIntOrZero() ?: 0,
-                it.silent,
-                it.referenceId.orEmpty(),
-                null
-            ).collect { result ->
-                if (result.isSuccess) {
-                    Log.d(TAG, "Sent temp message")
-                } else {
-                    Log.e(TAG, "Failed to send temp message")
-                }
-            }
+        // The outbox sends them one after another in enqueue order and retries with backoff, so a message
+        // can neither overtake an earlier one nor be sent twice while a previous resend is still running.
+        unsentTextMessages.sortedBy { it.internalId }.mapNotNull { it.referenceId }.forEach { referenceId ->
+            outbox.enqueueChatMessage(currentUser.id!!, roomToken, referenceId)
         }
+        Log.d(TAG, "Enqueued ${unsentTextMessages.size} temp messages")
     }
 
     override suspend fun deleteTempMessage(chatMessage: ChatMessage) {
@@ -845,6 +812,8 @@ class OfflineFirstChatRepository @Inject constructor(
                 val overall = network.pinMessage(credentials, url, pinUntil)
                 emit(overall.ocs?.data?.toDomainModel())
             }.getOrElse { throwable ->
+                // connectivity problems are left to the caller, which hands the change to the outbox
+                if (throwable is IOException) throw throwable
                 Log.e(TAG, "Error in pinMessage: $throwable")
             }
         }
@@ -855,6 +824,8 @@ class OfflineFirstChatRepository @Inject constructor(
                 val overall = network.unPinMessage(credentials, url)
                 emit(overall.ocs?.data?.toDomainModel())
             }.getOrElse { throwable ->
+                // connectivity problems are left to the caller, which hands the change to the outbox
+                if (throwable is IOException) throw throwable
                 Log.e(TAG, "Error in unPinMessage: $throwable")
             }
         }
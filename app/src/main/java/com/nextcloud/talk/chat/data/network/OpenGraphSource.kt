@@ -0,0 +1,19 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.chat.data.network
+
+import com.nextcloud.talk.data.user.model.User
+import com.nextcloud.talk.models.json.opengraph.OpenGraphObject
+
+/**
+ * Resolves the preview of a link with the reference API of the server of [User]. Returns null if the server has no
+ * preview for the link and throws if the server could not be asked.
+ */
+fun interface OpenGraphSource {
+    suspend fun getOpenGraph(user: User, url: String): OpenGraphObject?
+}
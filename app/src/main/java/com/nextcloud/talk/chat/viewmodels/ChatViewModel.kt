@@ -22,6 +22,7 @@ import com.google.gson.Gson
 import com.nextcloud.talk.application.NextcloudTalkApplication
 import com.nextcloud.talk.arbitrarystorage.ArbitraryStorageManager
 import com.nextcloud.talk.chat.data.ChatMessageRepository
+import com.nextcloud.talk.chat.data.LinkPreviewRepository
 import com.nextcloud.talk.chat.data.io.AudioFocusRequestManager
 import com.nextcloud.talk.chat.data.io.MediaPlayerManager
 import com.nextcloud.talk.chat.data.io.MediaRecorderManager
@@ -40,7 +41,6 @@ import com.nextcloud.talk.data.database.mappers.toDomainModel
 import com.nextcloud.talk.data.database.model.ChatMessageEntity
 import com.nextcloud.talk.data.user.model.User
 import com.nextcloud.talk.extensions.toIntOrZero
-import com.nextcloud.talk.jobs.ReadMarkerSyncWorker
 import com.nextcloud.talk.jobs.ShareOperationWorker
 import androidx.lifecycle.asFlow
 import androidx.work.WorkManager
@@ -63,6 +63,7 @@ import com.nextcloud.talk.models.json.reminder.Reminder
 import com.nextcloud.talk.models.json.threads.ThreadInfo
 import com.nextcloud.talk.models.json.upcomingEvents.UpcomingEvent
 import com.nextcloud.talk.models.json.userAbsence.UserAbsenceData
+import com.nextcloud.talk.outbox.Outbox
 import com.nextcloud.talk.repositories.reactions.ReactionsRepository
 import com.nextcloud.talk.repositories.unifiedsearch.UnifiedSearchRepository
 import com.nextcloud.talk.threadsoverview.data.ThreadsRepository
@@ -115,6 +116,7 @@ import kotlinx.coroutines.flow.onStart
 import kotlinx.coroutines.flow.shareIn
 import kotlinx.coroutines.flow.stateIn
 import kotlinx.coroutines.flow.take
+import kotlinx.coroutines.flow.takeWhile
 import kotlinx.coroutines.flow.update
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.withContext
@@ -143,6 +145,8 @@ class ChatViewModel @AssistedInject constructor(
     private val mediaRecorderManager: MediaRecorderManager,
     private val audioFocusRequestManager: AudioFocusRequestManager,
     private val currentUserProvider: CurrentUserProvider,
+    private val outbox: Outbox,
+    private val linkPreviewRepository: LinkPreviewRepository,
     @ApplicationScope private val appScope: CoroutineScope,
     @Assisted private val chatRoomToken: String,
     @Assisted private val conversationThreadId: Long?
@@ -680,25 +684,32 @@ class ChatViewModel @AssistedInject constructor(
 
         searchRequestJob = viewModelScope.launch {
             try {
-                val result = withContext(Dispatchers.IO) {
-                    helper.startMessageSearch(query)
-                }
-                if (_searchUiState.value.query != query) {
-                    return@launch
-                }
-
-                val navigableResults = result.messages.filter { it.messageId?.toLongOrNull() != null }
-                _searchUiState.update {
-                    it.copy(
-                        results = navigableResults,
-                        selectedIndex = if (navigableResults.isNotEmpty()) 0 else -1,
-                        isLoading = false,
-                        hasMore = result.hasMore,
-                        error = false
-                    )
-                }
-                if (navigableResults.isNotEmpty()) {
-                    jumpToSearchSelection()
+                // the cached matches are shown and jumped to first, the results of the server are appended to them
+                var jumpedToResult = false
+                helper.searchFlow(query)
+                    .flowOn(Dispatchers.IO)
+                    .takeWhile { _searchUiState.value.query == query }
+                    .collect { result ->
+                        val navigableResults = result.messages.filter { it.messageId?.toLongOrNull() != null }
+                        _searchUiState.update {
+                            it.copy(
+                                results = navigableResults,
+                                selectedIndex = when {
+                                    jumpedToResult -> it.selectedIndex
+                                    navigableResults.isNotEmpty() -> 0
+                                    else -> -1
+                                },
+                                hasMore = result.hasMore,
+                                error = false
+                            )
+                        }
+                        if (!jumpedToResult && navigableResults.isNotEmpty()) {
+                            jumpedToResult = true
+                            jumpToSearchSelection()
+                        }
+                    }
+                if (_searchUiState.value.query == query) {
+                    _searchUiState.update { it.copy(isLoading = false) }
                 }
             } catch (_: CancellationException) {
                 // Ignore cancellation; request was superseded by a newer one.
@@ -858,7 +869,8 @@ class ChatViewModel @AssistedInject constructor(
             MessageSearchHelper(
                 unifiedSearchRepository = unifiedSearchRepository,
                 currentUser = it,
-                fromRoom = chatRoomToken
+                fromRoom = chatRoomToken,
+                prefetchScope = viewModelScope
             )
         }?.also { createdHelper ->
             messageSearchHelper = createdHelper
@@ -1145,8 +1157,7 @@ class ChatViewModel @AssistedInject constructor(
 
                 val isClassified = conversation != null && ConversationUtils.isClassified(conversation, capabilities)
                 val user = currentUserFlow.value
-                applyMessageGrouping(messages)
-                applySystemMessageGrouping(messages)
+                groupMessages(messages)
                 reorderKnownSendSequence(messages)
                 val uiMessages = messages.map { message ->
                     val parent: ChatMessage? = combinedMap[message.parentMessageId]
@@ -1159,7 +1170,12 @@ class ChatViewModel @AssistedInject constructor(
                     )
                 }
 
-                val items = buildChatItems(uiMessages, conversationLastRead, expandedParents)
+                if (firstUnreadMessageId == null && conversationLastRead > 0) {
+                    firstUnreadMessageId = findFirstUnreadMessageId(uiMessages, conversationLastRead)
+                    Log.d(TAG, "firstUnreadMessageId = $firstUnreadMessageId")
+                }
+                val unreadMarkerMessageId = firstUnreadMessageId.takeUnless { oneOrMoreMessagesWereSent }
+                val items = buildChatItems(uiMessages, unreadMarkerMessageId, expandedParents)
                 ProcessedMessages(items = items, missingParentIds = missingParentIds)
             }
             .flowOn(Dispatchers.Default)
@@ -1182,142 +1198,6 @@ class ChatViewModel @AssistedInject constructor(
             .launchIn(viewModelScope)
     }
 
-    // ------------------------------
-    // Build chat items (pure)
-    // ------------------------------
-    private fun buildChatItems(
-        uiMessages: List<ChatMessageUi>,
-        lastReadMessage: Int,
-        expandedParents: Set<Int> = emptySet()
-    ): List<ChatItem> {
-        var lastDate: LocalDate? = null
-        var lastExpandableParentId: Int? = null
-
-        Log.d(TAG, "buildChatItems...................")
-
-        return buildList {
-            if (firstUnreadMessageId == null && lastReadMessage > 0) {
-                firstUnreadMessageId = findFirstUnreadMessageId(uiMessages, lastReadMessage)
-                Log.d(TAG, "reversedMessages.size = ${uiMessages.size}")
-                Log.d(TAG, "firstUnreadMessageId = $firstUnreadMessageId")
-                Log.d(TAG, "conversation.lastReadMessage = $lastReadMessage")
-            }
-
-            for (uiMessage in uiMessages) {
-                if (uiMessage.isExpandableParent) {
-                    lastExpandableParentId = uiMessage.id
-                }
-
-                if (uiMessage.isHiddenByCollapse && lastExpandableParentId !in expandedParents) {
-                    continue
-                }
-
-                val date = uiMessage.date
-
-                if (date != lastDate) {
-                    add(ChatItem.DateHeaderItem(date))
-                    lastDate = date
-                }
-
-                if (!oneOrMoreMessagesWereSent && uiMessage.id == firstUnreadMessageId) {
-                    add(ChatItem.UnreadMessagesMarkerItem(date))
-                }
-
-                val adjustedMessage = if (uiMessage.isExpandableParent) {
-                    uiMessage.copy(isExpanded = uiMessage.id in expandedParents)
-                } else {
-                    uiMessage
-                }
-                add(ChatItem.MessageItem(adjustedMessage))
-            }
-        }.asReversed()
-    }
-
-    private fun applyMessageGrouping(messages: List<ChatMessage>) {
-        messages.forEachIndexed { index, message ->
-            message.isGrouped = index > 0 && shouldGroupMessage(message, messages[index - 1])
-            message.isGroupedWithNext = index < messages.size - 1 && shouldGroupMessage(messages[index + 1], message)
-        }
-    }
-
-    private fun applySystemMessageGrouping(messages: List<ChatMessage>) {
-        messages.forEach { message ->
-            message.expandableParent = false
-            message.lastItemOfExpandableGroup = 0
-            message.expandableChildrenAmount = 0
-            message.hiddenByCollapse = false
-        }
-
-        var i = 0
-        while (i < messages.size) {
-            val msg = messages[i]
-            if (!msg.isSystemMessage) {
-                i++
-                continue
-            }
-            var runEnd = i
-            while (runEnd + 1 < messages.size) {
-                val next = messages[runEnd + 1]
-                if (next.isSystemMessage &&
-                    next.systemMessageType == msg.systemMessageType &&
-                    isSameDayMessages(messages[runEnd], next)
-                ) {
-                    runEnd++
-                } else {
-                    break
-                }
-            }
-            if (runEnd > i) {
-                val lastChildId = messages[runEnd].jsonMessageId
-                msg.expandableParent = true
-                msg.lastItemOfExpandableGroup = lastChildId
-                msg.expandableChildrenAmount = runEnd - i
-                for (j in i + 1..runEnd) {
-                    messages[j].lastItemOfExpandableGroup = lastChildId
-                }
-            }
-            i = runEnd + 1
-        }
-
-        messages.forEach { message ->
-            if (isChildOfExpandableGroup(message)) {
-                message.hiddenByCollapse = true
-            }
-        }
-    }
-
-    private fun isChildOfExpandableGroup(message: ChatMessage): Boolean =
-        message.isSystemMessage && !message.expandableParent && message.lastItemOfExpandableGroup != 0
-
-    private fun isSameDayMessages(message1: ChatMessage, message2: ChatMessage): Boolean {
-        val date1 = Instant.ofEpochMilli(message1.timestamp * TIMESTAMP_TO_MILLIS)
-            .atZone(ZoneId.systemDefault()).toLocalDate()
-        val date2 = Instant.ofEpochMilli(message2.timestamp * TIMESTAMP_TO_MILLIS)
-            .atZone(ZoneId.systemDefault()).toLocalDate()
-        return date1 == date2
-    }
-
-    private fun shouldGroupMessage(current: ChatMessage, previous: ChatMessage): Boolean {
-        val sameMessageKind = current.isSystemMessage == previous.isSystemMessage
-        val notUnclassifiedBot = current.actorType != "bots" || current.actorId == "changelog"
-        val sameActor = current.isSystemMessage ||
-            (current.actorType == previous.actorType && current.actorId == previous.actorId)
-        val currentDate = Instant.ofEpochMilli(current.timestamp * TIMESTAMP_TO_MILLIS)
-            .atZone(ZoneId.systemDefault()).toLocalDate()
-        val previousDate = Instant.ofEpochMilli(previous.timestamp * TIMESTAMP_TO_MILLIS)
-            .atZone(ZoneId.systemDefault()).toLocalDate()
-        val timeDifference = kotlin.math.abs(current.timestamp - previous.timestamp)
-        val neitherEdited = (current.lastEditTimestamp ?: 0L) == 0L || (previous.lastEditTimestamp ?: 0L) == 0L
-
-        return sameMessageKind &&
-            notUnclassifiedBot &&
-            sameActor &&
-            currentDate == previousDate &&
-            current.actorId == previous.actorId &&
-            timeDifference <= GROUPING_TIME_WINDOW_SECONDS &&
-            neitherEdited
-    }
-
     fun onMessageSent() {
         oneOrMoreMessagesWereSent = true
     }
@@ -1822,6 +1702,13 @@ class ChatViewModel @AssistedInject constructor(
                 }
 
                 override fun onError(e: Throwable) {
+                    if (e is IOException) {
+                        Log.d(TAG, "deleteChatMessages I/O error, deleting it later: $e")
+                        viewModelScope.launch {
+                            outbox.enqueueMessageDeletion(outboxAccountId(), chatRoomToken, messageId.toLong())
+                        }
+                        return
+                    }
                     Log.e(
                         TAG,
                         "Something went wrong when trying to delete message with id " +
@@ -1880,10 +1767,10 @@ class ChatViewModel @AssistedInject constructor(
     /**
      * Marks the chat as read up to [lastReadMessage]: the local conversation entry is updated
      * immediately (optimistic, so the conversation list reflects it right away) while sending the
-     * marker to the server is delegated to [ReadMarkerSyncWorker], which retries transient
-     * failures with backoff. The server stays the authority — every room list sync re-asserts its
-     * read state, so a marker that ultimately could not be sent falls back to the server state
-     * instead of leaving the client diverged.
+     * marker to the server is delegated to the [Outbox], which keeps only the newest marker per room
+     * and retries transient failures with backoff. The server stays the authority — every room list
+     * sync re-asserts its read state, so a marker that ultimately could not be sent falls back to the
+     * server state instead of leaving the client diverged.
      *
      * [markPendingReadMarker] runs synchronously, before anything is launched, so the marker is
      * armed the instant this returns: leaving the chat commonly races the conversation list's own
@@ -1901,12 +1788,11 @@ class ChatViewModel @AssistedInject constructor(
         viewModelScope.launch {
             chatRepository.updateLocalReadState(lastReadMessage)
         }
-        ReadMarkerSyncWorker.enqueue(
-            context = NextcloudTalkApplication.sharedApplication!!.applicationContext,
-            userId = currentUser.id!!,
-            roomToken = chatRoomToken,
-            lastReadMessage = lastReadMessage
-        )
+        val userId = currentUser.id!!
+        // not bound to the view model, leaving the chat is the most common reason to send a marker
+        appScope.launch {
+            outbox.enqueueReadMarker(userId, chatRoomToken, lastReadMessage)
+        }
     }
 
     fun shareToNotes(credentials: String, url: String, message: String, displayName: String) {
@@ -1990,7 +1876,9 @@ class ChatViewModel @AssistedInject constructor(
                     _reactionDeletedViewState.value = ReactionDeletedSuccessState(model)
                 }
             } catch (e: IOException) {
-                Log.d(TAG, "deleteReaction I/O error: $e")
+                Log.d(TAG, "deleteReaction I/O error, sending it later: $e")
+                val messageId = chatMessage.jsonMessageId.toLong()
+                outbox.enqueueReaction(currentUser.id!!, roomToken, messageId, emoji, add = false)
             } catch (e: HttpException) {
                 Log.d(TAG, "deleteReaction HTTP error: $e")
             }
@@ -2019,7 +1907,9 @@ class ChatViewModel @AssistedInject constructor(
                     _reactionAddedViewState.value = ReactionAddedSuccessState(model)
                 }
             } catch (e: IOException) {
-                Log.d(TAG, "addReaction I/O error: $e")
+                Log.d(TAG, "addReaction I/O error, sending it later: $e")
+                val messageId = chatMessage.jsonMessageId.toLong()
+                outbox.enqueueReaction(currentUser.id!!, roomToken, messageId, emoji, add = true)
             } catch (e: HttpException) {
                 Log.d(TAG, "addReaction HTTP error: $e")
             }
@@ -2351,15 +2241,7 @@ class ChatViewModel @AssistedInject constructor(
 
     suspend fun fetchOpenGraph(url: String): OpenGraphObject? {
         if (!this::currentUser.isInitialized) return null
-        return withContext(Dispatchers.IO) {
-            runCatching {
-                chatNetworkDataSource.getOpenGraph(
-                    currentUser.getCredentials(),
-                    currentUser.baseUrl!!,
-                    url
-                )?.openGraphObject
-            }.getOrNull()
-        }
+        return linkPreviewRepository.getLinkPreview(currentUser, url)
     }
 
     suspend fun updateMessageDraft() {
@@ -2409,25 +2291,38 @@ class ChatViewModel @AssistedInject constructor(
         }
     }
 
-    fun pinMessage(credentials: String, url: String, pinUntil: Int = 0) {
+    fun pinMessage(credentials: String, url: String, messageId: Long, pinUntil: Int = 0) {
         viewModelScope.launch {
-            chatRepository.pinMessage(credentials, url, pinUntil).collect {
-                // UI is updated from room change observer
-                getRoom(chatRoomToken)
+            try {
+                chatRepository.pinMessage(credentials, url, pinUntil).collect {
+                    // UI is updated from room change observer
+                    getRoom(chatRoomToken)
+                }
+            } catch (e: IOException) {
+                Log.d(TAG, "pinMessage I/O error, pinning it later: $e")
+                outbox.enqueuePin(outboxAccountId(), chatRoomToken, messageId, pinUntil)
             }
         }
     }
 
-    fun unPinMessage(credentials: String, url: String) {
+    fun unPinMessage(credentials: String, url: String, messageId: Long) {
         viewModelScope.launch {
-            chatRepository.unPinMessage(credentials, url).collect {
-                // This updates the room if there are other pinned messages we need to show
+            try {
+                chatRepository.unPinMessage(credentials, url).collect {
+                    // This updates the room if there are other pinned messages we need to show
 
-                getRoom(chatRoomToken)
+                    getRoom(chatRoomToken)
+                }
+            } catch (e: IOException) {
+                Log.d(TAG, "unPinMessage I/O error, unpinning it later: $e")
+                outbox.enqueuePin(outboxAccountId(), chatRoomToken, messageId, pinUntil = null)
             }
         }
     }
 
+    // the shared items screen never initializes currentUser
+    private suspend fun outboxAccountId(): Long = nonNullUserFlow.first().id!!
+
     fun hidePinnedMessage(credentials: String, url: String) {
         viewModelScope.launch {
             chatRepository.hidePinnedMessage(credentials, url).collect {
@@ -2468,6 +2363,145 @@ class ChatViewModel @AssistedInject constructor(
             return uiMessages.firstOrNull { it.id > lastReadMessage }?.id
         }
 
+        /**
+         * Annotates [messages] (oldest first) in place with the grouping the chat renders: consecutive messages of the
+         * same actor, and runs of same-day system messages of the same type that collapse behind their first message.
+         */
+        fun groupMessages(messages: List<ChatMessage>) {
+            applyMessageGrouping(messages)
+            applySystemMessageGrouping(messages)
+        }
+
+        /**
+         * Builds the chat list items (newest first) from [uiMessages] (oldest first): date headers, the unread
+         * marker in front of [unreadMarkerMessageId] and the messages, without the collapsed children of groups that
+         * are not in [expandedParents].
+         */
+        fun buildChatItems(
+            uiMessages: List<ChatMessageUi>,
+            unreadMarkerMessageId: Int?,
+            expandedParents: Set<Int> = emptySet()
+        ): List<ChatItem> {
+            var lastDate: LocalDate? = null
+            var lastExpandableParentId: Int? = null
+
+            return buildList {
+                for (uiMessage in uiMessages) {
+                    if (uiMessage.isExpandableParent) {
+                        lastExpandableParentId = uiMessage.id
+                    }
+
+                    if (uiMessage.isHiddenByCollapse && lastExpandableParentId !in expandedParents) {
+                        continue
+                    }
+
+                    val date = uiMessage.date
+
+                    if (date != lastDate) {
+                        add(ChatItem.DateHeaderItem(date))
+                        lastDate = date
+                    }
+
+                    if (uiMessage.id == unreadMarkerMessageId) {
+                        add(ChatItem.UnreadMessagesMarkerItem(date))
+                    }
+
+                    val adjustedMessage = if (uiMessage.isExpandableParent) {
+                        uiMessage.copy(isExpanded = uiMessage.id in expandedParents)
+                    } else {
+                        uiMessage
+                    }
+                    add(ChatItem.MessageItem(adjustedMessage))
+                }
+            }.asReversed()
+        }
+
+        private fun applyMessageGrouping(messages: List<ChatMessage>) {
+            messages.forEachIndexed { index, message ->
+                message.isGrouped = index > 0 && shouldGroupMessage(message, messages[index - 1])
+                message.isGroupedWithNext =
+                    index < messages.size - 1 && shouldGroupMessage(messages[index + 1], message)
+            }
+        }
+
+        private fun applySystemMessageGrouping(messages: List<ChatMessage>) {
+            messages.forEach { message ->
+                message.expandableParent = false
+                message.lastItemOfExpandableGroup = 0
+                message.expandableChildrenAmount = 0
+                message.hiddenByCollapse = false
+            }
+
+            var i = 0
+            while (i < messages.size) {
+                val msg = messages[i]
+                if (!msg.isSystemMessage) {
+                    i++
+                    continue
+                }
+                var runEnd = i
+                while (runEnd + 1 < messages.size) {
+                    val next = messages[runEnd + 1]
+                    if (next.isSystemMessage &&
+                        next.systemMessageType == msg.systemMessageType &&
+                        isSameDayMessages(messages[runEnd], next)
+                    ) {
+                        runEnd++
+                    } else {
+                        break
+                    }
+                }
+                if (runEnd > i) {
+                    val lastChildId = messages[runEnd].jsonMessageId
+                    msg.expandableParent = true
+                    msg.lastItemOfExpandableGroup = lastChildId
+                    msg.expandableChildrenAmount = runEnd - i
+                    for (j in i + 1..runEnd) {
+                        messages[j].lastItemOfExpandableGroup = lastChildId
+                    }
+                }
+                i = runEnd + 1
+            }
+
+            messages.forEach { message ->
+                if (isChildOfExpandableGroup(message)) {
+                    message.hiddenByCollapse = true
+                }
+            }
+        }
+
+        private fun isChildOfExpandableGroup(message: ChatMessage): Boolean =
+            message.isSystemMessage && !message.expandableParent && message.lastItemOfExpandableGroup != 0
+
+        private fun isSameDayMessages(message1: ChatMessage, message2: ChatMessage): Boolean {
+            val date1 = Instant.ofEpochMilli(message1.timestamp * TIMESTAMP_TO_MILLIS)
+                .atZone(ZoneId.systemDefault()).toLocalDate()
+            val date2 = Instant.ofEpochMilli(message2.timestamp * TIMESTAMP_TO_MILLIS)
+                .atZone(ZoneId.systemDefault()).toLocalDate()
+            return date1 == date2
+        }
+
+        private fun shouldGroupMessage(current: ChatMessage, previous: ChatMessage): Boolean {
+            val sameMessageKind = current.isSystemMessage == previous.isSystemMessage
+            val notUnclassifiedBot = current.actorType != "bots" || current.actorId == "changelog"
+            val sameActor = current.isSystemMessage ||
+                (current.actorType == previous.actorType && current.actorId == previous.actorId)
+            val currentDate = Instant.ofEpochMilli(current.timestamp * TIMESTAMP_TO_MILLIS)
+                .atZone(ZoneId.systemDefault()).toLocalDate()
+            val previousDate = Instant.ofEpochMilli(previous.timestamp * TIMESTAMP_TO_MILLIS)
+                .atZone(ZoneId.systemDefault()).toLocalDate()
+            val timeDifference = kotlin.math.abs(current.timestamp - previous.timestamp)
+            val neitherEdited = (current.lastEditTimestamp ?: 0L) == 0L || (previous.lastEditTimestamp ?: 0L) == 0L
+
+            return sameMessageKind &&
+                notUnclassifiedBot &&
+                sameActor &&
+                currentDate == previousDate &&
+                current.actorId == previous.actorId &&
+                timeDifference <= GROUPING_TIME_WINDOW_SECONDS &&
+                neitherEdited
+        }
+
         const val JOIN_ROOM_RETRY_COUNT: Long = 3
         const val HTTP_CODE_OK: Int = 200
         private const val CONVERSATION_AND_USER_FLOW_SHARING_TIMEOUT_MS = 5_000L
@@ -24,12 +24,14 @@ import com.nextcloud.talk.chat.data.io.MediaPlayerManager
 import com.nextcloud.talk.chat.data.model.ChatMessage
 import com.nextcloud.talk.chat.data.network.ChatNetworkDataSource
 import com.nextcloud.talk.models.json.chat.ChatOverallSingleMessage
+import com.nextcloud.talk.outbox.Outbox
 import com.nextcloud.talk.utils.message.SendMessageUtils
 import io.reactivex.disposables.Disposable
 import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.StateFlow
 import kotlinx.coroutines.launch
+import java.io.IOException
 import javax.inject.Inject
 
 @Suppress("Detekt.TooManyFunctions")
@@ -57,6 +59,9 @@ class MessageInputViewModel :
     @Inject
     lateinit var audioFocusRequestManager: AudioFocusRequestManager
 
+    @Inject
+    lateinit var outbox: Outbox
+
     lateinit var chatRepository: ChatMessageRepository
     lateinit var chatNetworkDataSource: ChatNetworkDataSource
     lateinit var currentLifeCycleFlag: LifeCycleFlag
@@ -209,15 +214,27 @@ class MessageInputViewModel :
         }
     }
 
-    fun editChatMessage(credentials: String, url: String, text: String) {
+    @Suppress("LongParameterList")
+    fun editChatMessage(
+        credentials: String,
+        url: String,
+        text: String,
+        accountId: Long,
+        roomToken: String,
+        messageId: Long
+    ) {
         viewModelScope.launch {
             chatRepository.editChatMessage(
                 credentials,
                 url,
                 text
             ).collect { result ->
+                val error = result.exceptionOrNull()
                 if (result.isSuccess) {
                     _editMessageViewState.value = EditMessageSuccessState(result.getOrNull()!!)
+                } else if (error is IOException) {
+                    Log.d(TAG, "editChatMessage I/O error, editing it later: $error")
+                    outbox.enqueueMessageEdit(accountId, roomToken, messageId, text)
                 } else {
                     _editMessageViewState.value = EditMessageErrorState
                 }
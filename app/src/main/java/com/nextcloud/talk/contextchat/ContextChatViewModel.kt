@@ -7,20 +7,24 @@
 
 package com.nextcloud.talk.contextchat
 
+import android.util.Log
 import androidx.lifecycle.ViewModel
 import androidx.lifecycle.viewModelScope
 import autodagger.AutoInjector
 import com.nextcloud.talk.application.NextcloudTalkApplication
-import com.nextcloud.talk.chat.data.network.ChatNetworkDataSource
-import com.nextcloud.talk.models.json.chat.ChatMessageJson
+import com.nextcloud.talk.chat.data.model.ChatMessage
+import com.nextcloud.talk.chat.data.network.ChatMessageSyncer
+import com.nextcloud.talk.chat.data.network.MessageContextLoader
+import com.nextcloud.talk.data.database.mappers.toDomainModel
 import com.nextcloud.talk.users.UserManager
+import com.nextcloud.talk.utils.ApiUtils
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.StateFlow
 import kotlinx.coroutines.launch
 import javax.inject.Inject
 
 @AutoInjector(NextcloudTalkApplication::class)
-class ContextChatViewModel @Inject constructor(private val chatNetworkDataSource: ChatNetworkDataSource) :
+class ContextChatViewModel @Inject constructor(private val messageContextLoader: MessageContextLoader) :
     ViewModel() {
 
     @Inject
@@ -32,7 +36,7 @@ class ContextChatViewModel @Inject constructor(private val chatNetworkDataSource
         MutableStateFlow<ContextChatRetrieveUiState>(ContextChatRetrieveUiState.None)
     val getContextChatMessagesState: StateFlow<ContextChatRetrieveUiState> = _getContextChatMessagesState
 
-    @Suppress("LongParameterList")
+    @Suppress("LongParameterList", "Detekt.TooGenericExceptionCaught")
     fun getContextForChatMessages(
         credentials: String,
         baseUrl: String,
@@ -48,19 +52,24 @@ class ContextChatViewModel @Inject constructor(private val chatNetworkDataSource
                 !user.hasSpreedFeatureCapability("federation-v1")
             ) {
                 _getContextChatMessagesState.value = ContextChatRetrieveUiState.Error
+                return@launch
             }
 
-            var messages = chatNetworkDataSource.getContextForChatMessage(
+            val target = ChatMessageSyncer.SyncTarget(
+                user = user,
+                roomToken = token,
+                threadId = threadId?.toLongOrNull(),
                 credentials = credentials,
-                baseUrl = baseUrl,
-                token = token,
-                messageId = messageId,
-                limit = LIMIT,
-                threadId = threadId?.toIntOrNull()
+                urlForChatting = ApiUtils.getUrlForChat(CHAT_API_VERSION, baseUrl, token)
             )
 
-            if (threadId.isNullOrEmpty()) {
-                messages = messages.filter { !isThreadChildMessage(it) }
+            val messages = try {
+                messageContextLoader.loadMessageContext(target, messageId.toLong(), LIMIT)
+                    .map { it.toDomainModel() }
+            } catch (e: Exception) {
+                Log.e(TAG, "Could not load the context of message $messageId", e)
+                _getContextChatMessagesState.value = ContextChatRetrieveUiState.Error
+                return@launch
             }
 
             val subTitle = if (threadId?.isNotEmpty() == true) {
@@ -79,16 +88,12 @@ class ContextChatViewModel @Inject constructor(private val chatNetworkDataSource
         }
     }
 
-    fun isThreadChildMessage(currentMessage: ChatMessageJson): Boolean =
-        currentMessage.hasThread &&
-            currentMessage.threadId != currentMessage.id
-
     sealed class ContextChatRetrieveUiState {
         data object None : ContextChatRetrieveUiState()
         data class Success(
             val messageId: String,
             val threadId: String?,
-            val messages: List<ChatMessageJson>,
+            val messages: List<ChatMessage>,
             val title: String?,
             val subTitle: String?
         ) : ContextChatRetrieveUiState()
@@ -96,6 +101,8 @@ class ContextChatViewModel @Inject constructor(private val chatNetworkDataSource
     }
 
     companion object {
+        private val TAG = ContextChatViewModel::class.java.simpleName
         private const val LIMIT = 50
+        private const val CHAT_API_VERSION = 1
     }
 }
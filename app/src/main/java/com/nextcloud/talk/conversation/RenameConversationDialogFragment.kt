@@ -31,9 +31,9 @@ import com.nextcloud.talk.conversationinfoedit.viewmodel.ConversationInfoEditVie
 import com.nextcloud.talk.conversationlist.ConversationsListActivity
 import com.nextcloud.talk.databinding.DialogRenameConversationBinding
 import com.nextcloud.talk.events.ConversationsListFetchDataEvent
+import com.nextcloud.talk.events.EventHub
 import com.nextcloud.talk.ui.theme.ViewThemeUtils
 import kotlinx.coroutines.launch
-import org.greenrobot.eventbus.EventBus
 import javax.inject.Inject
 
 @AutoInjector(NextcloudTalkApplication::class)
@@ -46,7 +46,7 @@ class RenameConversationDialogFragment : DialogFragment() {
     lateinit var viewThemeUtils: ViewThemeUtils
 
     @Inject
-    lateinit var eventBus: EventBus
+    lateinit var eventBus: EventHub
 
     private lateinit var binding: DialogRenameConversationBinding
     private lateinit var viewModel: ConversationInfoEditViewModel
@@ -88,9 +88,8 @@ import io.reactivex.Observer
 import io.reactivex.android.schedulers.AndroidSchedulers
 import io.reactivex.disposables.Disposable
 import io.reactivex.schedulers.Schedulers
+import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.launch
-import org.greenrobot.eventbus.Subscribe
-import org.greenrobot.eventbus.ThreadMode
 import java.time.Instant
 import java.time.ZoneId
 import java.time.ZonedDateTime
@@ -207,9 +206,13 @@ class ConversationInfoActivity : BaseActivity() {
         this.lifecycle.removeObserver(ConversationInfoViewModel.LifeCycleObserver)
     }
 
-    @Subscribe(threadMode = ThreadMode.MAIN)
+    override fun subscribeEvents() {
+        super.subscribeEvents()
+        subscribeEvent(EventStatus::class.java, Dispatchers.Main.immediate) { onMessageEvent(it) }
+    }
+
     fun onMessageEvent(eventStatus: EventStatus) {
-        conversationUser?.let { viewModel.loadParticipants(it, conversationToken) }
+        conversationUser?.let { viewModel.loadParticipants(it, conversationToken, forceRefresh = true) }
     }
 
     private fun setupCompose() {
@@ -234,7 +237,7 @@ class ConversationInfoActivity : BaseActivity() {
                             )
                         }
                         ConversationInfoUiEvent.RefreshParticipants ->
-                            viewModel.loadParticipants(user, conversationToken)
+                            viewModel.loadParticipants(user, conversationToken, forceRefresh = true)
                     }
                 }
             }
@@ -508,7 +511,7 @@ class ConversationInfoActivity : BaseActivity() {
         WorkManager.getInstance(context).getWorkInfoByIdLiveData(addParticipantsWorker.id)
             .observeForever { workInfo: WorkInfo? ->
                 if (workInfo?.state == WorkInfo.State.SUCCEEDED) {
-                    viewModel.loadParticipants(user, conversationToken)
+                    viewModel.loadParticipants(user, conversationToken, forceRefresh = true)
                 }
             }
     }
@@ -680,7 +683,7 @@ class ConversationInfoActivity : BaseActivity() {
         object : Observer<GenericOverall> {
             override fun onSubscribe(d: Disposable) { /* unused */ }
             override fun onNext(genericOverall: GenericOverall) {
-                conversationUser?.let { viewModel.loadParticipants(it, conversationToken) }
+                conversationUser?.let { viewModel.loadParticipants(it, conversationToken, forceRefresh = true) }
             }
 
             @SuppressLint("LongLogTag")
@@ -34,9 +34,9 @@ import com.nextcloud.talk.models.json.participants.Participant.ActorType.EMAILS
 import com.nextcloud.talk.models.json.participants.Participant.ActorType.FEDERATED
 import com.nextcloud.talk.models.json.participants.Participant.ActorType.GROUPS
 import com.nextcloud.talk.models.json.participants.Participant.ActorType.USERS
-import com.nextcloud.talk.models.json.participants.ParticipantsOverall
 import com.nextcloud.talk.models.json.participants.TalkBan
 import com.nextcloud.talk.models.json.profile.Profile
+import com.nextcloud.talk.participants.ParticipantStore
 import com.nextcloud.talk.repositories.conversations.ConversationsRepository
 import com.nextcloud.talk.repositories.conversations.ConversationsRepository.ResendInvitationsResult
 import com.nextcloud.talk.utils.ApiUtils
@@ -52,14 +52,19 @@ import io.reactivex.Observer
 import io.reactivex.android.schedulers.AndroidSchedulers
 import io.reactivex.disposables.Disposable
 import io.reactivex.schedulers.Schedulers
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
 import kotlinx.coroutines.flow.MutableSharedFlow
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.SharedFlow
 import kotlinx.coroutines.flow.StateFlow
 import kotlinx.coroutines.flow.asSharedFlow
 import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.flow.flowOn
+import kotlinx.coroutines.flow.map
 import kotlinx.coroutines.flow.update
 import kotlinx.coroutines.launch
+import kotlinx.coroutines.withContext
 import java.text.DateFormat
 import java.time.Instant
 import java.time.ZoneOffset
@@ -73,7 +78,8 @@ import javax.inject.Inject
 class ConversationInfoViewModel @Inject constructor(
     private val chatNetworkDataSource: ChatNetworkDataSource,
     private val conversationsRepository: ConversationsRepository,
-    private val ncApi: NcApi
+    private val ncApi: NcApi,
+    private val participantStore: ParticipantStore
 ) : ViewModel() {
     object LifeCycleObserver : DefaultLifecycleObserver {
         enum class LifeCycleFlag {
@@ -111,35 +117,38 @@ class ConversationInfoViewModel @Inject constructor(
     val uiState: StateFlow<ConversationInfoUiState> = _uiState.asStateFlow()
     private val _uiEvent = MutableSharedFlow<ConversationInfoUiEvent>(extraBufferCapacity = 1)
     val uiEvent: SharedFlow<ConversationInfoUiEvent> = _uiEvent.asSharedFlow()
-    fun loadParticipants(user: User, token: String) {
-        val apiVersion = ApiUtils.getConversationApiVersion(user, intArrayOf(ApiUtils.API_V4, 1))
-        val credentials = ApiUtils.getCredentials(user.username, user.token)!!
-        val fieldMap = HashMap<String, Boolean>()
-        fieldMap["includeStatus"] = true
-        ncApi.getPeersForCall(
-            credentials,
-            ApiUtils.getUrlForParticipants(apiVersion, user.baseUrl!!, token),
-            fieldMap
-        )
-            ?.subscribeOn(Schedulers.io())
-            ?.observeOn(AndroidSchedulers.mainThread())
-            ?.subscribe(object : Observer<ParticipantsOverall> {
-                override fun onSubscribe(d: Disposable) {
-                    LifeCycleObserver.disposableSet.add(d)
-                }
-
-                @Suppress("Detekt.TooGenericExceptionCaught")
-                override fun onNext(participantsOverall: ParticipantsOverall) {
-                    val participants = processParticipants(participantsOverall.ocs!!.data!!, user.userId)
+    private var participantsJob: Job? = null
+    /**
+     * Shows the locally stored participants right away. They are only fetched from the server if the stored list
+     * is missing or outdated, or if [forceRefresh] is set because participants were changed.
+     */
+    @Suppress("Detekt.TooGenericExceptionCaught")
+    fun loadParticipants(user: User, token: String, forceRefresh: Boolean = false) {
+        participantsJob?.cancel()
+        participantsJob = viewModelScope.launch {
+            participantStore.observeParticipants("${user.id}@$token")
+                .map { processParticipants(it, user.userId) }
+                .flowOn(Dispatchers.Default)
+                .collect { participants ->
                     _uiState.update { it.copy(participants = participants, showParticipants = true) }
                 }
-                override fun onError(e: Throwable) {
-                    Log.e(TAG, "Error loading participants", e)
+        }
+        viewModelScope.launch {
+            try {
+                val fetched = if (forceRefresh) {
+                    participantStore.reconcile(user, token)
+                } else {
+                    participantStore.reconcileIfStale(user, token)
                 }
-                override fun onComplete() {
-                    // unused atm
+                if (fetched != null) {
+                    // shown directly as well, in case the conversation is not stored locally
+                    val participants = withContext(Dispatchers.Default) { processParticipants(fetched, user.userId) }
+                    _uiState.update { it.copy(participants = participants, showParticipants = true) }
                 }
-            })
+            } catch (e: Exception) {
+                Log.e(TAG, "Error loading participants", e)
+            }
+        }
     }
 
     @Suppress("DEPRECATION")
@@ -112,12 +112,11 @@ import com.nextcloud.talk.utils.bundle.BundleKeys.KEY_SHARED_TEXT
 import com.nextcloud.talk.utils.permissions.PlatformPermissionUtil
 import com.nextcloud.talk.utils.power.PowerManagerUtils
 import com.nextcloud.talk.utils.singletons.ApplicationWideCurrentRoomHolder
+import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.collect
 import kotlinx.coroutines.flow.onEach
 import kotlinx.coroutines.launch
-import org.greenrobot.eventbus.Subscribe
-import org.greenrobot.eventbus.ThreadMode
 import retrofit2.HttpException
 import java.util.concurrent.TimeUnit
 import javax.inject.Inject
@@ -177,6 +176,11 @@ class ConversationsListActivity : BaseActivity() {
     private var selectedMessageId: String? = null
     private var pendingDirectShareToken: String? = null
     private var isDirectShareTarget = false
+    private val shareTargetPublisher by lazy {
+        ShareTargetPublisher(lifecycleScope, ShortcutManagerShareTargetSink(applicationContext)) { user, target ->
+            DirectShareHelper.loadAvatarIcon(applicationContext, user, target.token, target.displayName)
+        }
+    }
 
     lateinit var ecosystemManager: EcosystemManager
 
@@ -406,9 +410,7 @@ class ConversationsListActivity : BaseActivity() {
             }
         }
 
-        if (!eventBus.isRegistered(this)) {
-            eventBus.register(this)
-        }
+        registerEventSubscriptions()
 
         if (currentUser != null) {
             if (isServerEOL(currentUser!!.serverVersion?.major)) {
@@ -466,7 +468,7 @@ class ConversationsListActivity : BaseActivity() {
         }
 
         lifecycleScope.launch {
-            conversationsListViewModel.getRoomsFlow
+            conversationsListViewModel.storedRoomsFlow
                 .onEach { list ->
                     // Add app shortcut for note to self
                     val noteToSelf = list
@@ -475,15 +477,7 @@ class ConversationsListActivity : BaseActivity() {
                     handleNoteToSelfShortcut(isNoteToSelfAvailable, noteToSelf?.token ?: "")
 
                     // Update Direct Share targets
-                    if (currentUser != null) {
-                        lifecycleScope.launch {
-                            DirectShareHelper.publishShareTargetShortcuts(
-                                context,
-                                currentUser!!,
-                                list
-                            )
-                        }
-                    }
+                    currentUser?.let { shareTargetPublisher.submit(it, list) }
 
                     // check for Direct Share
                     val token = pendingDirectShareToken
@@ -753,7 +747,7 @@ class ConversationsListActivity : BaseActivity() {
             if (index > lastVisibleIndex &&
                 entry is com.nextcloud.talk.conversationlist.ui.ConversationListEntry.ConversationEntry
             ) {
-                val model = entry.model
+                val model = entry.row
                 if (model.unreadMention ||
                     (
                         model.unreadMessages > 0 &&
@@ -1138,7 +1132,12 @@ class ConversationsListActivity : BaseActivity() {
         clearIntentAction()
     }
 
-    @Subscribe(sticky = true, threadMode = ThreadMode.BACKGROUND)
+    override fun subscribeEvents() {
+        super.subscribeEvents()
+        subscribeEvent(EventStatus::class.java, Dispatchers.IO, sticky = true) { onMessageEvent(it) }
+        subscribeEvent(ConversationsListFetchDataEvent::class.java, Dispatchers.Main.immediate) { onMessageEvent(it) }
+    }
+
     fun onMessageEvent(eventStatus: EventStatus) {
         if (currentUser != null && eventStatus.userId == currentUser!!.id) {
             when (eventStatus.eventType) {
@@ -1151,7 +1150,6 @@ class ConversationsListActivity : BaseActivity() {
         }
     }
 
-    @Subscribe(threadMode = ThreadMode.MAIN)
     fun onMessageEvent(conversationsListFetchDataEvent: ConversationsListFetchDataEvent?) {
         fetchRooms()
         conversationsListViewModel.clearSelectedConversationForOpsWithDelay(BOTTOM_SHEET_DELAY)
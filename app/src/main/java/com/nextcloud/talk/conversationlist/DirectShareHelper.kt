@@ -20,10 +20,8 @@ import coil.imageLoader
 import coil.request.ImageRequest
 import coil.transform.CircleCropTransformation
 import com.nextcloud.talk.R
+import com.nextcloud.talk.avatar.Avatar
 import com.nextcloud.talk.data.user.model.User
-import com.nextcloud.talk.models.domain.ConversationModel
-import com.nextcloud.talk.utils.ApiUtils
-import com.nextcloud.talk.utils.ConversationUtils
 import com.nextcloud.talk.utils.bundle.BundleKeys
 
 object DirectShareHelper {
@@ -36,33 +34,19 @@ object DirectShareHelper {
 
     private enum class MessageDirection { NONE, SEND, RECEIVE }
 
-    suspend fun publishShareTargetShortcuts(context: Context, user: User, conversations: List<ConversationModel>) {
-        val maxShortcuts = ShortcutManagerCompat.getMaxShortcutCountPerActivity(context)
-
-        // Preserve shortcuts not managed by DirectShareHelper (e.g. Note to Self).
-        val existingOtherShortcuts = ShortcutManagerCompat.getDynamicShortcuts(context)
-            .filter { !it.id.startsWith(SHORTCUT_ID_PREFIX) }
-        val limit = (maxShortcuts - existingOtherShortcuts.size).coerceAtLeast(0)
-
-        @Suppress("MagicNumber")
-        val thirtyDaysAgoSeconds = System.currentTimeMillis() / 1000 - 30 * 24 * 60 * 60
-        val afterFilter = conversations
-            .filter { !ConversationUtils.isNoteToSelfConversation(it) }
-            .filter { it.lastActivity >= thirtyDaysAgoSeconds }
-        val candidates = afterFilter
-            .sortedByDescending { it.lastActivity }
-            .take(limit)
-
-        val credentials = ApiUtils.getCredentials(user.username, user.token)
-        // Build shortcuts most-recent-first; setDynamicShortcuts uses index order (0 = most important).
-        val shareShortcuts = candidates.map { conversation ->
-            val displayName = conversation.displayName
-            val icon = loadAvatarIcon(context, user, conversation.token, displayName, credentials)
-            prepShortcutBuilder(context, user, conversation.token, displayName, icon).build()
-        }
+    /**
+     * Builds the Direct Share shortcut of a conversation, ranked among the others by the rank of its target.
+     */
+    internal fun buildShareTargetShortcut(
+        context: Context,
+        user: User,
+        shortcut: ShareTargetShortcut
+    ): ShortcutInfoCompat =
+        prepShortcutBuilder(context, user, shortcut.target.token, shortcut.target.displayName, shortcut.icon)
+            .setRank(shortcut.target.rank)
+            .build()
 
-        ShortcutManagerCompat.setDynamicShortcuts(context, shareShortcuts + existingOtherShortcuts)
-    }
+    fun isShareTargetShortcut(shortcutId: String): Boolean = shortcutId.startsWith(SHORTCUT_ID_PREFIX)
 
     /**
      * Reports an incoming message for the given conversation, improving its share sheet ranking.
@@ -76,8 +60,7 @@ object DirectShareHelper {
         displayName: String,
         isOneToOne: Boolean
     ) {
-        val credentials = ApiUtils.getCredentials(user.username, user.token)
-        val icon = loadAvatarIcon(context, user, token, displayName, credentials)
+        val icon = loadAvatarIcon(context, user, token, displayName)
         val shortcut = prepShortcutBuilder(context, user, token, displayName, icon)
             .also { applyCapabilityBinding(it, MessageDirection.RECEIVE, isOneToOne) }
             .build()
@@ -95,8 +78,7 @@ object DirectShareHelper {
         displayName: String,
         isOneToOne: Boolean
     ) {
-        val credentials = ApiUtils.getCredentials(user.username, user.token)
-        val icon = loadAvatarIcon(context, user, token, displayName, credentials)
+        val icon = loadAvatarIcon(context, user, token, displayName)
         val shortcut = prepShortcutBuilder(context, user, token, displayName, icon)
             .also { applyCapabilityBinding(it, MessageDirection.SEND, isOneToOne) }
             .build()
@@ -155,28 +137,21 @@ object DirectShareHelper {
 
     private fun shortcutId(user: User, token: String): String = "$SHORTCUT_ID_PREFIX${user.id}_$token"
 
-    private suspend fun loadAvatarIcon(
+    internal suspend fun loadAvatarIcon(
         context: Context,
         user: User,
         token: String,
-        displayName: String,
-        credentials: String?
+        displayName: String
     ): IconCompat =
         try {
-            val avatarUrl = ApiUtils.getUrlForConversationAvatar(
-                version = 1,
-                baseUrl = user.baseUrl,
-                token = token
-            )
-            val requestBuilder = ImageRequest.Builder(context)
-                .data(avatarUrl)
+            // unversioned: the avatar of one-to-one conversations changes without a new avatar version
+            val request = ImageRequest.Builder(context)
+                .data(Avatar.ofConversation(user, token))
                 .size(AVATAR_SIZE_PX)
                 .allowHardware(false)
                 .transformations(CircleCropTransformation())
-            if (credentials != null) {
-                requestBuilder.addHeader("Authorization", credentials)
-            }
-            val result = context.imageLoader.execute(requestBuilder.build())
+                .build()
+            val result = context.imageLoader.execute(request)
             val bitmap = (result.drawable as? BitmapDrawable)?.bitmap
             if (bitmap != null) {
                 IconCompat.createWithBitmap(bitmap)
@@ -0,0 +1,169 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.conversationlist
+
+import androidx.core.graphics.drawable.IconCompat
+import com.nextcloud.talk.data.user.model.User
+import com.nextcloud.talk.models.domain.ConversationModel
+import com.nextcloud.talk.utils.ConversationUtils
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Semaphore
+import kotlinx.coroutines.sync.withPermit
+
+/**
+ * A conversation offered as a Direct Share target. [rank] 0 is the most recently active conversation.
+ */
+data class ShareTarget(val token: String, val displayName: String, val avatarVersion: String, val rank: Int)
+
+data class ShareTargetShortcut(val target: ShareTarget, val icon: IconCompat)
+
+/**
+ * Where the Direct Share shortcuts are published, see [ShortcutManagerShareTargetSink].
+ */
+interface ShareTargetSink {
+
+    /**
+     * Number of Direct Share shortcuts that fit next to the other dynamic shortcuts of the app.
+     */
+    fun availableSlots(): Int
+
+    /**
+     * Replaces all Direct Share shortcuts, keeping the other dynamic shortcuts of the app.
+     */
+    fun setShareTargets(user: User, shortcuts: List<ShareTargetShortcut>)
+
+    /**
+     * Adds or updates a single Direct Share shortcut at the rank of its target.
+     */
+    fun pushShareTarget(user: User, shortcut: ShareTargetShortcut)
+}
+
+/**
+ * Publishes the recently active conversations as Direct Share targets.
+ *
+ * The conversation list is emitted on every change of any conversation, so [submit]ted lists are debounced by
+ * [DEBOUNCE_MILLIS] and published only if the share targets derived from them, i.e. the token, display name, avatar
+ * version and rank of each, changed since the last publication. Avatars are only loaded for new targets and targets
+ * whose avatar version changed, at most [MAX_CONCURRENT_AVATAR_LOADS] at a time. If only one target changed and it
+ * did not move to a lower rank, e.g. a conversation moved to the top after a new message, only that shortcut is
+ * pushed instead of replacing all of them.
+ *
+ * Must be used from the dispatcher of [scope].
+ */
+class ShareTargetPublisher(
+    private val scope: CoroutineScope,
+    private val sink: ShareTargetSink,
+    private val clock: () -> Long = System::currentTimeMillis,
+    private val loadIcon: suspend (User, ShareTarget) -> IconCompat
+) {
+
+    private class LoadedIcon(val avatarVersion: String, val icon: IconCompat)
+
+    private var pendingPublish: Job? = null
+    private var publishedUserId: Long? = null
+    private var published: List<ShareTarget>? = null
+    private val icons = HashMap<String, LoadedIcon>()
+
+    fun submit(user: User, conversations: List<ConversationModel>) {
+        pendingPublish?.cancel()
+        pendingPublish = scope.launch {
+            delay(DEBOUNCE_MILLIS)
+            publish(user, shareTargetsOf(conversations, sink.availableSlots(), clock() / MILLIS_PER_SECOND))
+        }
+    }
+
+    private suspend fun publish(user: User, targets: List<ShareTarget>) {
+        if (user.id != publishedUserId) {
+            publishedUserId = user.id
+            published = null
+            icons.clear()
+        }
+
+        val previous = published
+        if (targets == previous) {
+            return
+        }
+
+        loadChangedIcons(user, targets)
+        val shortcuts = targets.map { ShareTargetShortcut(it, icons.getValue(it.token).icon) }
+        val singleChange = previous?.let { singleChange(it, targets) }
+        if (singleChange != null) {
+            sink.pushShareTarget(user, shortcuts[singleChange.rank])
+        } else {
+            sink.setShareTargets(user, shortcuts)
+        }
+        published = targets
+
+        val tokens = targets.mapTo(HashSet()) { it.token }
+        icons.keys.retainAll(tokens)
+    }
+
+    private suspend fun loadChangedIcons(user: User, targets: List<ShareTarget>) {
+        val permits = Semaphore(MAX_CONCURRENT_AVATAR_LOADS)
+        coroutineScope {
+            targets
+                .filter { icons[it.token]?.avatarVersion != it.avatarVersion }
+                .forEach { target ->
+                    launch {
+                        permits.withPermit {
+                            icons[target.token] = LoadedIcon(target.avatarVersion, loadIcon(user, target))
+                        }
+                    }
+                }
+        }
+    }
+
+    companion object {
+        const val DEBOUNCE_MILLIS = 1_000L
+        const val MAX_CONCURRENT_AVATAR_LOADS = 4
+        private const val MAX_AGE_SECONDS = 30L * 24 * 60 * 60
+        private const val MILLIS_PER_SECOND = 1000
+
+        /**
+         * The conversations active in the last 30 days except Note to Self, most recent first.
+         */
+        internal fun shareTargetsOf(
+            conversations: List<ConversationModel>,
+            limit: Int,
+            nowSeconds: Long
+        ): List<ShareTarget> =
+            conversations
+                .filter { !ConversationUtils.isNoteToSelfConversation(it) }
+                .filter { it.lastActivity >= nowSeconds - MAX_AGE_SECONDS }
+                .sortedByDescending { it.lastActivity }
+                .take(limit)
+                .mapIndexed { rank, conversation ->
+                    ShareTarget(conversation.token, conversation.displayName, conversation.avatarVersion, rank)
+                }
+
+        /**
+         * Returns the only target of [current] that differs from [previous] if the other targets kept their order,
+         * and it did not move to a lower rank. Pushing it then puts it at its rank, as the shortcut manager places
+         * an updated shortcut before the one that already had the same rank.
+         */
+        internal fun singleChange(previous: List<ShareTarget>, current: List<ShareTarget>): ShareTarget? {
+            if (previous.size != current.size) {
+                return null
+            }
+            val firstDifference = current.indices.firstOrNull { current[it] != previous[it] } ?: return null
+            val candidate = current[firstDifference]
+            val previousRank = previous.indexOfFirst { it.token == candidate.token }
+            if (previousRank < candidate.rank) {
+                return null
+            }
+
+            val othersBefore = previous.filter { it.token != candidate.token }.map { it.copy(rank = 0) }
+            val othersNow = current.filter { it.token != candidate.token }.map { it.copy(rank = 0) }
+            return candidate.takeIf { othersBefore == othersNow }
+        }
+    }
+}
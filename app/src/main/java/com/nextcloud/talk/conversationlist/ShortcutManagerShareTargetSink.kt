@@ -0,0 +1,37 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.conversationlist
+
+import android.content.Context
+import androidx.core.content.pm.ShortcutInfoCompat
+import androidx.core.content.pm.ShortcutManagerCompat
+import com.nextcloud.talk.data.user.model.User
+
+/**
+ * Publishes the Direct Share shortcuts through [ShortcutManagerCompat].
+ */
+class ShortcutManagerShareTargetSink(private val context: Context) : ShareTargetSink {
+
+    override fun availableSlots(): Int =
+        (ShortcutManagerCompat.getMaxShortcutCountPerActivity(context) - otherShortcuts().size).coerceAtLeast(0)
+
+    override fun setShareTargets(user: User, shortcuts: List<ShareTargetShortcut>) {
+        val shareShortcuts = shortcuts.map { DirectShareHelper.buildShareTargetShortcut(context, user, it) }
+        // Preserve shortcuts not managed by DirectShareHelper (e.g. Note to Self).
+        ShortcutManagerCompat.setDynamicShortcuts(context, shareShortcuts + otherShortcuts())
+    }
+
+    override fun pushShareTarget(user: User, shortcut: ShareTargetShortcut) {
+        val shareShortcut = DirectShareHelper.buildShareTargetShortcut(context, user, shortcut)
+        ShortcutManagerCompat.pushDynamicShortcut(context, shareShortcut)
+    }
+
+    private fun otherShortcuts(): List<ShortcutInfoCompat> =
+        ShortcutManagerCompat.getDynamicShortcuts(context)
+            .filter { !DirectShareHelper.isShareTargetShortcut(it.id) }
+}
@@ -8,6 +8,7 @@
 package com.nextcloud.talk.conversationlist.data
 
 import com.nextcloud.talk.conversationlist.data.network.OfflineFirstConversationsRepository.ConversationResult
+import com.nextcloud.talk.data.database.model.ConversationListRow
 import com.nextcloud.talk.data.user.model.User
 import com.nextcloud.talk.models.domain.ConversationModel
 import kotlinx.coroutines.Job
@@ -16,11 +17,12 @@ import kotlinx.coroutines.flow.Flow
 interface OfflineConversationsRepository {
 
     /**
-     * Live stream of the observed account's conversations, for use in the conversation list.
-     * Backed by the local database: it re-emits whenever conversation rows change (room list
-     * sync, background catch-up, optimistic updates), with unchanged lists deduplicated.
+     * Live stream of the observed account's conversation list rows, favorites first and then by last
+     * activity. Backed by the local database: it re-emits whenever conversation rows change (room list
+     * sync, background catch-up, optimistic updates). Unchanged rows keep their instance across emissions
+     * and unchanged lists are deduplicated.
      */
-    val roomListFlow: Flow<List<ConversationModel>>
+    val conversationListFlow: Flow<List<ConversationListRow>>
 
     /**
      * Stream of a single conversation, for use in each conversations settings.
@@ -29,8 +31,8 @@ interface OfflineConversationsRepository {
     val conversationFlow: Flow<ConversationModel>
 
     /**
-     * Selects the account observed by [roomListFlow] and synchronizes its conversations with
-     * the server (when online). The synced changes surface through [roomListFlow], which
+     * Selects the account observed by [conversationListFlow] and synchronizes its conversations with
+     * the server (when online). The synced changes surface through [conversationListFlow], which
      * observes the database.
      */
     @Deprecated("use observeConversation")
@@ -44,11 +46,21 @@ interface OfflineConversationsRepository {
     fun getRoom(user: User, roomToken: String): Job
 
     /**
-     * Updates a single conversation in the local database. [roomListFlow] observes the database
+     * Updates a single conversation in the local database. [conversationListFlow] observes the database
      * and re-emits the updated list on its own.
      */
     suspend fun updateConversation(conversationModel: ConversationModel)
 
+    /**
+     * The conversations of an account as they are stored right now, read once.
+     */
+    suspend fun getConversations(accountId: Long): List<ConversationModel>
+
+    /**
+     * A conversation as it is stored right now, read once. Null if it is not stored.
+     */
+    suspend fun getConversation(accountId: Long, token: String): ConversationModel?
+
     @Deprecated("use observeConversation")
     suspend fun getLocallyStoredConversation(user: User, roomToken: String): ConversationModel?
 
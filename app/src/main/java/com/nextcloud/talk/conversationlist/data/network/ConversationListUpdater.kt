@@ -13,6 +13,7 @@ import com.nextcloud.talk.chat.data.network.ChatMessageSyncer
 import com.nextcloud.talk.data.database.dao.ChatBlocksDao
 import com.nextcloud.talk.data.database.dao.ChatMessagesDao
 import com.nextcloud.talk.data.database.dao.ConversationsDao
+import com.nextcloud.talk.data.database.mappers.toLastMessagePreview
 import com.nextcloud.talk.data.database.model.ConversationEntity
 import kotlinx.coroutines.flow.first
 import java.util.concurrent.ConcurrentHashMap
@@ -274,9 +275,10 @@ class ConversationListUpdater @Inject constructor(
             pendingReadMarker(target.internalConversationId) ?: 0
         )
         val unreadMessages = deriveUnreadMessagesCount(target, lastReadMessage)
-        val updatedRows = conversationsDao.updateConversationFromCatchUp(
+        val updatedRows = conversationsDao.updateConversationAndPreviewFromCatchUp(
             internalId = conversation.internalId,
             lastMessageJson = LoganSquare.serialize(newestMessage),
+            lastMessagePreview = newestMessage.toLastMessagePreview(conversation.actorId),
             lastActivity = newestMessage.timestamp,
             unreadMessages = unreadMessages
         )
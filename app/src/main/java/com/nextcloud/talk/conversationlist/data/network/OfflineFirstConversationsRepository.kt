@@ -12,16 +12,20 @@ import android.content.Context
 import android.net.ConnectivityManager
 import android.os.PowerManager
 import android.util.Log
+import com.bluelinelabs.logansquare.LoganSquare
 import com.nextcloud.talk.chat.data.network.ChatMessageSyncer
 import com.nextcloud.talk.chat.data.network.ChatNetworkDataSource
 import com.nextcloud.talk.conversationlist.data.OfflineConversationsRepository
 import com.nextcloud.talk.data.database.dao.ConversationsDao
 import com.nextcloud.talk.data.database.mappers.asEntity
 import com.nextcloud.talk.data.database.mappers.toDomainModel
+import com.nextcloud.talk.data.database.mappers.toLastMessagePreview
 import com.nextcloud.talk.data.database.model.ConversationEntity
+import com.nextcloud.talk.data.database.model.ConversationListRow
 import com.nextcloud.talk.data.network.NetworkMonitor
 import com.nextcloud.talk.data.user.model.User
 import com.nextcloud.talk.models.domain.ConversationModel
+import com.nextcloud.talk.models.json.chat.ChatMessageJson
 import com.nextcloud.talk.utils.ApiUtils
 import com.nextcloud.talk.utils.CapabilitiesUtil.isUserStatusAvailable
 import com.nextcloud.talk.utils.SpreedFeatures
@@ -37,9 +41,11 @@ import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.MutableSharedFlow
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.distinctUntilChanged
+import kotlinx.coroutines.flow.emitAll
 import kotlinx.coroutines.flow.filterNotNull
 import kotlinx.coroutines.flow.first
 import kotlinx.coroutines.flow.flatMapLatest
+import kotlinx.coroutines.flow.flow
 import kotlinx.coroutines.flow.map
 import kotlinx.coroutines.coroutineScope
 import kotlinx.coroutines.launch
@@ -61,21 +67,21 @@ class OfflineFirstConversationsRepository @Inject constructor(
     private val observedAccountId = MutableStateFlow<Long?>(null)
 
     /**
-     * The conversation list as a live view of the local database — the single source of truth.
-     * Every write to the conversations table (room list sync, background message catch-up,
-     * optimistic read state, drafts) reaches collectors reactively; [getRooms] only selects the
-     * account to observe and triggers the background sync, which stays in place as the authority
-     * and self-healing safeguard.
+     * The conversation list as rows in display order, see [ConversationsDao.getConversationListRows]. Rows stored
+     * before the last message preview existed get their preview first.
      */
     @OptIn(ExperimentalCoroutinesApi::class)
-    override val roomListFlow: Flow<List<ConversationModel>> =
+    override val conversationListFlow: Flow<List<ConversationListRow>> =
         observedAccountId
             .filterNotNull()
             .distinctUntilChanged()
             .flatMapLatest { accountId ->
-                dao.getConversationsForUser(accountId)
-                    .map { entities -> entities.map(ConversationEntity::toDomainModel) }
+                flow {
+                    addMissingLastMessagePreviews(accountId)
+                    emitAll(dao.getConversationListRows(accountId))
+                }
             }
+            .reuseUnchangedRows()
             .distinctUntilChanged()
 
     override val conversationFlow: Flow<ConversationModel>
@@ -154,6 +160,23 @@ class OfflineFirstConversationsRepository @Inject constructor(
                 })
         }
 
+    @Suppress("Detekt.TooGenericExceptionCaught")
+    private suspend fun addMissingLastMessagePreviews(accountId: Long) {
+        try {
+            dao.getConversationsWithoutLastMessagePreview(accountId).forEach { entity ->
+                val lastMessageJson = entity.lastMessage ?: return@forEach
+                val lastMessage = LoganSquare.parse(lastMessageJson, ChatMessageJson::class.java)
+                dao.updateLastMessagePreview(
+                    entity.internalId,
+                    lastMessageJson,
+                    lastMessage.toLastMessagePreview(entity.actorId)
+                )
+            }
+        } catch (e: Exception) {
+            Log.e(TAG, "Failed to add the last message previews of the stored conversations", e)
+        }
+    }
+
     override suspend fun updateConversation(conversationModel: ConversationModel) {
         val entity = conversationModel.asEntity()
         dao.updateConversation(entity)
@@ -325,7 +348,10 @@ class OfflineFirstConversationsRepository @Inject constructor(
         return previousConversations.keys.filterNot { it in conversationsFromSyncIds }
     }
 
-    private suspend fun getConversation(accountId: Long, token: String): ConversationModel? {
+    override suspend fun getConversations(accountId: Long): List<ConversationModel> =
+        dao.getConversationsForUser(accountId).first().map(ConversationEntity::toDomainModel)
+
+    override suspend fun getConversation(accountId: Long, token: String): ConversationModel? {
         val entity = dao.getConversationForUser(accountId, token).first()
         return entity?.toDomainModel()
     }
@@ -337,3 +363,18 @@ class OfflineFirstConversationsRepository @Inject constructor(
         private const val MAX_CONCURRENT_CATCH_UPS = 3
     }
 }
+
+/**
+ * Replaces every row that equals the row of the same conversation in the previous emission by that previous
+ * instance. A write to a single conversation then leaves all other rows identical, so comparing the lists and
+ * skipping the unchanged items in the list UI is cheap.
+ */
+internal fun Flow<List<ConversationListRow>>.reuseUnchangedRows(): Flow<List<ConversationListRow>> =
+    flow {
+        var previousRows = emptyMap<String, ConversationListRow>()
+        collect { rows ->
+            val reusedRows = rows.map { row -> previousRows[row.internalId]?.takeIf { it == row } ?: row }
+            previousRows = reusedRows.associateBy { it.internalId }
+            emit(reusedRows)
+        }
+    }
@@ -93,8 +93,8 @@ import coil.compose.AsyncImage
 import coil.request.ImageRequest
 import coil.transform.CircleCropTransformation
 import com.nextcloud.talk.R
+import com.nextcloud.talk.data.database.model.ConversationListRow
 import com.nextcloud.talk.data.user.model.User
-import com.nextcloud.talk.models.domain.ConversationModel
 import com.nextcloud.talk.models.domain.SearchMessageEntry
 import com.nextcloud.talk.models.json.participants.Participant
 import com.nextcloud.talk.utils.ApiUtils
@@ -246,8 +246,8 @@ fun ConversationList(
     isRefreshing: Boolean,
     currentUser: User,
     credentials: String,
-    onConversationClick: (ConversationModel) -> Unit,
-    onConversationLongClick: (ConversationModel) -> Unit,
+    onConversationClick: (ConversationListRow) -> Unit,
+    onConversationLongClick: (ConversationListRow) -> Unit,
     onMessageResultClick: (SearchMessageEntry) -> Unit,
     onContactClick: (Participant) -> Unit,
     onLoadMoreClick: () -> Unit,
@@ -260,7 +260,7 @@ fun ConversationList(
     listState: LazyListState = rememberLazyListState(),
     /** Extra bottom padding added as LazyColumn contentPadding so the last item is reachable above the nav bar. */
     contentBottomPadding: Dp = 0.dp,
-    onSwipeConversation: (ConversationOpsAction, ConversationModel) -> Unit = { _, _ -> },
+    onSwipeConversation: (ConversationOpsAction, ConversationListRow) -> Unit = { _, _ -> },
     isOnline: Boolean = true,
     /** Rubber-band pull-to-reveal content shown above the list; null hides the feature entirely. */
     tagsRowContent: (@Composable () -> Unit)? = null
@@ -363,7 +363,7 @@ fun ConversationList(
                                 "header_${entry.title}"
 
                             is ConversationListEntry.ConversationEntry ->
-                                "conv_${entry.model.token}"
+                                "conv_${entry.row.token}"
 
                             is ConversationListEntry.MessageResultEntry ->
                                 "msg_${entry.result.conversationToken}_" +
@@ -387,16 +387,16 @@ fun ConversationList(
 
                         is ConversationListEntry.ConversationEntry ->
                             SwipeableConversationItem(
-                                model = entry.model,
-                                onSwipe = { action -> onSwipeConversation(action, entry.model) },
+                                model = entry.row,
+                                onSwipe = { action -> onSwipeConversation(action, entry.row) },
                                 enabled = isOnline
                             ) {
                                 ConversationListItem(
-                                    model = entry.model,
+                                    model = entry.row,
                                     currentUser = currentUser,
                                     callbacks = ConversationListItemCallbacks(
-                                        onClick = { onConversationClick(entry.model) },
-                                        onLongClick = { onConversationLongClick(entry.model) }
+                                        onClick = { onConversationClick(entry.row) },
+                                        onLongClick = { onConversationLongClick(entry.row) }
                                     ),
                                     searchQuery = searchQuery
                                 )
@@ -447,7 +447,7 @@ private class SwipeParams(
     val haptic: HapticFeedback,
     val offsetX: Animatable<Float, AnimationVector1D>,
     val popScale: Animatable<Float, AnimationVector1D>,
-    val getModel: () -> ConversationModel,
+    val getModel: () -> ConversationListRow,
     val onSwipe: (ConversationOpsAction) -> Unit
 )
 
@@ -460,7 +460,7 @@ private data class SwipeThresholds(
 
 @Composable
 private fun SwipeableConversationItem(
-    model: ConversationModel,
+    model: ConversationListRow,
     onSwipe: (ConversationOpsAction) -> Unit,
     enabled: Boolean = true,
     content: @Composable () -> Unit
@@ -587,14 +587,14 @@ private suspend fun AwaitPointerEventScope.handleConfirmedSwipeDrag(
     params.coroutineScope.launch { params.offsetX.animateTo(0f, spring()) }
 }
 
-private fun resolveReadUnreadAction(model: ConversationModel): ConversationOpsAction =
+private fun resolveReadUnreadAction(model: ConversationListRow): ConversationOpsAction =
     if (model.unreadMessages > 0) ConversationOpsAction.MarkAsRead else ConversationOpsAction.MarkAsUnread
 
 @Composable
 private fun SwipeBackground(
     modifier: Modifier = Modifier,
     swipeDirection: SwipeValue,
-    model: ConversationModel,
+    model: ConversationListRow,
     progress: Float,
     popScale: Float
 ) {
@@ -7,7 +7,7 @@
 
 package com.nextcloud.talk.conversationlist.ui
 
-import com.nextcloud.talk.models.domain.ConversationModel
+import com.nextcloud.talk.data.database.model.ConversationListRow
 import com.nextcloud.talk.models.domain.SearchMessageEntry
 import com.nextcloud.talk.models.json.participants.Participant
 
@@ -19,7 +19,7 @@ sealed class ConversationListEntry {
     data class Header(val title: String) : ConversationListEntry()
 
     /** A single conversation item */
-    data class ConversationEntry(val model: ConversationModel) : ConversationListEntry()
+    data class ConversationEntry(val row: ConversationListRow) : ConversationListEntry()
 
     /** A message search result */
     data class MessageResultEntry(val result: SearchMessageEntry) : ConversationListEntry()
@@ -69,9 +69,10 @@ import android.graphics.drawable.BitmapDrawable
 import coil.request.ImageRequest
 import com.nextcloud.talk.R
 import com.nextcloud.talk.chat.data.model.ChatMessage
-import com.nextcloud.talk.data.database.mappers.toDomainModel
+import com.nextcloud.talk.data.database.mappers.toListRow
+import com.nextcloud.talk.data.database.model.ConversationListRow
+import com.nextcloud.talk.data.database.model.LastMessagePreview
 import com.nextcloud.talk.data.user.model.User
-import com.nextcloud.talk.models.json.chat.ChatUtils
 import com.nextcloud.talk.extensions.loadNoteToSelfAvatar
 import com.nextcloud.talk.extensions.loadSystemAvatar
 import com.nextcloud.talk.models.MessageDraft
@@ -80,8 +81,6 @@ import com.nextcloud.talk.models.json.chat.ChatMessageJson
 import com.nextcloud.talk.models.json.conversations.ConversationEnums
 import com.nextcloud.talk.models.json.participants.Participant
 import com.nextcloud.talk.ui.StatusDrawable
-import com.nextcloud.talk.utils.ApiUtils
-import com.nextcloud.talk.utils.AvatarImageLoader
 import com.nextcloud.talk.utils.CapabilitiesUtil.hasSpreedFeatureCapability
 import com.nextcloud.talk.utils.DisplayUtils
 import com.nextcloud.talk.utils.SpreedFeatures
@@ -104,16 +103,12 @@ data class ConversationListItemCallbacks(val onClick: () -> Unit, val onLongClic
 @OptIn(ExperimentalFoundationApi::class)
 @Composable
 fun ConversationListItem(
-    model: ConversationModel,
+    model: ConversationListRow,
     currentUser: User,
     callbacks: ConversationListItemCallbacks,
     modifier: Modifier = Modifier,
     searchQuery: String = ""
 ) {
-    val chatMessage = remember(model.lastMessage, currentUser) {
-        model.lastMessage?.toDomainModel()?.also { it.activeUser = currentUser }
-    }
-
     Row(
         modifier = modifier
             .fillMaxWidth()
@@ -136,13 +131,13 @@ fun ConversationListItem(
         if (model.hasSensitive) {
             SensitiveContent(model = model, currentUser = currentUser)
         } else {
-            FullContent(model = model, currentUser = currentUser, chatMessage = chatMessage, searchQuery = searchQuery)
+            FullContent(model = model, currentUser = currentUser, searchQuery = searchQuery)
         }
     }
 }
 
 @Composable
-private fun RowScope.SensitiveContent(model: ConversationModel, currentUser: User) {
+private fun RowScope.SensitiveContent(model: ConversationListRow, currentUser: User) {
     Row(
         modifier = Modifier
             .weight(1f)
@@ -165,26 +160,16 @@ private fun RowScope.SensitiveContent(model: ConversationModel, currentUser: Use
 }
 
 @Composable
-private fun RowScope.FullContent(
-    model: ConversationModel,
-    currentUser: User,
-    chatMessage: ChatMessage?,
-    searchQuery: String = ""
-) {
+private fun RowScope.FullContent(model: ConversationListRow, currentUser: User, searchQuery: String = "") {
     Column(modifier = Modifier.weight(1f)) {
-        ConversationNameRow(model = model, chatMessage = chatMessage, searchQuery = searchQuery)
+        ConversationNameRow(model = model, searchQuery = searchQuery)
         Spacer(Modifier.height(4.dp))
-        ConversationLastMessageRow(
-            model = model,
-            currentUser = currentUser,
-            chatMessage = chatMessage,
-            searchQuery = searchQuery
-        )
+        ConversationLastMessageRow(model = model, currentUser = currentUser, searchQuery = searchQuery)
     }
 }
 
 @Composable
-private fun ConversationAvatar(model: ConversationModel, currentUser: User, modifier: Modifier = Modifier) {
+private fun ConversationAvatar(model: ConversationListRow, currentUser: User, modifier: Modifier = Modifier) {
     Box(modifier = modifier) {
         ConversationAvatarImage(
             model = model,
@@ -230,32 +215,25 @@ private fun ConversationAvatar(model: ConversationModel, currentUser: User, modi
 
 @Suppress("LongMethod")
 @Composable
-private fun ConversationAvatarImage(model: ConversationModel, currentUser: User, modifier: Modifier = Modifier) {
+private fun ConversationAvatarImage(model: ConversationListRow, currentUser: User, modifier: Modifier = Modifier) {
     val isInPreview = LocalInspectionMode.current
     val context = LocalContext.current
     val isDark = LocalConfiguration.current.uiMode and Configuration.UI_MODE_NIGHT_MASK ==
         Configuration.UI_MODE_NIGHT_YES
-    val credentials = remember(currentUser.id) {
-        ApiUtils.getCredentials(currentUser.username, currentUser.token) ?: ""
-    }
-    val avatarContent = buildAvatarContent(model = model, currentUser = currentUser, isDark = isDark)
+    val avatarContent = buildAvatarContent(model = model, currentUser = currentUser)
 
     when (avatarContent) {
-        is AvatarContent.Url -> {
+        is AvatarContent.Remote -> {
             if (isInPreview) {
                 Box(modifier = modifier.background(Color.LightGray))
             } else {
-                val imageLoader = remember(avatarContent.versioned) {
-                    if (avatarContent.versioned) AvatarImageLoader.get(context) else context.imageLoader
-                }
+                val imageLoader = context.imageLoader
                 val aliasKey = remember(currentUser.id, model.token, isDark) {
                     MemoryCache.Key("avatar-${currentUser.id}-${model.token}-" + if (isDark) "dark" else "light")
                 }
-                val request = remember(avatarContent.url, credentials) {
+                val request = remember(avatarContent.avatar, isDark) {
                     ImageRequest.Builder(context)
-                        .data(avatarContent.url)
-                        .diskCacheKey("${avatarContent.url}#v2")
-                        .addHeader("Authorization", credentials)
+                        .data(avatarContent.avatar)
                         .crossfade(true)
                         .listener(
                             onSuccess = { _, result ->
@@ -363,7 +341,7 @@ private fun ActiveCallOverlay(modifier: Modifier = Modifier) {
 }
 
 @Composable
-private fun StatusOverlay(model: ConversationModel, modifier: Modifier = Modifier) {
+private fun StatusOverlay(model: ConversationListRow, modifier: Modifier = Modifier) {
     val isInPreview = LocalInspectionMode.current
 
     if (isInPreview) {
@@ -414,7 +392,7 @@ private fun StatusOverlay(model: ConversationModel, modifier: Modifier = Modifie
 }
 
 @Composable
-private fun PublicBadgeOverlay(model: ConversationModel, modifier: Modifier = Modifier) {
+private fun PublicBadgeOverlay(model: ConversationListRow, modifier: Modifier = Modifier) {
     val badgeRes = when {
         model.type == ConversationEnums.ConversationType.ROOM_PUBLIC_CALL ->
             R.drawable.ic_avatar_link
@@ -442,9 +420,9 @@ private fun PublicBadgeOverlay(model: ConversationModel, modifier: Modifier = Mo
 }
 
 @Composable
-private fun ConversationNameRow(model: ConversationModel, chatMessage: ChatMessage?, searchQuery: String = "") {
+private fun ConversationNameRow(model: ConversationListRow, searchQuery: String = "") {
     val hasDraft = model.messageDraft?.messageText?.isNotBlank() == true
-    val showDate = chatMessage != null || hasDraft
+    val showDate = model.lastMessagePreview != null || hasDraft
     val primaryColor = MaterialTheme.colorScheme.primary
 
     Row(
@@ -485,20 +463,13 @@ private fun ConversationNameRow(model: ConversationModel, chatMessage: ChatMessa
 }
 
 @Composable
-private fun ConversationLastMessageRow(
-    model: ConversationModel,
-    currentUser: User,
-    chatMessage: ChatMessage?,
-    searchQuery: String = ""
-) {
+private fun ConversationLastMessageRow(model: ConversationListRow, currentUser: User, searchQuery: String = "") {
     Row(
         modifier = Modifier.fillMaxWidth(),
         verticalAlignment = Alignment.CenterVertically
     ) {
         LastMessageContent(
             model = model,
-            currentUser = currentUser,
-            chatMessage = chatMessage,
             searchQuery = searchQuery,
             modifier = Modifier.weight(1f)
         )
@@ -508,7 +479,7 @@ private fun ConversationLastMessageRow(
 }
 
 @Composable
-private fun UnreadBubble(model: ConversationModel, currentUser: User) {
+private fun UnreadBubble(model: ConversationListRow, currentUser: User) {
     if (model.unreadMessages <= 0) return
 
     val text = if (model.unreadMessages >= UNREAD_THRESHOLD) {
@@ -582,15 +553,9 @@ private fun GreyUnreadChip(text: String) {
     }
 }
 
-@Suppress("LongMethod", "CyclomaticComplexMethod", "ReturnCount")
+@Suppress("LongMethod", "ReturnCount")
 @Composable
-private fun LastMessageContent(
-    model: ConversationModel,
-    currentUser: User,
-    chatMessage: ChatMessage?,
-    modifier: Modifier = Modifier,
-    searchQuery: String = ""
-) {
+private fun LastMessageContent(model: ConversationListRow, modifier: Modifier = Modifier, searchQuery: String = "") {
     val isBold = model.unreadMessages > 0
     val fontWeight = if (isBold) FontWeight.Bold else FontWeight.Normal
     val primaryColor = MaterialTheme.colorScheme.primary
@@ -622,32 +587,16 @@ private fun LastMessageContent(
     }
 
     // No message
-    if (chatMessage == null) {
+    val preview = model.lastMessagePreview
+    if (preview == null) {
         Text(text = "", modifier = modifier)
         return
     }
 
     // Deleted comment
-    if (chatMessage.isDeletedCommentMessage) {
-        val parsedText = ChatUtils.getParsedMessage(chatMessage.message, chatMessage.messageParameters) ?: ""
-        val youPrefix = stringResource(R.string.nc_formatted_message_you, parsedText)
-        val groupFormat = stringResource(R.string.nc_formatted_message)
-        val guestLabel = stringResource(R.string.nc_guest)
-        val displayText = when {
-            chatMessage.actorId == currentUser.userId -> youPrefix
-            model.type == ConversationEnums.ConversationType.ROOM_TYPE_ONE_TO_ONE_CALL -> parsedText
-            else -> {
-                val actorName = chatMessage.actorDisplayName?.takeIf { it.isNotBlank() }
-                    ?: if (chatMessage.actorType == "guests" || chatMessage.actorType == "emails") {
-                        guestLabel
-                    } else {
-                        ""
-                    }
-                if (actorName.isBlank()) parsedText else String.format(groupFormat, actorName, parsedText)
-            }
-        }
+    if (preview.kind == LastMessagePreview.Kind.DELETED) {
         Text(
-            text = buildHighlightedText(displayText, searchQuery, primaryColor),
+            text = buildHighlightedText(authoredText(model, preview), searchQuery, primaryColor),
             modifier = modifier,
             maxLines = 1,
             overflow = TextOverflow.Ellipsis,
@@ -657,15 +606,12 @@ private fun LastMessageContent(
         return
     }
 
-    val msgType = chatMessage.getCalculateMessageType()
-
     // System message
-    if (msgType == ChatMessage.MessageType.SYSTEM_MESSAGE ||
+    if (preview.kind == LastMessagePreview.Kind.SYSTEM ||
         model.type == ConversationEnums.ConversationType.ROOM_SYSTEM
     ) {
-        val parsedText = ChatUtils.getParsedMessage(chatMessage.message, chatMessage.messageParameters) ?: ""
         Text(
-            text = buildHighlightedText(parsedText, searchQuery, primaryColor),
+            text = buildHighlightedText(preview.text, searchQuery, primaryColor),
             modifier = modifier,
             maxLines = 1,
             overflow = TextOverflow.Ellipsis,
@@ -676,170 +622,37 @@ private fun LastMessageContent(
         return
     }
 
-    // Attachment / special message types
-    when (msgType) {
-        ChatMessage.MessageType.VOICE_MESSAGE -> {
-            val name = chatMessage.messageParameters?.get("file")?.get("name") ?: ""
-            val prefix = authorPrefix(chatMessage, currentUser)
-            AttachmentRow(
-                authorPrefix = prefix,
-                iconRes = R.drawable.baseline_mic_24,
-                name = name,
-                fontWeight = fontWeight,
-                modifier = modifier,
-                searchQuery = searchQuery
-            )
-            return
-        }
-
-        ChatMessage.MessageType.SINGLE_NC_ATTACHMENT_MESSAGE -> {
-            var name = chatMessage.message ?: ""
-            name = if (name == "{file}") {
-                chatMessage.messageParameters?.get("file")?.get("name") ?: ""
-            } else {
-                ChatUtils.getParsedMessage(name, chatMessage.messageParameters) ?: name
-            }
-            val mime = chatMessage.messageParameters?.get("file")?.get("mimetype")
-            val icon = attachmentIconRes(mime)
-            val prefix = authorPrefix(chatMessage, currentUser)
-            AttachmentRow(
-                authorPrefix = prefix,
-                iconRes = icon,
-                name = name,
-                fontWeight = fontWeight,
-                modifier = modifier,
-                searchQuery = searchQuery
-            )
-            return
-        }
-
-        ChatMessage.MessageType.SINGLE_NC_GEOLOCATION_MESSAGE -> {
-            val name = chatMessage.messageParameters?.get("object")?.get("name") ?: ""
-            val prefix = authorPrefix(chatMessage, currentUser)
-            AttachmentRow(
-                authorPrefix = prefix,
-                iconRes = R.drawable.baseline_location_pin_24,
-                name = name,
-                fontWeight = fontWeight,
-                modifier = modifier,
-                searchQuery = searchQuery
-            )
-            return
-        }
-
-        ChatMessage.MessageType.POLL_MESSAGE -> {
-            val name = chatMessage.messageParameters?.get("object")?.get("name") ?: ""
-            val prefix = authorPrefix(chatMessage, currentUser)
-            AttachmentRow(
-                authorPrefix = prefix,
-                iconRes = R.drawable.baseline_bar_chart_24,
-                name = name,
-                fontWeight = fontWeight,
-                modifier = modifier,
-                searchQuery = searchQuery
-            )
-            return
-        }
-
-        ChatMessage.MessageType.DECK_CARD -> {
-            val name = chatMessage.messageParameters?.get("object")?.get("name") ?: ""
-            val prefix = authorPrefix(chatMessage, currentUser)
-            AttachmentRow(
-                authorPrefix = prefix,
-                iconRes = R.drawable.baseline_article_24,
-                name = name,
-                fontWeight = fontWeight,
-                modifier = modifier,
-                searchQuery = searchQuery
-            )
-            return
-        }
-
-        ChatMessage.MessageType.SINGLE_LINK_GIPHY_MESSAGE,
-        ChatMessage.MessageType.SINGLE_LINK_TENOR_MESSAGE,
-        ChatMessage.MessageType.SINGLE_LINK_GIF_MESSAGE -> {
-            val gifSelf = stringResource(R.string.nc_sent_a_gif_you)
-            val gifOther = stringResource(R.string.nc_sent_a_gif, chatMessage.actorDisplayName ?: "")
-            Text(
-                text = if (chatMessage.actorId == currentUser.userId) gifSelf else gifOther,
-                modifier = modifier,
-                maxLines = 1,
-                overflow = TextOverflow.Ellipsis,
-                style = MaterialTheme.typography.bodyMedium,
-                fontWeight = fontWeight,
-                color = colorResource(R.color.textColorMaxContrast)
-            )
-            return
-        }
-
-        ChatMessage.MessageType.SINGLE_LINK_IMAGE_MESSAGE -> {
-            val imgSelf = stringResource(R.string.nc_sent_an_image_you)
-            val imgOther = stringResource(R.string.nc_sent_an_image, chatMessage.actorDisplayName ?: "")
-            Text(
-                text = if (chatMessage.actorId == currentUser.userId) imgSelf else imgOther,
-                modifier = modifier,
-                maxLines = 1,
-                overflow = TextOverflow.Ellipsis,
-                style = MaterialTheme.typography.bodyMedium,
-                fontWeight = fontWeight,
-                color = colorResource(R.color.textColorMaxContrast)
-            )
-            return
-        }
-
-        ChatMessage.MessageType.SINGLE_LINK_VIDEO_MESSAGE -> {
-            val vidSelf = stringResource(R.string.nc_sent_a_video_you)
-            val vidOther = stringResource(R.string.nc_sent_a_video, chatMessage.actorDisplayName ?: "")
-            Text(
-                text = if (chatMessage.actorId == currentUser.userId) vidSelf else vidOther,
-                modifier = modifier,
-                maxLines = 1,
-                overflow = TextOverflow.Ellipsis,
-                style = MaterialTheme.typography.bodyMedium,
-                fontWeight = fontWeight,
-                color = colorResource(R.color.textColorMaxContrast)
-            )
-            return
-        }
-
-        ChatMessage.MessageType.SINGLE_LINK_AUDIO_MESSAGE -> {
-            val audSelf = stringResource(R.string.nc_sent_an_audio_you)
-            val audOther = stringResource(R.string.nc_sent_an_audio, chatMessage.actorDisplayName ?: "")
-            Text(
-                text = if (chatMessage.actorId == currentUser.userId) audSelf else audOther,
-                modifier = modifier,
-                maxLines = 1,
-                overflow = TextOverflow.Ellipsis,
-                style = MaterialTheme.typography.bodyMedium,
-                fontWeight = fontWeight,
-                color = colorResource(R.color.textColorMaxContrast)
-            )
-            return
-        }
+    // Linked media
+    val sentLinkText = sentLinkText(preview)
+    if (sentLinkText != null) {
+        Text(
+            text = sentLinkText,
+            modifier = modifier,
+            maxLines = 1,
+            overflow = TextOverflow.Ellipsis,
+            style = MaterialTheme.typography.bodyMedium,
+            fontWeight = fontWeight,
+            color = colorResource(R.color.textColorMaxContrast)
+        )
+        return
+    }
 
-        else -> { /* fall through to regular text */ }
+    // Attachment / special message types
+    if (preview.kind != LastMessagePreview.Kind.TEXT) {
+        AttachmentRow(
+            authorPrefix = authorPrefix(preview),
+            iconRes = attachmentIconRes(preview),
+            name = preview.text,
+            fontWeight = fontWeight,
+            modifier = modifier,
+            searchQuery = searchQuery
+        )
+        return
     }
 
     // Regular text message
-    val parsedText = ChatUtils.getParsedMessage(chatMessage.message, chatMessage.messageParameters) ?: ""
-    val youPrefix = stringResource(R.string.nc_formatted_message_you, parsedText)
-    val groupFormat = stringResource(R.string.nc_formatted_message)
-    val guestLabel = stringResource(R.string.nc_guest)
-    val displayText = when {
-        chatMessage.actorId == currentUser.userId -> youPrefix
-        model.type == ConversationEnums.ConversationType.ROOM_TYPE_ONE_TO_ONE_CALL -> parsedText
-        else -> {
-            val actorName = chatMessage.actorDisplayName?.takeIf { it.isNotBlank() }
-                ?: if (chatMessage.actorType == "guests" || chatMessage.actorType == "emails") {
-                    guestLabel
-                } else {
-                    ""
-                }
-            if (actorName.isBlank()) parsedText else String.format(groupFormat, actorName, parsedText)
-        }
-    }
     Text(
-        text = buildHighlightedText(displayText, searchQuery, primaryColor),
+        text = buildHighlightedText(authoredText(model, preview), searchQuery, primaryColor),
         modifier = modifier,
         maxLines = 1,
         overflow = TextOverflow.Ellipsis,
@@ -849,6 +662,44 @@ private fun LastMessageContent(
     )
 }
 
+/**
+ * The preview text prefixed with its author, except in one-to-one conversations where only own messages are.
+ */
+@Composable
+private fun authoredText(model: ConversationListRow, preview: LastMessagePreview): String {
+    val youText = stringResource(R.string.nc_formatted_message_you, preview.text)
+    val groupFormat = stringResource(R.string.nc_formatted_message)
+    val guestLabel = stringResource(R.string.nc_guest)
+    return when {
+        preview.author == LastMessagePreview.Author.SELF -> youText
+        model.type == ConversationEnums.ConversationType.ROOM_TYPE_ONE_TO_ONE_CALL -> preview.text
+        else -> {
+            val actorName = preview.authorName
+                ?: if (preview.author == LastMessagePreview.Author.GUEST) guestLabel else ""
+            if (actorName.isBlank()) preview.text else String.format(groupFormat, actorName, preview.text)
+        }
+    }
+}
+
+/**
+ * "You sent a GIF." or "Alice sent a GIF." for linked media, null for any other message.
+ */
+@Composable
+private fun sentLinkText(preview: LastMessagePreview): String? {
+    val (selfRes, otherRes) = when (preview.kind) {
+        LastMessagePreview.Kind.LINK_GIF -> R.string.nc_sent_a_gif_you to R.string.nc_sent_a_gif
+        LastMessagePreview.Kind.LINK_IMAGE -> R.string.nc_sent_an_image_you to R.string.nc_sent_an_image
+        LastMessagePreview.Kind.LINK_VIDEO -> R.string.nc_sent_a_video_you to R.string.nc_sent_a_video
+        LastMessagePreview.Kind.LINK_AUDIO -> R.string.nc_sent_an_audio_you to R.string.nc_sent_an_audio
+        else -> return null
+    }
+    return if (preview.author == LastMessagePreview.Author.SELF) {
+        stringResource(selfRes)
+    } else {
+        stringResource(otherRes, preview.authorName.orEmpty())
+    }
+}
+
 @Suppress("LongParameterList")
 @Composable
 private fun AttachmentRow(
@@ -891,12 +742,22 @@ private fun AttachmentRow(
     }
 }
 
-private fun authorPrefix(chatMessage: ChatMessage, currentUser: User): String =
-    if (chatMessage.actorId == currentUser.userId) {
+private fun authorPrefix(preview: LastMessagePreview): String =
+    if (preview.author == LastMessagePreview.Author.SELF) {
         "You:"
     } else {
-        val name = chatMessage.actorDisplayName
-        if (!name.isNullOrBlank()) "$name:" else ""
+        preview.authorName?.let { "$it:" } ?: ""
+    }
+
+@DrawableRes
+private fun attachmentIconRes(preview: LastMessagePreview): Int? =
+    when (preview.kind) {
+        LastMessagePreview.Kind.VOICE -> R.drawable.baseline_mic_24
+        LastMessagePreview.Kind.FILE -> attachmentIconRes(preview.mimeType)
+        LastMessagePreview.Kind.LOCATION -> R.drawable.baseline_location_pin_24
+        LastMessagePreview.Kind.POLL -> R.drawable.baseline_bar_chart_24
+        LastMessagePreview.Kind.DECK_CARD -> R.drawable.baseline_article_24
+        else -> null
     }
 
 private fun attachmentIconRes(mimetype: String?): Int? =
@@ -952,7 +813,7 @@ private fun previewModel(
     type = type,
     participantType = Participant.ParticipantType.USER,
     sessionId = "s",
-    actorId = "a",
+    actorId = "user1",
     actorType = "users",
     objectType = objectType,
     notificationLevel = ConversationEnums.NotificationLevel.DEFAULT,
@@ -978,7 +839,7 @@ private fun previewModel(
     lastMessage = lastMessage,
     messageDraft = messageDraft,
     lastActivity = System.currentTimeMillis() / 1000L - 3600L
-)
+).toListRow()
 
 @Suppress("LongParameterList")
 private fun previewMsg(
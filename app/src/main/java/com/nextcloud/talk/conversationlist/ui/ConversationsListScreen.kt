@@ -53,6 +53,7 @@ import com.nextcloud.talk.R
 import com.nextcloud.talk.components.ColoredStatusBar
 import com.nextcloud.talk.conversationlist.viewmodels.ConversationsListViewModel
 import com.nextcloud.talk.conversationtags.viewmodels.ConversationTagsViewModel
+import com.nextcloud.talk.data.database.mappers.toListRow
 import com.nextcloud.talk.data.user.model.User
 import com.nextcloud.talk.models.domain.ConversationModel
 import com.nextcloud.talk.models.domain.SearchMessageEntry
@@ -139,7 +140,7 @@ fun ConversationsListScreen(
 
     // ViewModel state
     val entries by viewModel.conversationListEntriesFlow.collectAsStateWithLifecycle()
-    val rooms by viewModel.getRoomsStateFlow.collectAsStateWithLifecycle()
+    val isRoomListEmpty by viewModel.isRoomListEmpty.collectAsStateWithLifecycle()
     val visibleRooms by viewModel.visibleRoomsFlow.collectAsStateWithLifecycle()
     val isShimmerVisible by viewModel.isShimmerVisible.collectAsStateWithLifecycle()
     val isSearchActive by viewModel.isSearchActiveFlow.collectAsStateWithLifecycle()
@@ -176,7 +177,7 @@ fun ConversationsListScreen(
 
     val effectiveShimmerVisible = isShimmerVisible
 
-    val isRoomsEmpty = rooms.isEmpty() && !effectiveShimmerVisible
+    val isRoomsEmpty = isRoomListEmpty && !effectiveShimmerVisible
     val showSearchNoResults = isSearchActive && entries.isEmpty() && searchQuery.isNotEmpty() && !isSearchLoading
     val showFilterActive = filterState.any { (k, v) -> k != DEFAULT && v }
     val showThreadsButton =
@@ -190,7 +191,7 @@ fun ConversationsListScreen(
             if (tag.type == ConversationTag.TYPE_FAVORITES) {
                 visibleRooms.any { it.favorite }
             } else {
-                visibleRooms.any { it.tagIds.contains(tag.id) }
+                visibleRooms.any { it.tagIds?.contains(tag.id) == true }
             }
         }
     }
@@ -331,8 +332,12 @@ fun ConversationsListScreen(
                                     currentUser = state.currentUser,
                                     credentials = state.credentials,
                                     searchQuery = searchQuery,
-                                    onConversationClick = callbacks.onConversationClick,
-                                    onConversationLongClick = callbacks.onConversationLongClick,
+                                    onConversationClick = { row ->
+                                        viewModel.withConversationOf(row, callbacks.onConversationClick)
+                                    },
+                                    onConversationLongClick = { row ->
+                                        viewModel.withConversationOf(row, callbacks.onConversationLongClick)
+                                    },
                                     onMessageResultClick = callbacks.onMessageResultClick,
                                     onContactClick = callbacks.onContactClick,
                                     onLoadMoreClick = callbacks.onLoadMoreClick,
@@ -341,7 +346,11 @@ fun ConversationsListScreen(
                                     onScrollStopped = callbacks.onScrollStopped,
                                     listState = lazyListState,
                                     contentBottomPadding = paddingValues.calculateBottomPadding(),
-                                    onSwipeConversation = callbacks.onConversationOpsAction,
+                                    onSwipeConversation = { action, row ->
+                                        viewModel.withConversationOf(row) { model ->
+                                            callbacks.onConversationOpsAction(action, model)
+                                        }
+                                    },
                                     isOnline = isOnline,
                                     tagsRowContent = if (showConversationTagsRow) {
                                         {
@@ -571,7 +580,7 @@ private fun previewConvEntries(): List<ConversationListEntry> =
                 unreadMention = true,
                 unreadMentionDirect = true,
                 lastMessage = previewMsg(message = "Did you see my message?")
-            )
+            ).toListRow()
         ),
         ConversationListEntry.ConversationEntry(
             previewConvModel(
@@ -581,7 +590,7 @@ private fun previewConvEntries(): List<ConversationListEntry> =
                 unreadMessages = 3,
                 unreadMention = true,
                 lastMessage = previewMsg(actorDisplayName = "Carol", message = "@user1 please review the PR")
-            )
+            ).toListRow()
         ),
         ConversationListEntry.ConversationEntry(
             previewConvModel(
@@ -596,7 +605,7 @@ private fun previewConvEntries(): List<ConversationListEntry> =
                         "file" to hashMapOf("name" to "voice.mp3", "mimetype" to "audio/mpeg")
                     )
                 )
-            )
+            ).toListRow()
         ),
         ConversationListEntry.ConversationEntry(
             previewConvModel(
@@ -605,7 +614,7 @@ private fun previewConvEntries(): List<ConversationListEntry> =
                 type = ConversationEnums.ConversationType.ROOM_GROUP_CALL,
                 unreadMessages = 1500,
                 lastMessage = previewMsg(actorDisplayName = "Dave", message = "So many messages!")
-            )
+            ).toListRow()
         )
     )
 
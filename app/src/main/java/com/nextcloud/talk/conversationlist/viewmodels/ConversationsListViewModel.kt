@@ -18,6 +18,8 @@ import com.nextcloud.talk.contacts.ContactsRepository
 import com.nextcloud.talk.conversationlist.data.OfflineConversationsRepository
 import com.nextcloud.talk.conversationlist.data.network.ConversationListUpdater
 import com.nextcloud.talk.conversationlist.ui.ConversationListEntry
+import com.nextcloud.talk.data.database.mappers.toListRow
+import com.nextcloud.talk.data.database.model.ConversationListRow
 import com.nextcloud.talk.data.user.model.User
 import com.nextcloud.talk.invitation.data.InvitationsModel
 import com.nextcloud.talk.invitation.data.InvitationsRepository
@@ -47,19 +49,23 @@ import io.reactivex.Observer
 import io.reactivex.android.schedulers.AndroidSchedulers
 import io.reactivex.disposables.Disposable
 import io.reactivex.schedulers.Schedulers
+import kotlinx.coroutines.CancellationException
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.Job
 import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.MutableSharedFlow
 import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.SharedFlow
 import kotlinx.coroutines.flow.SharingStarted
 import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asSharedFlow
 import kotlinx.coroutines.flow.asStateFlow
 import kotlinx.coroutines.flow.catch
 import kotlinx.coroutines.flow.combine
-import kotlinx.coroutines.flow.flow
 import kotlinx.coroutines.flow.flowOn
 import kotlinx.coroutines.flow.map
-import kotlinx.coroutines.flow.onEach
+import kotlinx.coroutines.flow.onCompletion
+import kotlinx.coroutines.flow.onStart
 import kotlinx.coroutines.flow.stateIn
 import kotlinx.coroutines.flow.update
 import kotlinx.coroutines.launch
@@ -86,7 +92,7 @@ class ConversationsListViewModel @Inject constructor(
     val currentUser: User = _currentUser
     val credentials = ApiUtils.getCredentials(_currentUser.username, _currentUser.token) ?: ""
 
-    private val searchHelper = MessageSearchHelper(unifiedSearchRepository, currentUser)
+    private val searchHelper = MessageSearchHelper(unifiedSearchRepository, currentUser, prefetchScope = viewModelScope)
 
     sealed interface ViewState
 
@@ -137,19 +143,11 @@ class ConversationsListViewModel @Inject constructor(
 
     object GetRoomsStartState : ViewState
     class GetRoomsErrorState(val throwable: Throwable) : ViewState
-    open class GetRoomsSuccessState(val listIsNotEmpty: Boolean) : ViewState
 
     private val _getRoomsViewState: MutableLiveData<ViewState> = MutableLiveData(GetRoomsStartState)
     val getRoomsViewState: LiveData<ViewState>
         get() = _getRoomsViewState
 
-    val getRoomsFlow = repository.roomListFlow
-        .onEach { list ->
-            _getRoomsViewState.value = GetRoomsSuccessState(list.isNotEmpty())
-        }.catch {
-            _getRoomsViewState.value = GetRoomsErrorState(it)
-        }
-
     private val _isLoadingRooms = MutableStateFlow(true)
 
     /**
@@ -158,14 +156,35 @@ class ConversationsListViewModel @Inject constructor(
      */
     val isLoadingRooms: StateFlow<Boolean> = _isLoadingRooms.asStateFlow()
 
-    val getRoomsStateFlow = repository
-        .roomListFlow
+    private val _storedRoomsFlow = MutableSharedFlow<List<ConversationModel>>(replay = 1)
+
+    /**
+     * The stored conversations of the account, read once when [getRooms] starts and again after its sync. Used for
+     * the shortcuts and the direct share targets, the list itself only observes the rows it renders.
+     */
+    val storedRoomsFlow: SharedFlow<List<ConversationModel>> = _storedRoomsFlow.asSharedFlow()
+
+    /**
+     * What the conversation list renders, already sorted by favorite and last activity. Unchanged rows keep their
+     * instance, see [OfflineConversationsRepository.conversationListFlow].
+     */
+    private val conversationListRowsFlow = repository
+        .conversationListFlow
         .catch { throwable ->
-            Log.e(TAG, "Error observing the conversation list", throwable)
+            Log.e(TAG, "Error observing the conversation list rows", throwable)
             _getRoomsViewState.value = GetRoomsErrorState(throwable)
         }
         .stateIn(viewModelScope, SharingStarted.Eagerly, listOf())
 
+    val isRoomListEmpty: StateFlow<Boolean> = conversationListRowsFlow
+        .map { it.isEmpty() }
+        .stateIn(viewModelScope, SharingStarted.Eagerly, true)
+
+    /**
+     * Open conversations from the last search, which are not stored and can thus not be looked up in the database.
+     */
+    private var searchedOpenConversations: Map<String, ConversationModel> = emptyMap()
+
     /**
      * Drives the shimmer skeleton visibility. Visible while rooms are still being loaded for
      * the first time (no data in the list yet). Hidden as soon as either the room list is
@@ -173,9 +192,9 @@ class ConversationsListViewModel @Inject constructor(
      */
     val isShimmerVisible: StateFlow<Boolean> = combine(
         _isLoadingRooms,
-        getRoomsStateFlow
-    ) { isLoading, rooms ->
-        isLoading && rooms.isEmpty()
+        isRoomListEmpty
+    ) { isLoading, isEmpty ->
+        isLoading && isEmpty
     }.stateIn(viewModelScope, SharingStarted.Eagerly, true)
 
     private val _federationInvitationHintVisible = MutableStateFlow(false)
@@ -189,6 +208,11 @@ class ConversationsListViewModel @Inject constructor(
 
     /** Job tracking the currently active [getSearchQuery] coroutine; canceled on cleanup. */
     private var searchJob: Job? = null
+    private var loadMoreJob: Job? = null
+
+    // the search job keeps observing the conversations, so it can not tell whether the messages are still loading
+    @Volatile
+    private var isLoadingMessages = false
 
     /**
      * Tracks the query that the last completed/running [getSearchQuery] call was started for.
@@ -268,7 +292,7 @@ class ConversationsListViewModel @Inject constructor(
      * Auto-reacts to rooms, filter, tag filter, search-active and search-result changes.
      */
     val conversationListEntriesFlow: StateFlow<List<ConversationListEntry>> = combine(
-        getRoomsStateFlow,
+        conversationListRowsFlow,
         _filterStateFlow,
         searchDisplayModeFlow,
         combine(_selectedTagFilterFlow, selectedTagIsFavoritesFlow, ::TagFilterSelection),
@@ -284,15 +308,27 @@ class ConversationsListViewModel @Inject constructor(
      * visible conversation - e.g. a tag whose only conversation is archived should not
      * show up as a chip unless the "Archived" filter is active.
      */
-    val visibleRoomsFlow: StateFlow<List<ConversationModel>> = combine(
-        getRoomsStateFlow,
+    val visibleRoomsFlow: StateFlow<List<ConversationListRow>> = combine(
+        conversationListRowsFlow,
         _filterStateFlow,
         searchDisplayModeFlow,
         hideRoomToken
     ) { rooms, filterState, searchMode, hideToken ->
-        baseFilterRooms(rooms, filterState, searchMode, hideToken)
+        filterRows(rooms, filterState, searchMode == SearchDisplayMode.ALL_CONVERSATIONS, hideToken, nowSeconds())
     }.stateIn(viewModelScope, SharingStarted.Eagerly, emptyList())
 
+    /**
+     * Looks up the conversation a row of the list shows and passes it to [action]. Nothing happens if it
+     * disappeared meanwhile.
+     */
+    fun withConversationOf(row: ConversationListRow, action: (ConversationModel) -> Unit) {
+        viewModelScope.launch {
+            val conversation = repository.getConversation(row.accountId, row.token)
+                ?: searchedOpenConversations[row.internalId]
+            conversation?.let(action)
+        }
+    }
+
     /** Clears the tag filter when the filtered-by tag no longer exists (e.g. it was deleted). */
     fun clearTagFilterIfMatches(tagId: String) {
         if (_selectedTagFilterFlow.value == tagId) {
@@ -333,6 +369,8 @@ class ConversationsListViewModel @Inject constructor(
         _isSearchLoadingFlow.value = false
         searchJob?.cancel()
         searchJob = null
+        loadMoreJob?.cancel()
+        loadMoreJob = null
         searchHelper.cancelSearch()
         searchResultEntries.value = emptyList()
         _currentSearchQueryFlow.value = ""
@@ -404,8 +442,8 @@ class ConversationsListViewModel @Inject constructor(
 
         searchJob = viewModelScope.launch {
             combine(
-                getRoomsStateFlow.map { list ->
-                    list.filter { it.displayName?.contains(filter, ignoreCase = true) == true }
+                conversationListRowsFlow.map { list ->
+                    list.filter { it.displayName.contains(filter, ignoreCase = true) }
                 },
                 openConversationsRepository.fetchOpenConversationsFlow(currentUser, filter),
                 contactsRepository.getContactsFlow(currentUser, filter),
@@ -424,21 +462,17 @@ class ConversationsListViewModel @Inject constructor(
                         isSingleUser = { it.type == ConversationEnums.ConversationType.ROOM_TYPE_ONE_TO_ONE_CALL }
                     ).forEach { entries.add(ConversationListEntry.ConversationEntry(it)) }
                 }
-                if (openConvs.isNotEmpty()) {
+                val openModels = openConvs.map { ConversationModel.mapToConversationModel(it, currentUser) }
+                searchedOpenConversations = openModels.associateBy { it.internalId }
+                if (openModels.isNotEmpty()) {
                     entries.add(ConversationListEntry.Header(openConversationsTitle))
                     sortedByMatchQuality(
-                        openConvs,
+                        openModels,
                         { it.name },
                         filter,
                         wordPattern,
                         isSingleUser = { it.type == ConversationEnums.ConversationType.ROOM_TYPE_ONE_TO_ONE_CALL }
-                    ).forEach { conv ->
-                        entries.add(
-                            ConversationListEntry.ConversationEntry(
-                                ConversationModel.mapToConversationModel(conv, currentUser)
-                            )
-                        )
-                    }
+                    ).forEach { entries.add(ConversationListEntry.ConversationEntry(it.toListRow())) }
                 }
                 if (contacts.isNotEmpty()) {
                     entries.add(ConversationListEntry.Header(usersTitle))
@@ -502,12 +536,16 @@ class ConversationsListViewModel @Inject constructor(
         )
 
     private fun getMessagesFlow(search: String): Flow<MessageSearchResults> =
-        flow {
-            emit(searchHelper.startMessageSearch(search))
-        }.flowOn(Dispatchers.IO)
+        searchHelper.searchFlow(search)
+            .onStart { isLoadingMessages = true }
+            .onCompletion { isLoadingMessages = false }
+            .flowOn(Dispatchers.IO)
 
     fun loadMoreMessages(context: Context) {
-        viewModelScope.launch {
+        if (isLoadingMessages || loadMoreJob?.isActive == true) {
+            return
+        }
+        loadMoreJob = viewModelScope.launch {
             val result = withContext(Dispatchers.IO) {
                 searchHelper.loadMore()
             } ?: return@launch
@@ -536,8 +574,22 @@ class ConversationsListViewModel @Inject constructor(
         _isLoadingRooms.value = true
         val job = repository.getRooms(user)
         viewModelScope.launch {
+            emitStoredRooms(user.id!!)
             job.join()
             _isLoadingRooms.value = false
+            emitStoredRooms(user.id!!)
+        }
+    }
+
+    @Suppress("Detekt.TooGenericExceptionCaught")
+    private suspend fun emitStoredRooms(accountId: Long) {
+        try {
+            _storedRoomsFlow.emit(repository.getConversations(accountId))
+        } catch (e: CancellationException) {
+            throw e
+        } catch (e: Exception) {
+            Log.e(TAG, "Error reading the stored conversations", e)
+            _getRoomsViewState.value = GetRoomsErrorState(e)
         }
     }
 
@@ -649,7 +701,7 @@ class ConversationsListViewModel @Inject constructor(
 
     @Suppress("LongParameterList")
     private fun buildConversationListEntries(
-        rooms: List<ConversationModel>,
+        rows: List<ConversationListRow>,
         filterState: Map<String, Boolean>,
         searchMode: SearchDisplayMode,
         tagFilter: TagFilterSelection,
@@ -658,90 +710,22 @@ class ConversationsListViewModel @Inject constructor(
     ): List<ConversationListEntry> {
         if (searchMode == SearchDisplayMode.RESULTS) return searchResults
 
-        var filtered = baseFilterRooms(rooms, filterState, searchMode, hideToken)
+        val showAll = searchMode == SearchDisplayMode.ALL_CONVERSATIONS
+        var filtered = filterRows(rows, filterState, showAll, hideToken, nowSeconds())
 
-        if (searchMode != SearchDisplayMode.ALL_CONVERSATIONS) {
+        if (!showAll) {
             filtered = when {
                 tagFilter.isFavorites -> filtered.filter { it.favorite }
-                tagFilter.tagId != null -> filtered.filter { it.tagIds.contains(tagFilter.tagId) }
+                tagFilter.tagId != null -> filtered.filter { it.tagIds?.contains(tagFilter.tagId) == true }
                 else -> filtered
             }
         }
 
-        val sorted = filtered.sortedWith(
-            compareByDescending<ConversationModel> { it.favorite }
-                .thenByDescending { it.lastActivity }
-        )
-        return sorted.map { ConversationListEntry.ConversationEntry(it) }
-    }
-
-    /**
-     * Applies the hidden-room/lobby rules and the current filter chips (mention/unread/archive),
-     * but not the tag filter. Shared by [buildConversationListEntries] and [visibleRoomsFlow] so
-     * that both the list content and the tag-chip visibility agree on what "visible" means.
-     */
-    private fun baseFilterRooms(
-        rooms: List<ConversationModel>,
-        filterState: Map<String, Boolean>,
-        searchMode: SearchDisplayMode,
-        hideToken: String?
-    ): List<ConversationModel> {
-        val hasFilterEnabled = filterState[MENTION] == true ||
-            filterState[UNREAD] == true ||
-            filterState[ARCHIVE] == true
-
-        var filtered = rooms
-            .filter { it.token != hideToken }
-            .filter { conversation ->
-                !(
-                    conversation.objectType == ConversationEnums.ObjectType.ROOM &&
-                        conversation.lobbyState == ConversationEnums.LobbyState.LOBBY_STATE_MODERATORS_ONLY
-                    )
-            }
-
-        filtered = when {
-            // While search is open with an empty query, all conversations are listed,
-            // ignoring active filters and the default hiding of archived/future-event rooms
-            searchMode == SearchDisplayMode.ALL_CONVERSATIONS -> filtered
-            hasFilterEnabled -> filtered.filter { filterConversationModel(it, filterState) }
-            else -> filtered.filter { !isFutureEvent(it) && !it.hasArchived }
-        }
-        return filtered
-    }
-
-    @Suppress("CyclomaticComplexMethod", "NestedBlockDepth")
-    private fun filterConversationModel(conversation: ConversationModel, filterState: Map<String, Boolean>): Boolean {
-        var result = true
-        for ((k, v) in filterState) {
-            if (v) {
-                when (k) {
-                    MENTION -> result = (result && conversation.unreadMention) ||
-                        (
-                            result &&
-                                (
-                                    conversation.type == ConversationEnums.ConversationType.ROOM_TYPE_ONE_TO_ONE_CALL ||
-                                        conversation.type == ConversationEnums.ConversationType.FORMER_ONE_TO_ONE
-                                    ) &&
-                                (conversation.unreadMessages > 0)
-                            )
-                    UNREAD -> result = result && (conversation.unreadMessages > 0)
-                    DEFAULT -> result = if (filterState[ARCHIVE] == true) {
-                        result && conversation.hasArchived
-                    } else {
-                        result && !conversation.hasArchived
-                    }
-                }
-            }
-        }
-        return result
+        // the rows are already sorted by favorite and last activity, see ConversationsDao.getConversationListRows
+        return filtered.map { ConversationListEntry.ConversationEntry(it) }
     }
 
-    private fun isFutureEvent(conversation: ConversationModel): Boolean {
-        val eventTimeStart = conversation.objectId.substringBefore("#").toLongOrNull() ?: return false
-        val currentTimeStampInSeconds = System.currentTimeMillis() / LONG_1000
-        return conversation.objectType == ConversationEnums.ObjectType.EVENT &&
-            (eventTimeStart - currentTimeStampInSeconds) > SIXTEEN_HOURS_IN_SECONDS
-    }
+    private fun nowSeconds(): Long = System.currentTimeMillis() / LONG_1000
 
     fun resetReadUnreadState() {
         _readUnreadState.value = ConversationReadUnreadUiState.None
@@ -939,5 +923,68 @@ class ConversationsListViewModel @Inject constructor(
         private const val MATCH_RANK_NONE = 3
         private const val SINGLE_USER_RANK = 0
         private const val MULTI_USER_RANK = 1
+
+        /**
+         * Applies the hidden-room/lobby rules and the current filter chips (mention/unread/archive),
+         * but not the tag filter. Shared by [buildConversationListEntries] and [visibleRoomsFlow] so
+         * that both the list content and the tag-chip visibility agree on what "visible" means.
+         *
+         * With [showAll], i.e. while search is open with an empty query, all conversations are listed,
+         * ignoring active filters and the default hiding of archived/future-event rooms.
+         */
+        internal fun filterRows(
+            rows: List<ConversationListRow>,
+            filterState: Map<String, Boolean>,
+            showAll: Boolean,
+            hideToken: String?,
+            nowSeconds: Long
+        ): List<ConversationListRow> {
+            val hasFilterEnabled = filterState[MENTION] == true ||
+                filterState[UNREAD] == true ||
+                filterState[ARCHIVE] == true
+
+            val filtered = rows
+                .filter { it.token != hideToken }
+                .filter { conversation ->
+                    !(
+                        conversation.objectType == ConversationEnums.ObjectType.ROOM &&
+                            conversation.lobbyState == ConversationEnums.LobbyState.LOBBY_STATE_MODERATORS_ONLY
+                        )
+                }
+
+            return when {
+                showAll -> filtered
+                hasFilterEnabled -> filtered.filter { matchesFilter(it, filterState) }
+                else -> filtered.filter { !isFutureEvent(it, nowSeconds) && !it.hasArchived }
+            }
+        }
+
+        @Suppress("CyclomaticComplexMethod", "NestedBlockDepth")
+        private fun matchesFilter(conversation: ConversationListRow, filterState: Map<String, Boolean>): Boolean {
+            val isOneToOne = conversation.type == ConversationEnums.ConversationType.ROOM_TYPE_ONE_TO_ONE_CALL ||
+                conversation.type == ConversationEnums.ConversationType.FORMER_ONE_TO_ONE
+            var result = true
+            for ((k, v) in filterState) {
+                if (v) {
+                    when (k) {
+                        MENTION -> result = (result && conversation.unreadMention) ||
+                            (result && isOneToOne && (conversation.unreadMessages > 0))
+                        UNREAD -> result = result && (conversation.unreadMessages > 0)
+                        DEFAULT -> result = if (filterState[ARCHIVE] == true) {
+                            result && conversation.hasArchived
+                        } else {
+                            result && !conversation.hasArchived
+                        }
+                    }
+                }
+            }
+            return result
+        }
+
+        private fun isFutureEvent(conversation: ConversationListRow, nowSeconds: Long): Boolean {
+            val eventTimeStart = conversation.objectId.substringBefore("#").toLongOrNull() ?: return false
+            return conversation.objectType == ConversationEnums.ObjectType.EVENT &&
+                (eventTimeStart - nowSeconds) > SIXTEEN_HOURS_IN_SECONDS
+        }
     }
 }
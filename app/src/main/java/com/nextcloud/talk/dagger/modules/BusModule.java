@@ -6,11 +6,11 @@
  */
 package com.nextcloud.talk.dagger.modules;
 
+import com.nextcloud.talk.events.EventHub;
+
 import dagger.Module;
 import dagger.Provides;
 
-import org.greenrobot.eventbus.EventBus;
-
 import javax.inject.Singleton;
 
 @Module
@@ -18,7 +18,7 @@ public class BusModule {
 
     @Provides
     @Singleton
-    public EventBus provideEventBus() {
-        return EventBus.getDefault();
+    public EventHub provideEventHub() {
+        return EventHub.getDefault();
     }
 }
\ No newline at end of file
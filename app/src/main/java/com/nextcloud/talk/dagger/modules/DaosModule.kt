@@ -7,9 +7,17 @@
 
 package com.nextcloud.talk.dagger.modules
 
+import com.nextcloud.talk.data.database.dao.AvatarsDao
 import com.nextcloud.talk.data.database.dao.ChatBlocksDao
 import com.nextcloud.talk.data.database.dao.ChatMessagesDao
+import com.nextcloud.talk.data.database.dao.ChatRetentionDao
 import com.nextcloud.talk.data.database.dao.ConversationsDao
+import com.nextcloud.talk.data.database.dao.GeocodingDao
+import com.nextcloud.talk.data.database.dao.LinkPreviewsDao
+import com.nextcloud.talk.data.database.dao.OutboxDao
+import com.nextcloud.talk.data.database.dao.ParticipantsDao
+import com.nextcloud.talk.data.database.dao.SharedItemsDao
+import com.nextcloud.talk.data.database.dao.TranslationsDao
 import com.nextcloud.talk.data.source.local.TalkDatabase
 import dagger.Module
 import dagger.Provides
@@ -24,4 +32,28 @@ internal object DaosModule {
 
     @Provides
     fun providesChatBlocksDao(database: TalkDatabase): ChatBlocksDao = database.chatBlocksDao()
+
+    @Provides
+    fun providesOutboxDao(database: TalkDatabase): OutboxDao = database.outboxDao()
+
+    @Provides
+    fun providesSharedItemsDao(database: TalkDatabase): SharedItemsDao = database.sharedItemsDao()
+
+    @Provides
+    fun providesParticipantsDao(database: TalkDatabase): ParticipantsDao = database.participantsDao()
+
+    @Provides
+    fun providesTranslationsDao(database: TalkDatabase): TranslationsDao = database.translationsDao()
+
+    @Provides
+    fun providesChatRetentionDao(database: TalkDatabase): ChatRetentionDao = database.chatRetentionDao()
+
+    @Provides
+    fun providesAvatarsDao(database: TalkDatabase): AvatarsDao = database.avatarsDao()
+
+    @Provides
+    fun providesGeocodingDao(database: TalkDatabase): GeocodingDao = database.geocodingDao()
+
+    @Provides
+    fun providesLinkPreviewsDao(database: TalkDatabase): LinkPreviewsDao = database.linkPreviewsDao()
 }
@@ -10,15 +10,21 @@
 package com.nextcloud.talk.dagger.modules
 
 import android.content.Context
+import com.nextcloud.talk.R
 import com.nextcloud.talk.account.data.LoginRepository
 import com.nextcloud.talk.account.data.io.LocalLoginDataSource
 import com.nextcloud.talk.account.data.network.NetworkLoginDataSource
+import com.nextcloud.talk.avatar.AvatarRepository
+import com.nextcloud.talk.avatar.CoilAvatarDecoder
 import com.nextcloud.talk.api.NcApi
 import com.nextcloud.talk.api.NcApiCoroutines
 import com.nextcloud.talk.chat.data.ChatMessageRepository
+import com.nextcloud.talk.chat.data.LinkPreviewRepository
 import com.nextcloud.talk.chat.data.network.ChatMessageSyncer
 import com.nextcloud.talk.chat.data.network.ChatNetworkDataSource
+import com.nextcloud.talk.chat.data.network.MessageContextLoader
 import com.nextcloud.talk.chat.data.network.OfflineFirstChatRepository
+import com.nextcloud.talk.chat.data.network.OpenGraphSource
 import com.nextcloud.talk.logger.Logger
 import com.nextcloud.talk.chat.data.network.RetrofitChatNetwork
 import com.nextcloud.talk.chooseaccount.data.StatusRepository
@@ -36,9 +42,17 @@ import com.nextcloud.talk.conversationlist.data.network.OfflineFirstConversation
 import com.nextcloud.talk.conversationlist.data.network.RetrofitConversationsNetwork
 import com.nextcloud.talk.conversationtags.data.ConversationTagsRepository
 import com.nextcloud.talk.conversationtags.data.ConversationTagsRepositoryImpl
+import com.nextcloud.talk.data.database.dao.AvatarsDao
 import com.nextcloud.talk.data.database.dao.ChatBlocksDao
 import com.nextcloud.talk.data.database.dao.ChatMessagesDao
+import com.nextcloud.talk.data.database.dao.ChatRetentionDao
 import com.nextcloud.talk.data.database.dao.ConversationsDao
+import com.nextcloud.talk.data.database.dao.GeocodingDao
+import com.nextcloud.talk.data.database.dao.LinkPreviewsDao
+import com.nextcloud.talk.data.database.dao.OutboxDao
+import com.nextcloud.talk.data.database.dao.ParticipantsDao
+import com.nextcloud.talk.data.database.dao.TranslationsDao
+import com.nextcloud.talk.data.database.retention.ChatCacheRetention
 import com.nextcloud.talk.data.network.NetworkMonitor
 import com.nextcloud.talk.data.source.local.TalkDatabase
 import com.nextcloud.talk.data.storage.ArbitraryStoragesRepository
@@ -47,14 +61,22 @@ import com.nextcloud.talk.data.user.UsersRepository
 import com.nextcloud.talk.data.user.UsersRepositoryImpl
 import com.nextcloud.talk.invitation.data.InvitationsRepository
 import com.nextcloud.talk.invitation.data.InvitationsRepositoryImpl
+import com.nextcloud.talk.jobs.OutboxWorker
+import com.nextcloud.talk.location.GeocodingService
+import com.nextcloud.talk.location.NominatimGeocoder
 import com.nextcloud.talk.openconversations.data.OpenConversationsRepository
 import com.nextcloud.talk.openconversations.data.OpenConversationsRepositoryImpl
+import com.nextcloud.talk.outbox.NetworkOutboxOperationSender
+import com.nextcloud.talk.outbox.Outbox
+import com.nextcloud.talk.outbox.OutboxDrainer
+import com.nextcloud.talk.participants.ParticipantStore
 import com.nextcloud.talk.polls.repositories.PollRepository
 import com.nextcloud.talk.polls.repositories.PollRepositoryImpl
 import com.nextcloud.talk.raisehand.RequestAssistanceRepository
 import com.nextcloud.talk.raisehand.RequestAssistanceRepositoryImpl
 import com.nextcloud.talk.remotefilebrowser.repositories.RemoteFileBrowserItemsRepository
 import com.nextcloud.talk.remotefilebrowser.repositories.RemoteFileBrowserItemsRepositoryImpl
+import com.nextcloud.talk.remotefilebrowser.repositories.RemoteFolderListingCache
 import com.nextcloud.talk.repositories.callrecording.CallRecordingRepository
 import com.nextcloud.talk.repositories.callrecording.CallRecordingRepositoryImpl
 import com.nextcloud.talk.repositories.conversations.ConversationsRepository
@@ -63,6 +85,7 @@ import com.nextcloud.talk.repositories.reactions.ReactionsRepository
 import com.nextcloud.talk.repositories.reactions.ReactionsRepositoryImpl
 import com.nextcloud.talk.repositories.unifiedsearch.UnifiedSearchRepository
 import com.nextcloud.talk.repositories.unifiedsearch.UnifiedSearchRepositoryImpl
+import com.nextcloud.talk.shareditems.repositories.SharedItemsIndex
 import com.nextcloud.talk.shareditems.repositories.SharedItemsRepository
 import com.nextcloud.talk.shareditems.repositories.SharedItemsRepositoryImpl
 import com.nextcloud.talk.threadsoverview.data.ThreadsRepository
@@ -74,7 +97,11 @@ import com.nextcloud.talk.utils.DateUtils
 import com.nextcloud.talk.utils.preferences.AppPreferences
 import dagger.Module
 import dagger.Provides
+import fr.dudie.nominatim.client.TalkJsonNominatimClient
+import io.reactivex.schedulers.Schedulers
+import kotlinx.coroutines.CoroutineScope
 import okhttp3.OkHttpClient
+import java.io.File
 import javax.inject.Singleton
 
 @Suppress("TooManyFunctions")
@@ -86,19 +113,35 @@ class RepositoryModule {
         ConversationsRepositoryImpl(ncApi, ncApiCoroutines)
 
     @Provides
-    fun provideSharedItemsRepository(ncApi: NcApi, dateUtils: DateUtils): SharedItemsRepository =
-        SharedItemsRepositoryImpl(ncApi, dateUtils)
+    fun provideSharedItemsRepository(
+        ncApi: NcApi,
+        dateUtils: DateUtils,
+        sharedItemsIndex: SharedItemsIndex
+    ): SharedItemsRepository = SharedItemsRepositoryImpl(ncApi, dateUtils, sharedItemsIndex)
 
     @Provides
-    fun provideUnifiedSearchRepository(ncApiCoroutines: NcApiCoroutines): UnifiedSearchRepository =
-        UnifiedSearchRepositoryImpl(ncApiCoroutines)
+    fun provideParticipantStore(dao: ParticipantsDao, ncApiCoroutines: NcApiCoroutines): ParticipantStore =
+        ParticipantStore(dao, ncApiCoroutines)
+
+    @Provides
+    fun provideUnifiedSearchRepository(
+        ncApiCoroutines: NcApiCoroutines,
+        chatMessagesDao: ChatMessagesDao
+    ): UnifiedSearchRepository = UnifiedSearchRepositoryImpl(ncApiCoroutines, chatMessagesDao)
 
     @Provides
     fun provideDialogPollRepository(ncApi: NcApi): PollRepository = PollRepositoryImpl(ncApi)
 
     @Provides
-    fun provideRemoteFileBrowserItemsRepository(okHttpClient: OkHttpClient): RemoteFileBrowserItemsRepository =
-        RemoteFileBrowserItemsRepositoryImpl(okHttpClient)
+    fun provideRemoteFileBrowserItemsRepository(
+        okHttpClient: OkHttpClient,
+        listingCache: RemoteFolderListingCache
+    ): RemoteFileBrowserItemsRepository =
+        RemoteFileBrowserItemsRepositoryImpl(okHttpClient, listingCache, Schedulers.io())
+
+    @Provides
+    @Singleton
+    fun provideRemoteFolderListingCache(): RemoteFolderListingCache = RemoteFolderListingCache()
 
     @Provides
     fun provideUsersRepository(database: TalkDatabase): UsersRepository = UsersRepositoryImpl(database.usersDao())
@@ -123,7 +166,61 @@ class RepositoryModule {
         OpenConversationsRepositoryImpl(ncApiCoroutines)
 
     @Provides
-    fun translateRepository(ncApi: NcApi): TranslateRepository = TranslateRepositoryImpl(ncApi)
+    @Singleton
+    fun provideChatCacheRetention(database: TalkDatabase, chatRetentionDao: ChatRetentionDao): ChatCacheRetention =
+        ChatCacheRetention(database, chatRetentionDao)
+
+    @Provides
+    @Singleton
+    fun provideAvatarRepository(
+        context: Context,
+        okHttpClient: OkHttpClient,
+        avatarsDao: AvatarsDao
+    ): AvatarRepository =
+        AvatarRepository(
+            okHttpClient,
+            avatarsDao,
+            File(context.cacheDir, AvatarRepository.DIRECTORY_NAME),
+            CoilAvatarDecoder(context)
+        )
+
+    @Provides
+    @Singleton
+    fun provideGeocodingService(
+        context: Context,
+        okHttpClient: OkHttpClient,
+        geocodingDao: GeocodingDao
+    ): GeocodingService =
+        GeocodingService(
+            NominatimGeocoder(
+                TalkJsonNominatimClient(
+                    context.getString(R.string.osm_geocoder_url),
+                    okHttpClient,
+                    context.getString(R.string.osm_geocoder_contact)
+                )
+            ),
+            geocodingDao
+        )
+
+    @Provides
+    @Singleton
+    fun translateRepository(ncApi: NcApi, translationsDao: TranslationsDao): TranslateRepository =
+        TranslateRepositoryImpl(ncApi, translationsDao)
+
+    @Provides
+    @Singleton
+    fun provideLinkPreviewRepository(
+        chatNetworkDataSource: ChatNetworkDataSource,
+        linkPreviewsDao: LinkPreviewsDao,
+        @ApplicationScope scope: CoroutineScope
+    ): LinkPreviewRepository =
+        LinkPreviewRepository(
+            OpenGraphSource { user, url ->
+                chatNetworkDataSource.getOpenGraph(user.getCredentials(), user.baseUrl!!, url)?.openGraphObject
+            },
+            linkPreviewsDao,
+            scope
+        )
 
     @Provides
     fun provideChatNetworkDataSource(ncApi: NcApi, ncApiCoroutines: NcApiCoroutines): ChatNetworkDataSource =
@@ -148,14 +245,16 @@ class RepositoryModule {
         chatBlocksDao: ChatBlocksDao,
         dataSource: ChatNetworkDataSource,
         networkMonitor: NetworkMonitor,
-        conversationListUpdater: ConversationListUpdater
+        conversationListUpdater: ConversationListUpdater,
+        sharedItemsIndex: SharedItemsIndex
     ): ChatMessageSyncer =
         ChatMessageSyncer(
             chatMessagesDao,
             chatBlocksDao,
             dataSource,
             networkMonitor,
-            conversationListUpdater
+            conversationListUpdater,
+            sharedItemsIndex
         )
 
     @Provides
@@ -180,7 +279,9 @@ class RepositoryModule {
         dataSource: ChatNetworkDataSource,
         networkMonitor: NetworkMonitor,
         syncer: ChatMessageSyncer,
-        conversationListUpdater: ConversationListUpdater
+        conversationListUpdater: ConversationListUpdater,
+        outbox: Outbox,
+        messageContextLoader: MessageContextLoader
     ): ChatMessageRepository =
         OfflineFirstChatRepository(
             logger,
@@ -189,7 +290,41 @@ class RepositoryModule {
             dataSource,
             networkMonitor,
             syncer,
-            conversationListUpdater
+            conversationListUpdater,
+            outbox,
+            messageContextLoader
+        )
+
+    @Provides
+    @Singleton
+    fun provideOutbox(dao: OutboxDao, drainer: OutboxDrainer): Outbox = Outbox(dao, drainer)
+
+    @Provides
+    @Singleton
+    @Suppress("LongParameterList")
+    fun provideOutboxDrainer(
+        dao: OutboxDao,
+        userManager: UserManager,
+        chatNetworkDataSource: ChatNetworkDataSource,
+        reactionsRepository: ReactionsRepository,
+        chatMessagesDao: ChatMessagesDao,
+        conversationListUpdater: ConversationListUpdater,
+        networkMonitor: NetworkMonitor,
+        context: Context,
+        @ApplicationScope scope: CoroutineScope
+    ): OutboxDrainer =
+        OutboxDrainer(
+            dao,
+            NetworkOutboxOperationSender(
+                userManager,
+                chatNetworkDataSource,
+                reactionsRepository,
+                chatMessagesDao,
+                conversationListUpdater
+            ),
+            networkMonitor,
+            OutboxWorker.Scheduler(context),
+            scope
         )
 
     @Provides
@@ -15,10 +15,14 @@ import com.nextcloud.talk.R;
 import com.nextcloud.talk.api.NcApi;
 import com.nextcloud.talk.api.NcApiCoroutines;
 import com.nextcloud.talk.application.NextcloudTalkApplication;
+import com.nextcloud.talk.arbitrarystorage.ArbitraryStorageManager;
 import com.nextcloud.talk.users.UserManager;
 import com.nextcloud.talk.utils.ApiUtils;
+import com.nextcloud.talk.utils.ArbitraryStorageTalkHashStore;
 import com.nextcloud.talk.utils.RemoteWipeInterceptor;
 import com.nextcloud.talk.utils.LoggingUtils;
+import com.nextcloud.talk.utils.TalkHashInterceptor;
+import com.nextcloud.talk.utils.TalkHashStore;
 import com.nextcloud.talk.utils.preferences.AppPreferences;
 import com.nextcloud.talk.utils.ssl.KeyManager;
 import com.nextcloud.talk.utils.ssl.SSLSocketFactoryCompat;
@@ -180,6 +184,12 @@ public class RestModule {
         return dispatcher;
     }
 
+    @Singleton
+    @Provides
+    TalkHashStore provideTalkHashStore(ArbitraryStorageManager arbitraryStorageManager) {
+        return new ArbitraryStorageTalkHashStore(arbitraryStorageManager);
+    }
+
     @Singleton
     @Provides
     OkHttpClient provideHttpClient(Proxy proxy, AppPreferences appPreferences,
@@ -188,6 +198,7 @@ public class RestModule {
                                    CookieManager cookieManager,
                                    Dispatcher dispatcher,
                                    UserManager userManager,
+                                   TalkHashStore talkHashStore,
                                    LoggingHttpInterceptor loggingHttpInterceptor) {
         OkHttpClient.Builder httpClient = new OkHttpClient.Builder();
 
@@ -222,6 +233,10 @@ public class RestModule {
 
         httpClient.addInterceptor(new HeadersInterceptor());
         httpClient.addInterceptor(new RemoteWipeInterceptor(userManager, context, sslSocketFactoryCompat, trustManager));
+        httpClient.addInterceptor(new TalkHashInterceptor(
+            new TalkHashInterceptor.UserManagerAccountResolver(userManager),
+            talkHashStore,
+            new TalkHashInterceptor.WorkManagerRefreshScheduler(context)));
         httpClient.addInterceptor(loggingHttpInterceptor);
 
         return httpClient.build();
@@ -38,6 +38,7 @@ import com.nextcloud.talk.shareditems.viewmodels.SharedItemsViewModel
 import com.nextcloud.talk.threadsoverview.viewmodels.ThreadsOverviewViewModel
 import com.nextcloud.talk.translate.viewmodels.TranslateViewModel
 import com.nextcloud.talk.viewmodels.CallRecordingViewModel
+import com.nextcloud.talk.location.viewmodels.GeoCodingViewModel
 import com.nextcloud.talk.location.viewmodels.LocationPickerViewModel
 import dagger.Binds
 import dagger.MapKey
@@ -118,6 +119,11 @@ abstract class ViewModelModule {
     @ViewModelKey(LocationPickerViewModel::class)
     abstract fun locationPickerViewModel(viewModel: LocationPickerViewModel): ViewModel
 
+    @Binds
+    @IntoMap
+    @ViewModelKey(GeoCodingViewModel::class)
+    abstract fun geoCodingViewModel(viewModel: GeoCodingViewModel): ViewModel
+
     @Binds
     @IntoMap
     @ViewModelKey(RaiseHandViewModel::class)
@@ -0,0 +1,29 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.data.database.dao
+
+import androidx.room.Dao
+import androidx.room.Insert
+import androidx.room.OnConflictStrategy
+import androidx.room.Query
+import com.nextcloud.talk.data.database.model.AvatarEntity
+
+@Dao
+interface AvatarsDao {
+    @Query("SELECT * FROM Avatars WHERE accountId = :accountId AND avatarKey = :avatarKey")
+    fun getAvatar(accountId: Long, avatarKey: String): AvatarEntity?
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    fun upsertAvatar(avatar: AvatarEntity)
+
+    @Query("SELECT avatarKey FROM Avatars WHERE accountId = :accountId")
+    fun getAvatarKeysOfAccount(accountId: Long): List<String>
+
+    @Query("DELETE FROM Avatars WHERE accountId = :accountId")
+    fun deleteAvatarsOfAccount(accountId: Long)
+}
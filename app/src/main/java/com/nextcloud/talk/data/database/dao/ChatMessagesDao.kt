@@ -279,6 +279,55 @@ interface ChatMessagesDao {
         threadId: Long?
     ): Flow<List<ChatMessageEntity>>
 
+    /**
+     * Returns up to [limit] messages from [messageId] down to [oldestMessageId], newest first. Pass the range of a
+     * chat block to only get messages without gaps between them.
+     */
+    @Query(
+        """
+        SELECT *
+        FROM ChatMessages
+        WHERE internalConversationId = :internalConversationId
+        AND isTemporary = 0
+        AND (:threadId IS NULL OR threadId = :threadId)
+        AND id BETWEEN :oldestMessageId AND :messageId
+        ORDER BY timestamp DESC, id DESC
+        LIMIT :limit
+        """
+    )
+    suspend fun getMessagesOfRangeUpTo(
+        internalConversationId: String,
+        threadId: Long?,
+        oldestMessageId: Long,
+        messageId: Long,
+        limit: Int
+    ): List<ChatMessageEntity>
+
+    /**
+     * Returns up to [limit] messages after [messageId] up to [newestMessageId], oldest first. Pass the range of a chat
+     * block to only get messages without gaps between them.
+     */
+    @Query(
+        """
+        SELECT *
+        FROM ChatMessages
+        WHERE internalConversationId = :internalConversationId
+        AND isTemporary = 0
+        AND (:threadId IS NULL OR threadId = :threadId)
+        AND id > :messageId
+        AND id <= :newestMessageId
+        ORDER BY timestamp ASC, id ASC
+        LIMIT :limit
+        """
+    )
+    suspend fun getMessagesOfRangeAfter(
+        internalConversationId: String,
+        threadId: Long?,
+        messageId: Long,
+        newestMessageId: Long,
+        limit: Int
+    ): List<ChatMessageEntity>
+
     /**
      * Counts the cached messages above [messageId] the way the server counts unread messages:
      * spreed's ChatManager.getUnreadCount only counts the verbs 'comment' and 'object_shared',
@@ -317,6 +366,27 @@ interface ChatMessagesDao {
         threadId: Long?
     ): Int
 
+    /**
+     * Returns up to [limit] cached messages of the account whose text contains [searchTerm], newest first. Searches
+     * the room with [token], or all rooms if it is null. Thread replies are left out, like from the message search.
+     */
+    @Query(
+        """
+        SELECT *
+        FROM ChatMessages
+        WHERE accountId = :accountId
+        AND (:token IS NULL OR token = :token)
+        AND isTemporary = 0
+        AND deleted = 0
+        AND messageType NOT IN ('system', 'comment_deleted', 'command', 'reaction')
+        AND (threadId IS NULL OR threadId = id)
+        AND message LIKE '%' || :searchTerm || '%' ESCAPE '\'
+        ORDER BY timestamp DESC, id DESC
+        LIMIT :limit
+        """
+    )
+    suspend fun searchMessages(accountId: Long, token: String?, searchTerm: String, limit: Int): List<ChatMessageEntity>
+
     @Query(
         """
         DELETE FROM chatmessages
@@ -0,0 +1,116 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.data.database.dao
+
+import androidx.room.ColumnInfo
+import androidx.room.Dao
+import androidx.room.Delete
+import androidx.room.Insert
+import androidx.room.OnConflictStrategy
+import androidx.room.Query
+import androidx.room.Transaction
+import androidx.room.Update
+import com.nextcloud.talk.data.database.model.ChatBlockEntity
+import com.nextcloud.talk.data.database.model.ConversationAccessEntity
+
+/**
+ * Queries of the retention of the offline message cache, see
+ * [com.nextcloud.talk.data.database.retention.ChatCacheRetention].
+ */
+@Dao
+interface ChatRetentionDao {
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    suspend fun upsertConversationAccess(access: ConversationAccessEntity)
+
+    @Query("SELECT COUNT(*) FROM ChatMessages WHERE isTemporary = 0")
+    fun countChatMessages(): Int
+
+    /**
+     * The conversations with cached messages, least recently opened first. Conversations that were never opened on
+     * this device (and only filled by the background catch-up) come first, ordered by their last activity.
+     */
+    @Query(
+        """
+        SELECT c.internalId AS internalConversationId,
+            a.lastOpenedAt AS lastOpenedAt,
+            COUNT(m.id) AS messageCount
+        FROM Conversations c
+        INNER JOIN ChatMessages m ON m.internalConversationId = c.internalId AND m.isTemporary = 0
+        LEFT JOIN ConversationAccess a ON a.internalConversationId = c.internalId
+        GROUP BY c.internalId
+        ORDER BY COALESCE(a.lastOpenedAt, 0) ASC, c.lastActivity ASC
+        """
+    )
+    fun getRetentionCandidates(): List<RetentionCandidate>
+
+    /**
+     * The id of the message at [offset] when counting from the newest message of the conversation, or null if the
+     * conversation has fewer messages.
+     */
+    @Query(
+        """
+        SELECT id
+        FROM ChatMessages
+        WHERE internalConversationId = :internalConversationId
+        AND isTemporary = 0
+        ORDER BY id DESC
+        LIMIT 1 OFFSET :offset
+        """
+    )
+    fun getMessageIdAtOffsetFromNewest(internalConversationId: String, offset: Int): Long?
+
+    @Query(
+        """
+        DELETE FROM ChatMessages
+        WHERE internalConversationId = :internalConversationId
+        AND isTemporary = 0
+        AND id < :messageId
+        """
+    )
+    fun deleteMessagesBefore(internalConversationId: String, messageId: Long): Int
+
+    @Query("SELECT * FROM ChatBlocks WHERE internalConversationId = :internalConversationId")
+    fun getChatBlocks(internalConversationId: String): List<ChatBlockEntity>
+
+    @Delete
+    fun deleteChatBlocks(blocks: List<ChatBlockEntity>)
+
+    @Update
+    fun updateChatBlocks(blocks: List<ChatBlockEntity>)
+
+    /**
+     * Drops the messages older than [messageId] and shrinks the chat blocks accordingly: blocks that end before
+     * [messageId] are deleted, blocks that start before it now start at it. As older messages exist on the server,
+     * the shrunk blocks have history again, so scrolling up refetches what was trimmed.
+     */
+    @Transaction
+    fun trimConversationBefore(internalConversationId: String, messageId: Long): TrimResult {
+        val deletedMessages = deleteMessagesBefore(internalConversationId, messageId)
+
+        val blocks = getChatBlocks(internalConversationId)
+        val blocksToDelete = blocks.filter { it.newestMessageId < messageId }
+        val blocksToShrink = blocks
+            .filter { it.oldestMessageId < messageId && it.newestMessageId >= messageId }
+            .map { it.copy(oldestMessageId = messageId, hasHistory = true) }
+        if (blocksToDelete.isNotEmpty()) {
+            deleteChatBlocks(blocksToDelete)
+        }
+        if (blocksToShrink.isNotEmpty()) {
+            updateChatBlocks(blocksToShrink)
+        }
+        return TrimResult(deletedMessages, blocksToDelete.size, blocksToShrink.size)
+    }
+
+    data class RetentionCandidate(
+        @ColumnInfo(name = "internalConversationId") val internalConversationId: String,
+        @ColumnInfo(name = "lastOpenedAt") val lastOpenedAt: Long?,
+        @ColumnInfo(name = "messageCount") val messageCount: Int
+    )
+
+    data class TrimResult(val deletedMessages: Int, val deletedBlocks: Int, val shrunkBlocks: Int)
+}
@@ -14,6 +14,8 @@ import androidx.room.Query
 import androidx.room.Transaction
 import androidx.room.Update
 import com.nextcloud.talk.data.database.model.ConversationEntity
+import com.nextcloud.talk.data.database.model.ConversationListRow
+import com.nextcloud.talk.data.database.model.LastMessagePreview
 import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.first
 
@@ -25,6 +27,37 @@ interface ConversationsDao {
     @Query("SELECT * FROM Conversations where accountId = :accountId AND token = :token")
     fun getConversationForUser(accountId: Long, token: String): Flow<ConversationEntity?>
 
+    /**
+     * The conversation list of an account in display order, favorites first and then by last activity. Only the
+     * columns the list renders are read, the last message as its precomputed preview.
+     */
+    @Query(
+        """
+        SELECT internalId, accountId, token, name, displayName, type, avatarVersion, hasCall, isFavorite,
+            lastActivity, lobbyState, objectType, objectId, remoteServer, status, statusIcon, unreadMention,
+            unreadMentionDirect, unreadMessages, hasArchived, hasSensitive, tagIds, messageDraft,
+            lastMessagePreview_kind, lastMessagePreview_text, lastMessagePreview_author,
+            lastMessagePreview_authorName, lastMessagePreview_mimeType
+        FROM Conversations
+        WHERE accountId = :accountId
+        ORDER BY isFavorite DESC, lastActivity DESC
+        """
+    )
+    fun getConversationListRows(accountId: Long): Flow<List<ConversationListRow>>
+
+    /**
+     * Conversations stored before the last message preview was introduced.
+     */
+    @Query(
+        """
+        SELECT * FROM Conversations
+        WHERE accountId = :accountId
+        AND lastMessage IS NOT NULL
+        AND lastMessagePreview_kind IS NULL
+        """
+    )
+    suspend fun getConversationsWithoutLastMessagePreview(accountId: Long): List<ConversationEntity>
+
     /**
      * Applies a full room list sync atomically: left conversations are deleted and the server
      * items are upserted in one transaction, so observers of the conversations table see a single
@@ -83,6 +116,67 @@ interface ConversationsDao {
         unreadMessages: Int
     ): Int
 
+    /**
+     * [updateConversationFromCatchUp] together with the preview of the new last message, in one transaction so
+     * the list never shows the preview of another message than the stored one.
+     */
+    @Transaction
+    suspend fun updateConversationAndPreviewFromCatchUp(
+        internalId: String,
+        lastMessageJson: String,
+        lastMessagePreview: LastMessagePreview,
+        lastActivity: Long,
+        unreadMessages: Int
+    ): Int {
+        val updatedRows = updateConversationFromCatchUp(internalId, lastMessageJson, lastActivity, unreadMessages)
+        if (updatedRows > 0) {
+            updateLastMessagePreview(internalId, lastMessageJson, lastMessagePreview)
+        }
+        return updatedRows
+    }
+
+    /**
+     * Stores the [lastMessagePreview] derived from [lastMessageJson], unless the last message changed meanwhile.
+     */
+    suspend fun updateLastMessagePreview(
+        internalId: String,
+        lastMessageJson: String,
+        lastMessagePreview: LastMessagePreview
+    ) {
+        updateLastMessagePreviewColumns(
+            internalId = internalId,
+            lastMessageJson = lastMessageJson,
+            kind = lastMessagePreview.kind,
+            text = lastMessagePreview.text,
+            author = lastMessagePreview.author,
+            authorName = lastMessagePreview.authorName,
+            mimeType = lastMessagePreview.mimeType
+        )
+    }
+
+    @Suppress("LongParameterList")
+    @Query(
+        """
+        UPDATE Conversations
+        SET lastMessagePreview_kind = :kind,
+            lastMessagePreview_text = :text,
+            lastMessagePreview_author = :author,
+            lastMessagePreview_authorName = :authorName,
+            lastMessagePreview_mimeType = :mimeType
+        WHERE internalId = :internalId
+        AND lastMessage = :lastMessageJson
+        """
+    )
+    suspend fun updateLastMessagePreviewColumns(
+        internalId: String,
+        lastMessageJson: String,
+        kind: LastMessagePreview.Kind,
+        text: String,
+        author: LastMessagePreview.Author,
+        authorName: String?,
+        mimeType: String?
+    )
+
     /**
      * Optimistically writes the user's read state for a conversation. Deliberately unguarded:
      * marking as unread moves the read marker backwards, so a user action always wins locally —
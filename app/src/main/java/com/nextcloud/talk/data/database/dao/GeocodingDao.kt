@@ -0,0 +1,53 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.data.database.dao
+
+import androidx.room.Dao
+import androidx.room.Insert
+import androidx.room.OnConflictStrategy
+import androidx.room.Query
+import androidx.room.Transaction
+import com.nextcloud.talk.data.database.model.GeocodingResultEntity
+
+@Dao
+interface GeocodingDao {
+    @Query("SELECT * FROM GeocodingResults WHERE cacheKey = :cacheKey ORDER BY position")
+    fun getResults(cacheKey: String): List<GeocodingResultEntity>
+
+    @Query("UPDATE GeocodingResults SET lastUsedAt = :usedAt WHERE cacheKey = :cacheKey")
+    fun markUsed(cacheKey: String, usedAt: Long)
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    fun insertResults(results: List<GeocodingResultEntity>)
+
+    @Query("DELETE FROM GeocodingResults WHERE cacheKey = :cacheKey")
+    fun deleteResults(cacheKey: String)
+
+    @Transaction
+    fun replaceResults(cacheKey: String, results: List<GeocodingResultEntity>) {
+        deleteResults(cacheKey)
+        insertResults(results)
+    }
+
+    /**
+     * Keeps the results of the [keep] most recently used cache keys.
+     */
+    @Query(
+        """
+        DELETE FROM GeocodingResults
+        WHERE cacheKey NOT IN (
+            SELECT cacheKey
+            FROM GeocodingResults
+            GROUP BY cacheKey
+            ORDER BY MAX(lastUsedAt) DESC
+            LIMIT :keep
+        )
+        """
+    )
+    fun deleteLeastRecentlyUsed(keep: Int)
+}
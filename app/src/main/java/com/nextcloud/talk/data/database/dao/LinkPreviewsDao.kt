@@ -0,0 +1,29 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.data.database.dao
+
+import androidx.room.Dao
+import androidx.room.Insert
+import androidx.room.OnConflictStrategy
+import androidx.room.Query
+import com.nextcloud.talk.data.database.model.LinkPreviewEntity
+
+@Dao
+interface LinkPreviewsDao {
+    @Query("SELECT * FROM LinkPreviews WHERE accountId = :accountId AND url = :url")
+    fun getLinkPreview(accountId: Long, url: String): LinkPreviewEntity?
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    fun upsertLinkPreview(linkPreview: LinkPreviewEntity)
+
+    @Query("DELETE FROM LinkPreviews WHERE fetchedAt < :fetchedBefore")
+    fun deleteLinkPreviewsOlderThan(fetchedBefore: Long)
+
+    @Query("DELETE FROM LinkPreviews WHERE accountId = :accountId")
+    fun deleteLinkPreviewsOfAccount(accountId: Long)
+}
@@ -0,0 +1,50 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.data.database.dao
+
+import androidx.room.Dao
+import androidx.room.Insert
+import androidx.room.OnConflictStrategy
+import androidx.room.Query
+import androidx.room.Update
+import com.nextcloud.talk.data.database.model.OutboxOperationEntity
+
+@Dao
+interface OutboxDao {
+    @Insert(onConflict = OnConflictStrategy.ABORT)
+    suspend fun insertOperation(operation: OutboxOperationEntity): Long
+
+    @Update
+    suspend fun updateOperation(operation: OutboxOperationEntity)
+
+    @Query("SELECT * FROM Outbox WHERE coalesceKey = :coalesceKey")
+    suspend fun getOperationByCoalesceKey(coalesceKey: String): OutboxOperationEntity?
+
+    @Query("SELECT * FROM Outbox ORDER BY id ASC")
+    suspend fun getOperations(): List<OutboxOperationEntity>
+
+    @Query("DELETE FROM Outbox WHERE id = :id")
+    suspend fun deleteOperation(id: Long)
+
+    /**
+     * Deletes an operation that was handled, unless it was coalesced with a newer one in the meantime.
+     *
+     * @return the number of deleted rows
+     */
+    @Query("DELETE FROM Outbox WHERE id = :id AND revision = :revision")
+    suspend fun deleteHandledOperation(id: Long, revision: Int): Int
+
+    @Query(
+        """
+        UPDATE Outbox
+        SET attempts = :attempts, nextAttemptAt = :nextAttemptAt
+        WHERE id = :id AND revision = :revision
+        """
+    )
+    suspend fun scheduleRetry(id: Long, revision: Int, attempts: Int, nextAttemptAt: Long): Int
+}
@@ -0,0 +1,50 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.data.database.dao
+
+import androidx.room.Dao
+import androidx.room.Insert
+import androidx.room.OnConflictStrategy
+import androidx.room.Query
+import androidx.room.Transaction
+import androidx.room.Update
+import com.nextcloud.talk.data.database.model.ParticipantEntity
+import kotlinx.coroutines.flow.Flow
+
+@Dao
+interface ParticipantsDao {
+    @Query("SELECT * FROM Participants WHERE internalConversationId = :internalConversationId")
+    fun getParticipantsFlow(internalConversationId: String): Flow<List<ParticipantEntity>>
+
+    @Query("SELECT * FROM Participants WHERE internalConversationId = :internalConversationId")
+    fun getParticipants(internalConversationId: String): List<ParticipantEntity>
+
+    @Query("SELECT MIN(syncedAt) FROM Participants WHERE internalConversationId = :internalConversationId")
+    fun getOldestSyncTime(internalConversationId: String): Long?
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    fun upsertParticipants(participants: List<ParticipantEntity>)
+
+    @Update
+    fun updateParticipants(participants: List<ParticipantEntity>)
+
+    @Query("DELETE FROM Participants WHERE internalConversationId = :internalConversationId")
+    fun deleteParticipants(internalConversationId: String)
+
+    @Query("UPDATE Participants SET inCall = :inCall WHERE internalConversationId = :internalConversationId")
+    fun updateInCallOfAll(internalConversationId: String, inCall: Long)
+
+    /**
+     * Replaces the participants of a conversation with the full list the server returned.
+     */
+    @Transaction
+    fun replaceParticipants(internalConversationId: String, participants: List<ParticipantEntity>) {
+        deleteParticipants(internalConversationId)
+        upsertParticipants(participants)
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.data.database.dao
+
+import androidx.room.Dao
+import androidx.room.Delete
+import androidx.room.Insert
+import androidx.room.OnConflictStrategy
+import androidx.room.Query
+import androidx.room.Transaction
+import com.nextcloud.talk.data.database.model.SharedItemEntity
+import com.nextcloud.talk.data.database.model.SharedItemsRangeEntity
+
+@Dao
+@Suppress("TooManyFunctions")
+interface SharedItemsDao {
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    fun upsertSharedItems(items: List<SharedItemEntity>)
+
+    @Query(
+        """
+        SELECT *
+        FROM SharedItems
+        WHERE internalConversationId = :internalConversationId
+        AND type = :type
+        AND messageId < :beforeMessageId
+        ORDER BY messageId DESC
+        LIMIT :limit
+        """
+    )
+    fun getSharedItems(
+        internalConversationId: String,
+        type: String,
+        beforeMessageId: Long,
+        limit: Int
+    ): List<SharedItemEntity>
+
+    @Query("SELECT DISTINCT type FROM SharedItems WHERE internalConversationId = :internalConversationId")
+    fun getSharedItemTypes(internalConversationId: String): List<String>
+
+    @Query(
+        """
+        DELETE FROM SharedItems
+        WHERE internalConversationId = :internalConversationId
+        AND messageId IN (:messageIds)
+        """
+    )
+    fun deleteSharedItemsOfMessages(internalConversationId: String, messageIds: List<Long>)
+
+    @Query(
+        """
+        DELETE FROM SharedItems
+        WHERE internalConversationId = :internalConversationId
+        AND type = :type
+        AND messageId >= :oldestMessageId
+        AND messageId <= :newestMessageId
+        """
+    )
+    fun deleteSharedItemsInRange(
+        internalConversationId: String,
+        type: String,
+        oldestMessageId: Long,
+        newestMessageId: Long
+    )
+
+    @Query(
+        """
+        DELETE FROM SharedItems
+        WHERE internalConversationId = :internalConversationId
+        AND messageId < :messageId
+        """
+    )
+    fun deleteSharedItemsOlderThan(internalConversationId: String, messageId: Long)
+
+    /**
+     * Replaces the index entries of the given messages, so edited messages never stay filed under an outdated type.
+     */
+    @Transaction
+    fun replaceSharedItemsOfMessages(
+        internalConversationId: String,
+        messageIds: List<Long>,
+        items: List<SharedItemEntity>
+    ) {
+        deleteSharedItemsOfMessages(internalConversationId, messageIds)
+        upsertSharedItems(items)
+    }
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    fun upsertRange(range: SharedItemsRangeEntity)
+
+    @Delete
+    fun deleteRanges(ranges: List<SharedItemsRangeEntity>)
+
+    /**
+     * Returns all ranges that overlap or directly border the given one.
+     */
+    @Query(
+        """
+        SELECT *
+        FROM SharedItemsRanges
+        WHERE internalConversationId = :internalConversationId
+        AND type = :type
+        AND oldestMessageId <= :newestMessageId + 1
+        AND newestMessageId >= :oldestMessageId - 1
+        """
+    )
+    fun getConnectedRanges(
+        internalConversationId: String,
+        type: String,
+        oldestMessageId: Long,
+        newestMessageId: Long
+    ): List<SharedItemsRangeEntity>
+
+    @Query(
+        """
+        SELECT COUNT(*)
+        FROM SharedItemsRanges
+        WHERE internalConversationId = :internalConversationId
+        AND type = :type
+        AND oldestMessageId <= :oldestMessageId
+        AND newestMessageId >= :newestMessageId
+        """
+    )
+    fun countRangesCovering(
+        internalConversationId: String,
+        type: String,
+        oldestMessageId: Long,
+        newestMessageId: Long
+    ): Int
+
+    /**
+     * Stores a page the server returned for [range] as the complete set of shared items in it: stale entries
+     * inside the range are dropped and the range is merged with all ranges it connects to.
+     */
+    @Transaction
+    fun replaceSharedItemsInRange(range: SharedItemsRangeEntity, items: List<SharedItemEntity>) {
+        deleteSharedItemsInRange(
+            range.internalConversationId,
+            range.type,
+            range.oldestMessageId,
+            range.newestMessageId
+        )
+        upsertSharedItems(items)
+
+        val connectedRanges = getConnectedRanges(
+            range.internalConversationId,
+            range.type,
+            range.oldestMessageId,
+            range.newestMessageId
+        )
+        deleteRanges(connectedRanges)
+        val mergedRanges = connectedRanges + range
+        upsertRange(
+            range.copy(
+                id = 0,
+                oldestMessageId = mergedRanges.minOf { it.oldestMessageId },
+                newestMessageId = mergedRanges.maxOf { it.newestMessageId }
+            )
+        )
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.data.database.dao
+
+import androidx.room.Dao
+import androidx.room.Insert
+import androidx.room.OnConflictStrategy
+import androidx.room.Query
+import com.nextcloud.talk.data.database.model.TranslationEntity
+
+@Dao
+interface TranslationsDao {
+    @Query(
+        """
+        SELECT *
+        FROM Translations
+        WHERE accountId = :accountId
+        AND messageKey = :messageKey
+        AND fromLanguage = :fromLanguage
+        AND toLanguage = :toLanguage
+        """
+    )
+    fun getTranslation(
+        accountId: Long,
+        messageKey: String,
+        fromLanguage: String,
+        toLanguage: String
+    ): TranslationEntity?
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    fun upsertTranslation(translation: TranslationEntity)
+
+    @Query("DELETE FROM Translations WHERE createdAt < :createdBefore")
+    fun deleteTranslationsOlderThan(createdBefore: Long)
+
+    @Query("DELETE FROM Translations WHERE accountId = :accountId")
+    fun deleteTranslationsOfAccount(accountId: Long)
+}
@@ -8,9 +8,13 @@
 package com.nextcloud.talk.data.database.mappers
 
 import com.bluelinelabs.logansquare.LoganSquare
+import com.nextcloud.talk.chat.data.model.ChatMessage
 import com.nextcloud.talk.data.database.model.ConversationEntity
+import com.nextcloud.talk.data.database.model.ConversationListRow
+import com.nextcloud.talk.data.database.model.LastMessagePreview
 import com.nextcloud.talk.models.domain.ConversationModel
 import com.nextcloud.talk.models.json.chat.ChatMessageJson
+import com.nextcloud.talk.models.json.chat.ChatUtils
 import com.nextcloud.talk.models.json.conversations.Conversation
 
 fun ConversationModel.asEntity() =
@@ -33,6 +37,7 @@ fun ConversationModel.asEntity() =
         unreadMessages = unreadMessages,
         unreadMention = unreadMention,
         lastMessage = lastMessage?.let { LoganSquare.serialize(lastMessage) },
+        lastMessagePreview = lastMessage?.toLastMessagePreview(actorId),
         objectType = objectType,
         objectId = objectId,
         notificationLevel = notificationLevel,
@@ -152,6 +157,7 @@ fun Conversation.asEntity(accountId: Long) =
         unreadMessages = unreadMessages,
         unreadMention = unreadMention,
         lastMessage = lastMessage?.let { LoganSquare.serialize(lastMessage) },
+        lastMessagePreview = lastMessage?.toLastMessagePreview(actorId),
         objectType = objectType,
         objectId = objectId,
         notificationLevel = notificationLevel,
@@ -188,3 +194,90 @@ fun Conversation.asEntity(accountId: Long) =
         lastPinnedId = lastPinnedId,
         attributes = attributes
     )
+
+/**
+ * The list row of a conversation that is not read from the database, e.g. an open conversation found by search.
+ */
+fun ConversationModel.toListRow() =
+    ConversationListRow(
+        internalId = internalId,
+        accountId = accountId,
+        token = token,
+        name = name,
+        displayName = displayName,
+        type = type,
+        avatarVersion = avatarVersion,
+        hasCall = hasCall,
+        favorite = favorite,
+        lastActivity = lastActivity,
+        lobbyState = lobbyState,
+        objectType = objectType,
+        objectId = objectId,
+        remoteServer = remoteServer,
+        status = status,
+        statusIcon = statusIcon,
+        unreadMention = unreadMention,
+        unreadMentionDirect = unreadMentionDirect,
+        unreadMessages = unreadMessages,
+        hasArchived = hasArchived,
+        hasSensitive = hasSensitive,
+        tagIds = ArrayList(tagIds),
+        messageDraft = messageDraft,
+        lastMessagePreview = lastMessage?.toLastMessagePreview(actorId)
+    )
+
+/**
+ * Derives what the conversation list shows of this message. [actorId] is the current user's actor in the
+ * conversation, which tells whether the message is an own one.
+ */
+@Suppress("CyclomaticComplexMethod")
+fun ChatMessageJson.toLastMessagePreview(actorId: String): LastMessagePreview {
+    val chatMessage = toDomainModel()
+    val kind = if (chatMessage.isDeletedCommentMessage) {
+        LastMessagePreview.Kind.DELETED
+    } else {
+        when (chatMessage.getCalculateMessageType()) {
+            ChatMessage.MessageType.SYSTEM_MESSAGE -> LastMessagePreview.Kind.SYSTEM
+            ChatMessage.MessageType.VOICE_MESSAGE -> LastMessagePreview.Kind.VOICE
+            ChatMessage.MessageType.SINGLE_NC_ATTACHMENT_MESSAGE -> LastMessagePreview.Kind.FILE
+            ChatMessage.MessageType.SINGLE_NC_GEOLOCATION_MESSAGE -> LastMessagePreview.Kind.LOCATION
+            ChatMessage.MessageType.POLL_MESSAGE -> LastMessagePreview.Kind.POLL
+            ChatMessage.MessageType.DECK_CARD -> LastMessagePreview.Kind.DECK_CARD
+            ChatMessage.MessageType.SINGLE_LINK_GIPHY_MESSAGE,
+            ChatMessage.MessageType.SINGLE_LINK_TENOR_MESSAGE,
+            ChatMessage.MessageType.SINGLE_LINK_GIF_MESSAGE -> LastMessagePreview.Kind.LINK_GIF
+            ChatMessage.MessageType.SINGLE_LINK_IMAGE_MESSAGE -> LastMessagePreview.Kind.LINK_IMAGE
+            ChatMessage.MessageType.SINGLE_LINK_VIDEO_MESSAGE -> LastMessagePreview.Kind.LINK_VIDEO
+            ChatMessage.MessageType.SINGLE_LINK_AUDIO_MESSAGE -> LastMessagePreview.Kind.LINK_AUDIO
+            else -> LastMessagePreview.Kind.TEXT
+        }
+    }
+
+    val parameters = messageParameters
+    val text = when (kind) {
+        LastMessagePreview.Kind.VOICE -> parameters?.get("file")?.get("name")
+        LastMessagePreview.Kind.FILE -> if (message == "{file}") {
+            parameters?.get("file")?.get("name")
+        } else {
+            ChatUtils.getParsedMessage(message, parameters) ?: message
+        }
+        LastMessagePreview.Kind.LOCATION,
+        LastMessagePreview.Kind.POLL,
+        LastMessagePreview.Kind.DECK_CARD -> parameters?.get("object")?.get("name")
+        else -> ChatUtils.getParsedMessage(message, parameters)
+    }
+
+    val author = when {
+        this.actorId == actorId -> LastMessagePreview.Author.SELF
+        this.actorType == "guests" || this.actorType == "emails" -> LastMessagePreview.Author.GUEST
+        else -> LastMessagePreview.Author.OTHER
+    }
+
+    return LastMessagePreview(
+        kind = kind,
+        text = text.orEmpty(),
+        author = author,
+        authorName = actorDisplayName?.takeIf { it.isNotBlank() },
+        mimeType = if (kind == LastMessagePreview.Kind.FILE) parameters?.get("file")?.get("mimetype") else null
+    )
+}
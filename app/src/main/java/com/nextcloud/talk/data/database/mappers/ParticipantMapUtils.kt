@@ -0,0 +1,54 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.data.database.mappers
+
+import com.nextcloud.talk.data.database.model.ParticipantEntity
+import com.nextcloud.talk.models.json.participants.Participant
+
+/**
+ * Returns null for participants without an actor id (only returned by the API v1, which is no longer used).
+ */
+fun Participant.asEntity(accountId: Long, token: String, syncedAt: Long): ParticipantEntity? {
+    val actorId = calculatedActorId ?: return null
+    return ParticipantEntity(
+        internalConversationId = "$accountId@$token",
+        actorType = calculatedActorType.name,
+        actorId = actorId,
+        accountId = accountId,
+        token = token,
+        attendeeId = attendeeId,
+        attendeePin = attendeePin,
+        participantType = type?.name,
+        displayName = displayName,
+        inCall = inCall,
+        lastPing = lastPing,
+        sessionIds = sessionIds,
+        status = status,
+        statusIcon = statusIcon,
+        statusMessage = statusMessage,
+        invitedActorId = invitedActorId,
+        syncedAt = syncedAt
+    )
+}
+
+fun ParticipantEntity.toDomainModel() =
+    Participant(
+        attendeeId = attendeeId,
+        actorType = Participant.ActorType.entries.firstOrNull { it.name == actorType },
+        actorId = actorId,
+        attendeePin = attendeePin,
+        type = Participant.ParticipantType.entries.firstOrNull { it.name == participantType },
+        displayName = displayName.orEmpty(),
+        lastPing = lastPing,
+        sessionIds = sessionIds ?: ArrayList(0),
+        inCall = inCall,
+        status = status,
+        statusIcon = statusIcon,
+        statusMessage = statusMessage,
+        invitedActorId = invitedActorId
+    )
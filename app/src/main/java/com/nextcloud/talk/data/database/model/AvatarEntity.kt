@@ -0,0 +1,31 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.data.database.model
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+
+/**
+ * An avatar image stored on disk, see [com.nextcloud.talk.avatar.AvatarRepository].
+ *
+ * [avatarKey] identifies the actor or conversation the avatar belongs to, independent of the theme. [avatarVersion]
+ * is null if the avatar was fetched without a version, [checkedAt] is when it was last fetched or revalidated.
+ * [isCustom] is false for avatars the server generated, whose dark variant is derived locally.
+ */
+@Entity(
+    tableName = "Avatars",
+    primaryKeys = ["accountId", "avatarKey"]
+)
+data class AvatarEntity(
+    @ColumnInfo(name = "accountId") var accountId: Long,
+    @ColumnInfo(name = "avatarKey") var avatarKey: String,
+    @ColumnInfo(name = "avatarVersion") var avatarVersion: String?,
+    @ColumnInfo(name = "etag") var etag: String?,
+    @ColumnInfo(name = "isCustom") var isCustom: Boolean,
+    @ColumnInfo(name = "checkedAt") var checkedAt: Long
+)
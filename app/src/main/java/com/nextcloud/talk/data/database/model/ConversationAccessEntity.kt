@@ -0,0 +1,36 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.data.database.model
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import androidx.room.ForeignKey
+import androidx.room.PrimaryKey
+
+/**
+ * When a conversation was last opened on this device. Kept apart from [ConversationEntity], which is overwritten by
+ * every room list sync. The retention of the offline message cache trims the least recently opened rooms first.
+ */
+@Entity(
+    tableName = "ConversationAccess",
+    foreignKeys = [
+        ForeignKey(
+            entity = ConversationEntity::class,
+            parentColumns = arrayOf("internalId"),
+            childColumns = arrayOf("internalConversationId"),
+            onDelete = ForeignKey.CASCADE,
+            onUpdate = ForeignKey.CASCADE
+        )
+    ]
+)
+data class ConversationAccessEntity(
+    // accountId@roomtoken
+    @PrimaryKey
+    @ColumnInfo(name = "internalConversationId") var internalConversationId: String,
+    @ColumnInfo(name = "lastOpenedAt") var lastOpenedAt: Long
+)
@@ -8,6 +8,7 @@
 package com.nextcloud.talk.data.database.model
 
 import androidx.room.ColumnInfo
+import androidx.room.Embedded
 import androidx.room.Entity
 import androidx.room.ForeignKey
 import androidx.room.Index
@@ -70,6 +71,8 @@ data class ConversationEntity(
     @ColumnInfo(name = "lastActivity") var lastActivity: Long = 0,
     @ColumnInfo(name = "lastCommonReadMessage") var lastCommonReadMessage: Int = 0,
     @ColumnInfo(name = "lastMessage") var lastMessage: String? = null,
+    // derived from lastMessage whenever it is written, see ConversationListRow
+    @Embedded(prefix = LastMessagePreview.COLUMN_PREFIX) var lastMessagePreview: LastMessagePreview? = null,
     @ColumnInfo(name = "lastPing") var lastPing: Long = 0,
     @ColumnInfo(name = "lastReadMessage") var lastReadMessage: Int = 0,
     @ColumnInfo(name = "lobbyState") var lobbyState: ConversationEnums.LobbyState,
@@ -0,0 +1,47 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.data.database.model
+
+import androidx.room.ColumnInfo
+import androidx.room.Embedded
+import com.nextcloud.talk.models.MessageDraft
+import com.nextcloud.talk.models.json.conversations.ConversationEnums
+
+/**
+ * The columns of a conversation that the conversation list renders and filters by, read with
+ * [com.nextcloud.talk.data.database.dao.ConversationsDao.getConversationListRows].
+ *
+ * Unlike [ConversationEntity] it is immutable and carries the last message only as its precomputed
+ * [LastMessagePreview], so rows can be compared cheaply and an unchanged row can be skipped by the list.
+ */
+data class ConversationListRow(
+    @ColumnInfo(name = "internalId") val internalId: String,
+    @ColumnInfo(name = "accountId") val accountId: Long,
+    @ColumnInfo(name = "token") val token: String,
+    @ColumnInfo(name = "name") val name: String,
+    @ColumnInfo(name = "displayName") val displayName: String,
+    @ColumnInfo(name = "type") val type: ConversationEnums.ConversationType,
+    @ColumnInfo(name = "avatarVersion") val avatarVersion: String,
+    @ColumnInfo(name = "hasCall") val hasCall: Boolean,
+    @ColumnInfo(name = "isFavorite") val favorite: Boolean,
+    @ColumnInfo(name = "lastActivity") val lastActivity: Long,
+    @ColumnInfo(name = "lobbyState") val lobbyState: ConversationEnums.LobbyState,
+    @ColumnInfo(name = "objectType") val objectType: ConversationEnums.ObjectType,
+    @ColumnInfo(name = "objectId") val objectId: String,
+    @ColumnInfo(name = "remoteServer") val remoteServer: String?,
+    @ColumnInfo(name = "status") val status: String?,
+    @ColumnInfo(name = "statusIcon") val statusIcon: String?,
+    @ColumnInfo(name = "unreadMention") val unreadMention: Boolean,
+    @ColumnInfo(name = "unreadMentionDirect") val unreadMentionDirect: Boolean,
+    @ColumnInfo(name = "unreadMessages") val unreadMessages: Int,
+    @ColumnInfo(name = "hasArchived") val hasArchived: Boolean,
+    @ColumnInfo(name = "hasSensitive") val hasSensitive: Boolean,
+    @ColumnInfo(name = "tagIds") val tagIds: ArrayList<String>?,
+    @ColumnInfo(name = "messageDraft") val messageDraft: MessageDraft?,
+    @Embedded(prefix = LastMessagePreview.COLUMN_PREFIX) val lastMessagePreview: LastMessagePreview?
+)
@@ -0,0 +1,34 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.data.database.model
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import androidx.room.Index
+
+/**
+ * A place the geocoder returned, see [com.nextcloud.talk.location.GeocodingService].
+ *
+ * [cacheKey] identifies the search query or the grid cell of the reverse lookup the place was returned for,
+ * [position] is its position in the result list.
+ */
+@Entity(
+    tableName = "GeocodingResults",
+    primaryKeys = ["cacheKey", "position"],
+    indices = [
+        Index(value = ["lastUsedAt"])
+    ]
+)
+data class GeocodingResultEntity(
+    @ColumnInfo(name = "cacheKey") var cacheKey: String,
+    @ColumnInfo(name = "position") var position: Int,
+    @ColumnInfo(name = "lat") var lat: Double,
+    @ColumnInfo(name = "lon") var lon: Double,
+    @ColumnInfo(name = "displayName") var displayName: String,
+    @ColumnInfo(name = "lastUsedAt") var lastUsedAt: Long
+)
@@ -0,0 +1,51 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.data.database.model
+
+import androidx.room.ColumnInfo
+
+/**
+ * What the conversation list shows of a conversation's last message. It is derived from the message whenever the
+ * conversation is stored, so rendering the list neither parses nor interprets the message JSON.
+ *
+ * [text] is the message with its parameters resolved, or the name of the shared file, location, poll or deck card.
+ * Linked GIFs, images, videos and audios are shown as "sent a GIF" etc. instead of their URL.
+ * The localized author prefix ("You: ", "Alice: ") is built from [author] and [authorName] when rendering.
+ */
+data class LastMessagePreview(
+    @ColumnInfo(name = "kind") val kind: Kind,
+    @ColumnInfo(name = "text") val text: String,
+    @ColumnInfo(name = "author") val author: Author,
+    @ColumnInfo(name = "authorName") val authorName: String?,
+    @ColumnInfo(name = "mimeType") val mimeType: String?
+) {
+    enum class Kind {
+        TEXT,
+        DELETED,
+        SYSTEM,
+        VOICE,
+        FILE,
+        LOCATION,
+        POLL,
+        DECK_CARD,
+        LINK_GIF,
+        LINK_IMAGE,
+        LINK_VIDEO,
+        LINK_AUDIO
+    }
+
+    enum class Author {
+        SELF,
+        OTHER,
+        GUEST
+    }
+
+    companion object {
+        const val COLUMN_PREFIX = "lastMessagePreview_"
+    }
+}
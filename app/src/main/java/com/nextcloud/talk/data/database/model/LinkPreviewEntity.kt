@@ -0,0 +1,36 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.data.database.model
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import androidx.room.Index
+
+/**
+ * The link preview the server resolved for [url], see [com.nextcloud.talk.chat.data.LinkPreviewRepository].
+ *
+ * [hasPreview] is false if the server has no preview for the link, the other preview columns are empty then.
+ */
+@Entity(
+    tableName = "LinkPreviews",
+    primaryKeys = ["accountId", "url"],
+    indices = [
+        Index(value = ["fetchedAt"])
+    ]
+)
+data class LinkPreviewEntity(
+    @ColumnInfo(name = "accountId") var accountId: Long,
+    @ColumnInfo(name = "url") var url: String,
+    @ColumnInfo(name = "hasPreview") var hasPreview: Boolean,
+    @ColumnInfo(name = "referenceId") var referenceId: String = "",
+    @ColumnInfo(name = "name") var name: String = "",
+    @ColumnInfo(name = "description") var description: String? = null,
+    @ColumnInfo(name = "thumb") var thumb: String? = null,
+    @ColumnInfo(name = "link") var link: String? = null,
+    @ColumnInfo(name = "fetchedAt") var fetchedAt: Long
+)
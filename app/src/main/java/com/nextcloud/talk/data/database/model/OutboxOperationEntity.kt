@@ -0,0 +1,39 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.data.database.model
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import androidx.room.Index
+import androidx.room.PrimaryKey
+
+@Entity(
+    tableName = "Outbox",
+    indices = [
+        Index(value = ["coalesceKey"], unique = true)
+    ]
+)
+data class OutboxOperationEntity(
+    // autoincrement keeps the order in which the operations were enqueued
+    @PrimaryKey(autoGenerate = true)
+    @ColumnInfo(name = "id") var id: Long = 0,
+    @ColumnInfo(name = "accountId") var accountId: Long,
+    @ColumnInfo(name = "roomToken") var roomToken: String,
+    @ColumnInfo(name = "type") var type: OutboxOperationType,
+    // operations sharing this key supersede or cancel each other, see Outbox
+    @ColumnInfo(name = "coalesceKey") var coalesceKey: String,
+    // target message of the operation, or the read marker itself
+    @ColumnInfo(name = "messageId") var messageId: Long = 0,
+    // referenceId of the temporary message, the reaction emoji, the edited text or the pin expiry
+    @ColumnInfo(name = "payload") var payload: String? = null,
+    // bumped whenever the operation is coalesced, so a drain never drops a newer value
+    @ColumnInfo(name = "revision") var revision: Int = 0,
+    @ColumnInfo(name = "attempts") var attempts: Int = 0,
+    @ColumnInfo(name = "nextAttemptAt") var nextAttemptAt: Long = 0,
+    @ColumnInfo(name = "createdAt") var createdAt: Long
+)
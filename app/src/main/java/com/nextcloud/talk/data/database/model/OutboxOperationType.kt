@@ -0,0 +1,19 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.data.database.model
+
+enum class OutboxOperationType {
+    SEND_MESSAGE,
+    READ_MARKER,
+    ADD_REACTION,
+    DELETE_REACTION,
+    EDIT_MESSAGE,
+    DELETE_MESSAGE,
+    PIN_MESSAGE,
+    UNPIN_MESSAGE
+}
@@ -0,0 +1,56 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.data.database.model
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import androidx.room.ForeignKey
+import androidx.room.Index
+
+/**
+ * A participant of a conversation, as last listed by the server and updated by signaling since.
+ */
+@Entity(
+    tableName = "Participants",
+    primaryKeys = ["internalConversationId", "actorType", "actorId"],
+    foreignKeys = [
+        ForeignKey(
+            entity = ConversationEntity::class,
+            parentColumns = arrayOf("internalId"),
+            childColumns = arrayOf("internalConversationId"),
+            onDelete = ForeignKey.CASCADE,
+            onUpdate = ForeignKey.CASCADE
+        )
+    ],
+    indices = [
+        Index(value = ["internalConversationId"])
+    ]
+)
+data class ParticipantEntity(
+    // accountId@roomtoken
+    @ColumnInfo(name = "internalConversationId") var internalConversationId: String,
+    // name of the Participant.ActorType
+    @ColumnInfo(name = "actorType") var actorType: String,
+    @ColumnInfo(name = "actorId") var actorId: String,
+    @ColumnInfo(name = "accountId") var accountId: Long,
+    @ColumnInfo(name = "token") var token: String,
+    @ColumnInfo(name = "attendeeId") var attendeeId: Long? = null,
+    @ColumnInfo(name = "attendeePin") var attendeePin: String? = null,
+    // name of the Participant.ParticipantType
+    @ColumnInfo(name = "participantType") var participantType: String? = null,
+    @ColumnInfo(name = "displayName") var displayName: String? = null,
+    @ColumnInfo(name = "inCall") var inCall: Long = 0,
+    @ColumnInfo(name = "lastPing") var lastPing: Long = 0,
+    @ColumnInfo(name = "sessionIds") var sessionIds: ArrayList<String>? = null,
+    @ColumnInfo(name = "status") var status: String? = null,
+    @ColumnInfo(name = "statusIcon") var statusIcon: String? = null,
+    @ColumnInfo(name = "statusMessage") var statusMessage: String? = null,
+    @ColumnInfo(name = "invitedActorId") var invitedActorId: String? = null,
+    // when the server last listed the participant, in milliseconds
+    @ColumnInfo(name = "syncedAt") var syncedAt: Long = 0
+)
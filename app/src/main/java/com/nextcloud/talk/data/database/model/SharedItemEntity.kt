@@ -0,0 +1,47 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.data.database.model
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import androidx.room.ForeignKey
+import androidx.room.Index
+
+/**
+ * A chat message that shows up in the shared items of a conversation, filed under one shared item type.
+ */
+@Entity(
+    tableName = "SharedItems",
+    primaryKeys = ["internalConversationId", "type", "messageId"],
+    foreignKeys = [
+        ForeignKey(
+            entity = ConversationEntity::class,
+            parentColumns = arrayOf("internalId"),
+            childColumns = arrayOf("internalConversationId"),
+            onDelete = ForeignKey.CASCADE,
+            onUpdate = ForeignKey.CASCADE
+        )
+    ],
+    indices = [
+        Index(value = ["internalConversationId"])
+    ]
+)
+data class SharedItemEntity(
+    // accountId@roomtoken
+    @ColumnInfo(name = "internalConversationId") var internalConversationId: String,
+    // name of the SharedItemType
+    @ColumnInfo(name = "type") var type: String,
+    @ColumnInfo(name = "messageId") var messageId: Long,
+    @ColumnInfo(name = "accountId") var accountId: Long,
+    @ColumnInfo(name = "token") var token: String,
+    @ColumnInfo(name = "actorId") var actorId: String,
+    @ColumnInfo(name = "actorDisplayName") var actorDisplayName: String,
+    @ColumnInfo(name = "message") var message: String,
+    @ColumnInfo(name = "messageParameters") var messageParameters: HashMap<String?, HashMap<String?, String?>>? = null,
+    @ColumnInfo(name = "timestamp") var timestamp: Long = 0
+)
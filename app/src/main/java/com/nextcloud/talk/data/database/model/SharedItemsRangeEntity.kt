@@ -0,0 +1,43 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.data.database.model
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import androidx.room.ForeignKey
+import androidx.room.Index
+import androidx.room.PrimaryKey
+
+/**
+ * A message id range for which the server confirmed that [SharedItemEntity] holds every shared item of [type].
+ * Like chat blocks, connected ranges are merged into one.
+ */
+@Entity(
+    tableName = "SharedItemsRanges",
+    foreignKeys = [
+        ForeignKey(
+            entity = ConversationEntity::class,
+            parentColumns = arrayOf("internalId"),
+            childColumns = arrayOf("internalConversationId"),
+            onDelete = ForeignKey.CASCADE,
+            onUpdate = ForeignKey.CASCADE
+        )
+    ],
+    indices = [
+        Index(value = ["internalConversationId"])
+    ]
+)
+data class SharedItemsRangeEntity(
+    @PrimaryKey(autoGenerate = true)
+    @ColumnInfo(name = "id") var id: Long = 0,
+    // accountId@roomtoken
+    @ColumnInfo(name = "internalConversationId") var internalConversationId: String,
+    @ColumnInfo(name = "type") var type: String,
+    @ColumnInfo(name = "oldestMessageId") var oldestMessageId: Long,
+    @ColumnInfo(name = "newestMessageId") var newestMessageId: Long
+)
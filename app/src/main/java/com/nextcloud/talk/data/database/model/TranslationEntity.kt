@@ -0,0 +1,35 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.data.database.model
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import androidx.room.Index
+
+/**
+ * A translation the server made, so translating the same message again does not cost another machine translation.
+ *
+ * [messageKey] identifies the translated text, see
+ * [com.nextcloud.talk.translate.repositories.model.TranslationRequest]. An empty [fromLanguage] stands for a
+ * translation with language detection.
+ */
+@Entity(
+    tableName = "Translations",
+    primaryKeys = ["accountId", "messageKey", "fromLanguage", "toLanguage"],
+    indices = [
+        Index(value = ["createdAt"])
+    ]
+)
+data class TranslationEntity(
+    @ColumnInfo(name = "accountId") var accountId: Long,
+    @ColumnInfo(name = "messageKey") var messageKey: String,
+    @ColumnInfo(name = "fromLanguage") var fromLanguage: String,
+    @ColumnInfo(name = "toLanguage") var toLanguage: String,
+    @ColumnInfo(name = "translatedText") var translatedText: String,
+    @ColumnInfo(name = "createdAt") var createdAt: Long
+)
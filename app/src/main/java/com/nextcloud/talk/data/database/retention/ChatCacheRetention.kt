@@ -0,0 +1,186 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.data.database.retention
+
+import android.database.sqlite.SQLiteConstraintException
+import android.util.Log
+import androidx.sqlite.db.SupportSQLiteDatabase
+import com.nextcloud.talk.data.database.dao.ChatRetentionDao
+import com.nextcloud.talk.data.database.model.ConversationAccessEntity
+import com.nextcloud.talk.data.source.local.TalkDatabase
+
+/**
+ * Keeps the offline message cache within a storage budget.
+ *
+ * Messages are only removed from the cache when they expire or their conversation is deleted, while the background
+ * catch-up keeps adding pages. Once the cache exceeds [RetentionPolicy.maxMessages] messages or the database exceeds
+ * [RetentionPolicy.maxDatabaseBytes], the oldest messages of the least recently opened conversations are trimmed
+ * until the cache is back at [RetentionPolicy.trimTargetRatio] of the budget. Every conversation keeps its
+ * [RetentionPolicy.minMessagesPerConversation] newest messages. Trimmed messages are refetched from the server when
+ * the user scrolls back to them.
+ *
+ * The freed pages are returned to the file system by incremental vacuum, see [vacuum]. Both run from
+ * [com.nextcloud.talk.jobs.ChatCacheMaintenanceWorker] while the device is idle.
+ */
+class ChatCacheRetention(
+    private val database: TalkDatabase,
+    private val dao: ChatRetentionDao,
+    private val policy: RetentionPolicy = RetentionPolicy(),
+    private val clock: () -> Long = System::currentTimeMillis
+) {
+
+    suspend fun markOpened(accountId: Long, roomToken: String) {
+        try {
+            dao.upsertConversationAccess(ConversationAccessEntity("$accountId@$roomToken", clock()))
+        } catch (e: SQLiteConstraintException) {
+            // the conversation is not stored locally (yet), it is treated as never opened
+            Log.w(TAG, "Skip marking conversation as opened: conversation not in DB yet. Swallowed exception: $e")
+        }
+    }
+
+    fun databaseStats(): DatabaseStats {
+        val db = database.openHelper.writableDatabase
+        val pageSize = db.pragma("page_size")
+        return DatabaseStats(
+            databaseBytes = db.pragma("page_count") * pageSize,
+            freeBytes = db.pragma("freelist_count") * pageSize,
+            messageCount = dao.countChatMessages()
+        )
+    }
+
+    /**
+     * Trims the cache if it exceeds the budget, then vacuums.
+     */
+    fun runMaintenance(): RetentionReport {
+        val before = databaseStats()
+        val trimReport = trim(before)
+        val freedBytes = vacuum()
+        val after = databaseStats()
+        return RetentionReport(
+            before = before,
+            after = after,
+            trimmedConversations = trimReport.trimmedConversations,
+            deletedMessages = trimReport.deletedMessages,
+            deletedBlocks = trimReport.deletedBlocks,
+            shrunkBlocks = trimReport.shrunkBlocks,
+            vacuumedBytes = freedBytes
+        ).also { Log.i(TAG, it.toString()) }
+    }
+
+    fun trim(stats: DatabaseStats = databaseStats()): RetentionReport {
+        val targetMessageCount = targetMessageCount(stats) ?: return RetentionReport(before = stats)
+
+        var excess = stats.messageCount - targetMessageCount
+        var report = RetentionReport(before = stats)
+        for (candidate in dao.getRetentionCandidates()) {
+            if (excess <= 0) {
+                break
+            }
+            val keep = maxOf(policy.minMessagesPerConversation, candidate.messageCount - excess)
+            if (candidate.messageCount <= keep) {
+                continue
+            }
+            val oldestKeptMessageId =
+                dao.getMessageIdAtOffsetFromNewest(candidate.internalConversationId, keep - 1) ?: continue
+            val result = dao.trimConversationBefore(candidate.internalConversationId, oldestKeptMessageId)
+            excess -= result.deletedMessages
+            report = report.copy(
+                trimmedConversations = report.trimmedConversations + 1,
+                deletedMessages = report.deletedMessages + result.deletedMessages,
+                deletedBlocks = report.deletedBlocks + result.deletedBlocks,
+                shrunkBlocks = report.shrunkBlocks + result.shrunkBlocks
+            )
+        }
+        return report
+    }
+
+    /**
+     * Returns free pages to the file system, at most [RetentionPolicy.maxVacuumPages] per run so a run stays short.
+     *
+     * Incremental vacuum needs `auto_vacuum = INCREMENTAL`, which only takes effect with a full `VACUUM`. Databases
+     * created before are converted once, which rewrites the whole file.
+     *
+     * @return the number of bytes returned to the file system
+     */
+    fun vacuum(): Long {
+        val db = database.openHelper.writableDatabase
+        val pageSize = db.pragma("page_size")
+        val freeBytesBefore = db.pragma("freelist_count") * pageSize
+        if (freeBytesBefore == 0L) {
+            return 0
+        }
+        if (db.pragma("auto_vacuum") != AUTO_VACUUM_INCREMENTAL) {
+            Log.i(TAG, "Switching the database to incremental vacuum")
+            db.execSQL("PRAGMA auto_vacuum = INCREMENTAL")
+            db.execSQL("VACUUM")
+        } else {
+            val freedPages = db.query("PRAGMA incremental_vacuum(${policy.maxVacuumPages})").use { cursor ->
+                // the pragma frees one page per step
+                var steps = 0
+                while (cursor.moveToNext()) {
+                    steps++
+                }
+                steps
+            }
+            Log.d(TAG, "Incremental vacuum freed $freedPages pages")
+        }
+        return freeBytesBefore - db.pragma("freelist_count") * pageSize
+    }
+
+    /**
+     * The number of messages to trim the cache to, or null if the cache is within the budget.
+     */
+    private fun targetMessageCount(stats: DatabaseStats): Int? {
+        val usedBytes = stats.databaseBytes - stats.freeBytes
+        val overMessages = stats.messageCount > policy.maxMessages
+        val overSize = usedBytes > policy.maxDatabaseBytes
+        if (!overMessages && !overSize) {
+            return null
+        }
+        var target = (policy.maxMessages * policy.trimTargetRatio).toInt()
+        if (overSize && stats.messageCount > 0) {
+            // assumes the messages take the same share of the database after trimming
+            val targetBytes = policy.maxDatabaseBytes * policy.trimTargetRatio
+            target = minOf(target, (stats.messageCount * targetBytes / usedBytes).toInt())
+        }
+        return target
+    }
+
+    private fun SupportSQLiteDatabase.pragma(name: String): Long =
+        query("PRAGMA $name").use { cursor -> if (cursor.moveToFirst()) cursor.getLong(0) else 0L }
+
+    data class RetentionPolicy(
+        val maxMessages: Int = DEFAULT_MAX_MESSAGES,
+        val maxDatabaseBytes: Long = DEFAULT_MAX_DATABASE_BYTES,
+        val minMessagesPerConversation: Int = DEFAULT_MIN_MESSAGES_PER_CONVERSATION,
+        val trimTargetRatio: Double = DEFAULT_TRIM_TARGET_RATIO,
+        val maxVacuumPages: Int = DEFAULT_MAX_VACUUM_PAGES
+    )
+
+    data class DatabaseStats(val databaseBytes: Long, val freeBytes: Long, val messageCount: Int)
+
+    data class RetentionReport(
+        val before: DatabaseStats,
+        val after: DatabaseStats? = null,
+        val trimmedConversations: Int = 0,
+        val deletedMessages: Int = 0,
+        val deletedBlocks: Int = 0,
+        val shrunkBlocks: Int = 0,
+        val vacuumedBytes: Long = 0
+    )
+
+    companion object {
+        private val TAG = ChatCacheRetention::class.java.simpleName
+        private const val AUTO_VACUUM_INCREMENTAL = 2L
+        private const val DEFAULT_MAX_MESSAGES = 100_000
+        private const val DEFAULT_MAX_DATABASE_BYTES = 200L * 1024 * 1024
+        private const val DEFAULT_MIN_MESSAGES_PER_CONVERSATION = 100
+        private const val DEFAULT_TRIM_TARGET_RATIO = 0.8
+        private const val DEFAULT_MAX_VACUUM_PAGES = 2_000
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.data.source.local
+
+import net.zetetic.database.sqlcipher.SQLiteConnection
+import net.zetetic.database.sqlcipher.SQLiteDatabaseHook
+
+/**
+ * Per connection settings of the encrypted database, applied to the writer and to every reader connection of the
+ * WAL pool right after the key is set.
+ *
+ * The key derivation settings (`kdf_iter`, page size, HMAC) are left at the SQLCipher defaults, as changing them
+ * would make existing databases unreadable without re-encrypting them.
+ */
+internal object ConnectionTuningHook : SQLiteDatabaseHook {
+
+    override fun preKey(connection: SQLiteConnection) {
+        // nothing to set before the key
+    }
+
+    override fun postKey(connection: SQLiteConnection) {
+        connection.execute("PRAGMA temp_store = MEMORY", null, null)
+        connection.execute("PRAGMA cache_size = -$PAGE_CACHE_KIB", null, null)
+    }
+
+    // negative cache sizes are in KiB
+    private const val PAGE_CACHE_KIB = 8 * 1024
+}
@@ -0,0 +1,62 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.data.source.local
+
+import android.os.Looper
+import android.util.Log
+import androidx.room.RoomDatabase
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.Executor
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Finds database queries that run on the main thread. Installed in debug builds only, see [TalkDatabase].
+ *
+ * Room invokes the callback on the executor given to `setQueryCallback`. With [DIRECT_EXECUTOR] that is the thread
+ * that runs the query, so the main thread can be detected. In [Mode.RECORD], every statement is logged with its
+ * stack trace the first time it runs on the main thread and counted afterwards, see [mainThreadQueries]. In
+ * [Mode.FAIL], the query throws, which makes the offending call site show up in tests right away.
+ */
+class MainThreadQueryDetector(
+    private val mode: Mode = Mode.RECORD,
+    private val isMainThread: () -> Boolean = { Looper.getMainLooper().isCurrentThread }
+) : RoomDatabase.QueryCallback {
+
+    enum class Mode {
+        RECORD,
+        FAIL
+    }
+
+    private val counts = ConcurrentHashMap<String, AtomicInteger>()
+
+    override fun onQuery(sqlQuery: String, bindArgs: List<Any?>) {
+        if (!isMainThread()) {
+            return
+        }
+        when (mode) {
+            Mode.FAIL -> throw IllegalStateException("Database query on the main thread: $sqlQuery")
+            Mode.RECORD -> {
+                val count = counts.getOrPut(sqlQuery) { AtomicInteger() }.incrementAndGet()
+                if (count == 1) {
+                    Log.w(TAG, "Database query on the main thread: $sqlQuery", Throwable("main thread query"))
+                }
+            }
+        }
+    }
+
+    /**
+     * The statements that ran on the main thread so far, with the number of times they did.
+     */
+    fun mainThreadQueries(): Map<String, Int> = counts.mapValues { it.value.get() }
+
+    companion object {
+        private val TAG = MainThreadQueryDetector::class.java.simpleName
+
+        val DIRECT_EXECUTOR = Executor { it.run() }
+    }
+}
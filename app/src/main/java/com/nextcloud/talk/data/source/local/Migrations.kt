@@ -100,6 +100,69 @@ object Migrations {
         }
     }
 
+    val MIGRATION_26_27 = object : Migration(26, 27) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            Log.i("Migrations", "Migrating 26 to 27")
+            addOutbox(db)
+        }
+    }
+
+    val MIGRATION_27_28 = object : Migration(27, 28) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            Log.i("Migrations", "Migrating 27 to 28")
+            addSharedItems(db)
+        }
+    }
+
+    val MIGRATION_28_29 = object : Migration(28, 29) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            Log.i("Migrations", "Migrating 28 to 29")
+            addParticipants(db)
+        }
+    }
+
+    val MIGRATION_29_30 = object : Migration(29, 30) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            Log.i("Migrations", "Migrating 29 to 30")
+            addTranslations(db)
+        }
+    }
+
+    val MIGRATION_30_31 = object : Migration(30, 31) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            Log.i("Migrations", "Migrating 30 to 31")
+            addConversationAccess(db)
+        }
+    }
+
+    val MIGRATION_31_32 = object : Migration(31, 32) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            Log.i("Migrations", "Migrating 31 to 32")
+            addAvatars(db)
+        }
+    }
+
+    val MIGRATION_32_33 = object : Migration(32, 33) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            Log.i("Migrations", "Migrating 32 to 33")
+            addGeocodingResults(db)
+        }
+    }
+
+    val MIGRATION_33_34 = object : Migration(33, 34) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            Log.i("Migrations", "Migrating 33 to 34")
+            addLinkPreviews(db)
+        }
+    }
+
+    val MIGRATION_34_35 = object : Migration(34, 35) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            Log.i("Migrations", "Migrating 34 to 35")
+            addLastMessagePreview(db)
+        }
+    }
+
     //endregion
 
     fun migrateToRoom(db: SupportSQLiteDatabase) {
@@ -418,4 +481,230 @@ object Migrations {
             Log.i("Migrations", "Something went wrong when adding column silent to table ChatMessages", e)
         }
     }
+
+    fun addOutbox(db: SupportSQLiteDatabase) {
+        try {
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `Outbox` (" +
+                    "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                    "`accountId` INTEGER NOT NULL, " +
+                    "`roomToken` TEXT NOT NULL, " +
+                    "`type` TEXT NOT NULL, " +
+                    "`coalesceKey` TEXT NOT NULL, " +
+                    "`messageId` INTEGER NOT NULL, " +
+                    "`payload` TEXT, " +
+                    "`revision` INTEGER NOT NULL, " +
+                    "`attempts` INTEGER NOT NULL, " +
+                    "`nextAttemptAt` INTEGER NOT NULL, " +
+                    "`createdAt` INTEGER NOT NULL)"
+            )
+            db.execSQL(
+                "CREATE UNIQUE INDEX IF NOT EXISTS `index_Outbox_coalesceKey` ON `Outbox` (`coalesceKey`)"
+            )
+        } catch (e: SQLException) {
+            Log.i("Migrations", "Something went wrong when creating table Outbox", e)
+        }
+    }
+
+    fun addSharedItems(db: SupportSQLiteDatabase) {
+        try {
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `SharedItems` (" +
+                    "`internalConversationId` TEXT NOT NULL, " +
+                    "`type` TEXT NOT NULL, " +
+                    "`messageId` INTEGER NOT NULL, " +
+                    "`accountId` INTEGER NOT NULL, " +
+                    "`token` TEXT NOT NULL, " +
+                    "`actorId` TEXT NOT NULL, " +
+                    "`actorDisplayName` TEXT NOT NULL, " +
+                    "`message` TEXT NOT NULL, " +
+                    "`messageParameters` TEXT, " +
+                    "`timestamp` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`internalConversationId`, `type`, `messageId`), " +
+                    "FOREIGN KEY(`internalConversationId`) REFERENCES `Conversations`(`internalId`) " +
+                    "ON UPDATE CASCADE ON DELETE CASCADE " +
+                    ")"
+            )
+            db.execSQL(
+                "CREATE INDEX IF NOT EXISTS `index_SharedItems_internalConversationId` " +
+                    "ON `SharedItems` (`internalConversationId`)"
+            )
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `SharedItemsRanges` (" +
+                    "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                    "`internalConversationId` TEXT NOT NULL, " +
+                    "`type` TEXT NOT NULL, " +
+                    "`oldestMessageId` INTEGER NOT NULL, " +
+                    "`newestMessageId` INTEGER NOT NULL, " +
+                    "FOREIGN KEY(`internalConversationId`) REFERENCES `Conversations`(`internalId`) " +
+                    "ON UPDATE CASCADE ON DELETE CASCADE " +
+                    ")"
+            )
+            db.execSQL(
+                "CREATE INDEX IF NOT EXISTS `index_SharedItemsRanges_internalConversationId` " +
+                    "ON `SharedItemsRanges` (`internalConversationId`)"
+            )
+        } catch (e: SQLException) {
+            Log.i("Migrations", "Something went wrong when creating the shared items tables", e)
+        }
+    }
+
+    fun addParticipants(db: SupportSQLiteDatabase) {
+        try {
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `Participants` (" +
+                    "`internalConversationId` TEXT NOT NULL, " +
+                    "`actorType` TEXT NOT NULL, " +
+                    "`actorId` TEXT NOT NULL, " +
+                    "`accountId` INTEGER NOT NULL, " +
+                    "`token` TEXT NOT NULL, " +
+                    "`attendeeId` INTEGER, " +
+                    "`attendeePin` TEXT, " +
+                    "`participantType` TEXT, " +
+                    "`displayName` TEXT, " +
+                    "`inCall` INTEGER NOT NULL, " +
+                    "`lastPing` INTEGER NOT NULL, " +
+                    "`sessionIds` TEXT, " +
+                    "`status` TEXT, " +
+                    "`statusIcon` TEXT, " +
+                    "`statusMessage` TEXT, " +
+                    "`invitedActorId` TEXT, " +
+                    "`syncedAt` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`internalConversationId`, `actorType`, `actorId`), " +
+                    "FOREIGN KEY(`internalConversationId`) REFERENCES `Conversations`(`internalId`) " +
+                    "ON UPDATE CASCADE ON DELETE CASCADE " +
+                    ")"
+            )
+            db.execSQL(
+                "CREATE INDEX IF NOT EXISTS `index_Participants_internalConversationId` " +
+                    "ON `Participants` (`internalConversationId`)"
+            )
+        } catch (e: SQLException) {
+            Log.i("Migrations", "Something went wrong when creating table Participants", e)
+        }
+    }
+
+    fun addTranslations(db: SupportSQLiteDatabase) {
+        try {
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `Translations` (" +
+                    "`accountId` INTEGER NOT NULL, " +
+                    "`messageKey` TEXT NOT NULL, " +
+                    "`fromLanguage` TEXT NOT NULL, " +
+                    "`toLanguage` TEXT NOT NULL, " +
+                    "`translatedText` TEXT NOT NULL, " +
+                    "`createdAt` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`accountId`, `messageKey`, `fromLanguage`, `toLanguage`)" +
+                    ")"
+            )
+            db.execSQL(
+                "CREATE INDEX IF NOT EXISTS `index_Translations_createdAt` " +
+                    "ON `Translations` (`createdAt`)"
+            )
+        } catch (e: SQLException) {
+            Log.i("Migrations", "Something went wrong when creating table Translations", e)
+        }
+    }
+
+    fun addConversationAccess(db: SupportSQLiteDatabase) {
+        try {
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `ConversationAccess` (" +
+                    "`internalConversationId` TEXT NOT NULL, " +
+                    "`lastOpenedAt` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`internalConversationId`), " +
+                    "FOREIGN KEY(`internalConversationId`) REFERENCES `Conversations`(`internalId`) " +
+                    "ON UPDATE CASCADE ON DELETE CASCADE " +
+                    ")"
+            )
+        } catch (e: SQLException) {
+            Log.i("Migrations", "Something went wrong when creating table ConversationAccess", e)
+        }
+    }
+
+    fun addAvatars(db: SupportSQLiteDatabase) {
+        try {
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `Avatars` (" +
+                    "`accountId` INTEGER NOT NULL, " +
+                    "`avatarKey` TEXT NOT NULL, " +
+                    "`avatarVersion` TEXT, " +
+                    "`etag` TEXT, " +
+                    "`isCustom` INTEGER NOT NULL, " +
+                    "`checkedAt` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`accountId`, `avatarKey`)" +
+                    ")"
+            )
+        } catch (e: SQLException) {
+            Log.i("Migrations", "Something went wrong when creating table Avatars", e)
+        }
+    }
+
+    fun addGeocodingResults(db: SupportSQLiteDatabase) {
+        try {
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `GeocodingResults` (" +
+                    "`cacheKey` TEXT NOT NULL, " +
+                    "`position` INTEGER NOT NULL, " +
+                    "`lat` REAL NOT NULL, " +
+                    "`lon` REAL NOT NULL, " +
+                    "`displayName` TEXT NOT NULL, " +
+                    "`lastUsedAt` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`cacheKey`, `position`)" +
+                    ")"
+            )
+            db.execSQL(
+                "CREATE INDEX IF NOT EXISTS `index_GeocodingResults_lastUsedAt` " +
+                    "ON `GeocodingResults` (`lastUsedAt`)"
+            )
+        } catch (e: SQLException) {
+            Log.i("Migrations", "Something went wrong when creating table GeocodingResults", e)
+        }
+    }
+
+    fun addLinkPreviews(db: SupportSQLiteDatabase) {
+        try {
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `LinkPreviews` (" +
+                    "`accountId` INTEGER NOT NULL, " +
+                    "`url` TEXT NOT NULL, " +
+                    "`hasPreview` INTEGER NOT NULL, " +
+                    "`referenceId` TEXT NOT NULL, " +
+                    "`name` TEXT NOT NULL, " +
+                    "`description` TEXT, " +
+                    "`thumb` TEXT, " +
+                    "`link` TEXT, " +
+                    "`fetchedAt` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`accountId`, `url`)" +
+                    ")"
+            )
+            db.execSQL(
+                "CREATE INDEX IF NOT EXISTS `index_LinkPreviews_fetchedAt` " +
+                    "ON `LinkPreviews` (`fetchedAt`)"
+            )
+        } catch (e: SQLException) {
+            Log.i("Migrations", "Something went wrong when creating table LinkPreviews", e)
+        }
+    }
+
+    /**
+     * The preview columns of the stored conversations are filled in from their last message the next time the
+     * conversation list is observed, see OfflineFirstConversationsRepository.
+     */
+    fun addLastMessagePreview(db: SupportSQLiteDatabase) {
+        listOf("kind", "text", "author", "authorName", "mimeType").forEach { column ->
+            try {
+                db.execSQL(
+                    "ALTER TABLE Conversations " +
+                        "ADD COLUMN `lastMessagePreview_$column` TEXT;"
+                )
+            } catch (e: SQLException) {
+                Log.i(
+                    "Migrations",
+                    "Something went wrong when adding column lastMessagePreview_$column to table Conversations",
+                    e
+                )
+            }
+        }
+    }
 }
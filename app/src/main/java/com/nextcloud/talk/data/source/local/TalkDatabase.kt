@@ -9,25 +9,46 @@
 package com.nextcloud.talk.data.source.local
 
 import android.content.Context
+import android.os.SystemClock
+import android.util.Log
 import androidx.room.AutoMigration
 import androidx.room.Database
 import androidx.room.Room
 import androidx.room.RoomDatabase
 import androidx.room.TypeConverters
 import androidx.sqlite.db.SupportSQLiteDatabase
+import com.nextcloud.talk.BuildConfig
 import com.nextcloud.talk.R
+import com.nextcloud.talk.data.database.dao.AvatarsDao
 import com.nextcloud.talk.data.database.dao.ChatBlocksDao
 import com.nextcloud.talk.data.database.dao.ChatMessagesDao
+import com.nextcloud.talk.data.database.dao.ChatRetentionDao
 import com.nextcloud.talk.data.database.dao.ConversationsDao
+import com.nextcloud.talk.data.database.dao.GeocodingDao
+import com.nextcloud.talk.data.database.dao.LinkPreviewsDao
+import com.nextcloud.talk.data.database.dao.OutboxDao
+import com.nextcloud.talk.data.database.dao.ParticipantsDao
+import com.nextcloud.talk.data.database.dao.SharedItemsDao
+import com.nextcloud.talk.data.database.dao.TranslationsDao
+import com.nextcloud.talk.data.database.model.AvatarEntity
 import com.nextcloud.talk.data.database.model.ChatBlockEntity
 import com.nextcloud.talk.data.database.model.ChatMessageEntity
+import com.nextcloud.talk.data.database.model.ConversationAccessEntity
 import com.nextcloud.talk.data.database.model.ConversationEntity
+import com.nextcloud.talk.data.database.model.GeocodingResultEntity
+import com.nextcloud.talk.data.database.model.LinkPreviewEntity
+import com.nextcloud.talk.data.database.model.OutboxOperationEntity
+import com.nextcloud.talk.data.database.model.ParticipantEntity
+import com.nextcloud.talk.data.database.model.SharedItemEntity
+import com.nextcloud.talk.data.database.model.SharedItemsRangeEntity
+import com.nextcloud.talk.data.database.model.TranslationEntity
 import com.nextcloud.talk.data.source.local.Migrations.AutoMigration16To17
 import com.nextcloud.talk.data.source.local.converters.ArrayListConverter
 import com.nextcloud.talk.data.source.local.converters.CapabilitiesConverter
 import com.nextcloud.talk.data.source.local.converters.ExternalSignalingServerConverter
 import com.nextcloud.talk.data.source.local.converters.HashMapHashMapConverter
 import com.nextcloud.talk.data.source.local.converters.LinkedHashMapConverter
+import com.nextcloud.talk.data.source.local.converters.OutboxOperationTypeConverter
 import com.nextcloud.talk.data.source.local.converters.PushConfigurationConverter
 import com.nextcloud.talk.data.source.local.converters.SendStatusConverter
 import com.nextcloud.talk.data.source.local.converters.ServerVersionConverter
@@ -39,6 +60,7 @@ import com.nextcloud.talk.data.user.model.UserEntity
 import com.nextcloud.talk.models.MessageDraftConverter
 import net.zetetic.database.sqlcipher.SupportOpenHelperFactory
 import java.util.Locale
+import kotlin.concurrent.thread
 
 @Database(
     entities = [
@@ -46,9 +68,18 @@ import java.util.Locale
         ArbitraryStorageEntity::class,
         ConversationEntity::class,
         ChatMessageEntity::class,
-        ChatBlockEntity::class
+        ChatBlockEntity::class,
+        OutboxOperationEntity::class,
+        SharedItemEntity::class,
+        SharedItemsRangeEntity::class,
+        ParticipantEntity::class,
+        TranslationEntity::class,
+        ConversationAccessEntity::class,
+        AvatarEntity::class,
+        GeocodingResultEntity::class,
+        LinkPreviewEntity::class
     ],
-    version = 26,
+    version = 35,
     autoMigrations = [
         AutoMigration(from = 9, to = 10),
         AutoMigration(from = 16, to = 17, spec = AutoMigration16To17::class),
@@ -72,7 +103,8 @@ import java.util.Locale
     LinkedHashMapConverter::class,
     ArrayListConverter::class,
     SendStatusConverter::class,
-    MessageDraftConverter::class
+    MessageDraftConverter::class,
+    OutboxOperationTypeConverter::class
 )
 @Suppress("MagicNumber")
 abstract class TalkDatabase : RoomDatabase() {
@@ -81,10 +113,19 @@ abstract class TalkDatabase : RoomDatabase() {
     abstract fun chatMessagesDao(): ChatMessagesDao
     abstract fun chatBlocksDao(): ChatBlocksDao
     abstract fun arbitraryStoragesDao(): ArbitraryStoragesDao
+    abstract fun outboxDao(): OutboxDao
+    abstract fun sharedItemsDao(): SharedItemsDao
+    abstract fun participantsDao(): ParticipantsDao
+    abstract fun translationsDao(): TranslationsDao
+    abstract fun chatRetentionDao(): ChatRetentionDao
+    abstract fun avatarsDao(): AvatarsDao
+    abstract fun geocodingDao(): GeocodingDao
+    abstract fun linkPreviewsDao(): LinkPreviewsDao
 
     companion object {
         const val TAG = "TalkDatabase"
         const val SQL_CIPHER_LIBRARY = "sqlcipher"
+        private const val PREWARM_THREAD_NAME = "TalkDatabasePrewarm"
 
         @Volatile
         private var instance: TalkDatabase? = null
@@ -106,14 +147,43 @@ abstract class TalkDatabase : RoomDatabase() {
             Migrations.MIGRATION_13_14,
             Migrations.MIGRATION_14_15,
             Migrations.MIGRATION_15_16,
-            Migrations.MIGRATION_17_19
+            Migrations.MIGRATION_17_19,
+            Migrations.MIGRATION_26_27,
+            Migrations.MIGRATION_27_28,
+            Migrations.MIGRATION_28_29,
+            Migrations.MIGRATION_29_30,
+            Migrations.MIGRATION_30_31,
+            Migrations.MIGRATION_31_32,
+            Migrations.MIGRATION_32_33,
+            Migrations.MIGRATION_33_34,
+            Migrations.MIGRATION_34_35
         )
 
+        /**
+         * Opens the database on a background thread, so the SQLCipher key derivation and the schema validation are
+         * done before the first screen needs the database. Callers of [getInstance] in the meantime wait for it
+         * instead of opening the database a second time.
+         */
+        @JvmStatic
+        @Suppress("Detekt.TooGenericExceptionCaught")
+        fun prewarm(context: Context) {
+            thread(name = PREWARM_THREAD_NAME, priority = Thread.NORM_PRIORITY) {
+                val start = SystemClock.elapsedRealtime()
+                try {
+                    getInstance(context).openHelper.writableDatabase
+                    Log.d(TAG, "Database opened in ${SystemClock.elapsedRealtime() - start} ms")
+                } catch (e: Exception) {
+                    // opened again, with the same error, by the first query
+                    Log.e(TAG, "Failed to prewarm the database", e)
+                }
+            }
+        }
+
         @Suppress("SpreadOperator")
         private fun build(context: Context): TalkDatabase {
             val passCharArray = context.getString(R.string.nc_talk_database_encryption_key).toCharArray()
             val passphrase: ByteArray = getBytesFromChars(passCharArray)
-            val factory = SupportOpenHelperFactory(passphrase)
+            val factory = SupportOpenHelperFactory(passphrase, ConnectionTuningHook, true)
 
             val dbName = context
                 .resources
@@ -132,11 +202,22 @@ abstract class TalkDatabase : RoomDatabase() {
                 .fallbackToDestructiveMigrationFrom(true, 18)
                 .addMigrations(*MIGRATIONS) // * converts migrations to vararg
                 .allowMainThreadQueries()
+                .setJournalMode(JournalMode.WRITE_AHEAD_LOGGING)
+                .apply {
+                    if (BuildConfig.DEBUG) {
+                        setQueryCallback(
+                            MainThreadQueryDetector(mainThreadQueryMode()),
+                            MainThreadQueryDetector.DIRECT_EXECUTOR
+                        )
+                    }
+                }
                 .addCallback(
                     object : Callback() {
                         override fun onOpen(db: SupportSQLiteDatabase) {
                             super.onOpen(db)
                             db.execSQL("PRAGMA defer_foreign_keys = 1")
+                            // durable with WAL: a power loss can only lose the last transactions, not corrupt
+                            db.execSQL("PRAGMA synchronous = NORMAL")
                         }
                     }
                 )
@@ -144,5 +225,13 @@ abstract class TalkDatabase : RoomDatabase() {
         }
 
         private fun getBytesFromChars(chars: CharArray): ByteArray = String(chars).toByteArray(Charsets.UTF_8)
+
+        // debug builds fail on main thread queries unless built with -PrecordMainThreadQueries
+        private fun mainThreadQueryMode() =
+            if (BuildConfig.FAIL_ON_MAIN_THREAD_QUERIES) {
+                MainThreadQueryDetector.Mode.FAIL
+            } else {
+                MainThreadQueryDetector.Mode.RECORD
+            }
     }
 }
@@ -0,0 +1,19 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.data.source.local.converters
+
+import androidx.room.TypeConverter
+import com.nextcloud.talk.data.database.model.OutboxOperationType
+
+class OutboxOperationTypeConverter {
+    @TypeConverter
+    fun fromType(value: OutboxOperationType): String = value.name
+
+    @TypeConverter
+    fun toType(value: String): OutboxOperationType = OutboxOperationType.valueOf(value)
+}
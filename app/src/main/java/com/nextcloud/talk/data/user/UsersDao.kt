@@ -12,8 +12,12 @@ import androidx.room.Delete
 import androidx.room.Insert
 import androidx.room.OnConflictStrategy
 import androidx.room.Query
+import androidx.room.Transaction
 import androidx.room.Update
 import com.nextcloud.talk.data.user.model.UserEntity
+import com.nextcloud.talk.models.ExternalSignalingServer
+import com.nextcloud.talk.models.json.capabilities.Capabilities
+import com.nextcloud.talk.models.json.capabilities.ServerVersion
 import com.nextcloud.talk.models.json.push.PushConfigurationState
 import io.reactivex.Maybe
 import io.reactivex.Observable
@@ -39,6 +43,31 @@ abstract class UsersDao {
     @Update
     abstract fun updateUser(user: UserEntity): Int
 
+    @Query("UPDATE User SET capabilities = :capabilities, serverVersion = :serverVersion WHERE id = :id")
+    abstract fun updateCapabilities(id: Long, capabilities: Capabilities?, serverVersion: ServerVersion?): Int
+
+    @Query("UPDATE User SET externalSignalingServer = :externalSignalingServer WHERE id = :id")
+    abstract fun updateExternalSignalingServer(id: Long, externalSignalingServer: ExternalSignalingServer?): Int
+
+    /**
+     * Updates the capabilities and server version of all [users] in one transaction. The other columns are left
+     * alone, so changes made to them while the capabilities were fetched are kept.
+     *
+     * @return the number of updated rows of each user, in the order of [users]
+     */
+    @Transaction
+    open fun updateCapabilities(users: List<UserEntity>): List<Int> =
+        users.map { updateCapabilities(it.id, it.capabilities, it.serverVersion) }
+
+    /**
+     * Updates the external signaling server of all [users] in one transaction, leaving the other columns alone.
+     *
+     * @return the number of updated rows of each user, in the order of [users]
+     */
+    @Transaction
+    open fun updateExternalSignalingServers(users: List<UserEntity>): List<Int> =
+        users.map { updateExternalSignalingServer(it.id, it.externalSignalingServer) }
+
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     abstract fun saveUser(user: UserEntity): Long
 
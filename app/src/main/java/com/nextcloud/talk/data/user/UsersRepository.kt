@@ -25,6 +25,8 @@ interface UsersRepository {
     fun getUsersNotScheduledForDeletion(): Single<List<User>>
     fun getUserWithUsernameAndServer(username: String, server: String): Maybe<User>
     fun updateUser(user: User): Int
+    fun updateCapabilities(users: List<User>): List<Int>
+    fun updateExternalSignalingServers(users: List<User>): List<Int>
     fun insertUser(user: User): Long
     fun setUserAsActiveWithId(id: Long): Single<Boolean>
     fun deleteUser(user: User): Int
@@ -62,6 +62,12 @@ class UsersRepositoryImpl(private val usersDao: UsersDao) : UsersRepository {
 
     override fun updateUser(user: User): Int = usersDao.updateUser(UserMapper.toEntity(user))
 
+    override fun updateCapabilities(users: List<User>): List<Int> =
+        usersDao.updateCapabilities(users.map { UserMapper.toEntity(it) })
+
+    override fun updateExternalSignalingServers(users: List<User>): List<Int> =
+        usersDao.updateExternalSignalingServers(users.map { UserMapper.toEntity(it) })
+
     override fun insertUser(user: User): Long = usersDao.saveUser(UserMapper.toEntity(user))
 
     override fun setUserAsActiveWithId(id: Long): Single<Boolean> {
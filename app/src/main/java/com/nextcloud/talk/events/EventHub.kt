@@ -0,0 +1,166 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.events
+
+import android.util.Log
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.launch
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * In-app event bus with typed subscriptions.
+ *
+ * Subscribers register a handler per event class together with the dispatcher it runs on, so registering costs
+ * no reflection. Events are dispatched by their exact class, each subscription receives its events in posting
+ * order. With `Dispatchers.Main.immediate`, an event posted on the main thread is handled before [post] returns.
+ *
+ * Delivery latency (from [post] until the handler starts) and counts are recorded per event class, see
+ * [deliveryStats].
+ */
+class EventHub(
+    private val scope: CoroutineScope = CoroutineScope(SupervisorJob()),
+    private val clock: () -> Long = System::nanoTime
+) {
+
+    private val subscriptions = ConcurrentHashMap<Class<*>, CopyOnWriteArrayList<EventSubscription<*>>>()
+    private val stickyEvents = ConcurrentHashMap<Class<*>, Any>()
+    private val counters = ConcurrentHashMap<Class<*>, DeliveryCounter>()
+
+    fun post(event: Any) {
+        val eventType = event.javaClass
+        val postedAt = clock()
+        counter(eventType).posted.incrementAndGet()
+        subscriptions[eventType]?.forEach { it.offer(event, postedAt) }
+    }
+
+    /**
+     * Posts [event] and keeps it, so subscriptions registered later with `sticky = true` receive it as well.
+     */
+    fun postSticky(event: Any) {
+        stickyEvents[event.javaClass] = event
+        post(event)
+    }
+
+    fun removeStickyEvent(eventType: Class<*>) {
+        stickyEvents.remove(eventType)
+    }
+
+    fun <T : Any> subscribe(
+        eventType: Class<T>,
+        dispatcher: CoroutineDispatcher,
+        sticky: Boolean = false,
+        handler: (T) -> Unit
+    ): EventSubscription<T> {
+        val subscription = EventSubscription(eventType, handler)
+        subscriptions.getOrPut(eventType) { CopyOnWriteArrayList() }.add(subscription)
+        subscription.job = scope.launch(dispatcher) { subscription.deliver() }
+
+        if (sticky) {
+            stickyEvents[eventType]?.let { subscription.offer(it, clock()) }
+        }
+        return subscription
+    }
+
+    inline fun <reified T : Any> subscribe(
+        dispatcher: CoroutineDispatcher,
+        sticky: Boolean = false,
+        noinline handler: (T) -> Unit
+    ): EventSubscription<T> = subscribe(T::class.java, dispatcher, sticky, handler)
+
+    fun deliveryStats(eventType: Class<*>): EventDeliveryStats = counter(eventType).snapshot()
+
+    fun deliveryStats(): Map<Class<*>, EventDeliveryStats> = counters.mapValues { it.value.snapshot() }
+
+    private fun counter(eventType: Class<*>): DeliveryCounter = counters.getOrPut(eventType) { DeliveryCounter() }
+
+    inner class EventSubscription<T : Any> internal constructor(
+        private val eventType: Class<T>,
+        private val handler: (T) -> Unit
+    ) {
+        private val pending = Channel<PendingEvent>(Channel.UNLIMITED)
+        internal var job: Job? = null
+
+        internal fun offer(event: Any, postedAt: Long) {
+            pending.trySend(PendingEvent(event, postedAt))
+        }
+
+        @Suppress("TooGenericExceptionCaught")
+        internal suspend fun deliver() {
+            val counter = counter(eventType)
+            for (pendingEvent in pending) {
+                counter.recordDelivery(clock() - pendingEvent.postedAt)
+                try {
+                    handler(eventType.cast(pendingEvent.event))
+                } catch (e: Exception) {
+                    counter.failed.incrementAndGet()
+                    Log.e(TAG, "Subscriber of ${eventType.simpleName} failed", e)
+                }
+            }
+        }
+
+        fun cancel() {
+            subscriptions[eventType]?.remove(this)
+            pending.close()
+            job?.cancel()
+        }
+    }
+
+    private class PendingEvent(val event: Any, val postedAt: Long)
+
+    private class DeliveryCounter {
+        val posted = AtomicLong()
+        val delivered = AtomicLong()
+        val failed = AtomicLong()
+        val totalLatencyNanos = AtomicLong()
+        val maxLatencyNanos = AtomicLong()
+
+        fun recordDelivery(latencyNanos: Long) {
+            delivered.incrementAndGet()
+            totalLatencyNanos.addAndGet(latencyNanos)
+            maxLatencyNanos.accumulateAndGet(latencyNanos) { current, latency -> maxOf(current, latency) }
+        }
+
+        fun snapshot(): EventDeliveryStats =
+            EventDeliveryStats(
+                posted = posted.get(),
+                delivered = delivered.get(),
+                failed = failed.get(),
+                totalLatencyNanos = totalLatencyNanos.get(),
+                maxLatencyNanos = maxLatencyNanos.get()
+            )
+    }
+
+    companion object {
+        private val TAG = EventHub::class.java.simpleName
+
+        private val defaultInstance by lazy { EventHub() }
+
+        @JvmStatic
+        fun getDefault(): EventHub = defaultInstance
+    }
+}
+
+/**
+ * [delivered] counts deliveries to subscriptions, so one event posted to two subscribers is delivered twice.
+ */
+data class EventDeliveryStats(
+    val posted: Long,
+    val delivered: Long,
+    val failed: Long,
+    val totalLatencyNanos: Long,
+    val maxLatencyNanos: Long
+) {
+    val averageLatencyNanos: Long
+        get() = if (delivered == 0L) 0L else totalLatencyNanos / delivered
+}
@@ -81,6 +81,25 @@ public class DavUtils {
         return props.toArray(new Property.Name[0]);
     }
 
+    /**
+     * Only the properties the remote file browser renders, plus the ETag to revalidate cached listings.
+     */
+    static Property.Name[] getBrowserPropSet() {
+        return new Property.Name[]{
+            DisplayName.NAME,
+            GetContentType.NAME,
+            GetLastModified.NAME,
+            GetETag.NAME,
+            ResourceType.NAME,
+            NCPermission.NAME,
+            OCId.NAME,
+            OCSize.NAME,
+            OCFavorite.NAME,
+            NCEncrypted.NAME,
+            NCPreview.NAME
+        };
+    }
+
     public static void registerCustomFactories() {
         PropertyRegistry propertyRegistry = PropertyRegistry.INSTANCE;
 
@@ -17,9 +17,9 @@ import at.bitfire.dav4jvm.Response.HrefRelation
 import at.bitfire.dav4jvm.exception.DavException
 import at.bitfire.dav4jvm.property.DisplayName
 import at.bitfire.dav4jvm.property.GetContentType
+import at.bitfire.dav4jvm.property.GetETag
 import at.bitfire.dav4jvm.property.GetLastModified
 import at.bitfire.dav4jvm.property.ResourceType
-import com.nextcloud.talk.filebrowser.models.DavResponse
 import com.nextcloud.talk.filebrowser.models.properties.NCEncrypted
 import com.nextcloud.talk.filebrowser.models.properties.NCPermission
 import com.nextcloud.talk.filebrowser.models.properties.NCPreview
@@ -29,6 +29,7 @@ import com.nextcloud.talk.filebrowser.models.properties.OCSize
 import com.nextcloud.talk.dagger.modules.RestModule.HttpAuthenticator
 import com.nextcloud.talk.data.user.model.User
 import com.nextcloud.talk.remotefilebrowser.model.RemoteFileBrowserItem
+import com.nextcloud.talk.remotefilebrowser.model.RemoteFolderListing
 import com.nextcloud.talk.utils.ApiUtils
 import com.nextcloud.talk.utils.Mimetype.FOLDER
 import okhttp3.HttpUrl.Companion.toHttpUrlOrNull
@@ -61,46 +62,67 @@ class ReadFolderListingOperation(okHttpClient: OkHttpClient, currentUser: User,
         this.depth = depth
     }
 
-    fun readRemotePath(): DavResponse {
-        val davResponse = DavResponse()
-        val memberElements: MutableList<Response> = ArrayList()
-        val rootElement = arrayOfNulls<Response>(1)
-        val remoteFiles: MutableList<RemoteFileBrowserItem> = ArrayList()
-        try {
+    /**
+     * Lists the folder with [depth], mapping each member as soon as it is parsed.
+     *
+     * @return the listing, or null if the folder could not be read
+     */
+    fun readFolderListing(): RemoteFolderListing? {
+        val items: MutableList<RemoteFileBrowserItem> = ArrayList()
+        var etag: String? = null
+        return try {
             DavResource(
                 okHttpClient,
                 url.toHttpUrlOrNull()!!
             ).propfind(
                 depth = depth,
-                reqProp = DavUtils.getAllPropSet()
+                reqProp = DavUtils.getBrowserPropSet()
             ) { response: Response, hrefRelation: HrefRelation? ->
-                davResponse.setResponse(response)
                 when (hrefRelation) {
-                    HrefRelation.MEMBER -> memberElements.add(response)
-                    HrefRelation.SELF -> rootElement[0] = response
-                    HrefRelation.OTHER -> {}
+                    HrefRelation.MEMBER -> items.add(
+                        getModelFromResponse(response, response.href.toString().substring(basePath.length))
+                    )
+                    HrefRelation.SELF -> etag = response[GetETag::class.java]?.eTag
                     else -> {}
                 }
                 Unit
             }
+            RemoteFolderListing(etag, items)
         } catch (e: IOException) {
             Log.w(TAG, "Error reading remote path")
+            null
         } catch (e: DavException) {
             Log.w(TAG, "Error reading remote path")
+            null
         }
-        for (memberElement in memberElements) {
-            remoteFiles.add(
-                getModelFromResponse(
-                    memberElement,
-                    memberElement
-                        .href
-                        .toString()
-                        .substring(basePath.length)
-                )
-            )
+    }
+
+    /**
+     * Reads only the ETag of the folder itself (depth 0), which changes whenever anything inside it changes.
+     *
+     * @return the ETag, or null if it could not be read
+     */
+    fun readFolderETag(): String? {
+        var etag: String? = null
+        try {
+            DavResource(
+                okHttpClient,
+                url.toHttpUrlOrNull()!!
+            ).propfind(
+                depth = 0,
+                reqProp = arrayOf(GetETag.NAME)
+            ) { response: Response, hrefRelation: HrefRelation? ->
+                if (hrefRelation == HrefRelation.SELF) {
+                    etag = response[GetETag::class.java]?.eTag
+                }
+                Unit
+            }
+        } catch (e: IOException) {
+            Log.w(TAG, "Error reading ETag of remote path")
+        } catch (e: DavException) {
+            Log.w(TAG, "Error reading ETag of remote path")
         }
-        davResponse.setData(remoteFiles)
-        return davResponse
+        return etag
     }
 
     private fun getModelFromResponse(response: Response, remotePath: String): RemoteFileBrowserItem {
@@ -150,6 +172,9 @@ class ReadFolderListingOperation(okHttpClient: OkHttpClient, currentUser: User,
             is DisplayName -> {
                 remoteFileBrowserItem.displayName = property.displayName
             }
+            is GetETag -> {
+                remoteFileBrowserItem.etag = property.eTag
+            }
             is NCEncrypted -> {
                 remoteFileBrowserItem.isEncrypted = property.isNcEncrypted
             }
@@ -0,0 +1,77 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package com.nextcloud.talk.jobs
+
+import android.util.Log
+import com.nextcloud.talk.data.user.model.User
+import com.nextcloud.talk.users.UserManager
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.sync.Semaphore
+import kotlinx.coroutines.sync.withPermit
+import kotlinx.coroutines.withTimeoutOrNull
+
+/**
+ * Runs a request for several accounts concurrently, so a refresh of all accounts takes about as long as the slowest
+ * server instead of the sum of all of them. At most [maxConcurrentAccounts] requests run at the same time, and a
+ * server that does not answer within [accountTimeoutMillis] only fails its own account.
+ */
+class AccountFanOut(
+    private val maxConcurrentAccounts: Int = MAX_CONCURRENT_ACCOUNTS,
+    private val accountTimeoutMillis: Long = ACCOUNT_TIMEOUT_MILLIS
+) {
+
+    data class Fetched<T>(val user: User, val result: T?)
+
+    /**
+     * Fetches [request] for each of [users], in the order of [users]. The result is null for accounts whose request
+     * failed or timed out.
+     */
+    suspend fun <T : Any> fetch(users: List<User>, request: suspend (User) -> T): List<Fetched<T>> {
+        val permits = Semaphore(maxConcurrentAccounts)
+        return coroutineScope {
+            users.map { user ->
+                async { Fetched(user, permits.withPermit { fetchOne(user, request) }) }
+            }.awaitAll()
+        }
+    }
+
+    @Suppress("Detekt.TooGenericExceptionCaught")
+    private suspend fun <T : Any> fetchOne(user: User, request: suspend (User) -> T): T? =
+        try {
+            val result = withTimeoutOrNull(accountTimeoutMillis) { request(user) }
+            if (result == null) {
+                Log.w(TAG, "Request for user ${user.id} timed out")
+            }
+            result
+        } catch (e: CancellationException) {
+            throw e
+        } catch (e: Exception) {
+            Log.e(TAG, "Request for user ${user.id} failed", e)
+            null
+        }
+
+    companion object {
+        private const val TAG = "AccountFanOut"
+        private const val MAX_CONCURRENT_ACCOUNTS = 4
+        private const val ACCOUNT_TIMEOUT_MILLIS = 30_000L
+
+        /**
+         * The user with [internalUserId], or all users if it is -1 or no such user exists.
+         */
+        fun usersToRefresh(userManager: UserManager, internalUserId: Long): List<User> {
+            val user = if (internalUserId == -1L) {
+                null
+            } else {
+                userManager.getUserWithInternalId(internalUserId).blockingGet()
+            }
+            return user?.let { listOf(it) } ?: userManager.users.blockingGet()
+        }
+    }
+}
@@ -15,9 +15,12 @@ import com.nextcloud.talk.R;
 import com.nextcloud.talk.api.NcApi;
 import com.nextcloud.talk.application.NextcloudTalkApplication;
 import com.nextcloud.talk.arbitrarystorage.ArbitraryStorageManager;
+import com.nextcloud.talk.avatar.AvatarRepository;
 import com.nextcloud.talk.data.database.dao.ChatBlocksDao;
 import com.nextcloud.talk.data.database.dao.ChatMessagesDao;
 import com.nextcloud.talk.data.database.dao.ConversationsDao;
+import com.nextcloud.talk.data.database.dao.LinkPreviewsDao;
+import com.nextcloud.talk.data.database.dao.TranslationsDao;
 import com.nextcloud.talk.data.user.model.User;
 import com.nextcloud.talk.models.json.generic.GenericMeta;
 import com.nextcloud.talk.models.json.generic.GenericOverall;
@@ -66,6 +69,12 @@ public class AccountRemovalWorker extends Worker {
 
     @Inject ChatBlocksDao chatBlocksDao;
 
+    @Inject TranslationsDao translationsDao;
+
+    @Inject LinkPreviewsDao linkPreviewsDao;
+
+    @Inject AvatarRepository avatarRepository;
+
     NcApi ncApi;
 
     public AccountRemovalWorker(@NonNull Context context, @NonNull WorkerParameters workerParams) {
@@ -185,6 +194,9 @@ public class AccountRemovalWorker extends Worker {
 
             try {
                 arbitraryStorageManager.deleteAllEntriesForAccountIdentifier(id);
+                translationsDao.deleteTranslationsOfAccount(id);
+                linkPreviewsDao.deleteLinkPreviewsOfAccount(id);
+                avatarRepository.deleteAvatarsOfAccount(id);
                 deleteUser(user);
             } catch (Throwable e) {
                 Log.e(TAG, "error while trying to delete All Entries For Account Identifier", e);
@@ -11,13 +11,12 @@ import android.content.Context;
 import com.nextcloud.talk.api.NcApi;
 import com.nextcloud.talk.application.NextcloudTalkApplication;
 import com.nextcloud.talk.data.user.model.User;
+import com.nextcloud.talk.events.EventHub;
 import com.nextcloud.talk.models.RetrofitBucket;
 import com.nextcloud.talk.users.UserManager;
 import com.nextcloud.talk.utils.ApiUtils;
 import com.nextcloud.talk.utils.bundle.BundleKeys;
 
-import org.greenrobot.eventbus.EventBus;
-
 import javax.inject.Inject;
 
 import androidx.annotation.NonNull;
@@ -36,7 +35,7 @@ public class AddParticipantsToConversationWorker extends Worker {
     UserManager userManager;
 
     @Inject
-    EventBus eventBus;
+    EventHub eventBus;
 
     public AddParticipantsToConversationWorker(@NonNull Context context, @NonNull WorkerParameters workerParams) {
         super(context, workerParams);
@@ -0,0 +1,148 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2022 Andy Scherzinger <info@andy-scherzinger.de>
+ * SPDX-FileCopyrightText: 2017-2018 Mario Danic <mario@lovelyhq.com>
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package com.nextcloud.talk.jobs
+
+import android.content.Context
+import android.util.Log
+import androidx.work.CoroutineWorker
+import androidx.work.WorkerParameters
+import autodagger.AutoInjector
+import com.nextcloud.talk.api.NcApi
+import com.nextcloud.talk.application.NextcloudTalkApplication
+import com.nextcloud.talk.application.NextcloudTalkApplication.Companion.sharedApplication
+import com.nextcloud.talk.data.user.model.User
+import com.nextcloud.talk.events.EventHub
+import com.nextcloud.talk.events.EventStatus
+import com.nextcloud.talk.models.json.capabilities.CapabilitiesOverall
+import com.nextcloud.talk.users.UserManager
+import com.nextcloud.talk.utils.ApiUtils
+import com.nextcloud.talk.utils.TalkHashStore
+import com.nextcloud.talk.utils.UserIdUtils
+import com.nextcloud.talk.utils.bundle.BundleKeys.KEY_INTERNAL_USER_ID
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.rx2.awaitFirst
+import kotlinx.coroutines.withContext
+import okhttp3.JavaNetCookieJar
+import okhttp3.OkHttpClient
+import retrofit2.Retrofit
+import java.net.CookieManager
+import javax.inject.Inject
+
+/**
+ * Fetches the capabilities of the account with [KEY_INTERNAL_USER_ID], or of all accounts. The accounts are fetched
+ * concurrently, see [AccountFanOut], and stored together in one transaction.
+ */
+@AutoInjector(NextcloudTalkApplication::class)
+class CapabilitiesWorker(context: Context, workerParams: WorkerParameters) :
+    CoroutineWorker(context, workerParams) {
+
+    @Inject
+    lateinit var userManager: UserManager
+
+    @Inject
+    lateinit var retrofit: Retrofit
+
+    @Inject
+    lateinit var eventBus: EventHub
+
+    @Inject
+    lateinit var okHttpClient: OkHttpClient
+
+    @Inject
+    lateinit var talkHashStore: TalkHashStore
+
+    override suspend fun doWork(): Result {
+        sharedApplication!!.componentApplication.inject(this)
+
+        val internalUserId = inputData.getLong(KEY_INTERNAL_USER_ID, -1)
+        val skipUpToDate = inputData.getBoolean(KEY_SKIP_UP_TO_DATE, false)
+
+        withContext(Dispatchers.IO) {
+            val users = AccountFanOut.usersToRefresh(userManager, internalUserId).filterNot { user ->
+                val upToDate = skipUpToDate && user.id?.let { talkHashStore.isUpToDate(it) } == true
+                if (upToDate) {
+                    Log.d(TAG, "Talk hash unchanged, skipping capabilities of user ${user.id}")
+                }
+                upToDate
+            }
+            // read before fetching, so a change while fetching is refreshed again
+            val seenTalkHashes = users.mapNotNull { it.id }.associateWith { talkHashStore.getSeenHash(it) }
+
+            val fetched = AccountFanOut().fetch(users) { fetchCapabilities(it) }
+            saveCapabilities(fetched, seenTalkHashes)
+        }
+
+        return Result.success()
+    }
+
+    private suspend fun fetchCapabilities(user: User): CapabilitiesOverall {
+        val ncApi = retrofit
+            .newBuilder()
+            .client(okHttpClient.newBuilder().cookieJar(JavaNetCookieJar(CookieManager())).build())
+            .build()
+            .create(NcApi::class.java)
+
+        val url = user.baseUrl?.let { ApiUtils.getUrlForCapabilities(it) } ?: ""
+        return ncApi.getCapabilities(ApiUtils.getCredentials(user.username, user.token), url)
+            .retry(RETRIES)
+            .awaitFirst()
+    }
+
+    @Suppress("Detekt.TooGenericExceptionCaught")
+    private fun saveCapabilities(
+        fetched: List<AccountFanOut.Fetched<CapabilitiesOverall>>,
+        seenTalkHashes: Map<Long, String?>
+    ) {
+        fetched.filter { it.result == null }.forEach { postStatus(it.user, false) }
+
+        val updatedUsers = fetched.mapNotNull { (user, capabilitiesOverall) ->
+            val data = capabilitiesOverall?.ocs?.data
+            data?.capabilities?.let { capabilities ->
+                user.apply {
+                    this.capabilities = capabilities
+                    serverVersion = data.serverVersion
+                }
+            }
+        }
+        if (updatedUsers.isEmpty()) {
+            return
+        }
+
+        val rowCounts = try {
+            userManager.saveCapabilities(updatedUsers).blockingGet()
+        } catch (e: Exception) {
+            Log.e(TAG, "Error updating users", e)
+            null
+        }
+
+        updatedUsers.forEachIndexed { index, user ->
+            val updated = (rowCounts?.get(index) ?: 0) > 0
+            if (updated) {
+                user.id?.let { id -> seenTalkHashes[id]?.let { talkHashStore.setRefreshedHash(id, it) } }
+            } else {
+                Log.w(TAG, "Error updating user ${user.id}")
+            }
+            postStatus(user, updated)
+        }
+    }
+
+    private fun postStatus(user: User, allGood: Boolean) {
+        eventBus.post(EventStatus(UserIdUtils.getIdForUser(user), EventStatus.EventType.CAPABILITIES_FETCH, allGood))
+    }
+
+    companion object {
+        private const val TAG = "CapabilitiesWorker"
+        private const val RETRIES = 3L
+
+        /**
+         * Skips the accounts whose capabilities were fetched since their server last reported a change through the
+         * talk hash, see [com.nextcloud.talk.utils.TalkHashInterceptor].
+         */
+        const val KEY_SKIP_UP_TO_DATE = "KEY_SKIP_UP_TO_DATE"
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package com.nextcloud.talk.jobs
+
+import android.content.Context
+import android.util.Log
+import androidx.work.Constraints
+import androidx.work.CoroutineWorker
+import androidx.work.ExistingPeriodicWorkPolicy
+import androidx.work.PeriodicWorkRequest
+import androidx.work.WorkManager
+import androidx.work.WorkerParameters
+import androidx.work.workDataOf
+import autodagger.AutoInjector
+import com.nextcloud.talk.application.NextcloudTalkApplication
+import com.nextcloud.talk.application.NextcloudTalkApplication.Companion.sharedApplication
+import com.nextcloud.talk.data.database.retention.ChatCacheRetention
+import com.nextcloud.talk.translate.repositories.TranslateRepository
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.withContext
+import java.util.concurrent.TimeUnit
+import javax.inject.Inject
+
+/**
+ * Deletes expired translations, trims the offline message cache to its budget and vacuums the database, see
+ * [ChatCacheRetention]. Runs once a day while the device is idle and charging, so none of it competes with the user.
+ */
+@AutoInjector(NextcloudTalkApplication::class)
+class ChatCacheMaintenanceWorker(context: Context, workerParams: WorkerParameters) :
+    CoroutineWorker(context, workerParams) {
+
+    @Inject
+    lateinit var chatCacheRetention: ChatCacheRetention
+
+    @Inject
+    lateinit var translateRepository: TranslateRepository
+
+    override suspend fun doWork(): Result {
+        sharedApplication!!.componentApplication.inject(this)
+
+        return withContext(Dispatchers.IO) {
+            runCatching {
+                // before the vacuum, so it returns the pages of the deleted translations as well
+                translateRepository.deleteExpiredTranslations()
+                chatCacheRetention.runMaintenance()
+            }
+                .fold(
+                    onSuccess = { report ->
+                        Result.success(
+                            workDataOf(
+                                KEY_DATABASE_BYTES to (report.after ?: report.before).databaseBytes,
+                                KEY_DELETED_MESSAGES to report.deletedMessages,
+                                KEY_VACUUMED_BYTES to report.vacuumedBytes
+                            )
+                        )
+                    },
+                    onFailure = { throwable ->
+                        Log.e(TAG, "Chat cache maintenance failed", throwable)
+                        Result.failure()
+                    }
+                )
+        }
+    }
+
+    companion object {
+        private val TAG: String = ChatCacheMaintenanceWorker::class.java.simpleName
+        private const val WORK_NAME = "DailyChatCacheMaintenanceWork"
+        private const val INTERVAL_HOURS = 24L
+        const val KEY_DATABASE_BYTES = "KEY_DATABASE_BYTES"
+        const val KEY_DELETED_MESSAGES = "KEY_DELETED_MESSAGES"
+        const val KEY_VACUUMED_BYTES = "KEY_VACUUMED_BYTES"
+
+        fun schedule(context: Context) {
+            val constraints = Constraints.Builder()
+                .setRequiresDeviceIdle(true)
+                .setRequiresCharging(true)
+                .setRequiresBatteryNotLow(true)
+                .build()
+            val maintenanceWork = PeriodicWorkRequest.Builder(
+                ChatCacheMaintenanceWorker::class.java,
+                INTERVAL_HOURS,
+                TimeUnit.HOURS
+            ).setConstraints(constraints).build()
+
+            WorkManager.getInstance(context).enqueueUniquePeriodicWork(
+                WORK_NAME,
+                ExistingPeriodicWorkPolicy.KEEP,
+                maintenanceWork
+            )
+        }
+    }
+}
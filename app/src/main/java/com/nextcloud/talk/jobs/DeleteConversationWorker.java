@@ -12,6 +12,7 @@ import android.content.Context;
 import com.nextcloud.talk.api.NcApi;
 import com.nextcloud.talk.application.NextcloudTalkApplication;
 import com.nextcloud.talk.data.user.model.User;
+import com.nextcloud.talk.events.EventHub;
 import com.nextcloud.talk.events.EventStatus;
 import com.nextcloud.talk.models.json.generic.GenericOverall;
 import com.nextcloud.talk.conversationlist.DirectShareHelper;
@@ -20,8 +21,6 @@ import com.nextcloud.talk.utils.ApiUtils;
 import com.nextcloud.talk.utils.UserIdUtils;
 import com.nextcloud.talk.utils.bundle.BundleKeys;
 
-import org.greenrobot.eventbus.EventBus;
-
 import java.net.CookieManager;
 
 import javax.inject.Inject;
@@ -50,7 +49,7 @@ public class DeleteConversationWorker extends Worker {
     UserManager userManager;
 
     @Inject
-    EventBus eventBus;
+    EventHub eventBus;
 
     NcApi ncApi;
 
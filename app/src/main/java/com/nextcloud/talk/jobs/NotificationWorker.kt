@@ -51,6 +51,7 @@ import com.nextcloud.talk.api.NcApi
 import com.nextcloud.talk.application.NextcloudTalkApplication
 import com.nextcloud.talk.application.NextcloudTalkApplication.Companion.sharedApplication
 import com.nextcloud.talk.arbitrarystorage.ArbitraryStorageManager
+import com.nextcloud.talk.avatar.Avatar
 import com.nextcloud.talk.callnotification.CallNotificationActivity
 import com.nextcloud.talk.chat.data.network.ChatNetworkDataSource
 import com.nextcloud.talk.conversationlist.DirectShareHelper
@@ -64,6 +65,7 @@ import com.nextcloud.talk.models.json.participants.Participant
 import com.nextcloud.talk.models.json.participants.ParticipantsOverall
 import com.nextcloud.talk.models.json.push.DecryptedPushMessage
 import com.nextcloud.talk.models.json.push.NotificationUser
+import com.nextcloud.talk.participants.ParticipantStore
 import com.nextcloud.talk.receivers.DeclineCallReceiver
 import com.nextcloud.talk.receivers.DirectReplyReceiver
 import com.nextcloud.talk.receivers.DismissRecordingAvailableReceiver
@@ -71,7 +73,6 @@ import com.nextcloud.talk.receivers.MarkAsReadReceiver
 import com.nextcloud.talk.receivers.ShareRecordingToChatReceiver
 import com.nextcloud.talk.users.UserManager
 import com.nextcloud.talk.utils.ApiUtils
-import com.nextcloud.talk.utils.DisplayUtils
 import com.nextcloud.talk.utils.ConversationUtils
 import com.nextcloud.talk.utils.NotificationUtils
 import com.nextcloud.talk.utils.NotificationUtils.cancelAllNotificationsForAccount
@@ -139,6 +140,9 @@ class NotificationWorker(context: Context, workerParams: WorkerParameters) : Wor
     @Inject
     lateinit var userManager: UserManager
 
+    @Inject
+    lateinit var participantStore: ParticipantStore
+
     @JvmField
     @Inject
     var okHttpClient: OkHttpClient? = null
@@ -343,13 +347,8 @@ class NotificationWorker(context: Context, workerParams: WorkerParameters) : Wor
                 .setName(conversation.displayName)
                 .setImportant(true)
             if (conversation.type == ConversationEnums.ConversationType.ROOM_TYPE_ONE_TO_ONE_CALL) {
-                val avatarUrl = ApiUtils.getUrlForAvatar(
-                    user.baseUrl!!,
-                    conversation.name,
-                    false,
-                    darkMode = DisplayUtils.isDarkModeOn(applicationContext)
-                )
-                loadAvatarSync(avatarUrl, applicationContext)?.let { callerPersonBuilder.setIcon(it) }
+                loadAvatarSync(Avatar.ofUser(user, conversation.name), applicationContext)
+                    ?.let { callerPersonBuilder.setIcon(it) }
             }
             val callerPerson = callerPersonBuilder.build()
 
@@ -858,18 +857,12 @@ class NotificationWorker(context: Context, workerParams: WorkerParameters) : Wor
             .setBot("bot" == userType)
 
         if ("user" == userType || "guest" == userType) {
-            val baseUrl = user.baseUrl
-            val avatarUrl = if ("user" == userType) {
-                ApiUtils.getUrlForAvatar(
-                    baseUrl!!,
-                    notificationUser.id,
-                    false,
-                    darkMode = DisplayUtils.isDarkModeOn(context!!)
-                )
+            val avatar = if ("user" == userType) {
+                Avatar.ofUser(user, notificationUser.id.orEmpty())
             } else {
-                ApiUtils.getUrlForGuestAvatar(baseUrl!!, notificationUser.name, false)
+                Avatar.ofGuest(user, notificationUser.name.orEmpty())
             }
-            person.setIcon(loadAvatarSync(avatarUrl, context!!))
+            person.setIcon(loadAvatarSync(avatar, context!!))
         }
         notificationBuilder.setStyle(getStyle(person.build(), style))
     }
@@ -1100,6 +1093,8 @@ class NotificationWorker(context: Context, workerParams: WorkerParameters) : Wor
 
                 override fun onNext(participantsOverall: ParticipantsOverall) {
                     val participantList: List<Participant> = participantsOverall.ocs!!.data!!
+                    // keeps the call state of the stored participants current while signaling is not connected
+                    participantStore.applyCallParticipants(user.id!!, pushMessage.id!!, participantList)
                     hasParticipantsInCall = participantList.isNotEmpty()
                     if (hasParticipantsInCall) {
                         for (participant in participantList) {
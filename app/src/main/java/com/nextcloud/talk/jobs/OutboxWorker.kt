@@ -0,0 +1,66 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package com.nextcloud.talk.jobs
+
+import android.content.Context
+import android.util.Log
+import androidx.work.BackoffPolicy
+import androidx.work.Constraints
+import androidx.work.CoroutineWorker
+import androidx.work.ExistingWorkPolicy
+import androidx.work.NetworkType
+import androidx.work.OneTimeWorkRequest
+import androidx.work.WorkManager
+import androidx.work.WorkRequest
+import androidx.work.WorkerParameters
+import autodagger.AutoInjector
+import com.nextcloud.talk.application.NextcloudTalkApplication
+import com.nextcloud.talk.application.NextcloudTalkApplication.Companion.sharedApplication
+import com.nextcloud.talk.outbox.OutboxBackgroundScheduler
+import com.nextcloud.talk.outbox.OutboxDrainer
+import java.util.concurrent.TimeUnit
+import javax.inject.Inject
+
+/**
+ * Drains the outbox when the app process is not around to do it, e.g. after the app was closed while offline.
+ *
+ * The outbox itself keeps track of attempts and backoff per operation, this worker only keeps the drain alive
+ * until the outbox is empty. There is a single unique work for all accounts and rooms.
+ */
+@AutoInjector(NextcloudTalkApplication::class)
+class OutboxWorker(context: Context, workerParams: WorkerParameters) : CoroutineWorker(context, workerParams) {
+
+    @Inject
+    lateinit var outboxDrainer: OutboxDrainer
+
+    override suspend fun doWork(): Result {
+        sharedApplication!!.componentApplication.inject(this)
+
+        return if (outboxDrainer.drain()) {
+            Result.success()
+        } else {
+            Log.d(TAG, "Outbox not empty yet (attempt ${runAttemptCount + 1})")
+            Result.retry()
+        }
+    }
+
+    class Scheduler(private val context: Context) : OutboxBackgroundScheduler {
+        override fun scheduleDrain() {
+            val outboxWork = OneTimeWorkRequest.Builder(OutboxWorker::class.java)
+                .setConstraints(Constraints.Builder().setRequiredNetworkType(NetworkType.CONNECTED).build())
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, WorkRequest.MIN_BACKOFF_MILLIS, TimeUnit.MILLISECONDS)
+                .build()
+
+            WorkManager.getInstance(context).enqueueUniqueWork(UNIQUE_WORK_NAME, ExistingWorkPolicy.KEEP, outboxWork)
+        }
+    }
+
+    companion object {
+        private val TAG: String = OutboxWorker::class.java.simpleName
+        private const val UNIQUE_WORK_NAME = "outbox-drain"
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2022 Andy Scherzinger <info@andy-scherzinger.de>
+ * SPDX-FileCopyrightText: 2017-2018 Mario Danic <mario@lovelyhq.com>
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package com.nextcloud.talk.jobs
+
+import android.content.Context
+import android.util.Log
+import androidx.work.CoroutineWorker
+import androidx.work.WorkerParameters
+import autodagger.AutoInjector
+import com.nextcloud.talk.api.NcApi
+import com.nextcloud.talk.application.NextcloudTalkApplication
+import com.nextcloud.talk.application.NextcloudTalkApplication.Companion.sharedApplication
+import com.nextcloud.talk.data.user.model.User
+import com.nextcloud.talk.events.EventHub
+import com.nextcloud.talk.events.EventStatus
+import com.nextcloud.talk.models.ExternalSignalingServer
+import com.nextcloud.talk.users.UserManager
+import com.nextcloud.talk.utils.ApiUtils
+import com.nextcloud.talk.utils.UserIdUtils
+import com.nextcloud.talk.utils.bundle.BundleKeys.KEY_INTERNAL_USER_ID
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.rx2.awaitFirst
+import kotlinx.coroutines.withContext
+import javax.inject.Inject
+
+/**
+ * Fetches the signaling settings of the account with [KEY_INTERNAL_USER_ID], or of all accounts. The accounts are
+ * fetched concurrently, see [AccountFanOut], and stored together in one transaction.
+ */
+@AutoInjector(NextcloudTalkApplication::class)
+class SignalingSettingsWorker(context: Context, workerParams: WorkerParameters) :
+    CoroutineWorker(context, workerParams) {
+
+    @Inject
+    lateinit var userManager: UserManager
+
+    @Inject
+    lateinit var ncApi: NcApi
+
+    @Inject
+    lateinit var eventBus: EventHub
+
+    override suspend fun doWork(): Result {
+        sharedApplication!!.componentApplication.inject(this)
+
+        val internalUserId = inputData.getLong(KEY_INTERNAL_USER_ID, -1)
+
+        withContext(Dispatchers.IO) {
+            val users = AccountFanOut.usersToRefresh(userManager, internalUserId)
+            val fetched = AccountFanOut().fetch(users) { fetchSignalingSettings(it) }
+            saveSignalingSettings(fetched)
+        }
+
+        return Result.success()
+    }
+
+    private suspend fun fetchSignalingSettings(user: User): ExternalSignalingServer {
+        val apiVersion = ApiUtils.getSignalingApiVersion(user, intArrayOf(ApiUtils.API_V3, 2, 1))
+        val settings = ncApi.getSignalingSettings(
+            ApiUtils.getCredentials(user.username, user.token),
+            ApiUtils.getUrlForSignalingSettings(apiVersion, user.baseUrl)
+        ).awaitFirst().ocs?.settings
+
+        return ExternalSignalingServer(
+            externalSignalingServer = settings?.externalSignalingServer,
+            externalSignalingTicket = settings?.externalSignalingTicket
+        )
+    }
+
+    @Suppress("Detekt.TooGenericExceptionCaught")
+    private fun saveSignalingSettings(fetched: List<AccountFanOut.Fetched<ExternalSignalingServer>>) {
+        fetched.filter { it.result == null }.forEach { postStatus(it.user, false) }
+
+        val updatedUsers = fetched.mapNotNull { (user, externalSignalingServer) ->
+            externalSignalingServer?.let { user.apply { this.externalSignalingServer = it } }
+        }
+        if (updatedUsers.isEmpty()) {
+            return
+        }
+
+        val rowCounts = try {
+            userManager.saveExternalSignalingServers(updatedUsers).blockingGet()
+        } catch (e: Exception) {
+            Log.e(TAG, "Error updating users", e)
+            null
+        }
+
+        updatedUsers.forEachIndexed { index, user ->
+            postStatus(user, (rowCounts?.get(index) ?: 0) > 0)
+        }
+    }
+
+    private fun postStatus(user: User, allGood: Boolean) {
+        eventBus.post(EventStatus(UserIdUtils.getIdForUser(user), EventStatus.EventType.SIGNALING_SETTINGS, allGood))
+    }
+
+    companion object {
+        private const val TAG = "SignalingSettingsWorker"
+    }
+}
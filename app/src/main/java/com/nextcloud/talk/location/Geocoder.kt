@@ -0,0 +1,31 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.location
+
+import fr.dudie.nominatim.client.TalkJsonNominatimClient
+import java.io.IOException
+
+/**
+ * Blocking geocoding backend used by [GeocodingService].
+ */
+interface Geocoder {
+    @Throws(IOException::class)
+    fun search(query: String): List<GeocodingResult>
+
+    @Throws(IOException::class)
+    fun reverse(lat: Double, lon: Double): GeocodingResult?
+}
+
+class NominatimGeocoder(private val client: TalkJsonNominatimClient) : Geocoder {
+
+    override fun search(query: String): List<GeocodingResult> =
+        client.search(query).orEmpty().map { GeocodingResult(it.latitude, it.longitude, it.displayName) }
+
+    override fun reverse(lat: Double, lon: Double): GeocodingResult? =
+        client.getAddress(lon, lat)?.let { GeocodingResult(it.latitude, it.longitude, it.displayName) }
+}
@@ -12,27 +12,19 @@ import androidx.activity.compose.setContent
 import androidx.compose.material3.MaterialTheme
 import androidx.lifecycle.ViewModelProvider
 import autodagger.AutoInjector
-import com.nextcloud.talk.R
 import com.nextcloud.talk.activities.BaseActivity
-import com.nextcloud.talk.api.NcApi
 import com.nextcloud.talk.application.NextcloudTalkApplication
 import com.nextcloud.talk.components.ColoredStatusBar
 import com.nextcloud.talk.location.components.GeocodingScreen
-import com.nextcloud.talk.utils.bundle.BundleKeys
 import com.nextcloud.talk.location.viewmodels.GeoCodingViewModel
-import fr.dudie.nominatim.client.TalkJsonNominatimClient
-import fr.dudie.nominatim.model.Address
-import okhttp3.OkHttpClient
+import com.nextcloud.talk.utils.bundle.BundleKeys
 import javax.inject.Inject
 
 @AutoInjector(NextcloudTalkApplication::class)
 class GeocodingActivity : BaseActivity() {
 
     @Inject
-    lateinit var ncApi: NcApi
-
-    @Inject
-    lateinit var okHttpClient: OkHttpClient
+    lateinit var viewModelFactory: ViewModelProvider.Factory
 
     private lateinit var roomToken: String
     private var chatApiVersion: Int = 1
@@ -45,7 +37,7 @@ class GeocodingActivity : BaseActivity() {
         roomToken = intent.getStringExtra(BundleKeys.KEY_ROOM_TOKEN)!!
         chatApiVersion = intent.getIntExtra(BundleKeys.KEY_CHAT_API_VERSION, 1)
 
-        viewModel = ViewModelProvider(this)[GeoCodingViewModel::class.java]
+        viewModel = ViewModelProvider(this, viewModelFactory)[GeoCodingViewModel::class.java]
 
         var query = viewModel.getQuery()
         if (query.isEmpty() && intent.hasExtra(BundleKeys.KEY_GEOCODING_QUERY)) {
@@ -53,10 +45,6 @@ class GeocodingActivity : BaseActivity() {
             viewModel.setQuery(query)
         }
 
-        val baseUrl = getString(R.string.osm_geocoder_url)
-        val email = context.getString(R.string.osm_geocoder_contact)
-        TalkJsonNominatimClient(baseUrl, okHttpClient, email)
-
         setContent {
             val colorScheme = viewThemeUtils.getColorScheme(this)
             MaterialTheme(colorScheme = colorScheme) {
@@ -64,14 +52,13 @@ class GeocodingActivity : BaseActivity() {
                 GeocodingScreen(
                     viewModel = viewModel,
                     onBack = { onBackPressedDispatcher.onBackPressed() },
-                    onAddressSelected = { address -> navigateToLocationPicker(address) }
+                    onAddressSelected = { geocodingResult -> navigateToLocationPicker(geocodingResult) }
                 )
             }
         }
     }
 
-    private fun navigateToLocationPicker(address: Address) {
-        val geocodingResult = GeocodingResult(address.latitude, address.longitude, address.displayName)
+    private fun navigateToLocationPicker(geocodingResult: GeocodingResult) {
         val result = Intent().putExtra(BundleKeys.KEY_GEOCODING_RESULT, geocodingResult)
         setResult(RESULT_OK, result)
         finish()
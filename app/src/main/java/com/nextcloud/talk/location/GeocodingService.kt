@@ -0,0 +1,142 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.location
+
+import android.util.Log
+import com.nextcloud.talk.data.database.dao.GeocodingDao
+import com.nextcloud.talk.data.database.model.GeocodingResultEntity
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.withContext
+import java.io.IOException
+import java.util.Locale
+import java.util.concurrent.ConcurrentHashMap
+import kotlin.math.floor
+
+/**
+ * Caching front of the [Geocoder] used by the location picker and the location search.
+ *
+ * Searches are cached by their normalized query. Reverse lookups are cached per cell of a grid of
+ * [REVERSE_GRID_DEGREES], so sharing the same place again, or a spot a few meters next to it, does not ask the
+ * geocoder. Results are kept in memory and in the database, which makes places shared before resolve offline.
+ *
+ * Requests to the geocoder are serialized and spaced by at least [minRequestIntervalMillis], as the public
+ * Nominatim instance allows a single request per second. Failed and empty lookups are not cached.
+ */
+class GeocodingService(
+    private val geocoder: Geocoder,
+    private val dao: GeocodingDao,
+    private val clock: () -> Long = System::currentTimeMillis,
+    private val minRequestIntervalMillis: Long = MIN_REQUEST_INTERVAL_MILLIS
+) {
+
+    private val memoryCache = object : LinkedHashMap<String, List<GeocodingResult>>(
+        MEMORY_CACHE_SIZE,
+        LOAD_FACTOR,
+        true
+    ) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, List<GeocodingResult>>?): Boolean =
+            size > MEMORY_CACHE_SIZE
+    }
+    private val locks = ConcurrentHashMap<String, Mutex>()
+    private val requestLock = Mutex()
+    private var lastRequestAt = 0L
+
+    suspend fun search(query: String): List<GeocodingResult> {
+        val normalized = normalize(query)
+        if (normalized.isEmpty()) {
+            return emptyList()
+        }
+        return cached(searchKey(normalized)) { geocoder.search(query.trim()) }
+    }
+
+    suspend fun reverse(lat: Double, lon: Double): GeocodingResult? =
+        cached(reverseKey(lat, lon)) { listOfNotNull(geocoder.reverse(lat, lon)) }.firstOrNull()
+
+    private suspend fun cached(key: String, fetch: () -> List<GeocodingResult>): List<GeocodingResult> {
+        fromMemory(key)?.let { return it }
+
+        return locks.getOrPut(key) { Mutex() }.withLock {
+            fromMemory(key) ?: fromDatabase(key) ?: fromGeocoder(key, fetch)
+        }
+    }
+
+    private fun fromMemory(key: String): List<GeocodingResult>? = synchronized(memoryCache) { memoryCache[key] }
+
+    private suspend fun fromDatabase(key: String): List<GeocodingResult>? =
+        withContext(Dispatchers.IO) {
+            val entities = dao.getResults(key)
+            if (entities.isEmpty()) {
+                null
+            } else {
+                dao.markUsed(key, clock())
+                entities.map { GeocodingResult(it.lat, it.lon, it.displayName) }
+            }
+        }?.also { putInMemory(key, it) }
+
+    private suspend fun fromGeocoder(key: String, fetch: () -> List<GeocodingResult>): List<GeocodingResult> {
+        val results = requestLock.withLock {
+            val wait = lastRequestAt + minRequestIntervalMillis - clock()
+            if (wait > 0) {
+                delay(wait)
+            }
+            try {
+                withContext(Dispatchers.IO) { fetch() }
+            } catch (e: IOException) {
+                Log.e(TAG, "Geocoding failed for $key", e)
+                null
+            } finally {
+                lastRequestAt = clock()
+            }
+        }
+        if (results.isNullOrEmpty()) {
+            return emptyList()
+        }
+
+        putInMemory(key, results)
+        withContext(Dispatchers.IO) {
+            val usedAt = clock()
+            dao.replaceResults(
+                key,
+                results.mapIndexed { position, result ->
+                    GeocodingResultEntity(key, position, result.lat, result.lon, result.displayName, usedAt)
+                }
+            )
+            dao.deleteLeastRecentlyUsed(DATABASE_CACHE_SIZE)
+        }
+        return results
+    }
+
+    private fun putInMemory(key: String, results: List<GeocodingResult>) {
+        synchronized(memoryCache) { memoryCache[key] = results }
+    }
+
+    companion object {
+        private val TAG = GeocodingService::class.java.simpleName
+        private const val MIN_REQUEST_INTERVAL_MILLIS = 1000L
+        private const val MEMORY_CACHE_SIZE = 50
+        private const val DATABASE_CACHE_SIZE = 200
+        private const val LOAD_FACTOR = 0.75f
+
+        /**
+         * About 55 meters north-south, less east-west away from the equator.
+         */
+        const val REVERSE_GRID_DEGREES = 0.0005
+
+        private val WHITESPACE = Regex("\\s+")
+
+        internal fun normalize(query: String): String = query.trim().replace(WHITESPACE, " ").lowercase(Locale.ROOT)
+
+        internal fun searchKey(normalizedQuery: String): String = "search:$normalizedQuery"
+
+        internal fun reverseKey(lat: Double, lon: Double): String =
+            "reverse:${floor(lat / REVERSE_GRID_DEGREES).toLong()}:${floor(lon / REVERSE_GRID_DEGREES).toLong()}"
+    }
+}
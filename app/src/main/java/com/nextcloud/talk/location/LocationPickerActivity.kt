@@ -14,7 +14,6 @@ import androidx.activity.result.contract.ActivityResultContracts
 import androidx.compose.material3.MaterialTheme
 import androidx.lifecycle.ViewModelProvider
 import autodagger.AutoInjector
-import com.nextcloud.talk.R
 import com.nextcloud.talk.activities.BaseActivity
 import com.nextcloud.talk.application.NextcloudTalkApplication
 import com.nextcloud.talk.components.ColoredStatusBar
@@ -89,9 +88,7 @@ class LocationPickerActivity : BaseActivity() {
                 geocodingResult = geocodingResult,
                 moveToCurrentLocation = moveToCurrentLocation,
                 mapCenterLat = mapCenterLat,
-                mapCenterLon = mapCenterLon,
-                geocoderBaseUrl = getString(R.string.osm_geocoder_url),
-                geocoderEmail = getString(R.string.osm_geocoder_contact)
+                mapCenterLon = mapCenterLon
             )
         )
 
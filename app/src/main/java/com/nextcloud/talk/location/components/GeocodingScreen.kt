@@ -40,11 +40,15 @@ import androidx.compose.ui.text.input.TextFieldValue
 import androidx.compose.ui.tooling.preview.Preview
 import androidx.lifecycle.compose.collectAsStateWithLifecycle
 import com.nextcloud.talk.R
+import com.nextcloud.talk.location.GeocodingResult
 import com.nextcloud.talk.location.viewmodels.GeoCodingViewModel
-import fr.dudie.nominatim.model.Address
 
 @Composable
-fun GeocodingScreen(viewModel: GeoCodingViewModel, onBack: () -> Unit, onAddressSelected: (Address) -> Unit) {
+fun GeocodingScreen(
+    viewModel: GeoCodingViewModel,
+    onBack: () -> Unit,
+    onAddressSelected: (GeocodingResult) -> Unit
+) {
     val results by viewModel.geocodingResults.collectAsStateWithLifecycle()
     val initialQuery = viewModel.getQuery()
     var textFieldValue by rememberSaveable(stateSaver = TextFieldValue.Saver) {
@@ -6,24 +6,22 @@
  */
 package com.nextcloud.talk.location.viewmodels
 
-import android.util.Log
 import androidx.lifecycle.ViewModel
-import fr.dudie.nominatim.client.TalkJsonNominatimClient
-import fr.dudie.nominatim.model.Address
-import kotlinx.coroutines.CoroutineScope
-import kotlinx.coroutines.Dispatchers
+import androidx.lifecycle.viewModelScope
+import com.nextcloud.talk.location.GeocodingResult
+import com.nextcloud.talk.location.GeocodingService
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.delay
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.StateFlow
 import kotlinx.coroutines.launch
-import okhttp3.OkHttpClient
-import java.io.IOException
+import javax.inject.Inject
 
-class GeoCodingViewModel : ViewModel() {
-    private val _geocodingResults = MutableStateFlow<List<Address>>(emptyList())
-    val geocodingResults: StateFlow<List<Address>> = _geocodingResults
-    private val nominatimClient: TalkJsonNominatimClient
-    private val okHttpClient: OkHttpClient = OkHttpClient.Builder().build()
+class GeoCodingViewModel @Inject constructor(private val geocodingService: GeocodingService) : ViewModel() {
+    private val _geocodingResults = MutableStateFlow<List<GeocodingResult>>(emptyList())
+    val geocodingResults: StateFlow<List<GeocodingResult>> = _geocodingResults
     private var query: String = ""
+    private var searchJob: Job? = null
 
     fun getQuery(): String = query
 
@@ -31,28 +29,22 @@ class GeoCodingViewModel : ViewModel() {
         this.query = query
     }
 
-    init {
-        nominatimClient = TalkJsonNominatimClient(
-            "https://nominatim.openstreetmap.org/",
-            okHttpClient,
-            " android@nextcloud.com"
-        )
-    }
-
+    /**
+     * Searches for the current query. A search that is still waiting or running is cancelled, so repeated
+     * submits only cause one lookup and results of an older query never replace newer ones.
+     */
     fun searchLocation() {
+        val query = query
         if (query.isNotEmpty()) {
-            CoroutineScope(Dispatchers.IO).launch {
-                try {
-                    val results = nominatimClient.search(query) as ArrayList<Address>
-                    _geocodingResults.value = results
-                } catch (e: IOException) {
-                    Log.e(TAG, "Failed to get geocoded addresses", e)
-                }
+            searchJob?.cancel()
+            searchJob = viewModelScope.launch {
+                delay(SEARCH_DEBOUNCE_MILLIS)
+                _geocodingResults.value = geocodingService.search(query)
             }
         }
     }
 
     companion object {
-        private val TAG = GeoCodingViewModel::class.java.simpleName
+        const val SEARCH_DEBOUNCE_MILLIS = 300L
     }
 }
@@ -12,30 +12,25 @@ import androidx.lifecycle.viewModelScope
 import com.nextcloud.talk.R
 import com.nextcloud.talk.api.NcApi
 import com.nextcloud.talk.location.GeocodingResult
+import com.nextcloud.talk.location.GeocodingService
 import com.nextcloud.talk.models.json.generic.GenericOverall
 import com.nextcloud.talk.utils.ApiUtils
 import com.nextcloud.talk.utils.database.user.CurrentUserProviderOld
-import fr.dudie.nominatim.client.TalkJsonNominatimClient
-import fr.dudie.nominatim.model.Address
 import io.reactivex.Observer
 import io.reactivex.android.schedulers.AndroidSchedulers
 import io.reactivex.disposables.Disposable
 import io.reactivex.schedulers.Schedulers
-import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.StateFlow
 import kotlinx.coroutines.flow.update
 import kotlinx.coroutines.launch
-import kotlinx.coroutines.withContext
-import okhttp3.OkHttpClient
-import java.io.IOException
 import javax.inject.Inject
 
 @Suppress("TooManyFunctions")
 class LocationPickerViewModel @Inject constructor(
     private val ncApi: NcApi,
     private val currentUserProviderOld: CurrentUserProviderOld,
-    private val okHttpClient: OkHttpClient
+    private val geocodingService: GeocodingService
 ) : ViewModel() {
 
     sealed class ViewState {
@@ -64,23 +59,19 @@ class LocationPickerViewModel @Inject constructor(
         val geocodingResult: GeocodingResult?,
         val moveToCurrentLocation: Boolean,
         val mapCenterLat: Double,
-        val mapCenterLon: Double,
-        val geocoderBaseUrl: String,
-        val geocoderEmail: String
+        val mapCenterLon: Double
     )
 
     private val _uiState = MutableStateFlow(UiState())
     val uiState: StateFlow<UiState> = _uiState
 
-    private lateinit var nominatimClient: TalkJsonNominatimClient
-
     private var isStateInitialized = false
 
     private var roomToken: String = ""
     private var chatApiVersion: Int = 1
 
     /**
-     * Initializes routing, map state, and the geocoder in one atomic call.
+     * Initializes routing and map state in one atomic call.
      */
     fun initialize(params: LocationPickerInitParams) {
         if (isStateInitialized) return
@@ -88,7 +79,6 @@ class LocationPickerViewModel @Inject constructor(
 
         roomToken = params.roomToken
         chatApiVersion = params.chatApiVersion
-        nominatimClient = TalkJsonNominatimClient(params.geocoderBaseUrl, okHttpClient, params.geocoderEmail)
 
         _uiState.update {
             it.copy(
@@ -208,21 +198,13 @@ class LocationPickerViewModel @Inject constructor(
         val selectedLon = _uiState.value.mapCenterLon.takeIf { it != 0.0 }
         if (selectedLat == null || selectedLon == null) return
         if (locationName.isNullOrEmpty()) {
-            viewModelScope.launch(Dispatchers.IO) {
-                var address: Address? = null
-                try {
-                    address = nominatimClient.getAddress(selectedLon, selectedLat)
-                } catch (e: IOException) {
-                    Log.e(TAG, "Failed to get geocoded addresses", e)
-                }
-                withContext(Dispatchers.Main) {
-                    executeShareLocation(
-                        selectedLat,
-                        selectedLon,
-                        address?.displayName,
-                        sharedLocationFallbackName
-                    )
-                }
+            viewModelScope.launch {
+                executeShareLocation(
+                    selectedLat,
+                    selectedLon,
+                    geocodingService.reverse(selectedLat, selectedLon)?.displayName,
+                    sharedLocationFallbackName
+                )
             }
         } else {
             executeShareLocation(selectedLat, selectedLon, locationName, sharedLocationFallbackName)
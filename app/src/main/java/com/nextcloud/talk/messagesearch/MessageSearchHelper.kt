@@ -15,74 +15,159 @@ import com.nextcloud.talk.repositories.unifiedsearch.UnifiedSearchRepositoryImpl
 import com.nextcloud.talk.repositories.unifiedsearch.UnifiedSearchRepositoryImpl.Companion.PROVIDER_TALK_MESSAGE_CURRENT
 import com.nextcloud.talk.utils.ApiUtils
 import kotlinx.coroutines.CancellationException
-import kotlinx.coroutines.Job
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Deferred
+import kotlinx.coroutines.async
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.last
+import kotlinx.coroutines.flow.onCompletion
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
 
+/**
+ * Searches messages page by page. Thread replies are left out of the results, and pages that only contain thread
+ * replies are skipped.
+ *
+ * Searches and page loads are serialized, so a load more that races a new search can not mix their results.
+ *
+ * @param prefetchScope the scope the next page is prefetched in while the current results are shown, usually the
+ * caller's `viewModelScope` so that a pending prefetch ends with the screen
+ */
 class MessageSearchHelper @JvmOverloads constructor(
     private val unifiedSearchRepository: UnifiedSearchRepository,
     private val currentUser: User?,
-    private val fromRoom: String? = null
+    private val fromRoom: String? = null,
+    private val prefetchScope: CoroutineScope
 ) {
 
     data class MessageSearchResults(val messages: List<SearchMessageEntry>, val hasMore: Boolean)
 
-    private var searchJob: Job? = null
+    private class Prefetch(
+        val search: String,
+        val cursor: Int,
+        val page: Deferred<UnifiedSearchRepository.UnifiedSearchResults<SearchMessageEntry>>
+    )
+
+    private val stateMutex = Mutex()
+
     private var previousSearch: String? = null
     private var previousCursor: Int = 0
-    private var previousResults: List<SearchMessageEntry> = emptyList()
 
-    suspend fun startMessageSearch(search: String): MessageSearchResults {
-        resetCachedData()
-        return doSearch(search)
-    }
+    @Volatile
+    private var prefetch: Prefetch? = null
+
+    // results are only ever appended, so loading more does not copy the previous results for every page
+    private val results = ArrayList<SearchMessageEntry>()
+    private val cachedResultKeys = HashSet<String>()
+
+    /**
+     * Searches [search] and emits the results as they arrive: first the matching messages that are cached locally,
+     * then the results of the server once a page with displayable results was found. Only the server results tell
+     * whether there is more to load, so the cached results never offer to load more.
+     */
+    fun searchFlow(search: String): Flow<MessageSearchResults> =
+        flow {
+            stateMutex.withLock {
+                resetCachedData()
+                previousSearch = search
+                val cachedResults = searchCachedMessages(search)
+                if (cachedResults.isNotEmpty()) {
+                    results.addAll(cachedResults)
+                    cachedResults.mapNotNullTo(cachedResultKeys, ::keyOf)
+                    emit(MessageSearchResults(results.toList(), false))
+                }
+                emit(nextPage(search, 0))
+            }
+        }.handleErrors()
+
+    /**
+     * Loads the next page of the previous search, or emits nothing if there was none.
+     */
+    fun loadMoreFlow(): Flow<MessageSearchResults> =
+        flow {
+            stateMutex.withLock {
+                previousSearch?.let { nextPage(it, previousCursor) }
+            }?.let { emit(it) }
+        }.handleErrors()
+
+    suspend fun startMessageSearch(search: String): MessageSearchResults = searchFlow(search).last()
 
     suspend fun loadMore(): MessageSearchResults? {
-        previousSearch?.let {
-            return doSearch(it, previousCursor)
+        if (previousSearch == null) {
+            return null
         }
-        return null
+        return loadMoreFlow().last()
     }
 
     fun cancelSearch() {
-        searchJob?.cancel()
-        searchJob = null
+        val pending = prefetch
+        prefetch = null
+        pending?.page?.cancel()
     }
 
-    private suspend fun doSearch(search: String, cursor: Int = 0): MessageSearchResults =
-        try {
-            doSearchSuspend(search, cursor)
-        } catch (e: CancellationException) {
-            throw e
-        } catch (@Suppress("Detekt.TooGenericExceptionCaught") throwable: Throwable) {
-            Log.e(TAG, "message search - ERROR", throwable)
-            resetCachedData()
-            throw throwable
+    private fun Flow<MessageSearchResults>.handleErrors(): Flow<MessageSearchResults> =
+        onCompletion { throwable ->
+            if (throwable != null && throwable !is CancellationException) {
+                Log.e(TAG, "message search - ERROR", throwable)
+                stateMutex.withLock { resetCachedData() }
+            }
+        }
+
+    private suspend fun nextPage(search: String, cursor: Int): MessageSearchResults {
+        var page = fetchPage(search, cursor)
+        while (page.entries.all(SearchMessageEntry::isThreadReplyResult) && page.hasMore) {
+            page = fetchPage(search, page.cursor)
         }
 
-    private suspend fun doSearchSuspend(search: String, cursor: Int): MessageSearchResults {
-        val results = searchCallUntilDisplayableResults(search, cursor)
-        previousSearch = search
-        previousCursor = results.cursor
-        previousResults = previousResults + results.entries
-        return MessageSearchResults(previousResults, results.hasMore)
+        page.entries.filterTo(results) { entry ->
+            !entry.isThreadReplyResult() && keyOf(entry)?.let { it in cachedResultKeys } != true
+        }
+        previousCursor = page.cursor
+        if (page.hasMore) {
+            prefetchPage(search, page.cursor)
+        }
+        return MessageSearchResults(results.toList(), page.hasMore)
     }
 
-    private suspend fun searchCallUntilDisplayableResults(
+    private suspend fun fetchPage(
         search: String,
-        cursor: Int,
-        accumulatedEntries: List<SearchMessageEntry> = emptyList()
-    ): UnifiedSearchRepository.UnifiedSearchResults<SearchMessageEntry> {
-        val results = searchCall(search, cursor)
-        val displayableEntries = results.entries.filterNot(SearchMessageEntry::isThreadReplyResult)
-        val combinedEntries = accumulatedEntries + displayableEntries
-
-        return if (combinedEntries.isNotEmpty() || !results.hasMore) {
-            results.copy(entries = combinedEntries)
-        } else {
-            searchCallUntilDisplayableResults(
-                search = search,
-                cursor = results.cursor,
-                accumulatedEntries = combinedEntries
-            )
+        cursor: Int
+    ): UnifiedSearchRepository.UnifiedSearchResults<SearchMessageEntry> =
+        takePrefetchedPage(search, cursor) ?: searchCall(search, cursor)
+
+    private fun prefetchPage(search: String, cursor: Int) {
+        cancelSearch()
+        prefetch = Prefetch(search, cursor, prefetchScope.async { searchCall(search, cursor) })
+    }
+
+    @Suppress("Detekt.TooGenericExceptionCaught")
+    private suspend fun takePrefetchedPage(
+        search: String,
+        cursor: Int
+    ): UnifiedSearchRepository.UnifiedSearchResults<SearchMessageEntry>? {
+        val prefetched = prefetch?.takeIf { it.search == search && it.cursor == cursor } ?: return null
+        prefetch = null
+        return try {
+            prefetched.page.await()
+        } catch (e: CancellationException) {
+            throw e
+        } catch (e: Exception) {
+            Log.w(TAG, "Prefetching the next page failed, fetching it again", e)
+            null
+        }
+    }
+
+    @Suppress("Detekt.TooGenericExceptionCaught")
+    private suspend fun searchCachedMessages(search: String): List<SearchMessageEntry> {
+        val accountId = currentUser?.id ?: return emptyList()
+        return try {
+            unifiedSearchRepository.searchCachedMessages(accountId, fromRoom, search)
+        } catch (e: CancellationException) {
+            throw e
+        } catch (e: Exception) {
+            Log.e(TAG, "Searching the cached messages failed", e)
+            emptyList()
         }
     }
 
@@ -116,12 +201,17 @@ class MessageSearchHelper @JvmOverloads constructor(
     }
 
     private fun resetCachedData() {
+        cancelSearch()
         previousSearch = null
         previousCursor = 0
-        previousResults = emptyList()
+        results.clear()
+        cachedResultKeys.clear()
     }
 
     companion object {
         private val TAG = MessageSearchHelper::class.simpleName
+
+        private fun keyOf(entry: SearchMessageEntry): String? =
+            entry.messageId?.let { "${entry.conversationToken}#$it" }
     }
 }
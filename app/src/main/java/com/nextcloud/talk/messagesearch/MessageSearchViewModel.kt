@@ -61,7 +61,8 @@ class MessageSearchViewModel @Inject constructor(
         messageSearchHelper = MessageSearchHelper(
             unifiedSearchRepository,
             currentUser,
-            roomToken
+            roomToken,
+            viewModelScope
         )
     }
 
@@ -72,8 +73,7 @@ class MessageSearchViewModel @Inject constructor(
             searchJob?.cancel()
             searchJob = viewModelScope.launch {
                 try {
-                    val results = messageSearchHelper.startMessageSearch(newText)
-                    onReceiveResults(results)
+                    messageSearchHelper.searchFlow(newText).collect { onReceiveResults(it) }
                 } catch (e: Exception) {
                     onError(e)
                 }
@@ -82,6 +82,10 @@ class MessageSearchViewModel @Inject constructor(
     }
 
     fun loadMore() {
+        if (searchJob?.isActive == true) {
+            // the results of the running search or load decide whether there is more to load
+            return
+        }
         _state.value = LoadingState
         searchJob?.cancel()
         searchJob = viewModelScope.launch {
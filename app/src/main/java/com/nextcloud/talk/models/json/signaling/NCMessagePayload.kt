@@ -30,8 +30,14 @@ data class NCMessagePayload(
     @JsonField(name = ["timestamp"])
     var timestamp: Long? = null,
     @JsonField(name = ["reaction"])
-    var reaction: String? = null
+    var reaction: String? = null,
+    @JsonField(name = ["substream"])
+    var substream: Int? = null,
+    @JsonField(name = ["temporal"])
+    var temporal: Int? = null,
+    @JsonField(name = ["video"])
+    var video: Boolean? = null
 ) : Parcelable {
     // This constructor is added to work with the 'com.bluelinelabs.logansquare.annotation.JsonObject'
-    constructor() : this(null, null, null, null, null, null, null, null)
+    constructor() : this(null, null, null, null, null, null, null, null, null, null, null)
 }
@@ -0,0 +1,210 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.outbox
+
+import android.util.Log
+import com.nextcloud.talk.chat.data.model.ChatMessage
+import com.nextcloud.talk.chat.data.network.ChatNetworkDataSource
+import com.nextcloud.talk.conversationlist.data.network.ConversationListUpdater
+import com.nextcloud.talk.data.database.dao.ChatMessagesDao
+import com.nextcloud.talk.data.database.model.OutboxOperationEntity
+import com.nextcloud.talk.data.database.model.OutboxOperationType
+import com.nextcloud.talk.data.database.model.SendStatus
+import com.nextcloud.talk.data.user.model.User
+import com.nextcloud.talk.extensions.toIntOrZero
+import com.nextcloud.talk.repositories.reactions.ReactionsRepository
+import com.nextcloud.talk.users.UserManager
+import com.nextcloud.talk.utils.ApiUtils
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.flow.firstOrNull
+import kotlinx.coroutines.withContext
+import retrofit2.HttpException
+import java.io.IOException
+
+/**
+ * Sends outbox operations with the same network calls the chat uses when sending directly.
+ *
+ * Connectivity problems, timeouts, rate limits and server errors are retried, any other client error is final.
+ */
+class NetworkOutboxOperationSender(
+    private val userManager: UserManager,
+    private val chatNetworkDataSource: ChatNetworkDataSource,
+    private val reactionsRepository: ReactionsRepository,
+    private val chatMessagesDao: ChatMessagesDao,
+    private val conversationListUpdater: ConversationListUpdater
+) : OutboxOperationSender {
+
+    @Suppress("Detekt.TooGenericExceptionCaught")
+    override suspend fun send(operation: OutboxOperationEntity): OutboxSendResult =
+        try {
+            // the user lookup, the read marker and the deletion are blocking RxJava calls
+            withContext(Dispatchers.IO) {
+                val user = userManager.getUserWithId(operation.accountId).blockingGet()
+                val credentials = user?.let { ApiUtils.getCredentials(it.username, it.token) }
+                if (user == null || credentials == null) {
+                    Log.e(TAG, "No user or credentials for account ${operation.accountId}, dropping ${operation.type}")
+                    OutboxSendResult.DROP
+                } else {
+                    send(user, credentials, operation)
+                }
+            }
+        } catch (e: CancellationException) {
+            throw e
+        } catch (e: Exception) {
+            classify(operation, e)
+        }
+
+    private suspend fun send(user: User, credentials: String, operation: OutboxOperationEntity): OutboxSendResult =
+        when (operation.type) {
+            OutboxOperationType.SEND_MESSAGE -> sendMessage(user, credentials, operation)
+            OutboxOperationType.READ_MARKER -> sendReadMarker(user, credentials, operation)
+            OutboxOperationType.ADD_REACTION,
+            OutboxOperationType.DELETE_REACTION -> sendReaction(user, credentials, operation)
+            OutboxOperationType.EDIT_MESSAGE,
+            OutboxOperationType.DELETE_MESSAGE -> sendMessageChange(user, credentials, operation)
+            OutboxOperationType.PIN_MESSAGE,
+            OutboxOperationType.UNPIN_MESSAGE -> sendPin(user, credentials, operation)
+        }
+
+    override suspend fun onGaveUp(operation: OutboxOperationEntity) {
+        when (operation.type) {
+            OutboxOperationType.SEND_MESSAGE -> tempMessage(operation)?.let {
+                it.sendStatus = SendStatus.FAILED
+                chatMessagesDao.updateChatMessage(it)
+            }
+
+            OutboxOperationType.READ_MARKER -> conversationListUpdater.clearPendingReadMarker(
+                internalConversationId(operation),
+                operation.messageId.toInt()
+            )
+
+            OutboxOperationType.ADD_REACTION,
+            OutboxOperationType.DELETE_REACTION,
+            OutboxOperationType.EDIT_MESSAGE,
+            OutboxOperationType.DELETE_MESSAGE,
+            OutboxOperationType.PIN_MESSAGE,
+            OutboxOperationType.UNPIN_MESSAGE -> Unit
+        }
+    }
+
+    private suspend fun sendMessage(
+        user: User,
+        credentials: String,
+        operation: OutboxOperationEntity
+    ): OutboxSendResult {
+        val tempMessage = tempMessage(operation)
+        if (tempMessage == null || tempMessage.sendStatus == SendStatus.SENT_PENDING_ACK) {
+            // deleted by the user or already delivered by a direct send
+            return OutboxSendResult.SENT
+        }
+
+        chatNetworkDataSource.sendChatMessage(
+            credentials,
+            ApiUtils.getUrlForChat(chatApiVersion(user), user.baseUrl, operation.roomToken),
+            tempMessage.message,
+            tempMessage.actorDisplayName,
+            tempMessage.parentMessageId?.toIntOrZero() ?: 0,
+            tempMessage.silent,
+            operation.payload.orEmpty(),
+            null
+        )
+        tempMessage.sendStatus = SendStatus.SENT_PENDING_ACK
+        chatMessagesDao.updateChatMessage(tempMessage)
+        return OutboxSendResult.SENT
+    }
+
+    private fun sendReadMarker(user: User, credentials: String, operation: OutboxOperationEntity): OutboxSendResult {
+        val url = ApiUtils.getUrlForChatReadMarker(chatApiVersion(user), user.baseUrl, operation.roomToken)
+        chatNetworkDataSource.setChatReadMarker(credentials, url, operation.messageId.toInt()).blockingSingle()
+        Log.d(TAG, "Read marker ${operation.messageId} sent for room ${operation.roomToken}")
+        return OutboxSendResult.SENT
+    }
+
+    private suspend fun sendReaction(
+        user: User,
+        credentials: String,
+        operation: OutboxOperationEntity
+    ): OutboxSendResult {
+        val url = ApiUtils.getUrlForMessageReaction(user.baseUrl!!, operation.roomToken, operation.messageId.toString())
+        val message = ChatMessage(jsonMessageId = operation.messageId.toInt())
+        val emoji = operation.payload.orEmpty()
+        if (operation.type == OutboxOperationType.ADD_REACTION) {
+            reactionsRepository.addReaction(credentials, user.id!!, url, operation.roomToken, message, emoji)
+        } else {
+            reactionsRepository.deleteReaction(credentials, user.id!!, url, operation.roomToken, message, emoji)
+        }
+        return OutboxSendResult.SENT
+    }
+
+    private suspend fun sendMessageChange(
+        user: User,
+        credentials: String,
+        operation: OutboxOperationEntity
+    ): OutboxSendResult {
+        val url = ApiUtils.getUrlForChatMessage(
+            chatApiVersion(user),
+            user.baseUrl,
+            operation.roomToken,
+            operation.messageId.toString()
+        )
+        if (operation.type == OutboxOperationType.EDIT_MESSAGE) {
+            chatNetworkDataSource.editChatMessage(credentials, url, operation.payload.orEmpty())
+        } else {
+            chatNetworkDataSource.deleteChatMessage(credentials, url).blockingSingle()
+        }
+        return OutboxSendResult.SENT
+    }
+
+    private suspend fun sendPin(user: User, credentials: String, operation: OutboxOperationEntity): OutboxSendResult {
+        val url = ApiUtils.getUrlForChatMessagePinning(
+            chatApiVersion(user),
+            user.baseUrl,
+            operation.roomToken,
+            operation.messageId.toString()
+        )
+        if (operation.type == OutboxOperationType.PIN_MESSAGE) {
+            chatNetworkDataSource.pinMessage(credentials, url, operation.payload?.toIntOrNull() ?: 0)
+        } else {
+            chatNetworkDataSource.unPinMessage(credentials, url)
+        }
+        return OutboxSendResult.SENT
+    }
+
+    private suspend fun tempMessage(operation: OutboxOperationEntity) =
+        chatMessagesDao.getTempMessageForConversation(
+            internalConversationId(operation),
+            operation.payload.orEmpty(),
+            null
+        ).firstOrNull()
+
+    private fun classify(operation: OutboxOperationEntity, e: Throwable): OutboxSendResult {
+        // RxJava's blocking calls wrap checked exceptions
+        val cause = if (e !is IOException && e !is HttpException && e.cause != null) e.cause!! else e
+        val result = when {
+            cause is HttpException && cause.code() in CLIENT_ERRORS && cause.code() !in RETRYABLE_CLIENT_ERRORS ->
+                OutboxSendResult.DROP
+
+            else -> OutboxSendResult.RETRY
+        }
+        Log.w(TAG, "Sending ${operation.type} for room ${operation.roomToken} failed ($result): $cause")
+        return result
+    }
+
+    private fun internalConversationId(operation: OutboxOperationEntity) =
+        "${operation.accountId}@${operation.roomToken}"
+
+    private fun chatApiVersion(user: User) =
+        ApiUtils.getChatApiVersion(user.capabilities!!.spreedCapability!!, intArrayOf(ApiUtils.API_V1))
+
+    companion object {
+        private val TAG = NetworkOutboxOperationSender::class.java.simpleName
+        private val CLIENT_ERRORS = 400..499
+        private val RETRYABLE_CLIENT_ERRORS = setOf(408, 429)
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.outbox
+
+import com.nextcloud.talk.data.database.dao.OutboxDao
+import com.nextcloud.talk.data.database.model.OutboxOperationEntity
+import com.nextcloud.talk.data.database.model.OutboxOperationType
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+
+/**
+ * Durable, ordered queue for chat write operations that do not need an immediate answer from the server.
+ *
+ * Operations are persisted in the Outbox table and delivered by the [OutboxDrainer]. Redundant operations are
+ * coalesced when they are enqueued:
+ * - read markers: one per room, the newest marker replaces a pending one
+ * - reactions: one per message and emoji, toggling a pending reaction cancels it (or flips it while it is in flight)
+ * - messages: one per referenceId, enqueuing an already pending message is a no-op
+ * - edits and deletions: one per message, a newer edit replaces a pending one, a deletion replaces a pending edit and
+ *   nothing is edited after a pending deletion
+ * - pins: one per message, the newest pin or unpin replaces a pending one
+ *
+ * File uploads do not go through the outbox: they keep running in UploadAndShareFilesWorker, which needs a foreground
+ * notification, reports progress and can be cancelled by the user.
+ */
+class Outbox(
+    private val dao: OutboxDao,
+    private val drainer: OutboxDrainer,
+    private val clock: () -> Long = System::currentTimeMillis
+) {
+    private val enqueueMutex = Mutex()
+
+    suspend fun enqueueReadMarker(accountId: Long, roomToken: String, lastReadMessage: Int) {
+        enqueue(
+            operation(
+                accountId = accountId,
+                roomToken = roomToken,
+                type = OutboxOperationType.READ_MARKER,
+                coalesceKey = "readMarker:$accountId@$roomToken",
+                messageId = lastReadMessage.toLong()
+            )
+        )
+    }
+
+    /**
+     * Enqueues sending the temporary message with [referenceId], which must already be stored in ChatMessages.
+     */
+    suspend fun enqueueChatMessage(accountId: Long, roomToken: String, referenceId: String) {
+        enqueue(
+            operation(
+                accountId = accountId,
+                roomToken = roomToken,
+                type = OutboxOperationType.SEND_MESSAGE,
+                coalesceKey = "message:$accountId@$roomToken:$referenceId",
+                payload = referenceId
+            )
+        )
+    }
+
+    suspend fun enqueueReaction(accountId: Long, roomToken: String, messageId: Long, emoji: String, add: Boolean) {
+        enqueue(
+            operation(
+                accountId = accountId,
+                roomToken = roomToken,
+                type = if (add) OutboxOperationType.ADD_REACTION else OutboxOperationType.DELETE_REACTION,
+                coalesceKey = "reaction:$accountId@$roomToken:$messageId:$emoji",
+                messageId = messageId,
+                payload = emoji
+            )
+        )
+    }
+
+    suspend fun enqueueMessageEdit(accountId: Long, roomToken: String, messageId: Long, text: String) {
+        enqueue(
+            operation(
+                accountId = accountId,
+                roomToken = roomToken,
+                type = OutboxOperationType.EDIT_MESSAGE,
+                coalesceKey = messageChangeKey(accountId, roomToken, messageId),
+                messageId = messageId,
+                payload = text
+            )
+        )
+    }
+
+    suspend fun enqueueMessageDeletion(accountId: Long, roomToken: String, messageId: Long) {
+        enqueue(
+            operation(
+                accountId = accountId,
+                roomToken = roomToken,
+                type = OutboxOperationType.DELETE_MESSAGE,
+                coalesceKey = messageChangeKey(accountId, roomToken, messageId),
+                messageId = messageId
+            )
+        )
+    }
+
+    /**
+     * Enqueues pinning the message until [pinUntil] (epoch seconds, 0 pins it until it is unpinned), or unpinning it
+     * when [pinUntil] is null.
+     */
+    suspend fun enqueuePin(accountId: Long, roomToken: String, messageId: Long, pinUntil: Int?) {
+        enqueue(
+            operation(
+                accountId = accountId,
+                roomToken = roomToken,
+                type = if (pinUntil != null) OutboxOperationType.PIN_MESSAGE else OutboxOperationType.UNPIN_MESSAGE,
+                coalesceKey = "pin:$accountId@$roomToken:$messageId",
+                messageId = messageId,
+                payload = pinUntil?.toString()
+            )
+        )
+    }
+
+    private suspend fun enqueue(operation: OutboxOperationEntity) {
+        enqueueMutex.withLock {
+            val pending = dao.getOperationByCoalesceKey(operation.coalesceKey)
+            if (pending == null) {
+                dao.insertOperation(operation)
+            } else {
+                coalesce(pending, operation)
+            }
+        }
+        drainer.requestDrain()
+    }
+
+    private suspend fun coalesce(pending: OutboxOperationEntity, operation: OutboxOperationEntity) {
+        when (operation.type) {
+            OutboxOperationType.SEND_MESSAGE -> Unit
+
+            OutboxOperationType.READ_MARKER -> if (pending.messageId != operation.messageId) {
+                dao.updateOperation(pending.superseded { messageId = operation.messageId })
+            }
+
+            OutboxOperationType.ADD_REACTION,
+            OutboxOperationType.DELETE_REACTION -> when {
+                pending.type == operation.type -> Unit
+
+                // the pending toggle might already have reached the server, so the opposite one has to follow it
+                drainer.isInFlight(pending.id) -> dao.updateOperation(pending.superseded { type = operation.type })
+
+                else -> dao.deleteOperation(pending.id)
+            }
+
+            OutboxOperationType.EDIT_MESSAGE -> if (pending.type == OutboxOperationType.EDIT_MESSAGE) {
+                dao.updateOperation(pending.superseded { payload = operation.payload })
+            }
+
+            OutboxOperationType.DELETE_MESSAGE -> if (pending.type == OutboxOperationType.EDIT_MESSAGE) {
+                dao.updateOperation(
+                    pending.superseded {
+                        type = operation.type
+                        payload = null
+                    }
+                )
+            }
+
+            OutboxOperationType.PIN_MESSAGE,
+            OutboxOperationType.UNPIN_MESSAGE -> when {
+                pending.type == operation.type && pending.payload == operation.payload -> Unit
+
+                else -> dao.updateOperation(
+                    pending.superseded {
+                        type = operation.type
+                        payload = operation.payload
+                    }
+                )
+            }
+        }
+    }
+
+    private fun messageChangeKey(accountId: Long, roomToken: String, messageId: Long) =
+        "messageChange:$accountId@$roomToken:$messageId"
+
+    private fun OutboxOperationEntity.superseded(change: OutboxOperationEntity.() -> Unit): OutboxOperationEntity =
+        copy(revision = revision + 1, attempts = 0, nextAttemptAt = 0).apply(change)
+
+    @Suppress("LongParameterList")
+    private fun operation(
+        accountId: Long,
+        roomToken: String,
+        type: OutboxOperationType,
+        coalesceKey: String,
+        messageId: Long = 0,
+        payload: String? = null
+    ) = OutboxOperationEntity(
+        accountId = accountId,
+        roomToken = roomToken,
+        type = type,
+        coalesceKey = coalesceKey,
+        messageId = messageId,
+        payload = payload,
+        createdAt = clock()
+    )
+}
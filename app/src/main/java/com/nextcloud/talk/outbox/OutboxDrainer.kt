@@ -0,0 +1,192 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.outbox
+
+import android.util.Log
+import com.nextcloud.talk.data.database.dao.OutboxDao
+import com.nextcloud.talk.data.database.model.OutboxOperationEntity
+import com.nextcloud.talk.data.network.NetworkMonitor
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.channels.consumeEach
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.filter
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.Semaphore
+import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.sync.withPermit
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicBoolean
+
+/**
+ * The single consumer of the [Outbox] table.
+ *
+ * A drain sends all due operations: rooms are drained in parallel (at most [MAX_PARALLEL_ROOMS] at a time), the
+ * operations of one room strictly in the order they were enqueued. A transient failure stops the room until its
+ * retry is due, so a later message can never overtake an earlier one. Drains are requested after every enqueue and
+ * whenever the device comes back online; requests arriving while a drain runs are conflated into one follow-up drain.
+ * [backgroundScheduler] covers the operations that are still pending when the process goes away.
+ */
+class OutboxDrainer(
+    private val dao: OutboxDao,
+    private val sender: OutboxOperationSender,
+    private val networkMonitor: NetworkMonitor,
+    private val backgroundScheduler: OutboxBackgroundScheduler,
+    private val scope: CoroutineScope,
+    private val clock: () -> Long = System::currentTimeMillis
+) {
+    private val drainRequests = Channel<Unit>(Channel.CONFLATED)
+    private val drainMutex = Mutex()
+    private val roomPermits = Semaphore(MAX_PARALLEL_ROOMS)
+    private val started = AtomicBoolean(false)
+    private val inFlightOperationIds: MutableSet<Long> = ConcurrentHashMap.newKeySet()
+    private var retryJob: Job? = null
+
+    fun requestDrain() {
+        startIfNeeded()
+        drainRequests.trySend(Unit)
+    }
+
+    fun isInFlight(operationId: Long): Boolean = inFlightOperationIds.contains(operationId)
+
+    /**
+     * Sends all operations that are due now.
+     *
+     * @return `true` if the outbox is empty afterwards
+     */
+    suspend fun drain(): Boolean =
+        drainMutex.withLock {
+            if (!networkMonitor.isOnline.value) {
+                Log.d(TAG, "Offline, postponing drain")
+                val empty = dao.getOperations().isEmpty()
+                if (!empty) {
+                    // the worker waits for connectivity, in case the app is gone before it is back
+                    backgroundScheduler.scheduleDrain()
+                }
+                return@withLock empty
+            }
+
+            val now = clock()
+            coroutineScope {
+                dao.getOperations()
+                    .groupBy { it.accountId to it.roomToken }
+                    .values
+                    // an operation waiting for its retry blocks everything enqueued after it in the same room
+                    .map { operations -> operations.takeWhile { it.nextAttemptAt <= now } }
+                    .filter { it.isNotEmpty() }
+                    .map { operations -> async { roomPermits.withPermit { drainRoom(operations) } } }
+                    .awaitAll()
+            }
+
+            val remaining = dao.getOperations()
+            if (remaining.isNotEmpty()) {
+                scheduleNextDrain(remaining)
+            }
+            remaining.isEmpty()
+        }
+
+    private suspend fun drainRoom(operations: List<OutboxOperationEntity>) {
+        for (operation in operations) {
+            inFlightOperationIds.add(operation.id)
+            val result = try {
+                sender.send(operation)
+            } finally {
+                inFlightOperationIds.remove(operation.id)
+            }
+
+            when (result) {
+                OutboxSendResult.SENT -> dao.deleteHandledOperation(operation.id, operation.revision)
+
+                OutboxSendResult.DROP -> giveUp(operation)
+
+                OutboxSendResult.RETRY -> {
+                    retryLater(operation)
+                    return
+                }
+            }
+        }
+    }
+
+    private suspend fun retryLater(operation: OutboxOperationEntity) {
+        val policy = OutboxRetryPolicy.forType(operation.type)
+        val attempts = operation.attempts + 1
+        if (attempts >= policy.maxAttempts) {
+            Log.w(TAG, "Giving up ${operation.type} for room ${operation.roomToken} after $attempts attempts")
+            giveUp(operation)
+        } else {
+            dao.scheduleRetry(operation.id, operation.revision, attempts, clock() + policy.backoffMillis(attempts))
+        }
+    }
+
+    private suspend fun giveUp(operation: OutboxOperationEntity) {
+        // a newer revision was enqueued in the meantime and still deserves its own attempts
+        if (dao.deleteHandledOperation(operation.id, operation.revision) > 0) {
+            sender.onGaveUp(operation)
+        }
+    }
+
+    private fun scheduleNextDrain(remaining: List<OutboxOperationEntity>) {
+        val delayMillis = (remaining.minOf { it.nextAttemptAt } - clock()).coerceAtLeast(0)
+        retryJob?.cancel()
+        retryJob = scope.launch {
+            delay(delayMillis)
+            requestDrain()
+        }
+        backgroundScheduler.scheduleDrain()
+    }
+
+    @Suppress("Detekt.TooGenericExceptionCaught")
+    private suspend fun drainSafely() {
+        try {
+            drain()
+        } catch (e: CancellationException) {
+            throw e
+        } catch (e: Exception) {
+            // a failing drain must not end the consumer, the operations stay in the outbox for the next one
+            Log.e(TAG, "Draining the outbox failed", e)
+            backgroundScheduler.scheduleDrain()
+        }
+    }
+
+    private fun startIfNeeded() {
+        if (!started.compareAndSet(false, true)) {
+            return
+        }
+        scope.launch {
+            try {
+                drainRequests.consumeEach { drainSafely() }
+            } finally {
+                // lets the next request start a new consumer instead of queueing up unnoticed
+                started.set(false)
+            }
+        }
+        scope.launch {
+            networkMonitor.isOnline
+                .filter { it }
+                .collect { drainRequests.trySend(Unit) }
+        }
+    }
+
+    companion object {
+        private val TAG = OutboxDrainer::class.java.simpleName
+        private const val MAX_PARALLEL_ROOMS = 4
+    }
+}
+
+/**
+ * Makes sure pending outbox operations are eventually drained, even if the app process is gone by then.
+ */
+fun interface OutboxBackgroundScheduler {
+    fun scheduleDrain()
+}
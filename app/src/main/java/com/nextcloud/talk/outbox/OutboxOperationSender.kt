@@ -0,0 +1,30 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.outbox
+
+import com.nextcloud.talk.data.database.model.OutboxOperationEntity
+
+/**
+ * Delivers single outbox operations to the server, see [NetworkOutboxOperationSender].
+ */
+interface OutboxOperationSender {
+
+    suspend fun send(operation: OutboxOperationEntity): OutboxSendResult
+
+    /**
+     * Called when [operation] is dropped without being delivered, so local state that assumed its delivery can be
+     * reverted.
+     */
+    suspend fun onGaveUp(operation: OutboxOperationEntity)
+}
+
+enum class OutboxSendResult {
+    SENT,
+    RETRY,
+    DROP
+}
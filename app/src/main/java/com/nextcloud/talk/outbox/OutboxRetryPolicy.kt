@@ -0,0 +1,49 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.outbox
+
+import com.nextcloud.talk.data.database.model.OutboxOperationType
+
+/**
+ * How often an outbox operation is attempted and how long to wait between attempts. Attempts are only counted while
+ * the device is online, time spent offline does not use up the budget.
+ */
+data class OutboxRetryPolicy(val maxAttempts: Int, val initialBackoffMillis: Long) {
+
+    /**
+     * Exponential backoff for the given (1-based) failed attempt, capped at [MAX_BACKOFF_MILLIS].
+     */
+    fun backoffMillis(attempt: Int): Long {
+        val exponent = (attempt - 1).coerceIn(0, MAX_EXPONENT)
+        return (initialBackoffMillis shl exponent).coerceAtMost(MAX_BACKOFF_MILLIS)
+    }
+
+    companion object {
+        private const val MAX_EXPONENT = 16
+        const val MAX_BACKOFF_MILLIS = 5 * 60 * 1000L
+        private const val INITIAL_BACKOFF_MILLIS = 2000L
+        private const val MESSAGE_MAX_ATTEMPTS = 5
+        private const val READ_MARKER_MAX_ATTEMPTS = 3
+        private const val REACTION_MAX_ATTEMPTS = 4
+        private const val MESSAGE_CHANGE_MAX_ATTEMPTS = 5
+        private const val PIN_MAX_ATTEMPTS = 4
+
+        fun forType(type: OutboxOperationType): OutboxRetryPolicy =
+            when (type) {
+                OutboxOperationType.SEND_MESSAGE -> OutboxRetryPolicy(MESSAGE_MAX_ATTEMPTS, INITIAL_BACKOFF_MILLIS)
+                OutboxOperationType.READ_MARKER -> OutboxRetryPolicy(READ_MARKER_MAX_ATTEMPTS, INITIAL_BACKOFF_MILLIS)
+                OutboxOperationType.ADD_REACTION,
+                OutboxOperationType.DELETE_REACTION -> OutboxRetryPolicy(REACTION_MAX_ATTEMPTS, INITIAL_BACKOFF_MILLIS)
+                OutboxOperationType.EDIT_MESSAGE,
+                OutboxOperationType.DELETE_MESSAGE ->
+                    OutboxRetryPolicy(MESSAGE_CHANGE_MAX_ATTEMPTS, INITIAL_BACKOFF_MILLIS)
+                OutboxOperationType.PIN_MESSAGE,
+                OutboxOperationType.UNPIN_MESSAGE -> OutboxRetryPolicy(PIN_MAX_ATTEMPTS, INITIAL_BACKOFF_MILLIS)
+            }
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.participants
+
+import android.database.sqlite.SQLiteConstraintException
+import android.util.Log
+import com.nextcloud.talk.api.NcApiCoroutines
+import com.nextcloud.talk.data.database.dao.ParticipantsDao
+import com.nextcloud.talk.data.database.mappers.asEntity
+import com.nextcloud.talk.data.database.mappers.toDomainModel
+import com.nextcloud.talk.data.database.model.ParticipantEntity
+import com.nextcloud.talk.data.user.model.User
+import com.nextcloud.talk.models.json.participants.Participant
+import com.nextcloud.talk.utils.ApiUtils
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.withContext
+
+/**
+ * Local copy of the participants of the conversations, so they do not need to be downloaded every time they are
+ * shown.
+ *
+ * The full list is only fetched from the server when it is missing or older than [RECONCILE_INTERVAL_MILLIS] (or
+ * when forced, e.g. after participants were added or removed). In between, the participant updates received from
+ * the signaling server keep the call and session state of the stored participants current.
+ */
+class ParticipantStore(
+    private val dao: ParticipantsDao,
+    private val ncApiCoroutines: NcApiCoroutines,
+    private val clock: () -> Long = System::currentTimeMillis
+) {
+
+    fun observeParticipants(internalConversationId: String): Flow<List<Participant>> =
+        dao.getParticipantsFlow(internalConversationId).map { entities -> entities.map { it.toDomainModel() } }
+
+    fun getParticipants(internalConversationId: String): List<Participant> =
+        dao.getParticipants(internalConversationId).map { it.toDomainModel() }
+
+    fun isStale(internalConversationId: String, maxAgeMillis: Long = RECONCILE_INTERVAL_MILLIS): Boolean {
+        val oldestSyncTime = dao.getOldestSyncTime(internalConversationId) ?: return true
+        return clock() - oldestSyncTime > maxAgeMillis
+    }
+
+    /**
+     * Fetches the full participant list from the server and replaces the stored one with it.
+     *
+     * @return the participants returned by the server
+     */
+    suspend fun reconcile(user: User, token: String): List<Participant> =
+        withContext(Dispatchers.IO) {
+            val apiVersion = ApiUtils.getConversationApiVersion(user, intArrayOf(ApiUtils.API_V4, 1))
+            val participants = ncApiCoroutines.getParticipants(
+                ApiUtils.getCredentials(user.username, user.token)!!,
+                ApiUtils.getUrlForParticipants(apiVersion, user.baseUrl!!, token),
+                mapOf(INCLUDE_STATUS to true)
+            ).ocs?.data.orEmpty()
+            storeServerList(user.id!!, token, participants)
+            participants
+        }
+
+    /**
+     * Like [reconcile], but only if the stored list is missing or older than [maxAgeMillis].
+     *
+     * @return the participants returned by the server, or null if the stored list is current
+     */
+    suspend fun reconcileIfStale(
+        user: User,
+        token: String,
+        maxAgeMillis: Long = RECONCILE_INTERVAL_MILLIS
+    ): List<Participant>? {
+        val stale = withContext(Dispatchers.IO) { isStale("${user.id}@$token", maxAgeMillis) }
+        return if (stale) reconcile(user, token) else null
+    }
+
+    fun storeServerList(accountId: Long, token: String, participants: List<Participant>) {
+        val syncedAt = clock()
+        val entities = participants.mapNotNull { it.asEntity(accountId, token, syncedAt) }
+        try {
+            dao.replaceParticipants("$accountId@$token", entities)
+        } catch (e: SQLiteConstraintException) {
+            // the conversation is not stored locally (yet), so there is nothing to attach the participants to
+            Log.w(TAG, "Skip storing participants: conversation not in DB yet. Swallowed exception: $e")
+        }
+    }
+
+    /**
+     * Applies the sessions of a signaling participant update. If [complete], the update lists all the sessions in
+     * the room, so participants that are not listed have no session anymore.
+     *
+     * @return true if the update contains participants that are not stored yet, so the list should be reconciled
+     */
+    fun applySignalingUpdate(
+        accountId: Long,
+        token: String,
+        participants: List<Participant>,
+        complete: Boolean
+    ): Boolean {
+        val internalConversationId = "$accountId@$token"
+        val updatesByKey = participants.groupBy { keyOf(it) }
+        val stored = dao.getParticipants(internalConversationId)
+        val storedKeys = stored.map { keyOf(it) }.toSet()
+
+        val changed = stored.mapNotNull { entity ->
+            val updates = updatesByKey[keyOf(entity)]
+            val updated = when {
+                updates != null -> entity.withSessions(updates, keepExistingSessions = !complete)
+                complete -> entity.copy(inCall = 0, sessionIds = ArrayList(0))
+                else -> entity
+            }
+            updated.takeIf { it != entity }
+        }
+        if (changed.isNotEmpty()) {
+            dao.updateParticipants(changed)
+        }
+        return updatesByKey.keys.any { it != null && it !in storedKeys }
+    }
+
+    /**
+     * Applies the list of participants currently in the call, as returned by the call endpoint of the server.
+     *
+     * @return true if the list contains participants that are not stored yet
+     */
+    fun applyCallParticipants(accountId: Long, token: String, participants: List<Participant>): Boolean {
+        val internalConversationId = "$accountId@$token"
+        val inCallByKey = participants.groupBy { keyOf(it) }
+            .mapValues { (_, sessions) -> sessions.fold(0L) { flags, session -> flags or session.inCall } }
+        val stored = dao.getParticipants(internalConversationId)
+        val changed = stored.mapNotNull { entity ->
+            val inCall = inCallByKey[keyOf(entity)] ?: 0L
+            if (inCall != entity.inCall) entity.copy(inCall = inCall) else null
+        }
+        if (changed.isNotEmpty()) {
+            dao.updateParticipants(changed)
+        }
+        val storedKeys = stored.map { keyOf(it) }.toSet()
+        return inCallByKey.keys.any { it != null && it !in storedKeys }
+    }
+
+    fun applyInCallOfAll(accountId: Long, token: String, inCall: Long) {
+        dao.updateInCallOfAll("$accountId@$token", inCall)
+    }
+
+    @Suppress("DEPRECATION")
+    private fun ParticipantEntity.withSessions(
+        updates: List<Participant>,
+        keepExistingSessions: Boolean
+    ): ParticipantEntity {
+        val updatedSessionIds = updates.mapNotNull { it.sessionId }
+        val sessionIds = if (keepExistingSessions) {
+            (sessionIds.orEmpty() + updatedSessionIds).distinct()
+        } else {
+            updatedSessionIds.distinct()
+        }
+        return copy(
+            inCall = updates.fold(0L) { flags, update -> flags or update.inCall },
+            lastPing = maxOf(lastPing, updates.maxOf { it.lastPing }),
+            sessionIds = ArrayList(sessionIds)
+        )
+    }
+
+    private fun keyOf(entity: ParticipantEntity): ParticipantKey = ParticipantKey(entity.actorType, entity.actorId)
+
+    /**
+     * Signaling messages of older servers do not provide the actor, only the user id of users. Guests can not be
+     * matched in that case, so null is returned.
+     */
+    @Suppress("DEPRECATION")
+    private fun keyOf(participant: Participant): ParticipantKey? {
+        val actorType = participant.actorType
+        val actorId = participant.actorId
+        return when {
+            actorType != null && actorId != null -> ParticipantKey(actorType.name, actorId)
+            participant.userId != null -> ParticipantKey(Participant.ActorType.USERS.name, participant.userId!!)
+            else -> null
+        }
+    }
+
+    private data class ParticipantKey(val actorType: String, val actorId: String)
+
+    companion object {
+        private val TAG = ParticipantStore::class.java.simpleName
+        private const val INCLUDE_STATUS = "includeStatus"
+        const val RECONCILE_INTERVAL_MILLIS = 15 * 60 * 1000L
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.participants
+
+import android.util.Log
+import com.nextcloud.talk.data.user.model.User
+import com.nextcloud.talk.models.json.participants.Participant
+import com.nextcloud.talk.signaling.SignalingMessageReceiver
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.launch
+
+/**
+ * Feeds the participant updates the signaling server sends for the joined room into the [ParticipantStore].
+ *
+ * Updates are applied one after the other in the order they were received. If an update contains participants that
+ * are not stored yet, the participant list is reconciled with the server, at most once per
+ * [MIN_RECONCILE_INTERVAL_MILLIS].
+ */
+class ParticipantStoreUpdater(
+    private val participantStore: ParticipantStore,
+    private val user: User,
+    private val token: String,
+    private val scope: CoroutineScope,
+    private val dispatcher: CoroutineDispatcher = Dispatchers.IO.limitedParallelism(1),
+    private val clock: () -> Long = System::currentTimeMillis
+) : SignalingMessageReceiver.ParticipantListMessageListener {
+
+    private var lastReconcileAt = 0L
+
+    override fun onUsersInRoom(participants: MutableList<Participant?>) {
+        // the internal signaling server always lists all sessions in the room
+        apply(participants.filterNotNull(), complete = true)
+    }
+
+    override fun onParticipantsUpdate(participants: MutableList<Participant?>) {
+        apply(participants.filterNotNull(), complete = false)
+    }
+
+    override fun onAllParticipantsUpdate(inCall: Long) {
+        scope.launch(dispatcher) {
+            participantStore.applyInCallOfAll(user.id!!, token, inCall)
+        }
+    }
+
+    @Suppress("TooGenericExceptionCaught")
+    private fun apply(participants: List<Participant>, complete: Boolean) {
+        scope.launch(dispatcher) {
+            val hasUnknownParticipants = participantStore.applySignalingUpdate(
+                user.id!!,
+                token,
+                participants,
+                complete
+            )
+            if (hasUnknownParticipants && clock() - lastReconcileAt > MIN_RECONCILE_INTERVAL_MILLIS) {
+                lastReconcileAt = clock()
+                try {
+                    participantStore.reconcile(user, token)
+                } catch (e: Exception) {
+                    Log.e(TAG, "Failed to reconcile the participants of $token", e)
+                }
+            }
+        }
+    }
+
+    companion object {
+        private val TAG = ParticipantStoreUpdater::class.java.simpleName
+        const val MIN_RECONCILE_INTERVAL_MILLIS = 60 * 1000L
+    }
+}
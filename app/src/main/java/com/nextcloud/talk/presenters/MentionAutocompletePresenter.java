@@ -17,9 +17,10 @@ import com.nextcloud.talk.adapters.items.MentionAutocompleteItem;
 import com.nextcloud.talk.api.NcApi;
 import com.nextcloud.talk.application.NextcloudTalkApplication;
 import com.nextcloud.talk.chat.MentionAutocompleteAdapter;
+import com.nextcloud.talk.chat.MentionAutocompleteEngine;
 import com.nextcloud.talk.data.user.model.User;
 import com.nextcloud.talk.models.json.mention.Mention;
-import com.nextcloud.talk.models.json.mention.MentionOverall;
+import com.nextcloud.talk.participants.ParticipantStore;
 import com.nextcloud.talk.ui.theme.ViewThemeUtils;
 import com.nextcloud.talk.users.UserManager;
 import com.nextcloud.talk.utils.ApiUtils;
@@ -27,6 +28,7 @@ import com.nextcloud.talk.utils.database.user.CurrentUserProviderOld;
 import com.otaliastudios.autocomplete.RecyclerViewPresenter;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -36,11 +38,11 @@ import javax.inject.Inject;
 import androidx.annotation.Nullable;
 import androidx.recyclerview.widget.RecyclerView;
 import autodagger.AutoInjector;
-import io.reactivex.Observer;
+import io.reactivex.Observable;
+import io.reactivex.Single;
 import io.reactivex.android.schedulers.AndroidSchedulers;
-import io.reactivex.annotations.NonNull;
-import io.reactivex.disposables.Disposable;
 import io.reactivex.schedulers.Schedulers;
+import kotlin.Unit;
 
 @AutoInjector(NextcloudTalkApplication.class)
 public class MentionAutocompletePresenter extends RecyclerViewPresenter<Mention> {
@@ -58,6 +60,9 @@ public class MentionAutocompletePresenter extends RecyclerViewPresenter<Mention>
     @Inject
     ViewThemeUtils viewThemeUtils;
 
+    @Inject
+    ParticipantStore participantStore;
+
     private User currentUser;
     private MentionAutocompleteAdapter mentionAdapter;
     private Context context;
@@ -65,6 +70,9 @@ public class MentionAutocompletePresenter extends RecyclerViewPresenter<Mention>
     private String roomToken;
     private int chatApiVersion;
 
+    private final MentionAutocompleteEngine mentionEngine =
+        new MentionAutocompleteEngine(this::getRemoteSuggestions, this::showSuggestions);
+
     public MentionAutocompletePresenter(Context context) {
         super(context);
         this.context = context;
@@ -79,6 +87,55 @@ public class MentionAutocompletePresenter extends RecyclerViewPresenter<Mention>
         this.chatApiVersion = chatApiVersion;
         NextcloudTalkApplication.Companion.getSharedApplication().getComponentApplication().inject(this);
         currentUser = currentUserProvider.getCurrentUser().blockingGet();
+        loadStoredParticipants();
+    }
+
+    @SuppressLint("CheckResult")
+    private void loadStoredParticipants() {
+        String internalConversationId = currentUser.getId() + "@" + roomToken;
+        Single.fromCallable(() -> participantStore.getParticipants(internalConversationId))
+            .subscribeOn(Schedulers.io())
+            .observeOn(AndroidSchedulers.mainThread())
+            .subscribe(
+                participants -> mentionEngine.addKnownMentions(
+                    MentionAutocompleteEngine.Companion.mentionsOf(participants, currentUser.getUserId(), roomToken)),
+                throwable -> Log.e(TAG, "failed to load stored participants", throwable));
+    }
+
+    private Observable<List<Mention>> getRemoteSuggestions(String queryString) {
+        Map<String, String> queryMap = new HashMap<>();
+        queryMap.put("includeStatus", "true");
+
+        return ncApi.getMentionAutocompleteSuggestions(
+                ApiUtils.getCredentials(currentUser.getUsername(), currentUser.getToken()),
+                ApiUtils.getUrlForMentionSuggestions(chatApiVersion, currentUser.getBaseUrl(), roomToken),
+                queryString, MentionAutocompleteEngine.DEFAULT_LIMIT, queryMap)
+            .subscribeOn(Schedulers.io())
+            .map(mentionOverall -> {
+                if (mentionOverall.getOcs() == null || mentionOverall.getOcs().getData() == null) {
+                    return Collections.<Mention>emptyList();
+                }
+                return mentionOverall.getOcs().getData();
+            });
+    }
+
+    private Unit showSuggestions(List<Mention> mentions) {
+        if (mentionAdapter == null) {
+            return Unit.INSTANCE;
+        }
+        if (mentions.isEmpty()) {
+            mentionAdapter.clear();
+            return Unit.INSTANCE;
+        }
+        List<MentionAutocompleteItem> itemList = new ArrayList<>(mentions.size());
+        for (Mention mention : mentions) {
+            itemList.add(new MentionAutocompleteItem(mention, context, roomToken));
+        }
+        if (mentionAdapter.getItemCount() != 0) {
+            mentionAdapter.clear();
+        }
+        mentionAdapter.updateDataSet(itemList);
+        return Unit.INSTANCE;
     }
 
     @Override
@@ -117,59 +174,12 @@ public class MentionAutocompletePresenter extends RecyclerViewPresenter<Mention>
         }
 
         mentionAdapter.setFilterQuery(queryString);
+        mentionEngine.query(queryString);
+    }
 
-        Map<String, String> queryMap = new HashMap<>();
-        queryMap.put("includeStatus", "true");
-
-        ncApi.getMentionAutocompleteSuggestions(
-                ApiUtils.getCredentials(currentUser.getUsername(), currentUser.getToken()),
-                ApiUtils.getUrlForMentionSuggestions(chatApiVersion, currentUser.getBaseUrl(), roomToken),
-                queryString, 5, queryMap)
-            .subscribeOn(Schedulers.io())
-            .observeOn(AndroidSchedulers.mainThread())
-            .retry(3)
-            .subscribe(new Observer<MentionOverall>() {
-                @Override
-                public void onSubscribe(@NonNull Disposable d) {
-                    // no actions atm
-                }
-
-                @Override
-                public void onNext(@NonNull MentionOverall mentionOverall) {
-                    if (mentionOverall.getOcs() != null) {
-                        List<Mention> mentionsList = mentionOverall.getOcs().getData();
-
-                        if (mentionsList != null) {
-
-                            if (mentionsList.isEmpty()) {
-                                mentionAdapter.clear();
-                            } else {
-                                List<MentionAutocompleteItem> itemList = new ArrayList<>(mentionsList.size());
-                                for (Mention mention : mentionsList) {
-                                    itemList.add(new MentionAutocompleteItem(mention, context, roomToken));
-                                }
-
-                                if (mentionAdapter.getItemCount() != 0) {
-                                    mentionAdapter.clear();
-                                }
-
-                                mentionAdapter.updateDataSet(itemList);
-                            }
-                        }
-                    }
-                }
-
-                @SuppressLint("LongLogTag")
-                @Override
-                public void onError(@NonNull Throwable e) {
-                    mentionAdapter.clear();
-                    Log.e(TAG, "failed to get MentionAutocompleteSuggestions", e);
-                }
-
-                @Override
-                public void onComplete() {
-                    // no actions atm
-                }
-            });
+    @Override
+    protected void onViewHidden() {
+        super.onViewHidden();
+        mentionEngine.cancel();
     }
 }
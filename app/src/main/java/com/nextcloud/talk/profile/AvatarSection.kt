@@ -21,9 +21,10 @@ import androidx.compose.material3.Icon
 import androidx.compose.material3.MaterialTheme
 import androidx.compose.material3.Text
 import androidx.compose.runtime.Composable
-import androidx.compose.runtime.LaunchedEffect
+import androidx.compose.runtime.getValue
+import androidx.compose.runtime.mutableIntStateOf
 import androidx.compose.runtime.remember
-import androidx.compose.runtime.rememberCoroutineScope
+import androidx.compose.runtime.setValue
 import androidx.compose.ui.Alignment
 import androidx.compose.ui.Modifier
 import androidx.compose.ui.draw.clip
@@ -34,97 +35,47 @@ import androidx.compose.ui.res.stringResource
 import androidx.compose.ui.text.style.TextOverflow
 import androidx.compose.ui.unit.Dp
 import androidx.compose.ui.unit.dp
-import coil.annotation.ExperimentalCoilApi
 import coil.compose.AsyncImage
-import coil.imageLoader
 import coil.request.CachePolicy
 import coil.request.ImageRequest
 import com.nextcloud.talk.R
-import com.nextcloud.talk.ui.copyAvatarToOtherThemeCache
-import com.nextcloud.talk.utils.ApiUtils
+import com.nextcloud.talk.avatar.Avatar
+import com.nextcloud.talk.avatar.AvatarFetcher
 
-@OptIn(ExperimentalCoilApi::class)
 @Composable
 private fun AvatarImage(state: ProfileUiState, avatarSize: Dp) {
     val context = LocalContext.current
     val user = state.currentUser
     val isDark = isSystemInDarkTheme()
-    val url = ApiUtils.getUrlForAvatar(user?.baseUrl, user?.userId, requestBigSize = true, darkMode = isDark)
-    val cachePolicy = if (state.avatarRefreshKey > 0) CachePolicy.WRITE_ONLY else CachePolicy.ENABLED
-    val model = remember(url, state.avatarRefreshKey) {
+    val avatar = remember(user?.id, user?.userId) {
+        user?.userId?.let { userId -> Avatar.ofUser(user, userId) }
+    }
+    // After a change the avatar is downloaded again, once. It is stored once for both themes, the dark variant of a
+    // generated avatar is derived from it.
+    var loadedRefreshKey by remember { mutableIntStateOf(state.avatarRefreshKey) }
+    val refresh = state.avatarRefreshKey != loadedRefreshKey
+    val cachePolicy = if (refresh) CachePolicy.WRITE_ONLY else CachePolicy.ENABLED
+    val model = remember(avatar, isDark, state.avatarRefreshKey) {
         ImageRequest.Builder(context)
-            .data(url)
+            .data(avatar)
+            .setParameter(AvatarFetcher.FORCE_REFRESH, refresh, memoryCacheKey = null)
             .memoryCachePolicy(cachePolicy)
-            .diskCachePolicy(cachePolicy)
             .crossfade(true)
             .build()
     }
-    val coroutineScope = rememberCoroutineScope()
-    AvatarCacheEffect(state, isDark)
     AsyncImage(
         model = model,
         contentDescription = stringResource(R.string.avatar),
         contentScale = ContentScale.Crop,
         placeholder = painterResource(R.drawable.account_circle_96dp),
         error = painterResource(R.drawable.account_circle_96dp),
-        onSuccess = { successState ->
-            if (state.avatarRefreshKey > 0 && !state.avatarIsDeleted) {
-                val otherUrl = ApiUtils.getUrlForAvatar(
-                    user?.baseUrl,
-                    user?.userId,
-                    requestBigSize = true,
-                    darkMode = !isDark
-                )
-                copyAvatarToOtherThemeCache(successState, context, otherUrl, url, coroutineScope)
-            }
-        },
+        onSuccess = { loadedRefreshKey = state.avatarRefreshKey },
         modifier = Modifier
             .size(avatarSize)
             .clip(CircleShape)
     )
 }
 
-/**
- * Side-effect composable that evicts stale avatar cache entries and, for the delete case,
- * prefetches the other theme's server-generated avatar whenever [ProfileUiState.avatarRefreshKey]
- * changes.
- */
-@OptIn(ExperimentalCoilApi::class)
-@Composable
-private fun AvatarCacheEffect(state: ProfileUiState, isDark: Boolean) {
-    val context = LocalContext.current
-    val user = state.currentUser
-    LaunchedEffect(state.avatarRefreshKey) {
-        if (state.avatarRefreshKey > 0) {
-            val imageLoader = context.imageLoader
-            val urlLight =
-                ApiUtils.getUrlForAvatar(user?.baseUrl, user?.userId, requestBigSize = true, darkMode = false)
-            val urlDark = ApiUtils.getUrlForAvatar(user?.baseUrl, user?.userId, requestBigSize = true, darkMode = true)
-            // Evict both theme variants so no stale image survives in either cache layer.
-            listOf(urlLight, urlDark).forEach { variantUrl ->
-                imageLoader.memoryCache?.let { cache ->
-                    cache.keys.filter { it.key == variantUrl }.forEach { cache.remove(it) }
-                }
-                imageLoader.diskCache?.remove(variantUrl)
-            }
-            // Delete: server returns different theme-aware avatars per URL, so the other theme
-            // must be fetched independently via a dedicated network request.
-            if (state.avatarIsDeleted) {
-                val otherUrl = if (isDark) urlLight else urlDark
-                imageLoader.enqueue(
-                    ImageRequest.Builder(context)
-                        .data(otherUrl)
-                        .memoryCachePolicy(CachePolicy.WRITE_ONLY)
-                        .diskCachePolicy(CachePolicy.WRITE_ONLY)
-                        .build()
-                )
-            }
-            // Upload/picker/camera: the other theme's cache is populated via onSuccess once the
-            // current theme's image has been fetched, avoiding a redundant network request.
-        }
-    }
-}
-
 @Composable
 fun AvatarSection(state: ProfileUiState, callbacks: ProfileCallbacks, modifier: Modifier) {
     Column(modifier = modifier.padding(top = 16.dp), horizontalAlignment = Alignment.CenterHorizontally) {
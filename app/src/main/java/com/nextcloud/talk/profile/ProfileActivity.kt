@@ -575,8 +575,7 @@ class ProfileActivity : BaseActivity() {
 
                 override fun onNext(genericOverall: GenericOverall) {
                     profileUiState = profileUiState.copy(
-                        avatarRefreshKey = profileUiState.avatarRefreshKey + 1,
-                        avatarIsDeleted = true
+                        avatarRefreshKey = profileUiState.avatarRefreshKey + 1
                     )
                 }
 
@@ -607,8 +606,7 @@ class ProfileActivity : BaseActivity() {
 
                 override fun onNext(genericOverall: GenericOverall) {
                     profileUiState = profileUiState.copy(
-                        avatarRefreshKey = profileUiState.avatarRefreshKey + 1,
-                        avatarIsDeleted = false
+                        avatarRefreshKey = profileUiState.avatarRefreshKey + 1
                     )
                 }
 
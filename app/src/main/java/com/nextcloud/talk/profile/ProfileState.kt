@@ -27,9 +27,6 @@ data class ProfileUiState(
     val currentUser: User? = null,
     /** Increment to tell the avatar composable to reload (e.g. after upload/delete). */
     val avatarRefreshKey: Int = 0,
-    /** True when the most recent avatar action was a delete (server-generated avatars differ per
-     *  theme); false for upload/choose/camera (same image for both themes). */
-    val avatarIsDeleted: Boolean = false,
     val isEditMode: Boolean = false,
     val showAvatarButtons: Boolean = false,
     val showProfileEnabledCard: Boolean = false,
@@ -25,11 +25,11 @@ import autodagger.AutoInjector
 import com.nextcloud.talk.R
 import com.nextcloud.talk.api.NcApi
 import com.nextcloud.talk.application.NextcloudTalkApplication
+import com.nextcloud.talk.avatar.Avatar
 import com.nextcloud.talk.data.user.model.User
 import com.nextcloud.talk.models.json.chat.ChatOverallSingleMessage
 import com.nextcloud.talk.users.UserManager
 import com.nextcloud.talk.utils.ApiUtils
-import com.nextcloud.talk.utils.DisplayUtils
 import com.nextcloud.talk.utils.NotificationUtils
 import com.nextcloud.talk.utils.bundle.BundleKeys.KEY_INTERNAL_USER_ID
 import com.nextcloud.talk.utils.bundle.BundleKeys.KEY_ROOM_TOKEN
@@ -155,15 +155,10 @@ class DirectReplyReceiver : BroadcastReceiver() {
 
         // Add reply
         Single.fromCallable {
-            val avatarUrl = ApiUtils.getUrlForAvatar(
-                currentUser.baseUrl!!,
-                currentUser.userId,
-                false,
-                darkMode = DisplayUtils.isDarkModeOn(context)
-            )
+            val avatar = Avatar.ofUser(currentUser, currentUser.userId!!)
             val me = Person.Builder()
                 .setName(currentUser.displayName)
-                .setIcon(NotificationUtils.loadAvatarSync(avatarUrl, context))
+                .setIcon(NotificationUtils.loadAvatarSync(avatar, context))
                 .build()
             val message = NotificationCompat.MessagingStyle.Message(reply, System.currentTimeMillis(), me)
             previousStyle?.addMessage(message)
@@ -25,5 +25,6 @@ data class RemoteFileBrowserItem(
     var isFavorite: Boolean = false,
     var isEncrypted: Boolean = false,
     var permissions: String? = null,
-    var isAllowedToReShare: Boolean = false
+    var isAllowedToReShare: Boolean = false,
+    var etag: String? = null
 ) : Parcelable
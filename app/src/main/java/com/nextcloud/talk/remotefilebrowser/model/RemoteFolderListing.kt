@@ -0,0 +1,12 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package com.nextcloud.talk.remotefilebrowser.model
+
+/**
+ * The members of a remote folder together with the folder's own ETag at the time they were listed.
+ */
+data class RemoteFolderListing(val etag: String?, val items: List<RemoteFileBrowserItem>)
@@ -6,30 +6,75 @@
  */
 package com.nextcloud.talk.remotefilebrowser.repositories
 
+import android.util.Log
 import com.nextcloud.talk.filebrowser.webdav.ReadFolderListingOperation
 import com.nextcloud.talk.data.user.model.User
 import com.nextcloud.talk.remotefilebrowser.model.RemoteFileBrowserItem
+import com.nextcloud.talk.remotefilebrowser.model.RemoteFolderListing
+import com.nextcloud.talk.utils.Mimetype.FOLDER
+import io.reactivex.Completable
 import io.reactivex.Observable
+import io.reactivex.Scheduler
 import okhttp3.OkHttpClient
-import javax.inject.Inject
-
-class RemoteFileBrowserItemsRepositoryImpl @Inject constructor(private val okHttpClient: OkHttpClient) :
-    RemoteFileBrowserItemsRepository {
-
-    override fun listFolder(user: User, path: String): Observable<List<RemoteFileBrowserItem>> {
-        return Observable.fromCallable {
-            val operation =
-                ReadFolderListingOperation(
-                    okHttpClient,
-                    user,
-                    path,
-                    1
-                )
-            val davResponse = operation.readRemotePath()
-            if (davResponse.getData() != null) {
-                return@fromCallable davResponse.getData() as List<RemoteFileBrowserItem>
+
+/**
+ * Lists remote folders cache-first: a cached listing is emitted right away and only replaced when a depth-0
+ * PROPFIND shows that the folder's ETag changed. After a listing, the first few subfolders whose ETag differs from
+ * their cached listing are prefetched in the background, so navigating into them renders instantly as well.
+ */
+class RemoteFileBrowserItemsRepositoryImpl(
+    private val okHttpClient: OkHttpClient,
+    private val listingCache: RemoteFolderListingCache,
+    private val prefetchScheduler: Scheduler
+) : RemoteFileBrowserItemsRepository {
+
+    override fun listFolder(user: User, path: String): Observable<List<RemoteFileBrowserItem>> =
+        Observable.create { emitter ->
+            val operation = ReadFolderListingOperation(okHttpClient, user, path, 1)
+            val cached = listingCache.get(user.id!!, path)
+            // subscribers get their own copies: the cached list is shared with the subfolder prefetch
+            if (cached != null) {
+                emitter.onNext(cached.items.toList())
+            }
+
+            val listing = if (cached?.etag != null && operation.readFolderETag() == cached.etag) {
+                cached
+            } else {
+                operation.readFolderListing()?.also {
+                    listingCache.put(user.id!!, path, it)
+                    emitter.onNext(it.items.toList())
+                }
+            }
+
+            if (listing == null && cached == null) {
+                emitter.onNext(emptyList())
             }
-            return@fromCallable emptyList()
+            emitter.onComplete()
+
+            listing?.let { prefetchSubfolders(user, it) }
+        }
+
+    private fun prefetchSubfolders(user: User, listing: RemoteFolderListing) {
+        val outdatedFolders = listing.items
+            .filter { it.mimeType == FOLDER && it.path != null }
+            .filter { folder -> folder.etag == null || listingCache.get(user.id!!, folder.path!!)?.etag != folder.etag }
+            .take(MAX_PREFETCHED_FOLDERS)
+        if (outdatedFolders.isEmpty()) {
+            return
         }
+
+        Completable.fromAction {
+            for (folder in outdatedFolders) {
+                ReadFolderListingOperation(okHttpClient, user, folder.path!!, 1).readFolderListing()?.let {
+                    listingCache.put(user.id!!, folder.path!!, it)
+                }
+            }
+        }.subscribeOn(prefetchScheduler)
+            .subscribe({}, { Log.w(TAG, "Prefetching subfolders failed: $it") })
+    }
+
+    companion object {
+        private val TAG = RemoteFileBrowserItemsRepositoryImpl::class.java.simpleName
+        private const val MAX_PREFETCHED_FOLDERS = 5
     }
 }
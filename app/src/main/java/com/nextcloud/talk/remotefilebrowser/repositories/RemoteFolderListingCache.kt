@@ -0,0 +1,36 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package com.nextcloud.talk.remotefilebrowser.repositories
+
+import com.nextcloud.talk.remotefilebrowser.model.RemoteFolderListing
+
+/**
+ * In-memory cache of remote folder listings per account and path, evicting the least recently used folders.
+ */
+class RemoteFolderListingCache(private val maxFolders: Int = DEFAULT_MAX_FOLDERS) {
+
+    private val listings = object : LinkedHashMap<String, RemoteFolderListing>(maxFolders, LOAD_FACTOR, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, RemoteFolderListing>?): Boolean =
+            size > maxFolders
+    }
+
+    @Synchronized
+    fun get(accountId: Long, path: String): RemoteFolderListing? = listings[key(accountId, path)]
+
+    @Synchronized
+    fun put(accountId: Long, path: String, listing: RemoteFolderListing) {
+        listings[key(accountId, path)] = listing
+    }
+
+    // navigating into a folder uses its href ("/a/"), navigating up the parent path ("/a")
+    private fun key(accountId: Long, path: String) = "$accountId:${path.trimEnd('/')}"
+
+    companion object {
+        private const val DEFAULT_MAX_FOLDERS = 64
+        private const val LOAD_FACTOR = 0.75f
+    }
+}
@@ -78,6 +78,8 @@ constructor(
     val currentPath: LiveData<String>
         get() = _currentPath
 
+    private var listingDisposable: Disposable? = null
+
     private val _selectedPaths: MutableLiveData<Set<String>> = MutableLiveData(emptySet())
     val selectedPaths: LiveData<Set<String>>
         get() = _selectedPaths
@@ -98,6 +100,8 @@ constructor(
 
     fun loadItems() {
         _viewState.value = LoadingItemsState
+        // a slow listing of the previous folder must not replace the one navigated to
+        listingDisposable?.dispose()
         repository.listFolder(
             currentUser,
             currentPath.value!!
@@ -106,31 +110,39 @@ constructor(
             ?.subscribe(RemoteFileBrowserItemsObserver())
     }
 
-    inner class RemoteFileBrowserItemsObserver : Observer<List<RemoteFileBrowserItem>> {
+    override fun onCleared() {
+        super.onCleared()
+        listingDisposable?.dispose()
+    }
 
-        var newRemoteFileBrowserItems: List<RemoteFileBrowserItem>? = null
+    /**
+     * Receives the cached listing of a folder first, if there is one, and the listing from the server afterwards
+     * if the folder changed in the meantime.
+     */
+    inner class RemoteFileBrowserItemsObserver : Observer<List<RemoteFileBrowserItem>> {
 
-        override fun onSubscribe(d: Disposable) = Unit
+        override fun onSubscribe(d: Disposable) {
+            listingDisposable = d
+        }
 
         override fun onNext(response: List<RemoteFileBrowserItem>) {
-            newRemoteFileBrowserItems = fileSortOrder.value!!.sortCloudFiles(response)
+            if (response.isEmpty()) {
+                this@RemoteFileBrowserItemsViewModel._viewState.value = NoRemoteFileItemsState
+            } else {
+                // the sort orders sort in place
+                setCurrentState(fileSortOrder.value!!.sortCloudFiles(response.toList()))
+            }
         }
 
         override fun onError(e: Throwable) {
             Log.d(TAG, "An error occurred: $e")
         }
 
-        override fun onComplete() {
-            if (newRemoteFileBrowserItems.isNullOrEmpty()) {
-                this@RemoteFileBrowserItemsViewModel._viewState.value = NoRemoteFileItemsState
-            } else {
-                setCurrentState(newRemoteFileBrowserItems!!)
-            }
-        }
+        override fun onComplete() = Unit
 
         private fun setCurrentState(items: List<RemoteFileBrowserItem>) {
             when (this@RemoteFileBrowserItemsViewModel._viewState.value) {
-                is LoadedState, LoadingItemsState -> {
+                is LoadedState, LoadingItemsState, NoRemoteFileItemsState -> {
                     this@RemoteFileBrowserItemsViewModel._viewState.value = LoadedState(items)
                 }
                 else -> return
@@ -144,7 +156,7 @@ constructor(
             _fileSortOrder.value = newSortOrder
             val currentState = viewState.value
             if (currentState is LoadedState) {
-                val sortedItems = newSortOrder.sortCloudFiles(currentState.items)
+                val sortedItems = newSortOrder.sortCloudFiles(currentState.items.toList())
                 _viewState.value = LoadedState(sortedItems)
             }
         }
@@ -28,7 +28,19 @@ interface UnifiedSearchRepository {
         limit: Int = DEFAULT_PAGE_SIZE
     ): UnifiedSearchResults<SearchMessageEntry>
 
+    /**
+     * Messages of the account that are cached locally and contain [searchTerm], newest first. Searches the room with
+     * [roomToken], or all rooms if it is null.
+     */
+    suspend fun searchCachedMessages(
+        accountId: Long,
+        roomToken: String?,
+        searchTerm: String,
+        limit: Int = DEFAULT_CACHED_LIMIT
+    ): List<SearchMessageEntry>
+
     companion object {
         private const val DEFAULT_PAGE_SIZE = 5
+        private const val DEFAULT_CACHED_LIMIT = 20
     }
 }
@@ -8,11 +8,16 @@
 package com.nextcloud.talk.repositories.unifiedsearch
 
 import com.nextcloud.talk.api.NcApiCoroutines
+import com.nextcloud.talk.data.database.dao.ChatMessagesDao
+import com.nextcloud.talk.data.database.model.ChatMessageEntity
 import com.nextcloud.talk.models.domain.SearchMessageEntry
 import com.nextcloud.talk.models.json.unifiedsearch.UnifiedSearchEntry
 import com.nextcloud.talk.models.json.unifiedsearch.UnifiedSearchResponseData
 
-class UnifiedSearchRepositoryImpl(private val api: NcApiCoroutines) : UnifiedSearchRepository {
+class UnifiedSearchRepositoryImpl(
+    private val api: NcApiCoroutines,
+    private val chatMessagesDao: ChatMessagesDao
+) : UnifiedSearchRepository {
 
     override suspend fun searchMessages(
         credentials: String?,
@@ -52,6 +57,15 @@ class UnifiedSearchRepositoryImpl(private val api: NcApiCoroutines) : UnifiedSea
         return mapToMessageResults(result.ocs?.data!!, searchTerm, limit)
     }
 
+    override suspend fun searchCachedMessages(
+        accountId: Long,
+        roomToken: String?,
+        searchTerm: String,
+        limit: Int
+    ): List<SearchMessageEntry> =
+        chatMessagesDao.searchMessages(accountId, roomToken, escapeLikePattern(searchTerm), limit)
+            .map { mapToMessage(it, searchTerm) }
+
     private fun fromUrlForRoom(roomToken: String) = "/call/$roomToken"
 
     companion object {
@@ -73,6 +87,25 @@ class UnifiedSearchRepositoryImpl(private val api: NcApiCoroutines) : UnifiedSea
             return UnifiedSearchRepository.UnifiedSearchResults(cursor, hasMore, entries ?: emptyList())
         }
 
+        private fun escapeLikePattern(searchTerm: String): String =
+            searchTerm.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_")
+
+        private fun mapToMessage(message: ChatMessageEntity, searchTerm: String): SearchMessageEntry {
+            var text = message.message
+            message.messageParameters?.forEach { (key, parameter) ->
+                parameter["name"]?.let { text = text.replace("{$key}", it) }
+            }
+            return SearchMessageEntry(
+                searchTerm = searchTerm,
+                thumbnailURL = null,
+                title = message.actorDisplayName,
+                messageExcerpt = text,
+                conversationToken = message.token,
+                threadId = message.threadId?.toString(),
+                messageId = message.id.toString()
+            )
+        }
+
         private fun mapToMessage(unifiedSearchEntry: UnifiedSearchEntry, searchTerm: String): SearchMessageEntry {
             val conversation = unifiedSearchEntry.attributes?.get(ATTRIBUTE_CONVERSATION)!!
             val messageId = unifiedSearchEntry.attributes?.get(ATTRIBUTE_MESSAGE_ID)
@@ -95,7 +95,7 @@ class SharedItemsAdapter(
         val canPin = isOne2One || isUserConversationOwnerOrModerator
         if (canPin) {
             credentials?.let {
-                (context as SharedItemsActivity).chatViewModel.unPinMessage(credentials, url)
+                (context as SharedItemsActivity).chatViewModel.unPinMessage(credentials, url, item.id.toLong())
                 val index = items.indexOf(item)
                 items.remove(item)
                 this.notifyItemRemoved(index)
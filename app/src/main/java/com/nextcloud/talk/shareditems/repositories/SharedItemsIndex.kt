@@ -0,0 +1,184 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.shareditems.repositories
+
+import com.nextcloud.talk.chat.data.model.ChatMessage
+import com.nextcloud.talk.data.database.dao.SharedItemsDao
+import com.nextcloud.talk.data.database.model.ChatMessageEntity
+import com.nextcloud.talk.data.database.model.SharedItemEntity
+import com.nextcloud.talk.data.database.model.SharedItemsRangeEntity
+import com.nextcloud.talk.models.json.chat.ChatMessageJson
+import com.nextcloud.talk.shareditems.model.SharedItemType
+import javax.inject.Inject
+
+/**
+ * Local index of the shared items of all conversations, derived from the chat messages that are persisted
+ * anyway (chat sync and signaling) and from the shared item pages the server returned.
+ *
+ * Entries derived from chat messages make the shared items of a conversation available instantly and offline, but
+ * they may have gaps. Only for message id ranges the server confirmed (see [storeServerPage]) the index is known to
+ * be complete, so only those pages are served without asking the server again.
+ */
+class SharedItemsIndex @Inject constructor(private val dao: SharedItemsDao) {
+
+    data class LocalPage(val items: List<SharedItemEntity>, val complete: Boolean)
+
+    fun indexMessages(internalConversationId: String, messages: List<ChatMessageEntity>) {
+        val deletedMessageIds = messages.filter { isDeleted(it) }.map { it.id }
+        val items = messages.filterNot { isDeleted(it) }.mapNotNull { message ->
+            typeOf(message.messageType, message.messageParameters, message.systemMessageType)?.let { type ->
+                SharedItemEntity(
+                    internalConversationId = internalConversationId,
+                    type = type.name,
+                    messageId = message.id,
+                    accountId = message.accountId,
+                    token = message.token,
+                    actorId = message.actorId,
+                    actorDisplayName = message.actorDisplayName,
+                    message = message.message,
+                    messageParameters = message.messageParameters,
+                    timestamp = message.timestamp
+                )
+            }
+        }
+        if (deletedMessageIds.isEmpty() && items.isEmpty()) {
+            return
+        }
+        dao.replaceSharedItemsOfMessages(internalConversationId, deletedMessageIds + items.map { it.messageId }, items)
+    }
+
+    fun removeItemsOlderThan(internalConversationId: String, messageId: Long) {
+        dao.deleteSharedItemsOlderThan(internalConversationId, messageId)
+    }
+
+    /**
+     * Stores a page of shared items the server returned for a keyset request. The page is the complete set of
+     * items of [type] between its oldest item (or the start of the conversation, if there are no more items) and
+     * [lastKnownMessageId] (or its newest item for the first page).
+     */
+    @Suppress("LongParameterList")
+    fun storeServerPage(
+        accountId: Long,
+        roomToken: String,
+        type: SharedItemType,
+        messages: List<ChatMessageJson>,
+        lastKnownMessageId: Int?,
+        moreItemsExisting: Boolean
+    ) {
+        val newestMessageId = lastKnownMessageId?.let { it - 1L } ?: messages.maxOfOrNull { it.id } ?: return
+        val oldestMessageId = if (moreItemsExisting) {
+            messages.minOfOrNull { it.id } ?: return
+        } else {
+            0L
+        }
+        val internalConversationId = "$accountId@$roomToken"
+        val items = messages.map {
+            SharedItemEntity(
+                internalConversationId = internalConversationId,
+                type = type.name,
+                messageId = it.id,
+                accountId = accountId,
+                token = roomToken,
+                actorId = it.actorId.orEmpty(),
+                actorDisplayName = it.actorDisplayName.orEmpty(),
+                message = it.message.orEmpty(),
+                messageParameters = it.messageParameters,
+                timestamp = it.timestamp
+            )
+        }
+        dao.replaceSharedItemsInRange(
+            SharedItemsRangeEntity(
+                internalConversationId = internalConversationId,
+                type = type.name,
+                oldestMessageId = oldestMessageId,
+                newestMessageId = newestMessageId
+            ),
+            items
+        )
+    }
+
+    /**
+     * Returns the next page of locally known items older than [lastKnownMessageId]. The newest page is never
+     * [LocalPage.complete], as items shared while the app was not syncing the conversation may be missing.
+     */
+    fun getPage(
+        internalConversationId: String,
+        type: SharedItemType,
+        lastKnownMessageId: Int?,
+        limit: Int
+    ): LocalPage {
+        val items = dao.getSharedItems(
+            internalConversationId,
+            type.name,
+            lastKnownMessageId?.toLong() ?: Long.MAX_VALUE,
+            limit
+        )
+        if (lastKnownMessageId == null) {
+            return LocalPage(items, complete = false)
+        }
+        val oldestMessageId = if (items.size < limit) 0L else items.last().messageId
+        val complete = dao.countRangesCovering(
+            internalConversationId,
+            type.name,
+            oldestMessageId,
+            lastKnownMessageId - 1L
+        ) > 0
+        return LocalPage(items, complete)
+    }
+
+    fun getTypes(internalConversationId: String): Set<SharedItemType> =
+        dao.getSharedItemTypes(internalConversationId).mapNotNull { name ->
+            SharedItemType.entries.firstOrNull { it.name == name }
+        }.toSet()
+
+    private fun isDeleted(message: ChatMessageEntity): Boolean =
+        message.deleted || message.messageType == MESSAGE_TYPE_COMMENT_DELETED
+
+    companion object {
+        private const val MESSAGE_TYPE_COMMENT_DELETED = "comment_deleted"
+        private const val MESSAGE_TYPE_VOICE = "voice-message"
+        private const val MESSAGE_TYPE_RECORD_AUDIO = "record-audio"
+        private const val MESSAGE_TYPE_RECORD_VIDEO = "record-video"
+
+        /**
+         * Files the message under the shared item type the server would list it under, or returns null if it is
+         * not a shared item. Pinned messages are left to the server, as the pin state is not part of the message.
+         */
+        fun typeOf(
+            messageType: String?,
+            messageParameters: Map<String?, Map<String?, String?>>?,
+            systemMessageType: ChatMessage.SystemMessageType? = ChatMessage.SystemMessageType.DUMMY
+        ): SharedItemType? {
+            if (systemMessageType != ChatMessage.SystemMessageType.DUMMY) {
+                return null
+            }
+            val file = messageParameters?.get("file")
+            val richObject = messageParameters?.get("object")
+            return when {
+                file != null -> fileTypeOf(messageType, file["mimetype"].orEmpty())
+                richObject != null -> when (richObject["type"]) {
+                    "talk-poll" -> SharedItemType.POLL
+                    "geo-location" -> SharedItemType.LOCATION
+                    "deck-card" -> SharedItemType.DECKCARD
+                    else -> SharedItemType.OTHER
+                }
+                else -> null
+            }
+        }
+
+        private fun fileTypeOf(messageType: String?, mimeType: String): SharedItemType =
+            when {
+                messageType == MESSAGE_TYPE_VOICE -> SharedItemType.VOICE
+                messageType == MESSAGE_TYPE_RECORD_AUDIO || messageType == MESSAGE_TYPE_RECORD_VIDEO ->
+                    SharedItemType.RECORDING
+                mimeType.startsWith("image/") || mimeType.startsWith("video/") -> SharedItemType.MEDIA
+                mimeType.startsWith("audio/") -> SharedItemType.AUDIO
+                else -> SharedItemType.FILE
+            }
+    }
+}
@@ -19,5 +19,14 @@ interface SharedItemsRepository {
 
     fun availableTypes(parameters: Parameters): Observable<Set<SharedItemType>>
 
-    data class Parameters(val userName: String, val userToken: String, val baseUrl: String, val roomToken: String)
+    data class Parameters(
+        val userName: String,
+        val userToken: String,
+        val baseUrl: String,
+        val roomToken: String,
+        val accountId: Long
+    ) {
+        val internalConversationId: String
+            get() = "$accountId@$roomToken"
+    }
 }
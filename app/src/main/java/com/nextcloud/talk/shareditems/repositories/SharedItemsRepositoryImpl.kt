@@ -7,11 +7,14 @@
  */
 package com.nextcloud.talk.shareditems.repositories
 
+import android.database.sqlite.SQLiteConstraintException
 import android.util.Log
 import androidx.core.net.toUri
 import com.nextcloud.talk.R
 import com.nextcloud.talk.api.NcApi
 import com.nextcloud.talk.application.NextcloudTalkApplication.Companion.sharedApplication
+import com.nextcloud.talk.data.database.model.SharedItemEntity
+import com.nextcloud.talk.models.json.chat.ChatMessageJson
 import com.nextcloud.talk.models.json.chat.ChatShareOverall
 import com.nextcloud.talk.shareditems.model.SharedDeckCardItem
 import com.nextcloud.talk.shareditems.model.SharedFileItem
@@ -30,8 +33,16 @@ import retrofit2.Response
 import java.util.Locale
 import javax.inject.Inject
 
-class SharedItemsRepositoryImpl @Inject constructor(private val ncApi: NcApi, private val dateUtils: DateUtils) :
-    SharedItemsRepository {
+/**
+ * Serves shared items local-first: pages are read from the [SharedItemsIndex] and emitted right away, then
+ * revalidated with a keyset request to the server whose result is written back to the index. Older pages the
+ * server already confirmed are served from the index alone.
+ */
+class SharedItemsRepositoryImpl @Inject constructor(
+    private val ncApi: NcApi,
+    private val dateUtils: DateUtils,
+    private val sharedItemsIndex: SharedItemsIndex
+) : SharedItemsRepository {
 
     override fun media(parameters: SharedItemsRepository.Parameters, type: SharedItemType): Observable<SharedItems>? =
         media(parameters, type, null)
@@ -41,6 +52,47 @@ class SharedItemsRepositoryImpl @Inject constructor(private val ncApi: NcApi, pr
         type: SharedItemType,
         lastKnownMessageId: Int?
     ): Observable<SharedItems>? {
+        if (type == SharedItemType.PINNED) {
+            // the pin state is not part of chat messages, so pinned items are not indexed
+            return remoteMedia(parameters, type, lastKnownMessageId)
+        }
+
+        return Observable.fromCallable {
+            sharedItemsIndex.getPage(parameters.internalConversationId, type, lastKnownMessageId, BATCH_SIZE)
+        }.flatMap { localMedia(parameters, type, lastKnownMessageId, it) }
+    }
+
+    private fun localMedia(
+        parameters: SharedItemsRepository.Parameters,
+        type: SharedItemType,
+        lastKnownMessageId: Int?,
+        page: SharedItemsIndex.LocalPage
+    ): Observable<SharedItems> {
+        val localItems = page.items.mapNotNull { sharedItemFromIndex(it, parameters) }
+        val lastSeenId = page.items.lastOrNull()?.messageId?.toInt() ?: lastKnownMessageId
+        val moreLocalItems = page.items.size == BATCH_SIZE
+
+        return when {
+            page.complete -> Observable.just(SharedItems(localItems, type, lastSeenId, moreLocalItems))
+
+            localItems.isEmpty() -> remoteMedia(parameters, type, lastKnownMessageId)
+
+            else -> Observable.concat(
+                // no paging until the server answered, the index may have gaps
+                Observable.just(SharedItems(localItems, type, lastSeenId, false)),
+                remoteMedia(parameters, type, lastKnownMessageId).onErrorReturn {
+                    Log.w(TAG, "Failed to load shared items, showing the locally known ones: $it")
+                    SharedItems(localItems, type, lastSeenId, moreLocalItems)
+                }
+            )
+        }
+    }
+
+    private fun remoteMedia(
+        parameters: SharedItemsRepository.Parameters,
+        type: SharedItemType,
+        lastKnownMessageId: Int?
+    ): Observable<SharedItems> {
         val credentials = ApiUtils.getCredentials(parameters.userName, parameters.userToken)
 
         return ncApi.getSharedItems(
@@ -49,16 +101,17 @@ class SharedItemsRepositoryImpl @Inject constructor(private val ncApi: NcApi, pr
             type.toString().lowercase(Locale.ROOT),
             lastKnownMessageId,
             BATCH_SIZE
-        ).map { map(it, parameters, type) }
+        ).map { map(it, parameters, type, lastKnownMessageId) }
     }
 
     private fun map(
         response: Response<ChatShareOverall>,
         parameters: SharedItemsRepository.Parameters,
-        type: SharedItemType
+        type: SharedItemType,
+        lastKnownMessageId: Int?
     ): SharedItems {
         var chatLastGiven: Int? = null
-        val items = mutableMapOf<String, SharedItem>()
+        val items = mutableMapOf<Long, SharedItem>()
 
         if (response.headers()["x-chat-last-given"] != null) {
             chatLastGiven = response.headers()["x-chat-last-given"]!!.toInt()
@@ -84,33 +137,11 @@ class SharedItemsRepositoryImpl @Inject constructor(private val ncApi: NcApi, pr
                         metaData.pinnedActorDisplayName!!,
                         dateTime
                     )
-                    items[it.value.id.toString()] = sharedItem
-                } else if (it.value.messageParameters?.containsKey("file") == true) {
-                    val fileParameters = it.value.messageParameters!!["file"]!!
-                    val actorParameters = it.value.messageParameters!!["actor"]!!
-
-                    val previewAvailable =
-                        "yes".equals(fileParameters["preview-available"]!!, ignoreCase = true)
-
-                    items[it.value.id.toString()] = SharedFileItem(
-                        fileParameters["id"]!!,
-                        fileParameters["name"]!!,
-                        actorParameters["id"]!!,
-                        actorParameters["name"]!!,
-                        dateTime,
-                        fileParameters["size"]!!.toLong(),
-                        fileParameters["path"]!!,
-                        fileParameters["link"]!!,
-                        fileParameters["mimetype"]!!,
-                        previewAvailable,
-                        previewLink(fileParameters["id"], parameters.baseUrl!!)
-                    )
-                } else if (it.value.messageParameters?.containsKey("object") == true) {
-                    val objectParameters = it.value.messageParameters!!["object"]!!
-                    val actorParameters = it.value.messageParameters!!["actor"]!!
-                    items[it.value.id.toString()] = itemFromObject(objectParameters, actorParameters, dateTime)
+                    items[it.value.id] = sharedItem
                 } else {
-                    Log.w(TAG, "Item contains neither 'file' or 'object'.")
+                    sharedItemFromParameters(it.value.messageParameters, dateTime, parameters.baseUrl)?.let { item ->
+                        items[it.value.id] = item
+                    }
                 }
             }
         }
@@ -118,6 +149,10 @@ class SharedItemsRepositoryImpl @Inject constructor(private val ncApi: NcApi, pr
         val sortedMutableItems = items.toSortedMap().values.toList().reversed().toMutableList()
         val moreItemsExisting = items.count() == BATCH_SIZE
 
+        if (mediaItems != null && type != SharedItemType.PINNED) {
+            storeInIndex(parameters, type, mediaItems.values.toList(), lastKnownMessageId, moreItemsExisting)
+        }
+
         return SharedItems(
             sortedMutableItems,
             type,
@@ -126,6 +161,70 @@ class SharedItemsRepositoryImpl @Inject constructor(private val ncApi: NcApi, pr
         )
     }
 
+    private fun storeInIndex(
+        parameters: SharedItemsRepository.Parameters,
+        type: SharedItemType,
+        messages: List<ChatMessageJson>,
+        lastKnownMessageId: Int?,
+        moreItemsExisting: Boolean
+    ) {
+        try {
+            sharedItemsIndex.storeServerPage(
+                parameters.accountId,
+                parameters.roomToken,
+                type,
+                messages,
+                lastKnownMessageId,
+                moreItemsExisting
+            )
+        } catch (e: SQLiteConstraintException) {
+            // the conversation is not stored locally (yet), so there is nothing to attach the items to
+            Log.w(TAG, "Skip indexing shared items: conversation not in DB yet. Swallowed exception: $e")
+        }
+    }
+
+    private fun sharedItemFromIndex(
+        entity: SharedItemEntity,
+        parameters: SharedItemsRepository.Parameters
+    ): SharedItem? {
+        val dateTime = dateUtils.getLocalDateTimeStringFromTimestamp(entity.timestamp * DateConstants.SECOND_DIVIDER)
+        return sharedItemFromParameters(entity.messageParameters, dateTime, parameters.baseUrl)
+    }
+
+    private fun sharedItemFromParameters(
+        messageParameters: HashMap<String?, HashMap<String?, String?>>?,
+        dateTime: String,
+        baseUrl: String
+    ): SharedItem? =
+        if (messageParameters?.containsKey("file") == true) {
+            val fileParameters = messageParameters["file"]!!
+            val actorParameters = messageParameters["actor"]!!
+
+            val previewAvailable =
+                "yes".equals(fileParameters["preview-available"]!!, ignoreCase = true)
+
+            SharedFileItem(
+                fileParameters["id"]!!,
+                fileParameters["name"]!!,
+                actorParameters["id"]!!,
+                actorParameters["name"]!!,
+                dateTime,
+                fileParameters["size"]!!.toLong(),
+                fileParameters["path"]!!,
+                fileParameters["link"]!!,
+                fileParameters["mimetype"]!!,
+                previewAvailable,
+                previewLink(fileParameters["id"], baseUrl)
+            )
+        } else if (messageParameters?.containsKey("object") == true) {
+            val objectParameters = messageParameters["object"]!!
+            val actorParameters = messageParameters["actor"]!!
+            itemFromObject(objectParameters, actorParameters, dateTime)
+        } else {
+            Log.w(TAG, "Item contains neither 'file' or 'object'.")
+            null
+        }
+
     private fun itemFromObject(
         objectParameters: HashMap<String?, String?>,
         actorParameters: HashMap<String?, String?>,
@@ -204,6 +303,9 @@ class SharedItemsRepositoryImpl @Inject constructor(private val ncApi: NcApi, pr
             }
 
             types.toSet()
+        }.onErrorReturn {
+            Log.w(TAG, "Failed to getSharedItemsOverview, using the locally known types: $it")
+            sharedItemsIndex.getTypes(parameters.internalConversationId)
         }
     }
 
@@ -12,6 +12,7 @@ import androidx.lifecycle.LiveData
 import androidx.lifecycle.MutableLiveData
 import androidx.lifecycle.ViewModel
 import com.nextcloud.talk.data.user.model.User
+import com.nextcloud.talk.shareditems.model.SharedItem
 import com.nextcloud.talk.shareditems.model.SharedItemType
 import com.nextcloud.talk.shareditems.model.SharedItems
 import com.nextcloud.talk.shareditems.repositories.SharedItemsRepository
@@ -25,6 +26,9 @@ class SharedItemsViewModel @Inject constructor(private val repository: SharedIte
 
     private lateinit var repositoryParameters: SharedItemsRepository.Parameters
 
+    private var itemsDisposable: Disposable? = null
+    private var isLoadingItems = false
+
     sealed interface ViewState
     object InitialState : ViewState
     object NoSharedItemsState : ViewState
@@ -44,7 +48,8 @@ class SharedItemsViewModel @Inject constructor(private val repository: SharedIte
             user.userId!!,
             user.token!!,
             user.baseUrl!!,
-            roomToken
+            roomToken,
+            user.id!!
         )
         loadAvailableTypes()
     }
@@ -90,9 +95,10 @@ class SharedItemsViewModel @Inject constructor(private val repository: SharedIte
         val state = _viewState.value
         if (state is TypesLoadedState) {
             _viewState.value = LoadingItemsState(state.types, type)
+            itemsDisposable?.dispose()
             repository.media(repositoryParameters, type)?.subscribeOn(Schedulers.io())
                 ?.observeOn(AndroidSchedulers.mainThread())
-                ?.subscribe(SharedMediaItemsObserver())
+                ?.subscribe(SharedMediaItemsObserver(emptyList()))
         }
     }
 
@@ -100,47 +106,51 @@ class SharedItemsViewModel @Inject constructor(private val repository: SharedIte
         when (val currentState = _viewState.value) {
             is LoadedState -> {
                 val currentSharedItems = currentState.items
-                if (currentSharedItems.moreItemsExisting) {
+                if (currentSharedItems.moreItemsExisting && !isLoadingItems) {
                     repository.media(repositoryParameters, currentState.selectedType, currentSharedItems.lastSeenId)
                         ?.subscribeOn(Schedulers.io())
                         ?.observeOn(AndroidSchedulers.mainThread())
-                        ?.subscribe(SharedMediaItemsObserver())
+                        ?.subscribe(SharedMediaItemsObserver(currentSharedItems.items))
                 }
             }
             else -> return
         }
     }
 
-    inner class SharedMediaItemsObserver : Observer<SharedItems> {
+    override fun onCleared() {
+        super.onCleared()
+        itemsDisposable?.dispose()
+    }
 
-        var newSharedItems: SharedItems? = null
+    /**
+     * A page can be emitted more than once, first from the local index and then as revalidated by the server.
+     * Every emission replaces the previous one of the same page, appended to the [previousItems].
+     */
+    inner class SharedMediaItemsObserver(private val previousItems: List<SharedItem>) : Observer<SharedItems> {
 
-        override fun onSubscribe(d: Disposable) = Unit
+        override fun onSubscribe(d: Disposable) {
+            itemsDisposable = d
+            isLoadingItems = true
+        }
 
         override fun onNext(response: SharedItems) {
-            newSharedItems = response
+            setCurrentState(
+                SharedItems(
+                    previousItems + response.items,
+                    response.type,
+                    response.lastSeenId,
+                    response.moreItemsExisting
+                )
+            )
         }
 
         override fun onError(e: Throwable) {
+            isLoadingItems = false
             Log.d(TAG, "An error occurred: $e")
         }
 
         override fun onComplete() {
-            val items = newSharedItems!!
-            val state = this@SharedItemsViewModel._viewState.value
-            if (state is LoadedState) {
-                val oldItems = state.items.items
-                val newItems =
-                    SharedItems(
-                        oldItems + newSharedItems!!.items,
-                        state.items.type,
-                        newSharedItems!!.lastSeenId,
-                        newSharedItems!!.moreItemsExisting
-                    )
-                setCurrentState(newItems)
-            } else {
-                setCurrentState(items)
-            }
+            isLoadingItems = false
         }
 
         private fun setCurrentState(items: SharedItems) {
@@ -7,17 +7,28 @@
 package com.nextcloud.talk.translate.repositories
 
 import com.nextcloud.talk.translate.repositories.model.Language
+import com.nextcloud.talk.translate.repositories.model.TranslationRequest
 import io.reactivex.Observable
 
 interface TranslateRepository {
 
+    /**
+     * Emits the translation of [request], from the local cache if the same text was translated before.
+     */
     fun translateMessage(
         authorization: String,
         url: String,
-        text: String,
-        toLanguage: String,
-        fromLanguage: String?
+        accountId: Long,
+        request: TranslationRequest
     ): Observable<String>
 
-    fun getLanguages(authorization: String, url: String): Observable<List<Language>>
+    /**
+     * Emits the languages supported by the server. The list is kept in memory for a while, as it rarely changes.
+     */
+    fun getLanguages(authorization: String, url: String, accountId: Long): Observable<List<Language>>
+
+    /**
+     * Deletes cached translations that are older than a month. Called by the daily cache maintenance.
+     */
+    fun deleteExpiredTranslations()
 }
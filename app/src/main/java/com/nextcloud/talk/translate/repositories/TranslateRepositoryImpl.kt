@@ -7,25 +7,98 @@
 package com.nextcloud.talk.translate.repositories
 
 import com.nextcloud.talk.api.NcApi
+import com.nextcloud.talk.data.database.dao.TranslationsDao
+import com.nextcloud.talk.data.database.model.TranslationEntity
 import com.nextcloud.talk.translate.repositories.model.Language
+import com.nextcloud.talk.translate.repositories.model.TranslationRequest
 import io.reactivex.Observable
-import javax.inject.Inject
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
 
-class TranslateRepositoryImpl @Inject constructor(private val ncApi: NcApi) : TranslateRepository {
+class TranslateRepositoryImpl(
+    private val ncApi: NcApi,
+    private val translationsDao: TranslationsDao,
+    private val clock: () -> Long = System::currentTimeMillis
+) : TranslateRepository {
+
+    private val inFlightTranslations = ConcurrentHashMap<String, Observable<String>>()
+    private val cachedLanguages = ConcurrentHashMap<Long, CachedLanguages>()
 
     override fun translateMessage(
         authorization: String,
         url: String,
-        text: String,
-        toLanguage: String,
-        fromLanguage: String?
+        accountId: Long,
+        request: TranslationRequest
     ): Observable<String> =
-        ncApi.translateMessage(authorization, url, text, toLanguage, fromLanguage).map {
-            it.ocs?.data!!.text
+        Observable.defer {
+            val cached = getCachedTranslation(accountId, request)
+            if (cached != null) {
+                Observable.just(cached)
+            } else {
+                fetchTranslation(authorization, url, accountId, request)
+            }
+        }
+
+    override fun getLanguages(authorization: String, url: String, accountId: Long): Observable<List<Language>> =
+        Observable.defer {
+            val cached = cachedLanguages[accountId]
+            if (cached != null && clock() - cached.fetchedAt < LANGUAGES_MAX_AGE_MILLIS) {
+                Observable.just(cached.languages)
+            } else {
+                ncApi.getLanguages(authorization, url)
+                    .map { it.ocs?.data?.languages.orEmpty() }
+                    .doOnNext { cachedLanguages[accountId] = CachedLanguages(it, clock()) }
+            }
         }
 
-    override fun getLanguages(authorization: String, url: String): Observable<List<Language>> =
-        ncApi.getLanguages(authorization, url).map {
-            it.ocs?.data?.languages
+    override fun deleteExpiredTranslations() {
+        translationsDao.deleteTranslationsOlderThan(clock() - TRANSLATION_MAX_AGE_MILLIS)
+    }
+
+    private fun getCachedTranslation(accountId: Long, request: TranslationRequest): String? =
+        translationsDao.getTranslation(
+            accountId,
+            request.messageKey,
+            request.fromLanguage.orEmpty(),
+            request.toLanguage
+        )?.translatedText
+
+    /**
+     * Requests the translation from the server. Concurrent requests for the same translation share one server call.
+     */
+    private fun fetchTranslation(
+        authorization: String,
+        url: String,
+        accountId: Long,
+        request: TranslationRequest
+    ): Observable<String> {
+        val key = "$accountId/${request.messageKey}/${request.fromLanguage.orEmpty()}/${request.toLanguage}"
+        return inFlightTranslations.getOrPut(key) {
+            ncApi.translateMessage(authorization, url, request.text, request.toLanguage, request.fromLanguage)
+                .map { it.ocs?.data!!.text!! }
+                .doOnNext { storeTranslation(accountId, request, it) }
+                .doFinally { inFlightTranslations.remove(key) }
+                .cache()
         }
+    }
+
+    private fun storeTranslation(accountId: Long, request: TranslationRequest, translatedText: String) {
+        translationsDao.upsertTranslation(
+            TranslationEntity(
+                accountId = accountId,
+                messageKey = request.messageKey,
+                fromLanguage = request.fromLanguage.orEmpty(),
+                toLanguage = request.toLanguage,
+                translatedText = translatedText,
+                createdAt = clock()
+            )
+        )
+    }
+
+    private data class CachedLanguages(val languages: List<Language>, val fetchedAt: Long)
+
+    companion object {
+        private val LANGUAGES_MAX_AGE_MILLIS = TimeUnit.HOURS.toMillis(24)
+        private val TRANSLATION_MAX_AGE_MILLIS = TimeUnit.DAYS.toMillis(30)
+    }
 }
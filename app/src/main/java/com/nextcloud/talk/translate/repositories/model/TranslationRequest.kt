@@ -0,0 +1,45 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package com.nextcloud.talk.translate.repositories.model
+
+import java.security.MessageDigest
+
+/**
+ * A text to translate. Translations are cached by [messageKey], so it has to change whenever the text does: for
+ * chat messages it contains the message id and the time of the last edit, other texts are identified by their hash.
+ */
+data class TranslationRequest(
+    val messageKey: String,
+    val text: String,
+    val toLanguage: String,
+    val fromLanguage: String?
+) {
+    companion object {
+        fun messageKeyOf(roomToken: String, messageId: String, lastEditTimestamp: Long): String =
+            "$roomToken/$messageId/$lastEditTimestamp"
+
+        fun forText(text: String, toLanguage: String, fromLanguage: String?): TranslationRequest =
+            TranslationRequest("text/${sha256(text)}", text, toLanguage, fromLanguage)
+
+        private fun sha256(text: String): String {
+            val digest = MessageDigest.getInstance("SHA-256")
+            val hashBytes = digest.digest(text.toByteArray(Charsets.UTF_8))
+            val hex = CharArray(hashBytes.size * 2)
+            hashBytes.forEachIndexed { index, byte ->
+                val value = byte.toInt() and BYTE_MASK
+                hex[index * 2] = HEX_DIGITS[value ushr NIBBLE_BITS]
+                hex[index * 2 + 1] = HEX_DIGITS[value and NIBBLE_MASK]
+            }
+            return String(hex)
+        }
+
+        private const val HEX_DIGITS = "0123456789abcdef"
+        private const val BYTE_MASK = 0xff
+        private const val NIBBLE_MASK = 0x0f
+        private const val NIBBLE_BITS = 4
+    }
+}
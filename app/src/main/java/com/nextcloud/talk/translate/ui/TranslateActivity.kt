@@ -26,6 +26,7 @@ import com.nextcloud.talk.activities.BaseActivity
 import com.nextcloud.talk.application.NextcloudTalkApplication
 import com.nextcloud.talk.databinding.ActivityTranslateBinding
 import com.nextcloud.talk.translate.repositories.model.Language
+import com.nextcloud.talk.translate.repositories.model.TranslationRequest
 import com.nextcloud.talk.translate.viewmodels.TranslateViewModel
 import com.nextcloud.talk.users.UserManager
 import com.nextcloud.talk.utils.bundle.BundleKeys
@@ -48,12 +49,14 @@ class TranslateActivity : BaseActivity() {
     private var toLanguages: Array<String>? = null
     private var fromLanguages: Array<String>? = null
     private var languages: List<Language>? = null
+    private var messageKey: String? = null
 
     override fun onCreate(savedInstanceState: Bundle?) {
         super.onCreate(savedInstanceState)
 
         NextcloudTalkApplication.sharedApplication!!.componentApplication.inject(this)
 
+        messageKey = getMessageKey()
         binding = ActivityTranslateBinding.inflate(layoutInflater)
         viewModel = ViewModelProvider(this, viewModelFactory)[TranslateViewModel::class.java]
 
@@ -93,7 +96,7 @@ class TranslateActivity : BaseActivity() {
 
         if (savedInstanceState == null) {
             val text = intent.extras!!.getString(BundleKeys.KEY_TRANSLATE_MESSAGE)
-            viewModel.translateMessage(Locale.getDefault().language, null, text!!)
+            viewModel.translateMessage(Locale.getDefault().language, null, text!!, messageKey)
         } else {
             binding.translatedMessageTextview.text = savedInstanceState.getString(BundleKeys.SAVED_TRANSLATED_MESSAGE)
         }
@@ -110,6 +113,17 @@ class TranslateActivity : BaseActivity() {
         super.onSaveInstanceState(outState)
     }
 
+    private fun getMessageKey(): String? {
+        val extras = intent.extras ?: return null
+        val roomToken = extras.getString(BundleKeys.KEY_ROOM_TOKEN)
+        val messageId = extras.getString(BundleKeys.KEY_MESSAGE_ID)
+        return if (roomToken != null && messageId != null) {
+            TranslationRequest.messageKeyOf(roomToken, messageId, extras.getLong(BundleKeys.KEY_LAST_EDIT_TIMESTAMP))
+        } else {
+            null
+        }
+    }
+
     private fun setupCopyButton() {
         viewThemeUtils.material.colorMaterialButtonPrimaryFilled(binding.copyTranslatedMessage)
         binding.copyTranslatedMessage.setOnClickListener {
@@ -226,13 +240,13 @@ class TranslateActivity : BaseActivity() {
         binding.fromLanguage.onItemClickListener = AdapterView.OnItemClickListener { parent, _, position, _ ->
             val fromLabel: String = getISOFromLanguage(parent.getItemAtPosition(position).toString())
             val toLabel: String = getISOFromLanguage(binding.toLanguage.text.toString())
-            viewModel.translateMessage(toLabel, fromLabel, text!!)
+            viewModel.translateMessage(toLabel, fromLabel, text!!, messageKey)
         }
 
         binding.toLanguage.onItemClickListener = AdapterView.OnItemClickListener { parent, _, position, _ ->
             val toLabel: String = getISOFromLanguage(parent.getItemAtPosition(position).toString())
             val fromLabel: String = getISOFromLanguage(binding.fromLanguage.text.toString())
-            viewModel.translateMessage(toLabel, fromLabel, text!!)
+            viewModel.translateMessage(toLabel, fromLabel, text!!, messageKey)
         }
     }
 
@@ -15,6 +15,7 @@ import androidx.lifecycle.ViewModel
 import com.nextcloud.talk.data.user.model.User
 import com.nextcloud.talk.translate.repositories.TranslateRepository
 import com.nextcloud.talk.translate.repositories.model.Language
+import com.nextcloud.talk.translate.repositories.model.TranslationRequest
 import com.nextcloud.talk.utils.ApiUtils
 import com.nextcloud.talk.utils.database.user.CurrentUserProviderOld
 import io.reactivex.Observer
@@ -43,7 +44,11 @@ class TranslateViewModel @Inject constructor(
     val viewState: LiveData<ViewState>
         get() = _viewState
 
-    fun translateMessage(toLanguage: String, fromLanguage: String?, text: String) {
+    /**
+     * @param messageKey identifies the chat message, see [TranslationRequest.messageKeyOf]. Without it, the
+     * translation is cached by the text.
+     */
+    fun translateMessage(toLanguage: String, fromLanguage: String?, text: String, messageKey: String? = null) {
         val currentUser: User = currentUserProvider.currentUser.blockingGet()
         val authorization: String = ApiUtils.getCredentials(currentUser.username, currentUser.token)!!
         val url: String = ApiUtils.getUrlForTranslation(currentUser.baseUrl!!)
@@ -54,13 +59,12 @@ class TranslateViewModel @Inject constructor(
                 fromLanguage
             }
         Log.i(TAG, "translateMessage Called")
-        repository.translateMessage(
-            authorization,
-            url,
-            text,
-            toLanguage,
-            calculatedFromLanguage
-        )
+        val request = if (messageKey != null) {
+            TranslationRequest(messageKey, text, toLanguage, calculatedFromLanguage)
+        } else {
+            TranslationRequest.forText(text, toLanguage, calculatedFromLanguage)
+        }
+        repository.translateMessage(authorization, url, currentUser.id!!, request)
             .subscribeOn(Schedulers.io())
             ?.observeOn(AndroidSchedulers.mainThread())
             ?.subscribe(TranslateObserver())
@@ -71,7 +75,7 @@ class TranslateViewModel @Inject constructor(
         val authorization: String = ApiUtils.getCredentials(currentUser.username, currentUser.token)!!
         val url: String = ApiUtils.getUrlForLanguages(currentUser.baseUrl!!)
         Log.d(TAG, "URL is: $url")
-        repository.getLanguages(authorization, url)
+        repository.getLanguages(authorization, url, currentUser.id!!)
             .subscribeOn(Schedulers.io())
             ?.observeOn(AndroidSchedulers.mainThread())
             ?.subscribe(object : Observer<List<Language>> {
@@ -49,11 +49,11 @@ import coil.imageLoader
 import coil.request.ImageRequest
 import coil.transform.CircleCropTransformation
 import com.nextcloud.talk.chat.ui.model.ChatMessageUi
+import com.nextcloud.talk.events.EventHub
 import com.nextcloud.talk.events.UserMentionClickEvent
 import com.nextcloud.talk.ui.theme.LocalViewThemeUtils
 import com.nextcloud.talk.utils.message.MessageUtils
 import io.noties.markwon.core.spans.LinkSpan
-import org.greenrobot.eventbus.EventBus
 import java.lang.ref.WeakReference
 import kotlin.math.roundToInt
 
@@ -356,7 +356,7 @@ private fun applyMentionChips(
 
 private class MentionClickSpan(private val mentionId: String) : ClickableSpan() {
     override fun onClick(widget: View) {
-        EventBus.getDefault().post(UserMentionClickEvent(mentionId))
+        EventHub.getDefault().post(UserMentionClickEvent(mentionId))
     }
 
     override fun updateDrawState(ds: TextPaint) {
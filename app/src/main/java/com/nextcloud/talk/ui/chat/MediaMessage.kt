@@ -167,14 +167,19 @@ fun MediaMessage(
     // uploading-placeholder state.
     val localVideoFramePainter = if (isVideo && !hasServerPreview) {
         val refId = message.referenceId
+        // the bubble is never wider than the screen, so the frame is decoded no larger than that
+        val maxFrameSizePx = context.resources.displayMetrics.widthPixels
         val videoFrame by produceState<Bitmap?>(initialValue = null, key1 = refId, key2 = localPreviewUri) {
-            value = withContext(Dispatchers.IO) {
-                refId?.let { VideoThumbnailCache.get(context, it) }
-                    ?: localPreviewUri?.let { uri ->
-                        describeFile(context, uri, compress = false).videoThumbnail?.also { bitmap ->
-                            refId?.let { VideoThumbnailCache.put(context, it, bitmap) }
-                        }
-                    }
+            val thumbnailCache = VideoThumbnailCache.getInstance(context)
+            value = refId?.let { thumbnailCache.get(it, maxFrameSizePx, maxFrameSizePx) }
+            if (value == null && localPreviewUri != null) {
+                val frame = withContext(Dispatchers.IO) {
+                    describeFile(context, localPreviewUri, compress = false).videoThumbnail
+                }
+                value = frame
+                if (frame != null && refId != null) {
+                    thumbnailCache.put(refId, frame)
+                }
             }
         }
         videoFrame?.let { BitmapPainter(it.asImageBitmap()) }
@@ -583,12 +588,12 @@ private fun UploadingVideoPreview(
         initialValue = null,
         key1 = typeContent.localFileUri
     ) {
-        value = withContext(Dispatchers.IO) {
-            describeFile(context, typeContent.localFileUri, compress = false).also { description ->
-                description.videoThumbnail?.let { bitmap ->
-                    referenceId?.let { VideoThumbnailCache.put(context, it, bitmap) }
-                }
-            }
+        val description = withContext(Dispatchers.IO) {
+            describeFile(context, typeContent.localFileUri, compress = false)
+        }
+        value = description
+        description.videoThumbnail?.let { bitmap ->
+            referenceId?.let { VideoThumbnailCache.getInstance(context).put(it, bitmap) }
         }
     }
     val aspectRatio = videoDescription?.aspectRatio ?: DEFAULT_VIDEO_ASPECT_RATIO
@@ -51,10 +51,10 @@ import androidx.compose.ui.unit.sp
 import coil.compose.AsyncImage
 import com.nextcloud.talk.R
 import com.nextcloud.talk.contacts.loadImage
+import com.nextcloud.talk.events.EventHub
 import com.nextcloud.talk.events.UserMentionClickEvent
 import com.nextcloud.talk.ui.theme.LocalViewThemeUtils
 import com.nextcloud.talk.utils.ApiUtils
-import org.greenrobot.eventbus.EventBus
 
 val mentionParameterTypes = setOf("user", "guest", "call", "user-group", "email", "circle")
 
@@ -258,7 +258,7 @@ fun MentionChip(
 
     val clickModifier = when {
         mention.isClickableUserMention -> Modifier.clickable {
-            EventBus.getDefault().post(UserMentionClickEvent(mention.id))
+            EventHub.getDefault().post(UserMentionClickEvent(mention.id))
         }
 
         onDisabledMentionClick != null -> Modifier.clickable {
@@ -40,7 +40,7 @@ import com.nextcloud.talk.chat.ui.model.ChatMessageUi
 import com.nextcloud.talk.chat.ui.model.MessageTypeContent
 import com.nextcloud.talk.ui.ComposeWaveformSeekBar
 import com.nextcloud.talk.ui.WAVEFORM_SIZE
-import com.nextcloud.talk.utils.AudioUtils
+import com.nextcloud.talk.utils.WaveformReducer
 
 private const val SEEKBAR_MAX = 100
 private const val START_WAVE_FORM_HEIGHT = 10
@@ -74,7 +74,7 @@ fun VoiceMessage(
                 if (floatArr.size < WAVEFORM_SIZE) {
                     FloatArray(WAVEFORM_SIZE)
                 } else {
-                    AudioUtils.shrinkFloatArray(floatArr, WAVEFORM_SIZE)
+                    WaveformReducer.reduce(floatArr, WAVEFORM_SIZE)
                 }
             }
 
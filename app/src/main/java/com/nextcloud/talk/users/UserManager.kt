@@ -111,6 +111,27 @@ class UserManager internal constructor(private val userRepository: UsersReposito
             userRepository.updateUser(user)
         }
 
+    /**
+     * Saves the capabilities and server version of all [users] in one transaction, without touching their other
+     * fields.
+     *
+     * @return the number of updated rows of each user, in the order of [users]
+     */
+    fun saveCapabilities(users: List<User>): Single<List<Int>> =
+        Single.fromCallable {
+            userRepository.updateCapabilities(users)
+        }
+
+    /**
+     * Saves the external signaling server of all [users] in one transaction, without touching their other fields.
+     *
+     * @return the number of updated rows of each user, in the order of [users]
+     */
+    fun saveExternalSignalingServers(users: List<User>): Single<List<Int>> =
+        Single.fromCallable {
+            userRepository.updateExternalSignalingServers(users)
+        }
+
     fun setUserAsActive(user: User): Single<Boolean> {
         Log.d(TAG, "setUserAsActive:" + user.id!!)
         return userRepository.setUserAsActiveWithId(user.id!!)
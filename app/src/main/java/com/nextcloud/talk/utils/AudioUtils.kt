@@ -19,6 +19,9 @@ import androidx.lifecycle.LifecycleOwner
 import java.io.File
 import java.io.IOException
 import java.nio.ByteOrder
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
 import kotlin.coroutines.resume
 import kotlin.coroutines.suspendCoroutine
 import kotlin.math.abs
@@ -50,7 +53,8 @@ object AudioUtils : DefaultLifecycleObserver {
 
     /**
      * Suspension function, returns a FloatArray of size 500, containing the values of an audio file squeezed between
-     * [0,1)
+     * [0,1). Decoded samples are reduced on the fly by [WaveformReducer], so memory use does not depend on the length
+     * of the audio file.
      */
     @Throws(IOException::class)
     suspend fun audioFileToFloatArray(file: File): FloatArray {
@@ -58,8 +62,11 @@ object AudioUtils : DefaultLifecycleObserver {
             // Used to keep track of the time it took to process the audio file
             val startTime = SystemClock.elapsedRealtime()
 
-            // Always a FloatArray of Size 500
-            var result: MutableList<Float>? = mutableListOf()
+            // Bins the decoded samples into DEFAULT_SIZE bars while decoding
+            val reducer = WaveformReducer(DEFAULT_SIZE)
+            val finished = CountDownLatch(1)
+
+            val succeeded = AtomicBoolean(false)
 
             // Setting the file path to the audio file
             val path = file.path
@@ -101,7 +108,6 @@ object AudioUtils : DefaultLifecycleObserver {
              */
             mediaCodec.setCallback(object : MediaCodec.Callback() {
                 private var extractor: MediaExtractor? = null
-                val tempList = mutableListOf<Float>()
                 init {
                     // Setting up the extractor to be guaranteed not null
                     extractor = MediaExtractor()
@@ -132,47 +138,50 @@ object AudioUtils : DefaultLifecycleObserver {
                 }
 
                 override fun onOutputBufferAvailable(codec: MediaCodec, index: Int, info: MediaCodec.BufferInfo) {
+                    if (extractor == null) {
+                        return
+                    }
+
                     // Boiler plate to get the audio data in a usable form
                     val outputBuffer = codec.getOutputBuffer(index)
                     val bufferFormat = codec.getOutputFormat(index)
                     val samples = outputBuffer!!.order(ByteOrder.nativeOrder()).asShortBuffer()
                     val numChannels = bufferFormat.getInteger(MediaFormat.KEY_CHANNEL_COUNT)
-                    if (index < 0 || index >= numChannels) {
-                        return
-                    }
                     val sampleLength = (samples.remaining() / numChannels)
 
-                    // Squeezes the value of each sample between [0,1) using y = (x-1)/x
+                    // Squeezes the value of each sample of the first channel between [0,1) using y = (x-1)/x
                     for (i in 0 until sampleLength) {
-                        val x = abs(samples[i * numChannels + index].toInt()) / VALUE_10
+                        val x = abs(samples[i * numChannels].toInt()) / VALUE_10
                         val y = (if (x > 0) ((x - 1) / x.toFloat()) else x.toFloat())
-                        tempList.add(y)
+                        reducer.add(y)
                     }
 
                     codec.releaseOutputBuffer(index, false)
 
                     // Cancels the process if it ends, exceeds the time limit, or the activity falls out of view
                     val currTime = SystemClock.elapsedRealtime() - startTime
-                    if (info.flags and MediaCodec.BUFFER_FLAG_END_OF_STREAM > 0 ||
+                    val isFinished = info.flags and MediaCodec.BUFFER_FLAG_END_OF_STREAM > 0
+                    if (isFinished ||
                         currTime > TIME_LIMIT ||
                         currentLifeCycleFlag == LifeCycleFlag.PAUSED
                     ) {
                         Log.d(
                             TAG,
                             "Processing ended with time: $currTime \n" +
-                                "Is finished: ${info.flags and MediaCodec.BUFFER_FLAG_END_OF_STREAM > 0} \n" +
+                                "Is finished: $isFinished \n" +
+                                "Samples: ${reducer.sampleCount} \n" +
                                 "Lifecycle state: $currentLifeCycleFlag"
                         )
                         codec.stop()
                         codec.release()
                         extractor!!.release()
                         extractor = null
-                        result = if (currTime < TIME_LIMIT) {
-                            tempList
+                        if (isFinished && currTime < TIME_LIMIT) {
+                            succeeded.set(true)
                         } else {
-                            Log.e(TAG, "Error in MediaCodec Callback:\n\tonOutputBufferAvailable: Time limit exceeded")
-                            null
+                            Log.e(TAG, "Error in MediaCodec Callback:\n\tonOutputBufferAvailable: Processing aborted")
                         }
+                        finished.countDown()
                     }
                 }
 
@@ -180,9 +189,9 @@ object AudioUtils : DefaultLifecycleObserver {
                     Log.e(TAG, "Error in MediaCodec Callback: \n$e")
                     codec.stop()
                     codec.release()
-                    extractor!!.release()
+                    extractor?.release()
                     extractor = null
-                    result = null
+                    finished.countDown()
                 }
 
                 override fun onOutputFormatChanged(codec: MediaCodec, format: MediaFormat) {
@@ -195,37 +204,15 @@ object AudioUtils : DefaultLifecycleObserver {
             mediaCodec.configure(mediaFormat, null, null, 0)
             mediaCodec.start()
 
-            // This runs until the codec finishes, the time limit is exceeded, or an error occurs
-            // If the time limit is exceed or an error occurs, the result should be null or empty
-            var currTime = SystemClock.elapsedRealtime() - startTime
-            while (result != null &&
-                result!!.size <= 0 &&
-                currTime < TIME_LIMIT // Guarantees Execution stops after 3 seconds
-            ) {
-                currTime = SystemClock.elapsedRealtime() - startTime
-                continue
-            }
+            // This blocks until the codec finishes, the time limit is exceeded, or an error occurs
+            // If the time limit is exceed or an error occurs, the result is an empty waveform
+            finished.await(TIME_LIMIT.toLong(), TimeUnit.MILLISECONDS)
 
-            if (result != null && result!!.size > DEFAULT_SIZE) {
-                it.resume(shrinkFloatArray(result!!.toFloatArray(), DEFAULT_SIZE))
+            if (succeeded.get()) {
+                it.resume(reducer.result())
             } else {
                 it.resume(FloatArray(DEFAULT_SIZE))
             }
         }
     }
-
-    fun shrinkFloatArray(data: FloatArray, size: Int): FloatArray {
-        val result = FloatArray(size)
-        val scale = data.size / size
-        var begin = 0
-        var end = scale
-        for (i in 0 until size) {
-            val arr = data.copyOfRange(begin, end)
-            result[i] = arr.average().toFloat()
-            begin += scale
-            end += scale
-        }
-
-        return result
-    }
 }
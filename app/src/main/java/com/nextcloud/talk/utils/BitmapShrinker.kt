@@ -80,7 +80,7 @@ object BitmapShrinker {
         BitmapFactory.Options().run {
             inJustDecodeBounds = true
             BitmapFactory.decodeFile(path, this)
-            inSampleSize = getInSampleSize(this, requestedWidth, requestedHeight)
+            inSampleSize = getInSampleSize(outWidth, outHeight, requestedWidth, requestedHeight)
             inJustDecodeBounds = false
             val decodedBitmap = BitmapFactory.decodeFile(path, this)
 
@@ -93,8 +93,7 @@ object BitmapShrinker {
         }
 
     // solution inspired by https://developer.android.com/topic/performance/graphics/load-bitmap
-    private fun getInSampleSize(options: BitmapFactory.Options, requestedWidth: Int, requestedHeight: Int): Int {
-        val (height: Int, width: Int) = options.run { outHeight to outWidth }
+    internal fun getInSampleSize(width: Int, height: Int, requestedWidth: Int, requestedHeight: Int): Int {
         var inSampleSize = 1
         if (height > requestedHeight || width > requestedWidth) {
             val halfHeight: Int = height / 2
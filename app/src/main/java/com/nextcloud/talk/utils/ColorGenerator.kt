@@ -18,32 +18,56 @@ import java.security.MessageDigest
 object ColorGenerator {
 
     private const val STEPS = 6
+    private const val HEX_RADIX = 16
+    private const val COLOR_CACHE_SIZE = 256
+    private const val LOAD_FACTOR = 0.75f
     private val finalPalette: List<RGB> = genColors()
 
-    private data class RGB(val r: Int, val g: Int, val b: Int)
-
-    fun usernameToColor(username: String): Int {
-        var hash = username.lowercase()
+    private val md5Regex = Regex("^([0-9a-f]{4}-?){8}$")
+    private val md5Digest = ThreadLocal.withInitial { MessageDigest.getInstance("MD5") }
 
-        val md5Regex = Regex("^([0-9a-f]{4}-?){8}$")
-        if (!hash.matches(md5Regex)) {
-            val digest = MessageDigest.getInstance("MD5").digest(hash.toByteArray(Charsets.UTF_8))
-            hash = digest.joinToString("") { "%02x".format(it) }
-        }
+    // usernames are rendered over and over in the chat, the participant lists and the call grid
+    private val colorCache = object : LinkedHashMap<String, Int>(COLOR_CACHE_SIZE, LOAD_FACTOR, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, Int>?): Boolean =
+            size > COLOR_CACHE_SIZE
+    }
 
-        hash = hash.replace(Regex("[^0-9a-f]"), "")
+    private data class RGB(val r: Int, val g: Int, val b: Int)
 
-        val idx = hashToInt(hash, finalPalette.size)
+    fun usernameToColor(username: String): Int {
+        synchronized(colorCache) { colorCache[username] }?.let { return it }
 
-        val rgb = finalPalette[idx]
-        return Color.rgb(rgb.r, rgb.g, rgb.b)
+        val rgb = finalPalette[paletteIndex(username)]
+        val color = Color.rgb(rgb.r, rgb.g, rgb.b)
+        synchronized(colorCache) { colorCache[username] = color }
+        return color
     }
 
     fun paletteColors(): List<Int> = finalPalette.map { Color.rgb(it.r, it.g, it.b) }
 
-    private fun hashToInt(hash: String, maximum: Int): Int {
-        val sum = hash.map { it.lowercaseChar().digitToInt(16) % 16 }.sum()
-        return sum % maximum
+    /**
+     * Usernames that already look like an md5 hash (e.g. the ids of guests) are used as they are, any other one is
+     * hashed. The palette index is the sum of all hex digits of the hash, which for a digest is the sum of the two
+     * nibbles of every byte, so the hex string never needs to be built.
+     */
+    internal fun paletteIndex(username: String): Int {
+        val lowercase = username.lowercase()
+
+        var sum = 0
+        if (md5Regex.matches(lowercase)) {
+            for (char in lowercase) {
+                if (char != '-') {
+                    sum += char.digitToInt(HEX_RADIX)
+                }
+            }
+        } else {
+            for (byte in md5Digest.get()!!.digest(lowercase.toByteArray(Charsets.UTF_8))) {
+                val value = byte.toInt()
+                sum += (value shr 4 and 0xF) + (value and 0xF)
+            }
+        }
+
+        return sum % finalPalette.size
     }
 
     private fun genColors(): List<RGB> {
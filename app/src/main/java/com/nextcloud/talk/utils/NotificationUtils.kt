@@ -26,6 +26,7 @@ import coil.transform.CircleCropTransformation
 import com.bluelinelabs.logansquare.LoganSquare
 import com.nextcloud.talk.BuildConfig
 import com.nextcloud.talk.R
+import com.nextcloud.talk.avatar.Avatar
 import com.nextcloud.talk.data.user.model.User
 import com.nextcloud.talk.models.RingtoneSettings
 import com.nextcloud.talk.utils.bundle.BundleKeys
@@ -315,11 +316,14 @@ object NotificationUtils {
             NotificationChannels.NOTIFICATION_CHANNEL_MESSAGES_V4.name
         )
 
-    fun loadAvatarSync(avatarUrl: String, context: Context): IconCompat? {
+    fun loadAvatarSync(avatar: Avatar, context: Context): IconCompat? {
         var avatarIcon: IconCompat? = null
 
+        val sizePx = context.resources.getDimensionPixelSize(android.R.dimen.notification_large_icon_width)
         val request = ImageRequest.Builder(context)
-            .data(avatarUrl)
+            .data(avatar)
+            .size(sizePx)
+            .allowHardware(false)
             .transformations(CircleCropTransformation())
             .placeholder(R.drawable.account_circle_96dp)
             .target(
@@ -332,7 +336,7 @@ object NotificationUtils {
                         val bitmap = (error as BitmapDrawable).bitmap
                         avatarIcon = IconCompat.createWithBitmap(bitmap)
                     }
-                    Log.w(TAG, "Can't load avatar for URL: $avatarUrl")
+                    Log.w(TAG, "Can't load $avatar")
                 }
             )
             .build()
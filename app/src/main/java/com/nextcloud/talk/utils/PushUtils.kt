@@ -18,6 +18,7 @@ import com.nextcloud.talk.application.NextcloudTalkApplication
 import com.nextcloud.talk.application.NextcloudTalkApplication.Companion.sharedApplication
 import com.nextcloud.talk.arbitrarystorage.ArbitraryStorageManager
 import com.nextcloud.talk.data.user.model.User
+import com.nextcloud.talk.events.EventHub
 import com.nextcloud.talk.events.EventStatus
 import com.nextcloud.talk.models.SignatureVerification
 import com.nextcloud.talk.models.json.push.PushConfigurationState
@@ -29,7 +30,6 @@ import io.reactivex.Observer
 import io.reactivex.SingleObserver
 import io.reactivex.disposables.Disposable
 import io.reactivex.schedulers.Schedulers
-import org.greenrobot.eventbus.EventBus
 import java.io.File
 import java.io.FileInputStream
 import java.io.FileNotFoundException
@@ -64,7 +64,7 @@ class PushUtils {
 
     @JvmField
     @Inject
-    var eventBus: EventBus? = null
+    var eventBus: EventHub? = null
     private val publicKeyFile: File
     private val privateKeyFile: File
     private val proxyServer: String
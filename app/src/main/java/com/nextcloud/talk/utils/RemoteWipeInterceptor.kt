@@ -15,6 +15,7 @@ import androidx.work.OneTimeWorkRequest
 import androidx.work.WorkManager
 import com.bluelinelabs.logansquare.LoganSquare
 import com.nextcloud.talk.data.user.model.User
+import com.nextcloud.talk.events.EventHub
 import com.nextcloud.talk.events.RemoteWipeEvent
 import com.nextcloud.talk.jobs.AccountRemovalWorker
 import com.nextcloud.talk.jobs.RemoteWipeSuccessWorker
@@ -28,7 +29,6 @@ import okhttp3.OkHttpClient
 import okhttp3.Request
 import okhttp3.Response
 import okhttp3.internal.tls.OkHostnameVerifier
-import org.greenrobot.eventbus.EventBus
 import java.io.IOException
 import java.util.Collections
 import java.util.concurrent.ConcurrentHashMap
@@ -148,7 +148,7 @@ class RemoteWipeInterceptor(
         }
         workContinuation.enqueue()
 
-        EventBus.getDefault().post(RemoteWipeEvent())
+        EventHub.getDefault().post(RemoteWipeEvent())
     }
 
     private data class WipeCandidate(val user: User, val token: String, val userId: Long)
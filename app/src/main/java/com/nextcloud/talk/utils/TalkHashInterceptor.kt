@@ -0,0 +1,136 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.utils
+
+import android.content.Context
+import android.util.Log
+import androidx.work.Constraints
+import androidx.work.Data
+import androidx.work.ExistingWorkPolicy
+import androidx.work.NetworkType
+import androidx.work.OneTimeWorkRequest
+import androidx.work.WorkManager
+import com.nextcloud.talk.jobs.CapabilitiesWorker
+import com.nextcloud.talk.jobs.SignalingSettingsWorker
+import com.nextcloud.talk.users.UserManager
+import com.nextcloud.talk.utils.bundle.BundleKeys.KEY_INTERNAL_USER_ID
+import okhttp3.Interceptor
+import okhttp3.Request
+import okhttp3.Response
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Records the `X-Nextcloud-Talk-Hash` header of the responses per account. When it differs from the stored hash of
+ * the account, the capabilities and signaling settings of that account are refreshed.
+ *
+ * The hash of the last response is remembered per credentials, so the stored hash is only read when the header
+ * changes and repeated responses with the same hash cost a map lookup.
+ */
+class TalkHashInterceptor(
+    private val accountResolver: AccountResolver,
+    private val store: TalkHashStore,
+    private val refreshScheduler: RefreshScheduler
+) : Interceptor {
+
+    fun interface AccountResolver {
+        /**
+         * The id of the account [request] was made for, or null if it can not be told.
+         */
+        fun accountIdFor(request: Request): Long?
+    }
+
+    fun interface RefreshScheduler {
+        fun scheduleRefresh(accountId: Long)
+    }
+
+    private val lock = Any()
+    private val lastHashByCredentials = ConcurrentHashMap<String, String>()
+
+    override fun intercept(chain: Interceptor.Chain): Response {
+        val request = chain.request()
+        val response = chain.proceed(request)
+
+        val hash = response.header(TALK_HASH_HEADER)
+        val credentials = request.header(AUTHORIZATION_HEADER)
+        if (!hash.isNullOrEmpty() && credentials != null && lastHashByCredentials[credentials] != hash) {
+            onHashChanged(request, credentials, hash)
+        }
+
+        return response
+    }
+
+    @Suppress("Detekt.TooGenericExceptionCaught")
+    private fun onHashChanged(request: Request, credentials: String, hash: String) {
+        try {
+            // resolved outside of the lock, as it may query the database
+            val accountId = accountResolver.accountIdFor(request) ?: return
+            synchronized(lock) {
+                if (lastHashByCredentials[credentials] == hash) {
+                    return
+                }
+                if (store.getSeenHash(accountId) != hash) {
+                    Log.d(TAG, "Talk hash of account $accountId changed, refreshing its capabilities")
+                    store.setSeenHash(accountId, hash)
+                    refreshScheduler.scheduleRefresh(accountId)
+                }
+                lastHashByCredentials[credentials] = hash
+            }
+        } catch (e: Exception) {
+            Log.e(TAG, "Failed to record the talk hash", e)
+        }
+    }
+
+    /**
+     * Resolves the account of a request by its base URL, and by its credentials if several accounts share a server.
+     */
+    class UserManagerAccountResolver(private val userManager: UserManager) : AccountResolver {
+        override fun accountIdFor(request: Request): Long? {
+            val url = request.url.toString()
+            val users = userManager.users.blockingGet()
+                .filter { it.baseUrl != null && url.startsWith(it.baseUrl!!) }
+            val user = users.singleOrNull()
+                ?: users.singleOrNull {
+                    ApiUtils.getCredentials(it.username, it.token) == request.header(AUTHORIZATION_HEADER)
+                }
+            return user?.id
+        }
+    }
+
+    /**
+     * Refreshes the capabilities and then the signaling settings of an account. A hash that changes while a refresh
+     * is already running may not be covered by it anymore, so its refresh is appended to run afterwards. Repeated
+     * responses with the same hash only schedule one refresh, see [onHashChanged].
+     */
+    class WorkManagerRefreshScheduler(private val context: Context) : RefreshScheduler {
+        override fun scheduleRefresh(accountId: Long) {
+            val data = Data.Builder().putLong(KEY_INTERNAL_USER_ID, accountId).build()
+            val constraints = Constraints.Builder().setRequiredNetworkType(NetworkType.CONNECTED).build()
+            val capabilitiesWork = OneTimeWorkRequest.Builder(CapabilitiesWorker::class.java)
+                .setInputData(data)
+                .setConstraints(constraints)
+                .build()
+            val signalingSettingsWork = OneTimeWorkRequest.Builder(SignalingSettingsWorker::class.java)
+                .setInputData(data)
+                .setConstraints(constraints)
+                .build()
+
+            WorkManager.getInstance(context)
+                .beginUniqueWork(uniqueWorkName(accountId), ExistingWorkPolicy.APPEND_OR_REPLACE, capabilitiesWork)
+                .then(signalingSettingsWork)
+                .enqueue()
+        }
+    }
+
+    companion object {
+        private const val TAG = "TalkHashInterceptor"
+        const val TALK_HASH_HEADER = "X-Nextcloud-Talk-Hash"
+        private const val AUTHORIZATION_HEADER = "Authorization"
+
+        private fun uniqueWorkName(accountId: Long): String = "TalkHashRefresh_$accountId"
+    }
+}
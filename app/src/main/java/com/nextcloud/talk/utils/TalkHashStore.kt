@@ -0,0 +1,62 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.utils
+
+import com.nextcloud.talk.arbitrarystorage.ArbitraryStorageManager
+
+/**
+ * The `X-Nextcloud-Talk-Hash` values of each account, see [TalkHashInterceptor]. The server changes the hash
+ * whenever its Talk capabilities or configuration change.
+ */
+interface TalkHashStore {
+
+    /**
+     * The hash of the latest response of the server of the account, or null if none was seen yet.
+     */
+    fun getSeenHash(accountId: Long): String?
+
+    fun setSeenHash(accountId: Long, hash: String)
+
+    /**
+     * The hash that was seen when the capabilities of the account were last fetched.
+     */
+    fun getRefreshedHash(accountId: Long): String?
+
+    fun setRefreshedHash(accountId: Long, hash: String)
+
+    /**
+     * True if the capabilities of the account were fetched since the server last reported a change.
+     */
+    fun isUpToDate(accountId: Long): Boolean {
+        val seenHash = getSeenHash(accountId) ?: return false
+        return seenHash == getRefreshedHash(accountId)
+    }
+}
+
+class ArbitraryStorageTalkHashStore(private val arbitraryStorageManager: ArbitraryStorageManager) : TalkHashStore {
+
+    override fun getSeenHash(accountId: Long): String? = get(accountId, SEEN_TALK_HASH)
+
+    override fun setSeenHash(accountId: Long, hash: String) {
+        arbitraryStorageManager.storeStorageSetting(accountId, SEEN_TALK_HASH, hash, "")
+    }
+
+    override fun getRefreshedHash(accountId: Long): String? = get(accountId, REFRESHED_TALK_HASH)
+
+    override fun setRefreshedHash(accountId: Long, hash: String) {
+        arbitraryStorageManager.storeStorageSetting(accountId, REFRESHED_TALK_HASH, hash, "")
+    }
+
+    private fun get(accountId: Long, key: String): String? =
+        arbitraryStorageManager.getStorageSetting(accountId, key, "").blockingGet()?.value
+
+    companion object {
+        const val SEEN_TALK_HASH = "SEEN_TALK_HASH"
+        const val REFRESHED_TALK_HASH = "REFRESHED_TALK_HASH"
+    }
+}
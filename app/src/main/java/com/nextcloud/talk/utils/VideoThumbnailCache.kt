@@ -10,6 +10,10 @@ import android.content.Context
 import android.graphics.Bitmap
 import android.graphics.BitmapFactory
 import android.util.Log
+import android.util.LruCache
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.withContext
 import java.io.File
 import java.io.FileOutputStream
 
@@ -20,30 +24,163 @@ import java.io.FileOutputStream
  * right after upload would otherwise only live in memory for the current chat session, disappearing
  * as soon as the chat is left and reopened. Persisting it here lets that fallback survive across
  * chat sessions (and app restarts) without needing the original local file anymore.
+ *
+ * The files are evicted in least recently used order once they take more than [maxDiskBytes]. Decoded
+ * thumbnails are kept in memory up to [maxMemoryBytes], per requested size, as they are sampled down
+ * to the size they are shown at.
  */
-object VideoThumbnailCache {
-    private val TAG = VideoThumbnailCache::class.simpleName
-    private const val CACHE_DIR_NAME = "video_thumbnails"
-    private const val JPEG_QUALITY = 80
-
-    private fun cacheDir(context: Context): File =
-        File(context.cacheDir, CACHE_DIR_NAME)
-            .apply { mkdirs() }
+class VideoThumbnailCache(
+    private val directory: File,
+    private val maxDiskBytes: Long = MAX_DISK_BYTES,
+    maxMemoryBytes: Int = MAX_MEMORY_BYTES,
+    private val ioDispatcher: CoroutineDispatcher = Dispatchers.IO
+) {
 
-    fun get(context: Context, referenceId: String): Bitmap? {
-        val file = File(cacheDir(context), "$referenceId.jpg")
-        if (!file.exists()) return null
-        return BitmapFactory.decodeFile(file.absolutePath)
+    private val memoryCache = object : LruCache<String, Bitmap>(maxMemoryBytes) {
+        override fun sizeOf(key: String, value: Bitmap): Int = value.allocationByteCount
     }
 
+    // file name to file size in access order, loaded from the directory on first use
+    private val entries = LinkedHashMap<String, Long>(INITIAL_CAPACITY, LOAD_FACTOR, true)
+    private var totalBytes = 0L
+    private var isIndexLoaded = false
+
+    /**
+     * Returns the thumbnail of [referenceId] decoded with the largest sample size that keeps it at least
+     * [targetWidth] x [targetHeight], or null if it is not cached.
+     */
+    suspend fun get(referenceId: String, targetWidth: Int, targetHeight: Int): Bitmap? =
+        withContext(ioDispatcher) {
+            val file = fileOf(referenceId)
+            val isCached = synchronized(entries) {
+                loadIndexIfNeeded()
+                entries[file.name] != null
+            }
+            if (!isCached) {
+                return@withContext null
+            }
+
+            val memoryKey = memoryKey(referenceId, targetWidth, targetHeight)
+            memoryCache.get(memoryKey) ?: decode(file, targetWidth, targetHeight)?.also {
+                file.setLastModified(System.currentTimeMillis())
+                memoryCache.put(memoryKey, it)
+            }
+        }
+
     @Suppress("TooGenericExceptionCaught")
-    fun put(context: Context, referenceId: String, bitmap: Bitmap) {
-        try {
-            FileOutputStream(File(cacheDir(context), "$referenceId.jpg")).use { out ->
-                bitmap.compress(Bitmap.CompressFormat.JPEG, JPEG_QUALITY, out)
+    suspend fun put(referenceId: String, bitmap: Bitmap) {
+        withContext(ioDispatcher) {
+            val file = fileOf(referenceId)
+            val partFile = File(directory, file.name + PART_SUFFIX)
+            try {
+                directory.mkdirs()
+                FileOutputStream(partFile).use { out ->
+                    bitmap.compress(Bitmap.CompressFormat.JPEG, JPEG_QUALITY, out)
+                }
+                synchronized(entries) {
+                    loadIndexIfNeeded()
+                    if (!partFile.renameTo(file)) {
+                        partFile.delete()
+                        Log.w(TAG, "Failed to store video thumbnail for referenceId=$referenceId")
+                        return@withContext
+                    }
+                    entries.put(file.name, file.length())?.let { totalBytes -= it }
+                    totalBytes += file.length()
+                    removeFromMemory(file.name)
+                    evict()
+                }
+            } catch (e: Exception) {
+                partFile.delete()
+                Log.w(TAG, "Failed to cache video thumbnail for referenceId=$referenceId", e)
             }
-        } catch (e: Exception) {
-            Log.w(TAG, "Failed to cache video thumbnail for referenceId=$referenceId", e)
         }
     }
+
+    private fun decode(file: File, targetWidth: Int, targetHeight: Int): Bitmap? {
+        val options = BitmapFactory.Options().apply { inJustDecodeBounds = true }
+        BitmapFactory.decodeFile(file.absolutePath, options)
+        options.inSampleSize = if (options.outWidth > 0 && options.outHeight > 0) {
+            BitmapShrinker.getInSampleSize(options.outWidth, options.outHeight, targetWidth, targetHeight)
+        } else {
+            1
+        }
+        options.inJustDecodeBounds = false
+
+        val bitmap = BitmapFactory.decodeFile(file.absolutePath, options)
+        if (bitmap == null) {
+            Log.w(TAG, "Failed to decode cached video thumbnail ${file.name}, removing it")
+            synchronized(entries) { remove(file.name) }
+        }
+        return bitmap
+    }
+
+    private fun evict() {
+        val iterator = entries.entries.iterator()
+        // the entry just written is the most recently used one and is kept, even if it exceeds the budget alone
+        while (totalBytes > maxDiskBytes && entries.size > 1 && iterator.hasNext()) {
+            val (name, size) = iterator.next()
+            iterator.remove()
+            totalBytes -= size
+            File(directory, name).delete()
+            removeFromMemory(name)
+        }
+    }
+
+    private fun remove(name: String) {
+        entries.remove(name)?.let { totalBytes -= it }
+        File(directory, name).delete()
+        removeFromMemory(name)
+    }
+
+    private fun loadIndexIfNeeded() {
+        if (isIndexLoaded) {
+            return
+        }
+        isIndexLoaded = true
+
+        val files = directory.listFiles() ?: return
+        files.filter { it.name.endsWith(PART_SUFFIX) }.forEach { it.delete() }
+        files.filterNot { it.name.endsWith(PART_SUFFIX) }
+            .sortedBy { it.lastModified() }
+            .forEach {
+                val size = it.length()
+                entries[it.name] = size
+                totalBytes += size
+            }
+        evict()
+    }
+
+    private fun removeFromMemory(name: String) {
+        val prefix = name.removeSuffix(FILE_SUFFIX) + MEMORY_KEY_SEPARATOR
+        memoryCache.snapshot().keys
+            .filter { it.startsWith(prefix) }
+            .forEach { memoryCache.remove(it) }
+    }
+
+    private fun fileOf(referenceId: String): File = File(directory, "$referenceId$FILE_SUFFIX")
+
+    private fun memoryKey(referenceId: String, targetWidth: Int, targetHeight: Int): String =
+        "$referenceId$MEMORY_KEY_SEPARATOR${targetWidth}x$targetHeight"
+
+    companion object {
+        private val TAG = VideoThumbnailCache::class.simpleName
+        private const val CACHE_DIR_NAME = "video_thumbnails"
+        internal const val JPEG_QUALITY = 80
+        const val MAX_DISK_BYTES = 32L * 1024 * 1024
+        const val MAX_MEMORY_BYTES = 8 * 1024 * 1024
+        private const val FILE_SUFFIX = ".jpg"
+        private const val PART_SUFFIX = ".part"
+        private const val MEMORY_KEY_SEPARATOR = "@"
+        private const val INITIAL_CAPACITY = 64
+        private const val LOAD_FACTOR = 0.75f
+
+        @Volatile
+        private var instance: VideoThumbnailCache? = null
+
+        fun getInstance(context: Context): VideoThumbnailCache =
+            instance ?: synchronized(this) {
+                instance ?: VideoThumbnailCache(File(context.applicationContext.cacheDir, CACHE_DIR_NAME))
+                    .also { instance = it }
+            }
+    }
 }
@@ -0,0 +1,71 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package com.nextcloud.talk.utils
+
+import android.content.Context
+import android.util.Log
+import java.io.File
+import java.io.IOException
+import kotlin.math.roundToInt
+
+/**
+ * Disk cache for voice message waveforms, keyed by account and file id.
+ *
+ * Every bar is quantized to a single byte, so a waveform of 500 bars takes 500 bytes on disk. Entries are evicted in
+ * least recently used order once [MAX_ENTRIES] is exceeded.
+ */
+object WaveformCache {
+    private val TAG = WaveformCache::class.simpleName
+    private const val CACHE_DIR_NAME = "voice_message_waveforms"
+    private const val MAX_ENTRIES = 1000
+    private const val MAX_LEVEL = 255f
+    private const val BYTE_MASK = 0xFF
+
+    fun key(accountId: Long, fileId: String): String = "${accountId}_${fileId.filter { it.isLetterOrDigit() }}"
+
+    fun get(context: Context, key: String): FloatArray? = get(cacheDir(context), key)
+
+    fun put(context: Context, key: String, waveform: FloatArray) = put(cacheDir(context), key, waveform, MAX_ENTRIES)
+
+    internal fun get(dir: File, key: String): FloatArray? {
+        val file = File(dir, key)
+        if (!file.exists()) return null
+
+        return try {
+            val bytes = file.readBytes()
+            file.setLastModified(System.currentTimeMillis())
+            FloatArray(bytes.size) { (bytes[it].toInt() and BYTE_MASK) / MAX_LEVEL }
+        } catch (e: IOException) {
+            Log.e(TAG, "Failed to read waveform for $key", e)
+            null
+        }
+    }
+
+    internal fun put(dir: File, key: String, waveform: FloatArray, maxEntries: Int) {
+        val bytes = ByteArray(waveform.size) { (waveform[it].coerceIn(0f, 1f) * MAX_LEVEL).roundToInt().toByte() }
+        try {
+            File(dir, key).writeBytes(bytes)
+        } catch (e: IOException) {
+            Log.e(TAG, "Failed to cache waveform for $key", e)
+            return
+        }
+        evict(dir, maxEntries)
+    }
+
+    private fun evict(dir: File, maxEntries: Int) {
+        val files = dir.listFiles() ?: return
+        if (files.size <= maxEntries) return
+
+        files.sortedBy { it.lastModified() }
+            .take(files.size - maxEntries)
+            .forEach { it.delete() }
+    }
+
+    private fun cacheDir(context: Context): File =
+        File(context.cacheDir, CACHE_DIR_NAME)
+            .apply { mkdirs() }
+}
@@ -0,0 +1,86 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package com.nextcloud.talk.utils
+
+/**
+ * Reduces a stream of amplitude samples into a fixed number of bars without buffering the samples themselves.
+ *
+ * Samples are summed into at most `2 * bars` bins of equal width. Whenever all bins are filled, neighbouring bins are
+ * merged pairwise and the bin width doubles, so memory stays constant no matter how long the decoded audio is.
+ */
+class WaveformReducer(private val bars: Int) {
+
+    private val bins = DoubleArray(bars * 2)
+    private var filledBins = 0
+    private var binWidth = 1L
+    private var currentSum = 0.0
+    private var currentCount = 0L
+
+    var sampleCount = 0L
+        private set
+
+    fun add(sample: Float) {
+        currentSum += sample
+        currentCount++
+        sampleCount++
+
+        if (currentCount == binWidth) {
+            bins[filledBins++] = currentSum
+            currentSum = 0.0
+            currentCount = 0
+
+            if (filledBins == bins.size) {
+                mergeBins()
+            }
+        }
+    }
+
+    /**
+     * Returns the averaged bars. Streams with no more samples than bars result in an empty (all zero) waveform, the
+     * trailing samples of an incomplete bin are dropped.
+     */
+    fun result(): FloatArray {
+        val result = FloatArray(bars)
+        if (sampleCount <= bars) {
+            return result
+        }
+
+        for (i in 0 until bars) {
+            val begin = i * filledBins / bars
+            val end = (i + 1) * filledBins / bars
+            var sum = 0.0
+            for (j in begin until end) {
+                sum += bins[j]
+            }
+            result[i] = (sum / ((end - begin) * binWidth)).toFloat()
+        }
+        return result
+    }
+
+    private fun mergeBins() {
+        for (i in 0 until bars) {
+            bins[i] = bins[2 * i] + bins[2 * i + 1]
+        }
+        filledBins = bars
+        binWidth *= 2
+    }
+
+    companion object {
+        /**
+         * Reduces an already decoded waveform to [bars] bars, e.g. to fit it to the width of a view. Waveforms with no
+         * more values than [bars] are returned as they are.
+         */
+        fun reduce(data: FloatArray, bars: Int): FloatArray {
+            if (data.size <= bars) {
+                return data.copyOf()
+            }
+            val reducer = WaveformReducer(bars)
+            data.forEach { reducer.add(it) }
+            return reducer.result()
+        }
+    }
+}
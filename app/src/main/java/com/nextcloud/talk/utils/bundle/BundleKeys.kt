@@ -75,6 +75,7 @@ object BundleKeys {
     const val KEY_GEOCODING_RESULT = "KEY_GEOCODING_RESULT"
     const val ADD_ADDITIONAL_ACCOUNT = "ADD_ADDITIONAL_ACCOUNT"
     const val SAVED_TRANSLATED_MESSAGE = "SAVED_TRANSLATED_MESSAGE"
+    const val KEY_LAST_EDIT_TIMESTAMP = "KEY_LAST_EDIT_TIMESTAMP"
     const val KEY_REAUTHORIZE_ACCOUNT = "KEY_REAUTHORIZE_ACCOUNT"
     const val KEY_PASSWORD = "KEY_PASSWORD"
     const val KEY_REMOTE_TALK_SHARE = "KEY_REMOTE_TALK_SHARE"
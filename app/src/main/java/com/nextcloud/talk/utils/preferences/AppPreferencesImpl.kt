@@ -553,18 +553,6 @@ class AppPreferencesImpl(val context: Context) : AppPreferences {
         return read.ifEmpty { default }
     }
 
-    override fun saveWaveFormForFile(filename: String, array: Array<Float>) =
-        runBlocking<Unit> {
-            async {
-                writeString(filename, array.contentToString())
-            }
-        }
-
-    override fun getWaveFormFromFile(filename: String): Array<Float> {
-        val string = runBlocking { async { readString(filename).first() } }.getCompleted()
-        return if (string.isNotEmpty()) string.convertStringToArray() else floatArrayOf().toTypedArray()
-    }
-
     override fun saveLastKnownId(internalConversationId: String, lastReadId: Int) {
         runBlocking<Unit> {
             async {
@@ -677,7 +665,10 @@ class AppPreferencesImpl(val context: Context) : AppPreferences {
     companion object {
         @Suppress("UnusedPrivateProperty")
         private val TAG = AppPreferencesImpl::class.simpleName
-        private val Context.dataStore: DataStore<Preferences> by preferencesDataStore(name = "settings")
+        private val Context.dataStore: DataStore<Preferences> by preferencesDataStore(
+            name = "settings",
+            produceMigrations = { listOf(LegacyWaveformMigration) }
+        )
         const val PROXY_TYPE = "proxy_type"
         const val PROXY_HOST = "proxy_host"
         const val PROXY_PORT = "proxy_port"
@@ -715,13 +706,5 @@ class AppPreferencesImpl(val context: Context) : AppPreferences {
         const val LAST_NOTIFICATION_WARNING = "last_notification_warning"
         const val CONVERSATION_LIST_POSITION_OFFSET = "CONVERSATION_LIST_POSITION_OFFSET"
         const val CONVERSATION_LIST_LAST_USER_ID = "CONVERSATION_LIST_LAST_USER_ID"
-        private fun String.convertStringToArray(): Array<Float> {
-            var varString = this
-            val floatList = mutableListOf<Float>()
-            varString = varString.replace("\\[".toRegex(), "")
-            varString = varString.replace("]".toRegex(), "")
-            varString.split(",").forEach { floatList.add(it.toFloat()) }
-            return floatList.toTypedArray()
-        }
     }
 }
@@ -0,0 +1,43 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package com.nextcloud.talk.utils.preferences
+
+import androidx.datastore.core.DataMigration
+import androidx.datastore.preferences.core.Preferences
+import androidx.datastore.preferences.core.booleanPreferencesKey
+
+/**
+ * Waveforms of voice messages used to be stored in the settings as strings, keyed by the attachment's filename. They
+ * are cached in [com.nextcloud.talk.utils.WaveformCache] now, so DataStore removes the old entries once, the first
+ * time the settings are read.
+ *
+ * Voice messages are named "Talk recording from <date> (<conversation>)" by all Talk clients, so the entries are
+ * matched by that key.
+ */
+object LegacyWaveformMigration : DataMigration<Preferences> {
+
+    private const val LEGACY_WAVEFORMS_REMOVED = "legacy_waveforms_removed"
+    private const val VOICE_MESSAGE_NAME_PREFIX = "Talk recording from "
+
+    private val removedKey = booleanPreferencesKey(LEGACY_WAVEFORMS_REMOVED)
+
+    override suspend fun shouldMigrate(currentData: Preferences): Boolean = currentData[removedKey] != true
+
+    override suspend fun migrate(currentData: Preferences): Preferences {
+        val preferences = currentData.toMutablePreferences()
+        currentData.asMap()
+            .filter { (key, value) -> value is String && key.name.startsWith(VOICE_MESSAGE_NAME_PREFIX) }
+            .keys
+            .forEach { preferences.remove(it) }
+        preferences[removedKey] = true
+        return preferences.toPreferences()
+    }
+
+    override suspend fun cleanUp() {
+        // nothing to clean up, the entries are removed by migrate
+    }
+}
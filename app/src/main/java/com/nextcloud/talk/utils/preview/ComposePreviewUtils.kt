@@ -23,6 +23,7 @@ import com.nextcloud.talk.chat.data.io.MediaRecorderManager
 import com.nextcloud.talk.chat.data.network.ChatMessageSyncer
 import com.nextcloud.talk.conversationlist.data.network.ConversationListUpdater
 import com.nextcloud.talk.chat.data.network.ChatNetworkDataSource
+import com.nextcloud.talk.chat.data.network.MessageContextLoader
 import com.nextcloud.talk.chat.data.network.OfflineFirstChatRepository
 import com.nextcloud.talk.chat.data.network.RetrofitChatNetwork
 import com.nextcloud.talk.chat.viewmodels.ChatViewModel
@@ -43,10 +44,14 @@ import com.nextcloud.talk.data.network.NetworkMonitorImpl
 import com.nextcloud.talk.data.user.UsersDao
 import com.nextcloud.talk.data.user.UsersRepository
 import com.nextcloud.talk.data.user.UsersRepositoryImpl
+import com.nextcloud.talk.outbox.NetworkOutboxOperationSender
+import com.nextcloud.talk.outbox.Outbox
+import com.nextcloud.talk.outbox.OutboxDrainer
 import com.nextcloud.talk.repositories.reactions.ReactionsRepository
 import com.nextcloud.talk.repositories.reactions.ReactionsRepositoryImpl
 import com.nextcloud.talk.repositories.unifiedsearch.UnifiedSearchRepository
 import com.nextcloud.talk.repositories.unifiedsearch.UnifiedSearchRepositoryImpl
+import com.nextcloud.talk.shareditems.repositories.SharedItemsIndex
 import com.nextcloud.talk.threadsoverview.data.ThreadsRepository
 import com.nextcloud.talk.threadsoverview.data.ThreadsRepositoryImpl
 import com.nextcloud.talk.ui.theme.MaterialSchemesProviderImpl
@@ -163,7 +168,8 @@ class ComposePreviewUtils private constructor(context: Context) {
             chatBlocksDao,
             chatNetworkDataSource,
             networkMonitor,
-            conversationListUpdater
+            conversationListUpdater,
+            SharedItemsIndex(DummySharedItemsDaoImpl())
         )
 
     val chatRepository: ChatMessageRepository
@@ -174,9 +180,24 @@ class ComposePreviewUtils private constructor(context: Context) {
             chatNetworkDataSource,
             networkMonitor,
             chatMessageSyncer,
-            conversationListUpdater
+            conversationListUpdater,
+            outbox,
+            MessageContextLoader(chatMessagesDao, chatBlocksDao, chatNetworkDataSource, chatMessageSyncer)
         )
 
+    val outbox: Outbox
+        get() {
+            val dao = DummyOutboxDaoImpl()
+            val sender = NetworkOutboxOperationSender(
+                userManager,
+                chatNetworkDataSource,
+                reactionsRepository,
+                chatMessagesDao,
+                conversationListUpdater
+            )
+            return Outbox(dao, OutboxDrainer(dao, sender, networkMonitor, {}, CoroutineScope(Dispatchers.IO)))
+        }
+
     val threadsRepository: ThreadsRepository
         get() = ThreadsRepositoryImpl(ncApiCoroutines)
 
@@ -198,7 +219,7 @@ class ComposePreviewUtils private constructor(context: Context) {
         get() = ReactionsRepositoryImpl(ncApiCoroutines, chatMessagesDao)
 
     val unifiedSearchRepository: UnifiedSearchRepository
-        get() = UnifiedSearchRepositoryImpl(ncApiCoroutines)
+        get() = UnifiedSearchRepositoryImpl(ncApiCoroutines, chatMessagesDao)
 
     val mediaRecorderManager: MediaRecorderManager
         get() = MediaRecorderManager()
@@ -230,6 +251,7 @@ class ComposePreviewUtils private constructor(context: Context) {
             mediaRecorderManager = mediaRecorderManager,
             audioFocusRequestManager = audioFocusRequestManager,
             currentUserProvider = currentUserProvider,
+            outbox = outbox,
             appScope = CoroutineScope(SupervisorJob() + Dispatchers.IO),
             chatRoomToken = "",
             conversationThreadId = null,
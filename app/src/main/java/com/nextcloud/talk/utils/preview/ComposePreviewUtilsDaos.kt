@@ -10,11 +10,21 @@ package com.nextcloud.talk.utils.preview
 import com.nextcloud.talk.data.database.dao.ChatBlocksDao
 import com.nextcloud.talk.data.database.dao.ChatMessagesDao
 import com.nextcloud.talk.data.database.dao.ConversationsDao
+import com.nextcloud.talk.data.database.dao.OutboxDao
+import com.nextcloud.talk.data.database.dao.SharedItemsDao
 import com.nextcloud.talk.data.database.model.ChatBlockEntity
 import com.nextcloud.talk.data.database.model.ChatMessageEntity
 import com.nextcloud.talk.data.database.model.ConversationEntity
+import com.nextcloud.talk.data.database.model.ConversationListRow
+import com.nextcloud.talk.data.database.model.LastMessagePreview
+import com.nextcloud.talk.data.database.model.OutboxOperationEntity
+import com.nextcloud.talk.data.database.model.SharedItemEntity
+import com.nextcloud.talk.data.database.model.SharedItemsRangeEntity
 import com.nextcloud.talk.data.user.UsersDao
 import com.nextcloud.talk.data.user.model.UserEntity
+import com.nextcloud.talk.models.ExternalSignalingServer
+import com.nextcloud.talk.models.json.capabilities.Capabilities
+import com.nextcloud.talk.models.json.capabilities.ServerVersion
 import com.nextcloud.talk.models.json.push.PushConfigurationState
 import io.reactivex.Maybe
 import io.reactivex.Observable
@@ -198,6 +208,22 @@ class DummyUserDaoImpl : UsersDao() {
         }
     }
 
+    override fun updateCapabilities(id: Long, capabilities: Capabilities?, serverVersion: ServerVersion?): Int =
+        updateDummyUser(id) { it.copy(capabilities = capabilities, serverVersion = serverVersion) }
+
+    override fun updateExternalSignalingServer(id: Long, externalSignalingServer: ExternalSignalingServer?): Int =
+        updateDummyUser(id) { it.copy(externalSignalingServer = externalSignalingServer) }
+
+    private fun updateDummyUser(id: Long, update: (UserEntity) -> UserEntity): Int {
+        val index = dummyUsers.indexOfFirst { it.id == id }
+        return if (index != -1) {
+            dummyUsers[index] = update(dummyUsers[index])
+            1
+        } else {
+            0
+        }
+    }
+
     override fun saveUser(user: UserEntity): Long {
         val newUser = user.copy(id = dummyUsers.size + 1L)
         dummyUsers.add(newUser)
@@ -260,6 +286,11 @@ class DummyConversationDaoImpl : ConversationsDao {
 
     override fun getConversationForUser(accountId: Long, token: String): Flow<ConversationEntity?> = flowOf()
 
+    override fun getConversationListRows(accountId: Long): Flow<List<ConversationListRow>> = flowOf()
+
+    override suspend fun getConversationsWithoutLastMessagePreview(accountId: Long): List<ConversationEntity> =
+        emptyList()
+
     override suspend fun upsertConversations(accountId: Long, serverItems: List<ConversationEntity>) {
         /* */
     }
@@ -279,6 +310,18 @@ class DummyConversationDaoImpl : ConversationsDao {
         unreadMessages: Int
     ): Int = 0
 
+    override suspend fun updateLastMessagePreviewColumns(
+        internalId: String,
+        lastMessageJson: String,
+        kind: LastMessagePreview.Kind,
+        text: String,
+        author: LastMessagePreview.Author,
+        authorName: String?,
+        mimeType: String?
+    ) {
+        /* */
+    }
+
     override suspend fun updateReadState(internalId: String, lastReadMessage: Int, unreadMessages: Int) {
         /* */
     }
@@ -325,3 +368,77 @@ class DummyChatBlocksDaoImpl : ChatBlocksDao {
     override suspend fun getChatBlocksForConversation(internalConversationId: String): List<ChatBlockEntity> =
         emptyList()
 }
+
+class DummyOutboxDaoImpl : OutboxDao {
+    override suspend fun insertOperation(operation: OutboxOperationEntity): Long = 0L
+
+    override suspend fun updateOperation(operation: OutboxOperationEntity) {
+        /* */
+    }
+
+    override suspend fun getOperationByCoalesceKey(coalesceKey: String): OutboxOperationEntity? = null
+
+    override suspend fun getOperations(): List<OutboxOperationEntity> = emptyList()
+
+    override suspend fun deleteOperation(id: Long) {
+        /* */
+    }
+
+    override suspend fun deleteHandledOperation(id: Long, revision: Int): Int = 0
+
+    override suspend fun scheduleRetry(id: Long, revision: Int, attempts: Int, nextAttemptAt: Long): Int = 0
+}
+
+class DummySharedItemsDaoImpl : SharedItemsDao {
+    override fun upsertSharedItems(items: List<SharedItemEntity>) {
+        /* */
+    }
+
+    override fun getSharedItems(
+        internalConversationId: String,
+        type: String,
+        beforeMessageId: Long,
+        limit: Int
+    ): List<SharedItemEntity> = emptyList()
+
+    override fun getSharedItemTypes(internalConversationId: String): List<String> = emptyList()
+
+    override fun deleteSharedItemsOfMessages(internalConversationId: String, messageIds: List<Long>) {
+        /* */
+    }
+
+    override fun deleteSharedItemsInRange(
+        internalConversationId: String,
+        type: String,
+        oldestMessageId: Long,
+        newestMessageId: Long
+    ) {
+        /* */
+    }
+
+    override fun deleteSharedItemsOlderThan(internalConversationId: String, messageId: Long) {
+        /* */
+    }
+
+    override fun upsertRange(range: SharedItemsRangeEntity) {
+        /* */
+    }
+
+    override fun deleteRanges(ranges: List<SharedItemsRangeEntity>) {
+        /* */
+    }
+
+    override fun getConnectedRanges(
+        internalConversationId: String,
+        type: String,
+        oldestMessageId: Long,
+        newestMessageId: Long
+    ): List<SharedItemsRangeEntity> = emptyList()
+
+    override fun countRangesCovering(
+        internalConversationId: String,
+        type: String,
+        oldestMessageId: Long,
+        newestMessageId: Long
+    ): Int = 0
+}
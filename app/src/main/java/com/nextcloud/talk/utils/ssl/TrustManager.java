@@ -15,8 +15,7 @@ import android.util.Log;
 
 import com.nextcloud.talk.application.NextcloudTalkApplication;
 import com.nextcloud.talk.events.CertificateEvent;
-
-import org.greenrobot.eventbus.EventBus;
+import com.nextcloud.talk.events.EventHub;
 
 import java.io.File;
 import java.io.FileInputStream;
@@ -95,7 +94,7 @@ public class TrustManager implements X509TrustManager {
                 return true;
             } catch (CertificateException e) {
                 if (!isCertInTrustStore(x509Certificate)) {
-                    EventBus.getDefault().post(new CertificateEvent(x509Certificate, this,
+                    EventHub.getDefault().post(new CertificateEvent(x509Certificate, this,
                                                                     null));
                     long startTime = System.currentTimeMillis();
                     while (!isCertInTrustStore(x509Certificate) && System.currentTimeMillis() <=
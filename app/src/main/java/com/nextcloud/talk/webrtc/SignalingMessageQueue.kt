@@ -0,0 +1,109 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package com.nextcloud.talk.webrtc
+
+import com.nextcloud.talk.models.json.signaling.NCSignalingMessage
+
+/**
+ * Bounded queue for the messages that could not be sent while the WebSocket is (re)connecting.
+ *
+ * Call signaling is only useful for a short time, so instead of replaying everything once the connection is back:
+ * - only the newest join/leave room message is kept
+ * - a new offer or answer for a peer supersedes the queued negotiation (offer, answer, candidates) with that peer
+ * - only the newest typing state per recipient is kept
+ * - call messages older than [maxAgeMillis] are dropped
+ * - when [capacity] is exceeded the oldest call message is dropped
+ */
+class SignalingMessageQueue(
+    private val capacity: Int = DEFAULT_CAPACITY,
+    private val maxAgeMillis: Long = DEFAULT_MAX_AGE_MILLIS,
+    private val clock: () -> Long = System::currentTimeMillis
+) {
+    private val entries = ArrayDeque<Entry>()
+
+    /**
+     * Number of queued messages that were dropped as stale or superseded instead of being sent.
+     */
+    var droppedMessages = 0
+        @Synchronized get
+        private set
+
+    val size: Int
+        @Synchronized get() = entries.size
+
+    @Synchronized
+    fun enqueueRoomMessage(text: String) {
+        drop { it.signalingMessage == null }
+        add(Entry(text, null, clock()))
+    }
+
+    @Synchronized
+    fun enqueueCallMessage(text: String, signalingMessage: NCSignalingMessage) {
+        when (signalingMessage.type) {
+            OFFER, ANSWER -> drop { it.isNegotiationWith(signalingMessage) }
+            STARTED_TYPING, STOPPED_TYPING -> drop { it.isTypingFor(signalingMessage) }
+        }
+        add(Entry(text, signalingMessage, clock()))
+    }
+
+    /**
+     * Removes and returns all messages that are still worth sending, in the order they were enqueued.
+     */
+    @Synchronized
+    fun drain(): List<String> {
+        val now = clock()
+        drop { it.signalingMessage != null && now - it.enqueuedAt > maxAgeMillis }
+        val texts = entries.map { it.text }
+        entries.clear()
+        return texts
+    }
+
+    @Synchronized
+    fun clear() {
+        entries.clear()
+    }
+
+    private fun add(entry: Entry) {
+        entries.addLast(entry)
+        while (entries.size > capacity) {
+            val oldestCallMessage = entries.firstOrNull { it.signalingMessage != null } ?: break
+            entries.remove(oldestCallMessage)
+            droppedMessages++
+        }
+    }
+
+    private fun drop(predicate: (Entry) -> Boolean) {
+        val sizeBefore = entries.size
+        entries.removeAll(predicate)
+        droppedMessages += sizeBefore - entries.size
+    }
+
+    private class Entry(val text: String, val signalingMessage: NCSignalingMessage?, val enqueuedAt: Long) {
+
+        fun isNegotiationWith(other: NCSignalingMessage): Boolean =
+            signalingMessage != null &&
+                signalingMessage.type in NEGOTIATION_TYPES &&
+                signalingMessage.to == other.to &&
+                signalingMessage.roomType == other.roomType
+
+        fun isTypingFor(other: NCSignalingMessage): Boolean =
+            signalingMessage != null &&
+                (signalingMessage.type == STARTED_TYPING || signalingMessage.type == STOPPED_TYPING) &&
+                signalingMessage.to == other.to
+    }
+
+    companion object {
+        private const val DEFAULT_CAPACITY = 100
+        private const val DEFAULT_MAX_AGE_MILLIS = 30_000L
+        private const val OFFER = "offer"
+        private const val ANSWER = "answer"
+        private const val CANDIDATE = "candidate"
+        private const val STARTED_TYPING = "startedTyping"
+        private const val STOPPED_TYPING = "stoppedTyping"
+        private val NEGOTIATION_TYPES = setOf(OFFER, ANSWER, CANDIDATE)
+    }
+}
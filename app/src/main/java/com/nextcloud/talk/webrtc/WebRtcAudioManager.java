@@ -28,12 +28,12 @@ import android.media.AudioDeviceInfo;
 import android.media.AudioManager;
 import android.util.Log;
 
+import com.nextcloud.talk.events.EventHub;
 import com.nextcloud.talk.events.ProximitySensorEvent;
 import com.nextcloud.talk.utils.ContextExtensionsKt;
 import com.nextcloud.talk.utils.ReceiverFlag;
 import com.nextcloud.talk.utils.power.PowerManagerUtils;
 
-import org.greenrobot.eventbus.EventBus;
 import org.webrtc.ThreadUtils;
 
 import java.util.Collections;
@@ -126,13 +126,13 @@ public class WebRtcAudioManager {
                 setAudioDeviceInternal(AudioDevice.EARPIECE);
                 Log.d(TAG, "switched to EARPIECE because userSelectedAudioDevice was SPEAKER_PHONE and proximity=near");
 
-                EventBus.getDefault().post(new ProximitySensorEvent(ProximitySensorEvent.ProximitySensorEventType.SENSOR_NEAR));
+                EventHub.getDefault().post(new ProximitySensorEvent(ProximitySensorEvent.ProximitySensorEventType.SENSOR_NEAR));
 
             } else {
                 setAudioDeviceInternal(WebRtcAudioManager.AudioDevice.SPEAKER_PHONE);
                 Log.d(TAG, "switched to SPEAKER_PHONE because userSelectedAudioDevice was SPEAKER_PHONE and proximity=far");
 
-                EventBus.getDefault().post(new ProximitySensorEvent(ProximitySensorEvent.ProximitySensorEventType.SENSOR_FAR));
+                EventHub.getDefault().post(new ProximitySensorEvent(ProximitySensorEvent.ProximitySensorEventType.SENSOR_FAR));
             }
         }
     }
@@ -85,6 +85,9 @@ public class WebSocketConnectionHelper {
 
         if (userId == -1) {
             deleteExternalSignalingInstanceForUserEntity(userId);
+        } else if (webSocketInstance != null) {
+            // the replaced instance would otherwise keep reconnecting in the background
+            webSocketInstance.shutdown();
         }
 
         webSocketInstance = new WebSocketInstance(user, generatedURL, webSocketTicket);
@@ -94,11 +97,11 @@ public class WebSocketConnectionHelper {
 
     public static synchronized void deleteExternalSignalingInstanceForUserEntity(long id) {
         WebSocketInstance webSocketInstance;
-        if ((webSocketInstance = webSocketInstanceMap.get(id)) != null) {
+        if ((webSocketInstance = webSocketInstanceMap.remove(id)) != null) {
             if (webSocketInstance.isConnected()) {
                 webSocketInstance.sendBye();
-                webSocketInstanceMap.remove(id);
             }
+            webSocketInstance.shutdown();
         }
     }
 
@@ -176,4 +179,19 @@ public class WebSocketConnectionHelper {
         callOverallWebSocketMessage.setCallWebSocketMessage(callWebSocketMessage);
         return callOverallWebSocketMessage;
     }
+
+    CallOverallWebSocketMessage getAssembledRoomMessageModel(NCSignalingMessage ncSignalingMessage) {
+        CallOverallWebSocketMessage callOverallWebSocketMessage = new CallOverallWebSocketMessage();
+        callOverallWebSocketMessage.setType("message");
+
+        CallWebSocketMessage callWebSocketMessage = new CallWebSocketMessage();
+
+        ActorWebSocketMessage actorWebSocketMessage = new ActorWebSocketMessage();
+        actorWebSocketMessage.setType("room");
+        callWebSocketMessage.setRecipientWebSocketMessage(actorWebSocketMessage);
+        callWebSocketMessage.setNcSignalingMessage(ncSignalingMessage);
+
+        callOverallWebSocketMessage.setCallWebSocketMessage(callWebSocketMessage);
+        return callOverallWebSocketMessage;
+    }
 }
@@ -14,8 +14,9 @@ import autodagger.AutoInjector
 import com.bluelinelabs.logansquare.LoganSquare
 import com.nextcloud.talk.application.NextcloudTalkApplication
 import com.nextcloud.talk.application.NextcloudTalkApplication.Companion.sharedApplication
+import com.nextcloud.talk.data.network.NetworkMonitor
 import com.nextcloud.talk.data.user.model.User
-import com.nextcloud.talk.events.NetworkEvent
+import com.nextcloud.talk.events.EventHub
 import com.nextcloud.talk.events.WebSocketCommunicationEvent
 import com.nextcloud.talk.models.json.participants.Participant
 import com.nextcloud.talk.models.json.participants.Participant.ActorType
@@ -38,11 +39,7 @@ import okhttp3.Response
 import okhttp3.WebSocket
 import okhttp3.WebSocketListener
 import okio.ByteString
-import org.greenrobot.eventbus.EventBus
-import org.greenrobot.eventbus.Subscribe
-import org.greenrobot.eventbus.ThreadMode
 import java.io.IOException
-import java.lang.Thread.sleep
 import javax.inject.Inject
 
 @AutoInjector(NextcloudTalkApplication::class)
@@ -55,11 +52,15 @@ class WebSocketInstance internal constructor(conversationUser: User, connectionU
 
     @JvmField
     @Inject
-    var eventBus: EventBus? = null
+    var eventBus: EventHub? = null
 
     @JvmField
     @Inject
     var context: Context? = null
+
+    @JvmField
+    @Inject
+    var networkMonitor: NetworkMonitor? = null
     private val conversationUser: User
     private val webSocketTicket: String
     private var resumeId: String? = null
@@ -77,7 +78,8 @@ class WebSocketInstance internal constructor(conversationUser: User, connectionU
     private var currentFederation: FederationSettings? = null
     private var reconnecting = false
     private val usersHashMap: HashMap<String?, Participant>
-    private var messagesQueue: MutableList<String> = ArrayList()
+    private val messageQueue = SignalingMessageQueue()
+    private val reconnectSupervisor: WebSocketReconnectSupervisor
     private val signalingMessageReceiver = ExternalSignalingMessageReceiver()
     val signalingMessageSender = ExternalSignalingMessageSender()
 
@@ -89,10 +91,20 @@ class WebSocketInstance internal constructor(conversationUser: User, connectionU
         webSocketConnectionHelper = WebSocketConnectionHelper()
         usersHashMap = HashMap()
         isConnected = false
-        eventBus!!.register(this)
-        restartWebSocket()
+        reconnectSupervisor = WebSocketReconnectSupervisor(networkMonitor!!.isOnline, ::openWebSocket)
+        reconnectSupervisor.onConnecting()
+        openWebSocket()
     }
 
+    val connectionStats: WebSocketConnectionStats
+        get() = WebSocketConnectionStats(
+            reconnects = reconnectSupervisor.reconnects,
+            resumeAttempts = reconnectSupervisor.resumeAttempts,
+            resumedSessions = reconnectSupervisor.resumedSessions,
+            queueDepth = messageQueue.size,
+            droppedMessages = messageQueue.droppedMessages
+        )
+
     private fun sendHello() {
         try {
             if (TextUtils.isEmpty(resumeId)) {
@@ -103,6 +115,7 @@ class WebSocketInstance internal constructor(conversationUser: User, connectionU
                     )
                 )
             } else {
+                reconnectSupervisor.onResumeAttempt()
                 internalWebSocket!!.send(
                     LoganSquare.serialize(
                         webSocketConnectionHelper
@@ -126,10 +139,12 @@ class WebSocketInstance internal constructor(conversationUser: User, connectionU
         webSocket.cancel()
         if (webSocket === internalWebSocket) {
             isConnected = false
-            messagesQueue = ArrayList()
+        } else if (isConnected) {
+            // a replaced socket failed, the current one is fine
+            return
         }
-        sleep(ONE_SECOND)
-        restartWebSocket()
+        // queued messages are kept for the resumed session, the queue drops whatever gets stale meanwhile
+        reconnectSupervisor.onConnectionLost()
     }
 
     fun clearResumeId() {
@@ -137,8 +152,22 @@ class WebSocketInstance internal constructor(conversationUser: User, connectionU
     }
 
     fun restartWebSocket() {
+        reconnectSupervisor.reconnectNow()
+    }
+
+    /**
+     * Stops reconnecting and closes the connection, the instance is not usable afterwards.
+     */
+    fun shutdown() {
+        reconnectSupervisor.stop()
+        messageQueue.clear()
+        internalWebSocket?.close(NORMAL_CLOSURE, null)
+        isConnected = false
+    }
+
+    private fun openWebSocket() {
         reconnecting = true
-        Log.d(TAG, "restartWebSocket: $connectionUrl")
+        Log.d(TAG, "openWebSocket: $connectionUrl")
         val request = Request.Builder().url(connectionUrl).build()
         okHttpClient!!.newWebSocket(request, this)
     }
@@ -308,9 +337,13 @@ class WebSocketInstance internal constructor(conversationUser: User, connectionU
                 resumeId = ""
                 currentRoomToken = ""
                 currentNormalBackendSession = ""
-                restartWebSocket()
+                // everything queued was meant for the expired session, the room is joined again after "hello"
+                messageQueue.clear()
+                webSocket.close(NORMAL_CLOSURE, null)
+                reconnectSupervisor.reconnectNow()
             } else if ("hello_expected" == message.code) {
-                restartWebSocket()
+                webSocket.close(NORMAL_CLOSURE, null)
+                reconnectSupervisor.reconnectNow()
             }
         }
     }
@@ -338,10 +371,10 @@ class WebSocketInstance internal constructor(conversationUser: User, connectionU
                 Log.d(TAG, "chat-relay is NOT supported")
             }
         }
-        for (i in messagesQueue.indices) {
-            webSocket.send(messagesQueue[i])
+        reconnectSupervisor.onConnected(resumed = !TextUtils.isEmpty(oldResumeId))
+        for (message in messageQueue.drain()) {
+            webSocket.send(message)
         }
-        messagesQueue = ArrayList()
         val helloHashMap = HashMap<String, String?>()
         if (!TextUtils.isEmpty(oldResumeId)) {
             helloHashMap["oldResumeId"] = oldResumeId
@@ -388,6 +421,11 @@ class WebSocketInstance internal constructor(conversationUser: User, connectionU
     fun hasMCU(): Boolean = hasMCU
     fun supportsChatRelay(): Boolean = supportsChatRelay
 
+    /**
+     * Messages addressed to the room reach all sessions in it with a single frame, but only once the room is joined.
+     */
+    fun supportsRoomMessages(): Boolean = isConnected && !TextUtils.isEmpty(currentRoomToken)
+
     @Suppress("Detekt.ComplexMethod")
     fun joinRoomWithRoomTokenAndSession(
         roomToken: String,
@@ -405,7 +443,7 @@ class WebSocketInstance internal constructor(conversationUser: User, connectionU
                 Log.d(TAG, "sending 'leave room' via websocket")
                 currentNormalBackendSession = ""
                 currentFederation = null
-                sendMessage(message)
+                sendMessage(message) { enqueueRoomMessage(message) }
             } else if (
                 roomToken == currentRoomToken &&
                 normalBackendSession == currentNormalBackendSession &&
@@ -418,7 +456,7 @@ class WebSocketInstance internal constructor(conversationUser: User, connectionU
                 Log.d(TAG, "Sending join room message via websocket")
                 currentNormalBackendSession = normalBackendSession
                 currentFederation = federation
-                sendMessage(message)
+                sendMessage(message) { enqueueRoomMessage(message) }
             }
         } catch (e: IOException) {
             Log.e(TAG, "Failed to serialize signaling message", e)
@@ -430,25 +468,29 @@ class WebSocketInstance internal constructor(conversationUser: User, connectionU
             val message = LoganSquare.serialize(
                 webSocketConnectionHelper.getAssembledCallMessageModel(ncSignalingMessage)
             )
-            sendMessage(message)
+            sendMessage(message) { enqueueCallMessage(message, ncSignalingMessage) }
         } catch (e: IOException) {
             Log.e(TAG, "Failed to serialize signaling message", e)
         }
     }
 
-    private fun sendMessage(message: String) {
-        if (!isConnected || reconnecting) {
-            messagesQueue.add(message)
+    private fun sendRoomMessage(ncSignalingMessage: NCSignalingMessage) {
+        try {
+            val message = LoganSquare.serialize(
+                webSocketConnectionHelper.getAssembledRoomMessageModel(ncSignalingMessage)
+            )
+            sendMessage(message) { enqueueCallMessage(message, ncSignalingMessage) }
+        } catch (e: IOException) {
+            Log.e(TAG, "Failed to serialize signaling message", e)
+        }
+    }
 
-            if (!reconnecting) {
-                restartWebSocket()
-            }
-        } else {
-            if (!internalWebSocket!!.send(message)) {
-                messagesQueue.add(message)
-                restartWebSocket()
-            }
+    private fun sendMessage(message: String, enqueue: SignalingMessageQueue.() -> Unit) {
+        if (isConnected && !reconnecting && internalWebSocket!!.send(message)) {
+            return
         }
+        messageQueue.enqueue()
+        reconnectSupervisor.requestReconnect()
     }
 
     fun sendBye() {
@@ -474,15 +516,6 @@ class WebSocketInstance internal constructor(conversationUser: User, connectionU
         return ""
     }
 
-    @Subscribe(threadMode = ThreadMode.BACKGROUND)
-    fun onMessageEvent(networkEvent: NetworkEvent) {
-        if (networkEvent.networkConnectionEvent == NetworkEvent.NetworkConnectionEvent.NETWORK_CONNECTED &&
-            !isConnected
-        ) {
-            restartWebSocket()
-        }
-    }
-
     fun getSignalingMessageReceiver(): SignalingMessageReceiver = signalingMessageReceiver
 
     /**
@@ -518,11 +551,14 @@ class WebSocketInstance internal constructor(conversationUser: User, connectionU
         override fun send(ncSignalingMessage: NCSignalingMessage) {
             sendCallMessage(ncSignalingMessage)
         }
+
+        fun sendToRoom(ncSignalingMessage: NCSignalingMessage) {
+            sendRoomMessage(ncSignalingMessage)
+        }
     }
 
     companion object {
         private const val TAG = "WebSocketInstance"
         private const val NORMAL_CLOSURE = 1000
-        private const val ONE_SECOND: Long = 1000
     }
 }
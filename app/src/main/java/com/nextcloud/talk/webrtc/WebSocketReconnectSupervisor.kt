@@ -0,0 +1,193 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package com.nextcloud.talk.webrtc
+
+import android.util.Log
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.filter
+import kotlinx.coroutines.launch
+import kotlin.random.Random
+
+/**
+ * Decides when a lost signaling WebSocket is connected again.
+ *
+ * Reconnects are delayed with jittered exponential backoff, so flaky networks do not turn into a reconnect storm
+ * against the signaling server. While the device is offline no attempts are made at all; once it is back online the
+ * next attempt starts right away. Any number of lost connection reports while an attempt is pending or in progress
+ * result in a single reconnect.
+ */
+class WebSocketReconnectSupervisor(
+    private val isOnline: StateFlow<Boolean>,
+    private val reconnect: () -> Unit,
+    private val scope: CoroutineScope = CoroutineScope(SupervisorJob() + Dispatchers.IO),
+    private val backoff: ReconnectBackoff = ReconnectBackoff()
+) {
+    private var failedAttempts = 0
+    private var connecting = false
+    private var waitingForNetwork = false
+    private var stopped = false
+    private var pendingReconnect: Job? = null
+
+    var reconnects = 0
+        @Synchronized get
+        private set
+
+    var resumeAttempts = 0
+        @Synchronized get
+        private set
+
+    var resumedSessions = 0
+        @Synchronized get
+        private set
+
+    private val networkJob: Job = scope.launch {
+        isOnline.filter { it }.collect { onNetworkAvailable() }
+    }
+
+    /**
+     * To be called for the initial connection, which is not counted as a reconnect.
+     */
+    @Synchronized
+    fun onConnecting() {
+        connecting = true
+    }
+
+    /**
+     * The connection failed or dropped, schedules the next attempt.
+     */
+    @Synchronized
+    fun onConnectionLost() {
+        connecting = false
+        scheduleReconnect()
+    }
+
+    /**
+     * Something suggests the connection is gone (e.g. sending failed), reconnects unless that is already underway.
+     */
+    @Synchronized
+    fun requestReconnect() {
+        if (!connecting) {
+            scheduleReconnect()
+        }
+    }
+
+    /**
+     * Reconnects without backoff, for when the server asks for a new session on a working connection.
+     */
+    @Synchronized
+    fun reconnectNow() {
+        pendingReconnect?.cancel()
+        pendingReconnect = null
+        if (!stopped) {
+            launchReconnect(0)
+        }
+    }
+
+    @Synchronized
+    fun onResumeAttempt() {
+        resumeAttempts++
+    }
+
+    @Synchronized
+    fun onConnected(resumed: Boolean) {
+        connecting = false
+        failedAttempts = 0
+        if (resumed) {
+            resumedSessions++
+        }
+    }
+
+    @Synchronized
+    fun stop() {
+        stopped = true
+        pendingReconnect?.cancel()
+        pendingReconnect = null
+        networkJob.cancel()
+    }
+
+    private fun scheduleReconnect() {
+        if (stopped || pendingReconnect?.isActive == true) {
+            return
+        }
+        if (!isOnline.value) {
+            Log.d(TAG, "Offline, waiting for the network before reconnecting")
+            waitingForNetwork = true
+            return
+        }
+        val delayMillis = backoff.delayMillis(failedAttempts++)
+        Log.d(TAG, "Reconnecting in $delayMillis ms (attempt $failedAttempts)")
+        launchReconnect(delayMillis)
+    }
+
+    @Synchronized
+    private fun onNetworkAvailable() {
+        if (waitingForNetwork && !stopped && pendingReconnect?.isActive != true) {
+            waitingForNetwork = false
+            failedAttempts = 0
+            launchReconnect(0)
+        }
+    }
+
+    private fun launchReconnect(delayMillis: Long) {
+        pendingReconnect = scope.launch {
+            delay(delayMillis)
+            val proceed = synchronized(this@WebSocketReconnectSupervisor) {
+                pendingReconnect = null
+                if (!stopped) {
+                    connecting = true
+                    reconnects++
+                }
+                !stopped
+            }
+            if (proceed) {
+                reconnect()
+            }
+        }
+    }
+
+    companion object {
+        private val TAG = WebSocketReconnectSupervisor::class.java.simpleName
+    }
+}
+
+/**
+ * Exponential backoff with "equal jitter": the delay for an attempt is at least half of the exponential value, the
+ * rest is random, so clients that lost their connection at the same time do not come back at the same time.
+ */
+class ReconnectBackoff(
+    private val initialDelayMillis: Long = INITIAL_DELAY_MILLIS,
+    private val maxDelayMillis: Long = MAX_DELAY_MILLIS,
+    private val random: Random = Random.Default
+) {
+    fun delayMillis(attempt: Int): Long {
+        val exponential = (initialDelayMillis shl attempt.coerceIn(0, MAX_EXPONENT)).coerceAtMost(maxDelayMillis)
+        val half = exponential / 2
+        return half + random.nextLong(exponential - half + 1)
+    }
+
+    companion object {
+        private const val INITIAL_DELAY_MILLIS = 1000L
+        private const val MAX_DELAY_MILLIS = 30_000L
+        private const val MAX_EXPONENT = 16
+    }
+}
+
+data class WebSocketConnectionStats(
+    val reconnects: Int,
+    val resumeAttempts: Int,
+    val resumedSessions: Int,
+    val queueDepth: Int,
+    val droppedMessages: Int
+) {
+    val resumeSuccessRate: Float
+        get() = if (resumeAttempts == 0) 0f else resumedSessions.toFloat() / resumeAttempts
+}
@@ -6,9 +6,11 @@
  */
 package com.nextcloud.talk.activities
 
+import com.nextcloud.talk.models.json.participants.Participant
 import com.nextcloud.talk.signaling.SignalingMessageReceiver
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.test.StandardTestDispatcher
 import kotlinx.coroutines.test.TestScope
 import kotlinx.coroutines.test.runTest
@@ -160,4 +162,37 @@ class CallViewModelTest {
 
             assertEquals(0, viewModel.participants.value.size)
         }
+
+    @Test
+    fun `participants without a signaling name are shown with their stored display name`() =
+        testScope.runTest {
+            val stored = MutableStateFlow(emptyList<Participant>())
+            viewModel.observeStoredParticipants(stored)
+            viewModel.addParticipant(
+                baseUrl = "",
+                roomToken = "",
+                sessionId = "session1",
+                signalingMessageReceiver = mock()
+            )
+            viewModel.addParticipant(
+                baseUrl = "",
+                roomToken = "",
+                sessionId = "session2",
+                signalingMessageReceiver = mock()
+            )
+            viewModel.getParticipant("session1")?.updateActor(Participant.ActorType.USERS, "alice")
+            viewModel.getParticipant("session2")?.updateActor(Participant.ActorType.USERS, "bob")
+            viewModel.getParticipant("session2")?.updateNick("Bobby")
+            testDispatcher.scheduler.advanceUntilIdle()
+
+            stored.value = listOf(
+                Participant(actorType = Participant.ActorType.USERS, actorId = "alice", displayName = "Alice"),
+                Participant(actorType = Participant.ActorType.USERS, actorId = "bob", displayName = "Bob")
+            )
+            testDispatcher.scheduler.advanceUntilIdle()
+
+            val nicks = viewModel.participants.value.associate { it.sessionKey to it.nick }
+            assertEquals("Alice", nicks["session1"])
+            assertEquals("Bobby", nicks["session2"])
+        }
 }
@@ -0,0 +1,254 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.avatar
+
+import android.app.Application
+import android.content.Context
+import android.graphics.Bitmap
+import android.graphics.Color
+import androidx.core.graphics.ColorUtils
+import androidx.room.Room
+import androidx.test.core.app.ApplicationProvider
+import com.nextcloud.talk.data.source.local.TalkDatabase
+import kotlinx.coroutines.runBlocking
+import okhttp3.OkHttpClient
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNotEquals
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import org.robolectric.annotation.GraphicsMode
+import java.io.File
+import java.net.HttpURLConnection
+
+@RunWith(RobolectricTestRunner::class)
+@Config(application = Application::class, sdk = [33])
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+class AvatarRepositoryTest {
+
+    @get:Rule
+    val temporaryFolder = TemporaryFolder()
+
+    private lateinit var db: TalkDatabase
+    private lateinit var server: MockWebServer
+    private lateinit var directory: File
+    private lateinit var repository: AvatarRepository
+    private var now = START_TIME
+    private var decodedFiles = 0
+
+    @Before
+    fun setUp() {
+        val context = ApplicationProvider.getApplicationContext<Context>()
+        db = Room.inMemoryDatabaseBuilder(context, TalkDatabase::class.java)
+            .allowMainThreadQueries()
+            .build()
+        server = MockWebServer()
+        server.start()
+        directory = temporaryFolder.newFolder(AvatarRepository.DIRECTORY_NAME)
+        val decoder = AvatarDecoder { file, _ ->
+            decodedFiles++
+            if (file.exists()) {
+                Bitmap.createBitmap(DECODED_WIDTH, DECODED_HEIGHT, Bitmap.Config.ARGB_8888)
+                    .apply { eraseColor(LIGHT_COLOR) }
+            } else {
+                null
+            }
+        }
+        repository = AvatarRepository(OkHttpClient(), db.avatarsDao(), directory, decoder, clock = { now })
+    }
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+        db.close()
+    }
+
+    @Test
+    fun `an avatar is downloaded once and served in every size and theme`() {
+        server.enqueue(image(custom = true))
+        val avatar = conversationAvatar(version = "1")
+
+        val list = load(avatar, LIST_SIZE_PX, dark = false)
+        val shortcut = load(avatar, SHORTCUT_SIZE_PX, dark = true)
+
+        assertEquals(1, server.requestCount)
+        assertEquals(LIST_SIZE_PX, list!!.width)
+        assertEquals(LIST_SIZE_PX, list.height)
+        assertEquals(SHORTCUT_SIZE_PX, shortcut!!.width)
+        assertEquals(SHORTCUT_SIZE_PX, shortcut.height)
+        assertEquals(1, directory.listFiles()!!.size)
+    }
+
+    @Test
+    fun `the light variant is requested with authorization`() {
+        server.enqueue(image(custom = true))
+
+        load(conversationAvatar(version = "1"), LIST_SIZE_PX, dark = true)
+
+        val request = server.takeRequest()
+        assertEquals(CREDENTIALS, request.getHeader("Authorization"))
+        assertTrue(request.path!!.contains("/room/$ROOM_TOKEN/avatar?avatarVersion=1"))
+        assertFalse(request.path!!.contains("/dark"))
+    }
+
+    @Test
+    fun `the dark variant of a generated avatar is derived locally`() {
+        server.enqueue(image(custom = false))
+        val avatar = conversationAvatar(version = "1")
+
+        val light = load(avatar, LIST_SIZE_PX, dark = false)!!
+        val dark = load(avatar, LIST_SIZE_PX, dark = true)!!
+
+        assertEquals(1, server.requestCount)
+        assertEquals(LIGHT_COLOR, light.getPixel(0, 0))
+        assertTrue(ColorUtils.calculateLuminance(dark.getPixel(0, 0)) < DARK_LUMINANCE)
+    }
+
+    @Test
+    fun `a custom avatar looks the same in both themes`() {
+        server.enqueue(image(custom = true))
+
+        val dark = load(conversationAvatar(version = "1"), LIST_SIZE_PX, dark = true)!!
+
+        assertEquals(LIGHT_COLOR, dark.getPixel(0, 0))
+    }
+
+    @Test
+    fun `versioned avatars are never revalidated`() {
+        server.enqueue(image(custom = true))
+        load(conversationAvatar(version = "1"), LIST_SIZE_PX, dark = false)
+
+        now += AvatarRepository.REVALIDATE_INTERVAL_MILLIS * 10
+        assertNotNull(load(conversationAvatar(version = "1"), LIST_SIZE_PX, dark = false))
+
+        assertEquals(1, server.requestCount)
+    }
+
+    @Test
+    fun `a new avatar version is downloaded`() {
+        server.enqueue(image(custom = true))
+        server.enqueue(image(custom = true))
+        load(conversationAvatar(version = "1"), LIST_SIZE_PX, dark = false)
+
+        load(conversationAvatar(version = "2"), LIST_SIZE_PX, dark = false)
+        load(conversationAvatar(version = "2"), LIST_SIZE_PX, dark = false)
+
+        assertEquals(2, server.requestCount)
+    }
+
+    @Test
+    fun `unversioned avatars are revalidated once per interval`() {
+        server.enqueue(image(custom = true).setHeader("ETag", ETAG))
+        server.enqueue(MockResponse().setResponseCode(HttpURLConnection.HTTP_NOT_MODIFIED))
+        val avatar = conversationAvatar(version = null)
+        load(avatar, LIST_SIZE_PX, dark = false)
+
+        now += AvatarRepository.REVALIDATE_INTERVAL_MILLIS - 1
+        load(avatar, LIST_SIZE_PX, dark = false)
+        assertEquals(1, server.requestCount)
+
+        now += 1
+        assertNotNull(load(avatar, LIST_SIZE_PX, dark = false))
+        load(avatar, LIST_SIZE_PX, dark = false)
+
+        assertEquals(2, server.requestCount)
+        server.takeRequest()
+        assertEquals(ETAG, server.takeRequest().getHeader("If-None-Match"))
+    }
+
+    @Test
+    fun `a failed revalidation keeps the stored avatar`() {
+        server.enqueue(image(custom = true))
+        server.enqueue(MockResponse().setResponseCode(HttpURLConnection.HTTP_INTERNAL_ERROR))
+        val avatar = conversationAvatar(version = null)
+        load(avatar, LIST_SIZE_PX, dark = false)
+
+        now += AvatarRepository.REVALIDATE_INTERVAL_MILLIS
+        assertNotNull(load(avatar, LIST_SIZE_PX, dark = false))
+        load(avatar, LIST_SIZE_PX, dark = false)
+
+        assertEquals("the failed attempt waits for the next interval", 2, server.requestCount)
+    }
+
+    @Test
+    fun `an avatar that can not be downloaded is missing`() {
+        server.enqueue(MockResponse().setResponseCode(HttpURLConnection.HTTP_NOT_FOUND))
+
+        assertNull(load(conversationAvatar(version = "1"), LIST_SIZE_PX, dark = false))
+        assertEquals(0, decodedFiles)
+    }
+
+    @Test
+    fun `the cache key of unversioned avatars changes with the revalidation interval`() {
+        val versioned = conversationAvatar(version = "1")
+        val unversioned = conversationAvatar(version = null)
+        val versionedKey = repository.cacheKey(versioned, dark = false)
+        val unversionedKey = repository.cacheKey(unversioned, dark = false)
+
+        now += AvatarRepository.REVALIDATE_INTERVAL_MILLIS
+
+        assertEquals(versionedKey, repository.cacheKey(versioned, dark = false))
+        assertNotEquals(unversionedKey, repository.cacheKey(unversioned, dark = false))
+        assertNotEquals(versionedKey, repository.cacheKey(versioned, dark = true))
+    }
+
+    @Test
+    fun `removing an account deletes its avatars`() {
+        server.enqueue(image(custom = true))
+        load(conversationAvatar(version = "1"), LIST_SIZE_PX, dark = false)
+
+        repository.deleteAvatarsOfAccount(ACCOUNT_ID)
+
+        assertTrue(directory.listFiles()!!.isEmpty())
+        assertNull(db.avatarsDao().getAvatar(ACCOUNT_ID, "conversation/$ROOM_TOKEN"))
+    }
+
+    private fun load(avatar: Avatar, sizePx: Int, dark: Boolean): Bitmap? =
+        runBlocking { repository.load(avatar, sizePx, dark) }
+
+    private fun conversationAvatar(version: String?) =
+        Avatar(
+            accountId = ACCOUNT_ID,
+            baseUrl = server.url("/").toString().trimEnd('/'),
+            credentials = CREDENTIALS,
+            type = Avatar.Type.CONVERSATION,
+            id = ROOM_TOKEN,
+            version = version
+        )
+
+    private fun image(custom: Boolean) =
+        MockResponse()
+            .setHeader("Content-Type", "image/png")
+            .setHeader("X-NC-IsCustomAvatar", if (custom) "1" else "0")
+            .setBody("image bytes")
+
+    companion object {
+        private const val ACCOUNT_ID = 1L
+        private const val ROOM_TOKEN = "room1"
+        private const val CREDENTIALS = "Basic dXNlcjpwYXNz"
+        private const val ETAG = "\"abc\""
+        private const val START_TIME = 1_700_000_000_000L
+        private const val LIST_SIZE_PX = 96
+        private const val SHORTCUT_SIZE_PX = 256
+        private const val DECODED_WIDTH = 512
+        private const val DECODED_HEIGHT = 400
+        private const val DARK_LUMINANCE = 0.2
+        private val LIGHT_COLOR = Color.rgb(230, 230, 250)
+    }
+}
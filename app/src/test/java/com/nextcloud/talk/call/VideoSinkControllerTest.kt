@@ -0,0 +1,204 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.call
+
+import com.nextcloud.talk.models.json.signaling.NCSignalingMessage
+import com.nextcloud.talk.signaling.SignalingMessageSender
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class VideoSinkControllerTest {
+
+    private val requests = mutableListOf<Pair<String, StreamQuality>>()
+    private val controller = VideoSinkController(SizeBasedVideoSinkPolicy()) { sessionId, quality ->
+        requests += sessionId to quality
+    }
+
+    @Test
+    fun `a bound tile is attached once it is visible`() {
+        val track = FakeTrack()
+        controller.bind(SESSION_1, track)
+        assertFalse(track.hasSink)
+
+        controller.update(SESSION_1, visible(LARGE_PX))
+
+        assertTrue(track.hasSink)
+        assertEquals(listOf(SESSION_1 to StreamQuality.HIGH), requests)
+    }
+
+    @Test
+    fun `a hidden tile is detached and its stream paused`() {
+        val track = FakeTrack()
+        controller.bind(SESSION_1, track)
+        controller.update(SESSION_1, visible(LARGE_PX))
+
+        controller.update(SESSION_1, hidden())
+
+        assertFalse(track.hasSink)
+        assertEquals(StreamQuality.PAUSED, requests.last().second)
+    }
+
+    @Test
+    fun `a tile that becomes visible again is attached again`() {
+        val track = FakeTrack()
+        controller.bind(SESSION_1, track)
+        controller.update(SESSION_1, visible(LARGE_PX))
+        controller.update(SESSION_1, hidden())
+
+        controller.update(SESSION_1, visible(SMALL_PX))
+
+        assertTrue(track.hasSink)
+        assertEquals(2, track.attachCount)
+        assertEquals(StreamQuality.LOW, requests.last().second)
+    }
+
+    @Test
+    fun `resizing a tile only requests another quality`() {
+        val track = FakeTrack()
+        controller.bind(SESSION_1, track)
+        controller.update(SESSION_1, visible(SMALL_PX))
+
+        controller.update(SESSION_1, visible(MEDIUM_PX))
+        controller.update(SESSION_1, visible(MEDIUM_PX))
+
+        assertEquals(1, track.attachCount)
+        assertEquals(
+            listOf(SESSION_1 to StreamQuality.LOW, SESSION_1 to StreamQuality.MEDIUM),
+            requests
+        )
+    }
+
+    @Test
+    fun `tiles are managed independently`() {
+        val visibleTrack = FakeTrack()
+        val hiddenTrack = FakeTrack()
+        controller.bind(SESSION_1, visibleTrack)
+        controller.bind(SESSION_2, hiddenTrack)
+
+        controller.update(SESSION_1, visible(LARGE_PX))
+        controller.update(SESSION_2, hidden())
+
+        assertTrue(visibleTrack.hasSink)
+        assertFalse(hiddenTrack.hasSink)
+        assertEquals(
+            listOf(SESSION_1 to StreamQuality.HIGH, SESSION_2 to StreamQuality.PAUSED),
+            requests
+        )
+    }
+
+    @Test
+    fun `an unbound tile is detached and its stream paused`() {
+        val track = FakeTrack()
+        controller.bind(SESSION_1, track)
+        controller.update(SESSION_1, visible(LARGE_PX))
+
+        controller.unbind(SESSION_1, track)
+        controller.update(SESSION_1, visible(LARGE_PX))
+
+        assertFalse(track.hasSink)
+        assertEquals(
+            listOf(SESSION_1 to StreamQuality.HIGH, SESSION_1 to StreamQuality.PAUSED),
+            requests
+        )
+    }
+
+    @Test
+    fun `releasing a replaced tile does not touch the new one`() {
+        val oldTrack = FakeTrack()
+        val newTrack = FakeTrack()
+        controller.bind(SESSION_1, oldTrack)
+        controller.update(SESSION_1, visible(LARGE_PX))
+
+        controller.bind(SESSION_1, newTrack)
+        controller.update(SESSION_1, visible(LARGE_PX))
+        controller.unbind(SESSION_1, oldTrack)
+
+        assertFalse(oldTrack.hasSink)
+        assertTrue(newTrack.hasSink)
+        assertEquals(StreamQuality.HIGH, requests.last().second)
+    }
+
+    @Test
+    fun `the policy picks the smallest layer covering the tile`() {
+        val policy = SizeBasedVideoSinkPolicy()
+
+        assertEquals(StreamQuality.PAUSED, policy.qualityFor(hidden()))
+        assertEquals(StreamQuality.PAUSED, policy.qualityFor(visible(0)))
+        assertEquals(StreamQuality.LOW, policy.qualityFor(visible(SizeBasedVideoSinkPolicy.LOW_QUALITY_MAX_PX)))
+        assertEquals(StreamQuality.MEDIUM, policy.qualityFor(visible(SizeBasedVideoSinkPolicy.LOW_QUALITY_MAX_PX + 1)))
+        assertEquals(StreamQuality.MEDIUM, policy.qualityFor(visible(SizeBasedVideoSinkPolicy.MEDIUM_QUALITY_MAX_PX)))
+        assertEquals(StreamQuality.HIGH, policy.qualityFor(visible(SizeBasedVideoSinkPolicy.MEDIUM_QUALITY_MAX_PX + 1)))
+        assertEquals(StreamQuality.HIGH, policy.qualityFor(VideoTileState(true, SMALL_PX, LARGE_PX)))
+    }
+
+    @Test
+    fun `the mcu is asked for the simulcast layer of the quality`() {
+        val sent = mutableListOf<NCSignalingMessage>()
+        val sender = SignalingMessageSender { sent += it }
+        val requester = McuStreamQualityRequester(hasMcu = { true }, signalingMessageSender = { sender })
+
+        requester.requestQuality(SESSION_1, StreamQuality.MEDIUM)
+        requester.requestQuality(SESSION_1, StreamQuality.PAUSED)
+
+        assertEquals(2, sent.size)
+        sent.forEach {
+            assertEquals(SESSION_1, it.to)
+            assertEquals(McuStreamQualityRequester.SELECT_STREAM_MESSAGE_TYPE, it.type)
+            assertEquals("video", it.roomType)
+        }
+        assertEquals(true, sent[0].payload!!.video)
+        assertEquals(StreamQuality.MEDIUM.substream, sent[0].payload!!.substream)
+        assertEquals(StreamQuality.MEDIUM.temporal, sent[0].payload!!.temporal)
+        assertEquals(false, sent[1].payload!!.video)
+        assertNull(sent[1].payload!!.substream)
+    }
+
+    @Test
+    fun `nothing is sent without the mcu`() {
+        val sent = mutableListOf<NCSignalingMessage>()
+        val requester = McuStreamQualityRequester(
+            hasMcu = { false },
+            signalingMessageSender = { SignalingMessageSender { sent += it } }
+        )
+
+        requester.requestQuality(SESSION_1, StreamQuality.LOW)
+
+        assertTrue(sent.isEmpty())
+    }
+
+    private class FakeTrack : VideoTrackSink {
+        var hasSink = false
+        var attachCount = 0
+
+        override fun attach() {
+            check(!hasSink) { "sink attached twice" }
+            hasSink = true
+            attachCount++
+        }
+
+        override fun detach() {
+            check(hasSink) { "sink detached without being attached" }
+            hasSink = false
+        }
+    }
+
+    private fun visible(sizePx: Int) = VideoTileState(isVisible = true, widthPx = sizePx, heightPx = sizePx)
+
+    private fun hidden() = VideoTileState(isVisible = false, widthPx = LARGE_PX, heightPx = LARGE_PX)
+
+    companion object {
+        private const val SESSION_1 = "session1"
+        private const val SESSION_2 = "session2"
+        private const val SMALL_PX = 200
+        private const val MEDIUM_PX = 500
+        private const val LARGE_PX = 1000
+    }
+}
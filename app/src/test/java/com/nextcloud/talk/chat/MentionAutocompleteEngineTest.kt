@@ -0,0 +1,142 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.chat
+
+import com.nextcloud.talk.models.json.mention.Mention
+import com.nextcloud.talk.models.json.participants.Participant
+import io.reactivex.Observable
+import io.reactivex.schedulers.TestScheduler
+import io.reactivex.subjects.PublishSubject
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.util.concurrent.TimeUnit
+
+class MentionAutocompleteEngineTest {
+
+    private val scheduler = TestScheduler()
+    private val requests = mutableListOf<String>()
+    private val responses = mutableMapOf<String, PublishSubject<List<Mention>>>()
+    private val shown = mutableListOf<List<String?>>()
+
+    private val engine = MentionAutocompleteEngine(
+        remoteSuggestions = { query ->
+            requests += query
+            PublishSubject.create<List<Mention>>().also { responses[query] = it }
+        },
+        onSuggestions = { mentions -> shown += mentions.map { it.id } },
+        limit = LIMIT,
+        debounceMillis = DEBOUNCE_MILLIS,
+        timerScheduler = scheduler,
+        resultScheduler = scheduler
+    )
+
+    @Test
+    fun `local matches are shown before the server is asked`() {
+        engine.addKnownMentions(listOf(mention("alice", "Alice"), mention("bob", "Bob")))
+
+        engine.query("al")
+
+        assertEquals(listOf(listOf("alice")), shown)
+        assertTrue(requests.isEmpty())
+    }
+
+    @Test
+    fun `typing quickly sends a single request for the last query`() {
+        engine.query("a")
+        scheduler.advanceTimeBy(DEBOUNCE_MILLIS / 2, TimeUnit.MILLISECONDS)
+        engine.query("al")
+        scheduler.advanceTimeBy(DEBOUNCE_MILLIS / 2, TimeUnit.MILLISECONDS)
+        engine.query("ali")
+        scheduler.advanceTimeBy(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)
+
+        assertEquals(listOf("ali"), requests)
+    }
+
+    @Test
+    fun `a new query cancels the running request`() {
+        engine.query("al")
+        scheduler.advanceTimeBy(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)
+        val first = responses.getValue("al")
+
+        engine.query("bo")
+
+        assertFalse(first.hasObservers())
+        first.onNext(listOf(mention("alice", "Alice")))
+        scheduler.triggerActions()
+        assertTrue(shown.none { it.contains("alice") })
+    }
+
+    @Test
+    fun `server suggestions come first and are merged with local matches`() {
+        engine.addKnownMentions(listOf(mention("alina", "Alina")))
+
+        engine.query("al")
+        scheduler.advanceTimeBy(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)
+        responses.getValue("al").onNext(listOf(mention("all", "Everyone", source = "calls"), mention("alina", "Alina")))
+        scheduler.triggerActions()
+
+        assertEquals(listOf("all", "alina"), shown.last())
+    }
+
+    @Test
+    fun `answered queries are served from the cache`() {
+        engine.query("al")
+        scheduler.advanceTimeBy(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)
+        responses.getValue("al").onNext(listOf(mention("alice", "Alice")))
+        scheduler.triggerActions()
+
+        engine.query("ali")
+        engine.query("al")
+        scheduler.advanceTimeBy(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)
+
+        assertEquals(listOf("al"), requests)
+        assertEquals(listOf("alice"), shown.last())
+    }
+
+    @Test
+    fun `failed requests keep the local suggestions`() {
+        val failing = MentionAutocompleteEngine(
+            remoteSuggestions = { Observable.error(IllegalStateException("offline")) },
+            onSuggestions = { mentions -> shown += mentions.map { it.id } },
+            limit = LIMIT,
+            debounceMillis = DEBOUNCE_MILLIS,
+            timerScheduler = scheduler,
+            resultScheduler = scheduler
+        )
+        failing.addKnownMentions(listOf(mention("alice", "Alice")))
+
+        failing.query("a")
+        scheduler.advanceTimeBy(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)
+
+        assertEquals(listOf(listOf("alice")), shown)
+    }
+
+    @Test
+    fun `only other users of the conversation become mentions`() {
+        val participants = listOf(
+            Participant(actorType = Participant.ActorType.USERS, actorId = "me", displayName = "Me"),
+            Participant(actorType = Participant.ActorType.USERS, actorId = "alice", displayName = "Alice"),
+            Participant(actorType = Participant.ActorType.GUESTS, actorId = "guest", displayName = "Guest")
+        )
+
+        val mentions = MentionAutocompleteEngine.mentionsOf(participants, "me", "room1")
+
+        assertEquals(listOf("alice"), mentions.map { it.id })
+        assertEquals("users", mentions.single().source)
+    }
+
+    private fun mention(id: String, label: String, source: String = "users") =
+        Mention(null, id, label, source, null, null, null, null)
+
+    companion object {
+        private const val LIMIT = 5
+        private const val DEBOUNCE_MILLIS = 250L
+    }
+}
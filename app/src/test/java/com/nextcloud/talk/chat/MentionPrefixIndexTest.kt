@@ -0,0 +1,73 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.chat
+
+import com.nextcloud.talk.models.json.mention.Mention
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class MentionPrefixIndexTest {
+
+    private val index = MentionPrefixIndex().apply {
+        addAll(
+            listOf(
+                mention("alice", "Alice Smith"),
+                mention("bob", "Bob Smithers"),
+                mention("carol", "Carol Jones"),
+                mention("admins", "Admins", source = "groups")
+            )
+        )
+    }
+
+    @Test
+    fun `finds mentions by any word of the label`() {
+        assertEquals(listOf("alice"), ids(index.find("ali", LIMIT)))
+        assertEquals(listOf("alice", "bob"), ids(index.find("Smi", LIMIT)).sorted())
+        assertEquals(listOf("carol"), ids(index.find("jon", LIMIT)))
+    }
+
+    @Test
+    fun `finds mentions by id`() {
+        val other = MentionPrefixIndex()
+        other.addAll(listOf(mention("user123", "Someone")))
+
+        assertEquals(listOf("user123"), ids(other.find("user1", LIMIT)))
+        assertTrue(other.find("x", LIMIT).isEmpty())
+    }
+
+    @Test
+    fun `a mention matching several keys is returned once`() {
+        // "alice" matches the id, the full label and the first word of the label
+        assertEquals(1, index.find("alice", LIMIT).size)
+    }
+
+    @Test
+    fun `results are limited`() {
+        assertEquals(4, index.find("", LIMIT).size)
+        assertEquals(2, index.find("", 2).size)
+    }
+
+    @Test
+    fun `mentions with the same source and id replace each other`() {
+        index.addAll(listOf(mention("alice", "Alice Miller")))
+
+        assertEquals(4, index.size)
+        assertEquals("Alice Miller", index.find("mil", LIMIT).single().label)
+        assertTrue(ids(index.find("smith", LIMIT)).none { it == "alice" })
+    }
+
+    private fun ids(mentions: List<Mention>) = mentions.map { it.id }
+
+    private fun mention(id: String, label: String, source: String = "users") =
+        Mention(null, id, label, source, null, null, null, null)
+
+    companion object {
+        private const val LIMIT = 10
+    }
+}
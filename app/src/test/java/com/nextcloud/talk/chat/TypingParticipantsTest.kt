@@ -0,0 +1,113 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package com.nextcloud.talk.chat
+
+import com.nextcloud.talk.chat.TypingParticipants.Companion.TYPING_DURATION_TO_HIDE_TYPING_MESSAGE
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.advanceTimeBy
+import kotlinx.coroutines.test.runCurrent
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class TypingParticipantsTest {
+
+    private val scope = TestScope()
+    private val shown = mutableListOf<List<String>>()
+    private val typingParticipants = TypingParticipants(scope, clock = { scope.testScheduler.currentTime }) {
+        shown += it
+    }
+
+    @Test
+    fun `a typist is hidden after the typing duration`() {
+        typingParticipants.onStartTyping("alice", "Alice")
+
+        advance(TYPING_DURATION_TO_HIDE_TYPING_MESSAGE - 1)
+        assertTrue("alice" in typingParticipants)
+
+        advance(1)
+        assertFalse("alice" in typingParticipants)
+        assertEquals(listOf(listOf("Alice"), emptyList<String>()), shown)
+    }
+
+    @Test
+    fun `a new typing signal extends the deadline`() {
+        typingParticipants.onStartTyping("alice", "Alice")
+        advance(TYPING_DURATION_TO_HIDE_TYPING_MESSAGE - 1)
+        typingParticipants.onStartTyping("alice", "Alice")
+
+        advance(TYPING_DURATION_TO_HIDE_TYPING_MESSAGE - 1)
+        assertTrue("alice" in typingParticipants)
+        assertEquals("a refresh is not a change", 1, shown.size)
+
+        advance(1)
+        assertFalse("alice" in typingParticipants)
+    }
+
+    @Test
+    fun `typists expire one after another`() {
+        typingParticipants.onStartTyping("alice", "Alice")
+        advance(STAGGER)
+        typingParticipants.onStartTyping("bob", "Bob")
+        assertEquals(listOf("Alice", "Bob"), typingParticipants.names)
+
+        advance(TYPING_DURATION_TO_HIDE_TYPING_MESSAGE - STAGGER)
+        assertEquals(listOf("Bob"), typingParticipants.names)
+
+        advance(STAGGER)
+        assertEquals(emptyList<String>(), typingParticipants.names)
+    }
+
+    @Test
+    fun `many typists share one expiry job`() {
+        repeat(TYPISTS) { typingParticipants.onStartTyping("user$it", "User $it") }
+        runCurrent()
+
+        assertEquals(1, scope.coroutineContext[Job]!!.children.count())
+
+        advance(TYPING_DURATION_TO_HIDE_TYPING_MESSAGE)
+        assertEquals(emptyList<String>(), typingParticipants.names)
+        assertEquals(0, scope.coroutineContext[Job]!!.children.count())
+    }
+
+    @Test
+    fun `a stop hides the typist immediately`() {
+        typingParticipants.onStartTyping("alice", "Alice")
+
+        typingParticipants.onStopTyping("alice")
+        typingParticipants.onStopTyping("alice")
+
+        assertEquals(listOf(listOf("Alice"), emptyList<String>()), shown)
+        advance(TYPING_DURATION_TO_HIDE_TYPING_MESSAGE)
+        assertEquals(2, shown.size)
+    }
+
+    @Test
+    fun `clearing hides everyone and stops the expiry job`() {
+        typingParticipants.onStartTyping("alice", "Alice")
+
+        typingParticipants.clear()
+        runCurrent()
+
+        assertEquals(emptyList<String>(), typingParticipants.names)
+        assertEquals(0, scope.coroutineContext[Job]!!.children.count())
+    }
+
+    private fun advance(millis: Long) {
+        scope.advanceTimeBy(millis)
+        scope.runCurrent()
+    }
+
+    companion object {
+        private const val STAGGER = 4000L
+        private const val TYPISTS = 20
+    }
+}
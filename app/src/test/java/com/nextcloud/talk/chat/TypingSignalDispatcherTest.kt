@@ -0,0 +1,112 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package com.nextcloud.talk.chat
+
+import com.nextcloud.talk.chat.TypingSignalDispatcher.Companion.TYPING_STARTED_SIGNALING_MESSAGE_TYPE
+import com.nextcloud.talk.chat.TypingSignalDispatcher.Companion.TYPING_STOPPED_SIGNALING_MESSAGE_TYPE
+import com.nextcloud.talk.models.json.signaling.NCSignalingMessage
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class TypingSignalDispatcherTest {
+
+    private val transport = FakeTransport()
+
+    @Test
+    fun `a typing burst in a large room sends one frame per signal with room messages`() {
+        transport.roomMessages = true
+        transport.sessions = List(LARGE_ROOM) { "session$it" }
+        val dispatcher = TypingSignalDispatcher(transport)
+
+        dispatcher.sendStartedTyping()
+        dispatcher.sendStoppedTyping()
+
+        assertEquals(2, transport.frames.size)
+        assertTrue(transport.frames.all { it.first == ROOM })
+        assertEquals(
+            listOf(TYPING_STARTED_SIGNALING_MESSAGE_TYPE, TYPING_STOPPED_SIGNALING_MESSAGE_TYPE),
+            transport.frames.map { it.second.type }
+        )
+        assertNull(transport.frames.first().second.to)
+    }
+
+    @Test
+    fun `without room messages every session gets its own frame`() {
+        transport.sessions = listOf("a", "b", "c")
+        val dispatcher = TypingSignalDispatcher(transport)
+
+        dispatcher.sendStartedTyping()
+
+        assertEquals(listOf("a", "b", "c"), transport.frames.map { it.second.to })
+        assertTrue(transport.frames.all { it.first == SESSION })
+    }
+
+    @Test
+    fun `unicast frames are capped`() {
+        transport.sessions = List(LARGE_ROOM) { "session$it" }
+        val dispatcher = TypingSignalDispatcher(transport, maxUnicastRecipients = CAP)
+
+        dispatcher.sendStartedTyping()
+        dispatcher.sendStoppedTyping()
+
+        assertEquals(2 * CAP, transport.frames.size)
+    }
+
+    @Test
+    fun `a stop is only sent after a start`() {
+        transport.roomMessages = true
+        val dispatcher = TypingSignalDispatcher(transport)
+
+        dispatcher.sendStoppedTyping()
+        dispatcher.sendStartedTyping()
+        dispatcher.sendStoppedTyping()
+        dispatcher.sendStoppedTyping()
+
+        assertEquals(
+            listOf(TYPING_STARTED_SIGNALING_MESSAGE_TYPE, TYPING_STOPPED_SIGNALING_MESSAGE_TYPE),
+            transport.frames.map { it.second.type }
+        )
+    }
+
+    @Test
+    fun `repeated starts are sent to keep the indicator of the others alive`() {
+        transport.roomMessages = true
+        val dispatcher = TypingSignalDispatcher(transport)
+
+        dispatcher.sendStartedTyping()
+        dispatcher.sendStartedTyping()
+
+        assertEquals(2, transport.frames.size)
+    }
+
+    private class FakeTransport : TypingSignalDispatcher.Transport {
+        var roomMessages = false
+        var sessions: List<String> = emptyList()
+        val frames = mutableListOf<Pair<String, NCSignalingMessage>>()
+
+        override fun supportsRoomMessages(): Boolean = roomMessages
+
+        override fun sessionIds(): Collection<String> = sessions
+
+        override fun sendToRoom(ncSignalingMessage: NCSignalingMessage) {
+            frames.add(ROOM to ncSignalingMessage)
+        }
+
+        override fun sendToSession(ncSignalingMessage: NCSignalingMessage) {
+            frames.add(SESSION to ncSignalingMessage)
+        }
+    }
+
+    companion object {
+        private const val ROOM = "room"
+        private const val SESSION = "session"
+        private const val LARGE_ROOM = 300
+        private const val CAP = 20
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.chat.data
+
+import android.app.Application
+import android.content.Context
+import androidx.room.Room
+import androidx.test.core.app.ApplicationProvider
+import com.nextcloud.talk.chat.data.network.OpenGraphSource
+import com.nextcloud.talk.data.source.local.TalkDatabase
+import com.nextcloud.talk.data.user.model.User
+import com.nextcloud.talk.models.json.opengraph.OpenGraphObject
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.test.StandardTestDispatcher
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.advanceUntilIdle
+import kotlinx.coroutines.test.runTest
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.io.IOException
+
+@OptIn(ExperimentalCoroutinesApi::class)
+@RunWith(RobolectricTestRunner::class)
+@Config(application = Application::class, sdk = [33])
+class LinkPreviewRepositoryTest {
+
+    private lateinit var db: TalkDatabase
+    private lateinit var source: FakeOpenGraphSource
+    private var now = START_TIME
+
+    @Before
+    fun setUp() {
+        val context = ApplicationProvider.getApplicationContext<Context>()
+        db = Room.inMemoryDatabaseBuilder(context, TalkDatabase::class.java)
+            .allowMainThreadQueries()
+            .build()
+        source = FakeOpenGraphSource()
+    }
+
+    @After
+    fun tearDown() {
+        db.close()
+    }
+
+    @Test
+    fun `concurrent lookups of the same link share one request`() =
+        runTest {
+            val repository = repository()
+            source.gate = CompletableDeferred()
+
+            val lookups = List(CONCURRENT_LOOKUPS) { async { repository.getLinkPreview(USER, URL) } }
+            advanceUntilIdle()
+            assertEquals(1, source.requests)
+
+            source.gate!!.complete(Unit)
+            val previews = lookups.awaitAll()
+
+            assertEquals(1, source.requests)
+            previews.forEach { assertEquals(PREVIEW, it) }
+        }
+
+    @Test
+    fun `a cancelled lookup does not cancel the shared request`() =
+        runTest {
+            val repository = repository()
+            source.gate = CompletableDeferred()
+
+            val cancelled = async { repository.getLinkPreview(USER, URL) }
+            val waiting = async { repository.getLinkPreview(USER, URL) }
+            advanceUntilIdle()
+            cancelled.cancel()
+            source.gate!!.complete(Unit)
+
+            assertEquals(PREVIEW, waiting.await())
+            assertEquals(1, source.requests)
+        }
+
+    @Test
+    fun `a known preview is served from memory`() =
+        runTest {
+            val repository = repository()
+
+            repository.getLinkPreview(USER, URL)
+            db.linkPreviewsDao().deleteLinkPreviewsOfAccount(ACCOUNT_ID)
+
+            assertEquals(PREVIEW, repository.getLinkPreview(USER, URL))
+            assertEquals(1, source.requests)
+        }
+
+    @Test
+    fun `a known preview is served from the database after a restart`() =
+        runTest {
+            repository().getLinkPreview(USER, URL)
+
+            assertEquals(PREVIEW, repository().getLinkPreview(USER, URL))
+            assertEquals(1, source.requests)
+        }
+
+    @Test
+    fun `an expired preview is requested again`() =
+        runTest {
+            val repository = repository()
+            repository.getLinkPreview(USER, URL)
+
+            now += LinkPreviewRepository.PREVIEW_MAX_AGE_MILLIS
+            repository.getLinkPreview(USER, URL)
+
+            assertEquals(2, source.requests)
+        }
+
+    @Test
+    fun `a missing preview is remembered for a shorter time`() =
+        runTest {
+            val repository = repository()
+            source.preview = null
+
+            assertNull(repository.getLinkPreview(USER, URL))
+            assertNull(repository.getLinkPreview(USER, URL))
+            assertEquals(1, source.requests)
+
+            source.preview = PREVIEW
+            now += LinkPreviewRepository.MISSING_PREVIEW_MAX_AGE_MILLIS
+
+            assertEquals(PREVIEW, repository.getLinkPreview(USER, URL))
+            assertEquals(2, source.requests)
+        }
+
+    @Test
+    fun `a failed request is not remembered`() =
+        runTest {
+            val repository = repository()
+            source.failure = IOException("offline")
+
+            assertNull(repository.getLinkPreview(USER, URL))
+
+            source.failure = null
+
+            assertEquals(PREVIEW, repository.getLinkPreview(USER, URL))
+            assertEquals(2, source.requests)
+        }
+
+    @Test
+    fun `previews are kept per account`() =
+        runTest {
+            val repository = repository()
+
+            repository.getLinkPreview(USER, URL)
+            repository.getLinkPreview(USER.copy(id = ACCOUNT_ID + 1), URL)
+
+            assertEquals(2, source.requests)
+        }
+
+    private fun TestScope.repository() =
+        LinkPreviewRepository(
+            source,
+            db.linkPreviewsDao(),
+            backgroundScope,
+            StandardTestDispatcher(testScheduler),
+            clock = { now }
+        )
+
+    private class FakeOpenGraphSource : OpenGraphSource {
+        var requests = 0
+        var preview: OpenGraphObject? = PREVIEW
+        var failure: Exception? = null
+        var gate: CompletableDeferred<Unit>? = null
+
+        override suspend fun getOpenGraph(user: User, url: String): OpenGraphObject? {
+            requests++
+            gate?.await()
+            failure?.let { throw it }
+            return preview
+        }
+    }
+
+    companion object {
+        private const val ACCOUNT_ID = 1L
+        private const val START_TIME = 1_700_000_000_000L
+        private const val CONCURRENT_LOOKUPS = 10
+        private const val URL = "https://nextcloud.com/blog"
+        private val USER = User(id = ACCOUNT_ID, username = "user", token = "token", baseUrl = "https://cloud.example")
+        private val PREVIEW = OpenGraphObject(
+            id = URL,
+            name = "Nextcloud blog",
+            description = "News",
+            thumb = "https://nextcloud.com/thumb.png",
+            link = URL
+        )
+    }
+}
@@ -21,6 +21,7 @@ import com.nextcloud.talk.models.json.capabilities.SpreedCapability
 import com.nextcloud.talk.models.json.chat.ChatMessageJson
 import com.nextcloud.talk.models.json.chat.ChatOCS
 import com.nextcloud.talk.models.json.chat.ChatOverall
+import com.nextcloud.talk.shareditems.repositories.SharedItemsIndex
 import kotlinx.coroutines.CompletableDeferred
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.flowOf
@@ -63,7 +64,14 @@ class ChatMessageSyncerTest {
     @Before
     fun setUp() {
         val conversationListUpdater = ConversationListUpdater(chatDao, chatBlocksDao, conversationsDao)
-        syncer = ChatMessageSyncer(chatDao, chatBlocksDao, network, networkMonitor, conversationListUpdater)
+        syncer = ChatMessageSyncer(
+            chatDao,
+            chatBlocksDao,
+            network,
+            networkMonitor,
+            conversationListUpdater,
+            SharedItemsIndex(mock())
+        )
         whenever(networkMonitor.isOnline).thenReturn(MutableStateFlow(true))
         whenever(conversationsDao.getConversationForUser(any(), any())).thenReturn(flowOf(null))
     }
@@ -0,0 +1,262 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.chat.data.network
+
+import android.app.Application
+import android.content.Context
+import androidx.room.Room
+import androidx.test.core.app.ApplicationProvider
+import com.nextcloud.talk.chat.data.model.ChatMessage
+import com.nextcloud.talk.conversationlist.data.network.ConversationListUpdater
+import com.nextcloud.talk.data.database.mappers.asEntity
+import com.nextcloud.talk.data.database.model.ChatBlockEntity
+import com.nextcloud.talk.data.network.NetworkMonitor
+import com.nextcloud.talk.data.source.local.TalkDatabase
+import com.nextcloud.talk.data.user.model.User
+import com.nextcloud.talk.data.user.model.UserEntity
+import com.nextcloud.talk.models.json.chat.ChatMessageJson
+import com.nextcloud.talk.models.json.chat.ChatOCS
+import com.nextcloud.talk.models.json.chat.ChatOverall
+import com.nextcloud.talk.models.json.conversations.Conversation
+import com.nextcloud.talk.shareditems.repositories.SharedItemsIndex
+import com.nextcloud.talk.utils.ApiUtils
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.kotlin.any
+import org.mockito.kotlin.argThat
+import org.mockito.kotlin.eq
+import org.mockito.kotlin.isNull
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
+import org.mockito.kotlin.verifyBlocking
+import org.mockito.kotlin.verifyNoInteractions
+import org.mockito.kotlin.whenever
+import org.mockito.kotlin.wheneverBlocking
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import retrofit2.Response
+import java.io.IOException
+
+/**
+ * Resolves message contexts against different layouts of stored chat blocks and checks which part of the context is
+ * fetched from the server.
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(application = Application::class, sdk = [33])
+class MessageContextLoaderTest {
+
+    private lateinit var db: TalkDatabase
+    private lateinit var loader: MessageContextLoader
+
+    private val network: ChatNetworkDataSource = mock()
+    private val networkMonitor: NetworkMonitor = mock()
+
+    @Before
+    fun setUp() {
+        val context = ApplicationProvider.getApplicationContext<Context>()
+        db = Room.inMemoryDatabaseBuilder(context, TalkDatabase::class.java)
+            .allowMainThreadQueries()
+            .build()
+        db.usersDao().saveUser(UserEntity(id = ACCOUNT_ID, userId = "me", username = "me", baseUrl = BASE_URL))
+        runBlocking {
+            db.conversationsDao().upsertConversations(
+                ACCOUNT_ID,
+                listOf(Conversation(token = ROOM_TOKEN).asEntity(ACCOUNT_ID))
+            )
+        }
+
+        whenever(networkMonitor.isOnline).thenReturn(MutableStateFlow(true))
+
+        val syncer = ChatMessageSyncer(
+            db.chatMessagesDao(),
+            db.chatBlocksDao(),
+            network,
+            networkMonitor,
+            ConversationListUpdater(db.chatMessagesDao(), db.chatBlocksDao(), db.conversationsDao()),
+            SharedItemsIndex(db.sharedItemsDao())
+        )
+        loader = MessageContextLoader(db.chatMessagesDao(), db.chatBlocksDao(), network, syncer)
+    }
+
+    @After
+    fun tearDown() {
+        db.close()
+    }
+
+    @Test
+    fun `a block covering the context is read without any request`() {
+        storeBlock(1L..20L, hasHistory = true)
+        storeBlock(30L..40L, hasHistory = true)
+
+        assertEquals((5L..15L).toList(), load(10))
+        verifyNoInteractions(network)
+    }
+
+    @Test
+    fun `a block reaching the start of the chat is not extended to older messages`() {
+        storeBlock(1L..8L, hasHistory = false)
+
+        assertEquals((1L..8L).toList(), load(3))
+        verifyNoInteractions(network)
+    }
+
+    @Test
+    fun `the newest block is not extended to newer messages`() {
+        storeBlock(1L..20L, hasHistory = true)
+
+        assertEquals((13L..20L).toList(), load(18))
+        verifyNoInteractions(network)
+    }
+
+    @Test
+    fun `only the missing older messages are fetched and the block grows`() {
+        storeBlock(10L..30L, hasHistory = true)
+        storeBlock(50L..60L, hasHistory = true)
+        wheneverBlocking { network.pullChatMessages(any(), any(), any()) }
+            .thenReturn(Response.success(overall(7L..9L)))
+
+        assertEquals((7L..17L).toList(), load(12))
+
+        verifyBlocking(network) {
+            pullChatMessages(
+                eq(CREDENTIALS),
+                eq(CHAT_URL),
+                argThat { get("lastKnownMessageId") == 10 && get("limit") == 3 && get("lookIntoFuture") == 0 }
+            )
+        }
+        verifyBlocking(network, never()) { getContextForChatMessage(any(), any(), any(), any(), any(), any()) }
+        assertEquals(listOf(7L..30L, 50L..60L), blocks())
+    }
+
+    @Test
+    fun `only the missing newer messages are fetched and the block grows`() {
+        storeBlock(1L..20L, hasHistory = false)
+        storeBlock(40L..50L, hasHistory = true)
+        wheneverBlocking { network.pullChatMessages(any(), any(), any()) }
+            .thenReturn(Response.success(overall(21L..23L)))
+
+        assertEquals((13L..23L).toList(), load(18))
+
+        verifyBlocking(network) {
+            pullChatMessages(
+                eq(CREDENTIALS),
+                eq(CHAT_URL),
+                argThat { get("lastKnownMessageId") == 20 && get("limit") == 3 && get("lookIntoFuture") == 1 }
+            )
+        }
+        assertEquals(listOf(1L..23L, 40L..50L), blocks())
+    }
+
+    @Test
+    fun `the stored part of the context is returned when the missing messages can not be fetched`() {
+        storeBlock(10L..30L, hasHistory = true)
+        storeBlock(50L..60L, hasHistory = true)
+        wheneverBlocking { network.pullChatMessages(any(), any(), any()) }
+            .thenAnswer { throw IOException("offline") }
+
+        assertEquals((10L..17L).toList(), load(12))
+        assertEquals(listOf(10L..30L, 50L..60L), blocks())
+    }
+
+    @Test
+    fun `the whole context is fetched and stored when no block contains the message`() {
+        storeBlock(1L..5L, hasHistory = false)
+        wheneverBlocking { network.getContextForChatMessage(any(), any(), any(), eq("10"), eq(LIMIT), isNull()) }
+            .thenReturn((8L..12L).map { message(it) })
+
+        assertEquals((8L..12L).toList(), load(10))
+        assertEquals(listOf(1L..5L, 8L..12L), blocks())
+    }
+
+    @Test
+    fun `a block range without the stored message is not trusted`() {
+        storeBlock(1L..20L, hasHistory = true, storedIds = (1L..20L).filter { it != 10L })
+        wheneverBlocking { network.getContextForChatMessage(any(), any(), any(), eq("10"), eq(LIMIT), isNull()) }
+            .thenReturn((5L..15L).map { message(it) })
+
+        assertEquals((5L..15L).toList(), load(10))
+    }
+
+    @Test
+    fun `replies in threads are left out of the context of the conversation`() {
+        storeBlock(1L..20L, hasHistory = true)
+        runBlocking {
+            db.chatMessagesDao().upsertChatMessage(
+                message(12).apply {
+                    hasThread = true
+                    threadId = 3
+                }.asEntity(ACCOUNT_ID)
+            )
+        }
+
+        assertEquals((5L..15L).filter { it != 12L }, load(10))
+    }
+
+    private fun load(messageId: Long): List<Long> =
+        runBlocking { loader.loadMessageContext(target(), messageId, LIMIT).map { it.id } }
+
+    private fun storeBlock(ids: LongRange, hasHistory: Boolean, storedIds: List<Long> = ids.toList()) {
+        runBlocking {
+            db.chatMessagesDao().upsertChatMessages(storedIds.map { message(it).asEntity(ACCOUNT_ID) })
+            db.chatBlocksDao().upsertChatBlock(
+                ChatBlockEntity(
+                    internalConversationId = INTERNAL_CONVERSATION_ID,
+                    accountId = ACCOUNT_ID,
+                    token = ROOM_TOKEN,
+                    oldestMessageId = ids.first,
+                    newestMessageId = ids.last,
+                    hasHistory = hasHistory
+                )
+            )
+        }
+    }
+
+    private fun blocks(): List<LongRange> =
+        runBlocking { db.chatBlocksDao().getChatBlocksForConversation(INTERNAL_CONVERSATION_ID) }
+            .map { it.oldestMessageId..it.newestMessageId }
+
+    private fun target() =
+        ChatMessageSyncer.SyncTarget(
+            user = User(id = ACCOUNT_ID, userId = "me", username = "me", baseUrl = BASE_URL, token = "token"),
+            roomToken = ROOM_TOKEN,
+            threadId = null,
+            credentials = CREDENTIALS,
+            urlForChatting = CHAT_URL
+        )
+
+    private fun message(id: Long): ChatMessageJson =
+        ChatMessageJson(
+            id = id,
+            token = ROOM_TOKEN,
+            actorType = "users",
+            actorId = "other",
+            actorDisplayName = "Other User",
+            timestamp = id,
+            message = "message $id",
+            messageType = "comment",
+            systemMessageType = ChatMessage.SystemMessageType.DUMMY
+        )
+
+    private fun overall(ids: LongRange): ChatOverall =
+        ChatOverall(ocs = ChatOCS(meta = null, data = ids.map { message(it) }))
+
+    companion object {
+        private const val ACCOUNT_ID = 1L
+        private const val BASE_URL = "https://server.example.com"
+        private const val ROOM_TOKEN = "room1"
+        private const val INTERNAL_CONVERSATION_ID = "$ACCOUNT_ID@$ROOM_TOKEN"
+        private const val CREDENTIALS = "Basic dXNlcjpwYXNz"
+        private val CHAT_URL = ApiUtils.getUrlForChat(1, BASE_URL, ROOM_TOKEN)
+        private const val LIMIT = 5
+    }
+}
@@ -14,6 +14,7 @@ import com.nextcloud.talk.data.database.dao.ChatBlocksDao
 import com.nextcloud.talk.data.database.dao.ChatMessagesDao
 import com.nextcloud.talk.data.database.dao.ConversationsDao
 import com.nextcloud.talk.data.database.model.ChatBlockEntity
+import com.nextcloud.talk.data.database.model.ChatMessageEntity
 import com.nextcloud.talk.data.network.NetworkMonitor
 import com.nextcloud.talk.data.user.model.User
 import com.nextcloud.talk.logger.Logger
@@ -24,6 +25,8 @@ import com.nextcloud.talk.models.json.chat.ChatMessageJson
 import com.nextcloud.talk.models.json.chat.ChatOCS
 import com.nextcloud.talk.models.json.chat.ChatOverall
 import com.nextcloud.talk.models.json.conversations.Conversation
+import com.nextcloud.talk.outbox.Outbox
+import com.nextcloud.talk.shareditems.repositories.SharedItemsIndex
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.flowOf
 import kotlinx.coroutines.test.runTest
@@ -36,6 +39,7 @@ import org.mockito.kotlin.argumentCaptor
 import org.mockito.kotlin.eq
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.never
+import org.mockito.kotlin.times
 import org.mockito.kotlin.verifyBlocking
 import org.mockito.kotlin.whenever
 import org.mockito.kotlin.wheneverBlocking
@@ -56,6 +60,7 @@ class OfflineFirstChatRepositoryTest {
     private val conversationsDao: ConversationsDao = mock()
     private val network: ChatNetworkDataSource = mock()
     private val networkMonitor: NetworkMonitor = mock()
+    private val outbox: Outbox = mock()
     private val conversationListUpdater = ConversationListUpdater(chatDao, chatBlocksDao, conversationsDao)
 
     private lateinit var repository: OfflineFirstChatRepository
@@ -67,20 +72,24 @@ class OfflineFirstChatRepositoryTest {
         whenever(chatBlocksDao.getChatBlocksContainingMessageId(eq(INTERNAL_CONVERSATION_ID), eq(null), any()))
             .thenReturn(flowOf(emptyList()))
 
+        val syncer = ChatMessageSyncer(
+            chatDao,
+            chatBlocksDao,
+            network,
+            networkMonitor,
+            ConversationListUpdater(chatDao, chatBlocksDao, conversationsDao),
+            SharedItemsIndex(mock())
+        )
         repository = OfflineFirstChatRepository(
             logger,
             chatDao,
             chatBlocksDao,
             network,
             networkMonitor,
-            ChatMessageSyncer(
-                chatDao,
-                chatBlocksDao,
-                network,
-                networkMonitor,
-                ConversationListUpdater(chatDao, chatBlocksDao, conversationsDao)
-            ),
-            conversationListUpdater
+            syncer,
+            conversationListUpdater,
+            outbox,
+            MessageContextLoader(chatDao, chatBlocksDao, network, syncer)
         )
         repository.initData(user(), CREDENTIALS, CHAT_URL, ROOM_TOKEN, null)
     }
@@ -190,6 +199,28 @@ class OfflineFirstChatRepositoryTest {
             verifyBlocking(network, never()) { pullChatMessages(any(), any(), any()) }
         }
 
+    @Test
+    fun `sendUnsentChatMessages enqueues the unsent text messages in order`() =
+        runTest {
+            whenever(chatDao.getTempUnsentMessagesForConversation(INTERNAL_CONVERSATION_ID, null)).thenReturn(
+                flowOf(
+                    listOf(
+                        tempMessage("$INTERNAL_CONVERSATION_ID@temp2", "ref2"),
+                        tempMessage("$INTERNAL_CONVERSATION_ID@temp3", "ref3", isFile = true),
+                        tempMessage("$INTERNAL_CONVERSATION_ID@temp1", "ref1")
+                    )
+                )
+            )
+
+            repository.sendUnsentChatMessages(CREDENTIALS, CHAT_URL)
+
+            val referenceIds = argumentCaptor<String>()
+            verifyBlocking(outbox, times(2)) {
+                enqueueChatMessage(eq(ACCOUNT_ID), eq(ROOM_TOKEN), referenceIds.capture())
+            }
+            assertEquals(listOf("ref1", "ref2"), referenceIds.allValues)
+        }
+
     private fun givenLatestBlock(block: ChatBlockEntity?) {
         whenever(chatBlocksDao.getLatestChatBlock(INTERNAL_CONVERSATION_ID, null))
             .thenReturn(flowOf(block))
@@ -246,6 +277,27 @@ class OfflineFirstChatRepositoryTest {
             systemMessageType = ChatMessage.SystemMessageType.DUMMY
         )
 
+    private fun tempMessage(internalId: String, referenceId: String, isFile: Boolean = false): ChatMessageEntity =
+        ChatMessageEntity(
+            internalId = internalId,
+            accountId = ACCOUNT_ID,
+            token = ROOM_TOKEN,
+            internalConversationId = INTERNAL_CONVERSATION_ID,
+            actorDisplayName = "Me",
+            message = if (isFile) "{file}" else "hello",
+            actorId = "me",
+            actorType = "users",
+            isTemporary = true,
+            messageParameters = if (isFile) {
+                hashMapOf<String?, HashMap<String?, String?>>("file" to hashMapOf("type" to "file"))
+            } else {
+                null
+            },
+            messageType = "comment",
+            referenceId = referenceId,
+            systemMessageType = ChatMessage.SystemMessageType.DUMMY
+        )
+
     private fun overall(vararg messages: ChatMessageJson): ChatOverall =
         ChatOverall(ocs = ChatOCS(meta = null, data = messages.toList()))
 
@@ -0,0 +1,239 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.conversationlist
+
+import androidx.core.graphics.drawable.IconCompat
+import com.nextcloud.talk.conversationlist.ShareTargetPublisher.Companion.DEBOUNCE_MILLIS
+import com.nextcloud.talk.conversationlist.ShareTargetPublisher.Companion.MAX_CONCURRENT_AVATAR_LOADS
+import com.nextcloud.talk.data.user.model.User
+import com.nextcloud.talk.models.domain.ConversationModel
+import com.nextcloud.talk.models.json.conversations.Conversation
+import com.nextcloud.talk.models.json.conversations.ConversationEnums
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.advanceTimeBy
+import kotlinx.coroutines.test.runCurrent
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Test
+import org.mockito.kotlin.mock
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class ShareTargetPublisherTest {
+
+    private val scope = TestScope()
+    private val sink = FakeSink()
+    private val loadedIcons = mutableListOf<String>()
+    private var concurrentLoads = 0
+    private var maxConcurrentLoads = 0
+    private val publisher = ShareTargetPublisher(scope, sink, clock = { NOW_MILLIS }) { _, target ->
+        loadedIcons += target.token
+        concurrentLoads++
+        maxConcurrentLoads = maxOf(maxConcurrentLoads, concurrentLoads)
+        delay(AVATAR_LOAD_MILLIS)
+        concurrentLoads--
+        mock<IconCompat>()
+    }
+
+    @Test
+    fun `emissions within the debounce window are published once`() {
+        publisher.submit(USER, listOf(conversation("a", 3)))
+        advance(DEBOUNCE_MILLIS - 1)
+        publisher.submit(USER, listOf(conversation("a", 3), conversation("b", 2)))
+        advance(DEBOUNCE_MILLIS - 1)
+        assertEquals(emptyList<String>(), sink.calls)
+
+        publisher.submit(USER, listOf(conversation("a", 3), conversation("b", 2), conversation("c", 1)))
+        advance(DEBOUNCE_MILLIS + AVATAR_LOAD_MILLIS)
+
+        assertEquals(listOf("set a b c"), sink.calls)
+    }
+
+    @Test
+    fun `an unchanged list is not published again`() {
+        publish(listOf(conversation("a", 3), conversation("b", 2)))
+
+        publish(listOf(conversation("a", 3, unread = 5), conversation("b", 2)))
+
+        assertEquals(listOf("set a b"), sink.calls)
+        assertEquals(listOf("a", "b"), loadedIcons)
+    }
+
+    @Test
+    fun `a conversation moving to the top is pushed alone`() {
+        publish(listOf(conversation("a", 3), conversation("b", 2), conversation("c", 1)))
+
+        publish(listOf(conversation("a", 3), conversation("b", 2), conversation("c", 4)))
+
+        assertEquals(listOf("set a b c", "push c@0"), sink.calls)
+        assertEquals("icons are reused", 3, loadedIcons.size)
+    }
+
+    @Test
+    fun `a changed avatar is reloaded and pushed alone`() {
+        publish(listOf(conversation("a", 3), conversation("b", 2)))
+
+        publish(listOf(conversation("a", 3), conversation("b", 2, avatarVersion = "2")))
+
+        assertEquals(listOf("set a b", "push b@1"), sink.calls)
+        assertEquals(listOf("a", "b", "b"), loadedIcons)
+    }
+
+    @Test
+    fun `a renamed conversation is pushed without loading its avatar`() {
+        publish(listOf(conversation("a", 3), conversation("b", 2)))
+
+        publish(listOf(conversation("a", 3, displayName = "Renamed"), conversation("b", 2)))
+
+        assertEquals(listOf("set a b", "push a@0"), sink.calls)
+        assertEquals(2, loadedIcons.size)
+    }
+
+    @Test
+    fun `a conversation moving down replaces all shortcuts`() {
+        publish(listOf(conversation("a", 3), conversation("b", 2), conversation("c", 1)))
+
+        publish(listOf(conversation("a", 0), conversation("b", 2), conversation("c", 1)))
+
+        assertEquals(listOf("set a b c", "set b c a"), sink.calls)
+    }
+
+    @Test
+    fun `a new conversation replaces all shortcuts and only its avatar is loaded`() {
+        publish(listOf(conversation("a", 3), conversation("b", 2)))
+
+        publish(listOf(conversation("a", 3), conversation("b", 2), conversation("c", 4)))
+
+        assertEquals(listOf("set a b", "set c a b"), sink.calls)
+        assertEquals(listOf("a", "b", "c"), loadedIcons)
+    }
+
+    @Test
+    fun `avatars are loaded in parallel up to the limit`() {
+        sink.slots = 2 * MAX_CONCURRENT_AVATAR_LOADS
+
+        publisher.submit(USER, (1..sink.slots).map { conversation("c$it", it.toLong()) })
+        advance(DEBOUNCE_MILLIS)
+        assertEquals(MAX_CONCURRENT_AVATAR_LOADS, maxConcurrentLoads)
+        assertEquals(emptyList<String>(), sink.calls)
+
+        advance(2 * AVATAR_LOAD_MILLIS)
+        assertEquals(1, sink.calls.size)
+    }
+
+    @Test
+    fun `another account starts over`() {
+        publish(listOf(conversation("a", 3)))
+
+        publish(listOf(conversation("a", 3)), User(id = 2L))
+
+        assertEquals(listOf("set a", "set a"), sink.calls)
+        assertEquals(listOf("a", "a"), loadedIcons)
+    }
+
+    @Test
+    fun `share targets skip note to self and old conversations and fill the available slots`() {
+        val nowSeconds = NOW_MILLIS / 1000
+        val targets = ShareTargetPublisher.shareTargetsOf(
+            listOf(
+                conversation("old", nowSeconds - THIRTY_ONE_DAYS_SECONDS, relative = false),
+                conversation("note", 5, type = ConversationEnums.ConversationType.NOTE_TO_SELF),
+                conversation("a", 1),
+                conversation("b", 3),
+                conversation("c", 2)
+            ),
+            limit = 2,
+            nowSeconds = nowSeconds
+        )
+
+        assertEquals(
+            listOf(ShareTarget("b", "b", "1", 0), ShareTarget("c", "c", "1", 1)),
+            targets
+        )
+    }
+
+    @Test
+    fun `only a single change that keeps the others in order is pushed`() {
+        val before = listOf(target("a", 0), target("b", 1), target("c", 2))
+        val movedUp = listOf(target("c", 0), target("a", 1), target("b", 2))
+        val movedDown = listOf(target("b", 0), target("c", 1), target("a", 2))
+        val swapped = listOf(target("c", 0), target("b", 1), target("a", 2))
+        val replaced = listOf(target("d", 0), target("a", 1), target("b", 2))
+
+        assertEquals(target("c", 0), ShareTargetPublisher.singleChange(before, movedUp))
+        assertNull(ShareTargetPublisher.singleChange(before, before))
+        assertNull(ShareTargetPublisher.singleChange(before, movedDown))
+        assertNull(ShareTargetPublisher.singleChange(before, swapped))
+        assertNull(ShareTargetPublisher.singleChange(before, replaced))
+        assertNull(ShareTargetPublisher.singleChange(before, before.take(2)))
+    }
+
+    private fun publish(conversations: List<ConversationModel>, user: User = USER) {
+        publisher.submit(user, conversations)
+        advance(DEBOUNCE_MILLIS + 2 * AVATAR_LOAD_MILLIS)
+    }
+
+    private fun advance(millis: Long) {
+        scope.advanceTimeBy(millis)
+        scope.runCurrent()
+    }
+
+    private fun target(token: String, rank: Int) = ShareTarget(token, token, "1", rank)
+
+    /**
+     * A conversation active [lastActivity] seconds after the start of the last 30 days, or at exactly
+     * [lastActivity] if not [relative].
+     */
+    private fun conversation(
+        token: String,
+        lastActivity: Long,
+        displayName: String = token,
+        avatarVersion: String = "1",
+        unread: Int = 0,
+        type: ConversationEnums.ConversationType = ConversationEnums.ConversationType.ROOM_GROUP_CALL,
+        relative: Boolean = true
+    ): ConversationModel {
+        val activity = if (relative) NOW_MILLIS / 1000 - THIRTY_DAYS_SECONDS + lastActivity else lastActivity
+        return ConversationModel.mapToConversationModel(
+            Conversation(
+                token = token,
+                displayName = displayName,
+                avatarVersion = avatarVersion,
+                unreadMessages = unread,
+                type = type,
+                lastActivity = activity
+            ),
+            USER
+        )
+    }
+
+    private class FakeSink : ShareTargetSink {
+        var slots = DEFAULT_SLOTS
+        val calls = mutableListOf<String>()
+
+        override fun availableSlots(): Int = slots
+
+        override fun setShareTargets(user: User, shortcuts: List<ShareTargetShortcut>) {
+            calls += "set " + shortcuts.joinToString(" ") { it.target.token }
+        }
+
+        override fun pushShareTarget(user: User, shortcut: ShareTargetShortcut) {
+            calls += "push ${shortcut.target.token}@${shortcut.target.rank}"
+        }
+    }
+
+    companion object {
+        private val USER = User(id = 1L)
+        private const val NOW_MILLIS = 1_800_000_000_000L
+        private const val THIRTY_DAYS_SECONDS = 30L * 24 * 60 * 60
+        private const val THIRTY_ONE_DAYS_SECONDS = 31L * 24 * 60 * 60
+        private const val AVATAR_LOAD_MILLIS = 100L
+        private const val DEFAULT_SLOTS = 4
+    }
+}
@@ -17,6 +17,7 @@ import com.nextcloud.talk.chat.data.network.ChatMessageSyncer
 import com.nextcloud.talk.chat.data.network.ChatNetworkDataSource
 import com.nextcloud.talk.data.database.mappers.asEntity
 import com.nextcloud.talk.data.database.model.ConversationEntity
+import com.nextcloud.talk.data.database.model.ConversationListRow
 import com.nextcloud.talk.data.network.NetworkMonitor
 import com.nextcloud.talk.data.source.local.TalkDatabase
 import com.nextcloud.talk.data.user.model.User
@@ -28,6 +29,7 @@ import com.nextcloud.talk.models.json.chat.ChatMessageJson
 import com.nextcloud.talk.models.json.chat.ChatOCS
 import com.nextcloud.talk.models.json.chat.ChatOverall
 import com.nextcloud.talk.models.json.conversations.Conversation
+import com.nextcloud.talk.shareditems.repositories.SharedItemsIndex
 import com.nextcloud.talk.utils.ApiUtils
 import io.reactivex.Observable
 import io.reactivex.android.plugins.RxAndroidPlugins
@@ -92,7 +94,8 @@ class ConversationListFreshnessIntegrationTest {
             db.chatBlocksDao(),
             chatNetwork,
             networkMonitor,
-            conversationListUpdater
+            conversationListUpdater,
+            SharedItemsIndex(db.sharedItemsDao())
         )
     }
 
@@ -357,7 +360,7 @@ class ConversationListFreshnessIntegrationTest {
     }
 
     @Test
-    fun `room list flow reflects database writes reactively`() {
+    fun `conversation list flow reflects database writes reactively`() {
         val user = user(withKeepNotificationsCapability = false)
         val repository = OfflineFirstConversationsRepository(
             db.conversationsDao(),
@@ -373,9 +376,9 @@ class ConversationListFreshnessIntegrationTest {
         )
 
         runBlocking {
-            val emissions = mutableListOf<List<ConversationModel>>()
+            val emissions = mutableListOf<List<ConversationListRow>>()
             val collector = launch(Dispatchers.IO) {
-                repository.roomListFlow.collect { emissions.add(it) }
+                repository.conversationListFlow.collect { emissions.add(it) }
             }
 
             repository.getRooms(user).join()
@@ -0,0 +1,341 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.conversationlist.data.network
+
+import android.app.Application
+import android.content.Context
+import androidx.room.Room
+import androidx.test.core.app.ApplicationProvider
+import com.bluelinelabs.logansquare.LoganSquare
+import com.nextcloud.talk.conversationlist.viewmodels.ConversationsListViewModel
+import com.nextcloud.talk.data.database.mappers.asEntity
+import com.nextcloud.talk.data.database.mappers.toLastMessagePreview
+import com.nextcloud.talk.data.database.model.ConversationListRow
+import com.nextcloud.talk.data.database.model.LastMessagePreview
+import com.nextcloud.talk.data.source.local.TalkDatabase
+import com.nextcloud.talk.data.user.model.UserEntity
+import com.nextcloud.talk.models.json.chat.ChatMessageJson
+import com.nextcloud.talk.models.json.conversations.Conversation
+import com.nextcloud.talk.models.json.conversations.ConversationEnums
+import com.nextcloud.talk.ui.dialog.FilterConversationFragment.Companion.ARCHIVE
+import com.nextcloud.talk.ui.dialog.FilterConversationFragment.Companion.DEFAULT
+import com.nextcloud.talk.ui.dialog.FilterConversationFragment.Companion.MENTION
+import com.nextcloud.talk.ui.dialog.FilterConversationFragment.Companion.UNREAD
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotSame
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+/**
+ * Tests for the conversation list rows: their order and last message preview as stored in the database, and the
+ * filters of the conversation list applied to them.
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(application = Application::class, sdk = [33])
+class ConversationListRowsIntegrationTest {
+
+    private lateinit var db: TalkDatabase
+
+    @Before
+    fun setUp() {
+        val context = ApplicationProvider.getApplicationContext<Context>()
+        db = Room.inMemoryDatabaseBuilder(context, TalkDatabase::class.java)
+            .allowMainThreadQueries()
+            .build()
+        db.usersDao().saveUser(UserEntity(id = ACCOUNT_ID, userId = "me", username = "me", baseUrl = BASE_URL))
+    }
+
+    @After
+    fun tearDown() {
+        db.close()
+    }
+
+    @Test
+    fun `rows are ordered by favorite and then by last activity`() {
+        runBlocking {
+            store(
+                Conversation(token = "old", lastActivity = 10),
+                Conversation(token = "favorite", lastActivity = 5, favorite = true),
+                Conversation(token = "new", lastActivity = 30),
+                Conversation(token = "newFavorite", lastActivity = 20, favorite = true)
+            )
+
+            assertEquals(listOf("newFavorite", "favorite", "new", "old"), rows().map { it.token })
+        }
+    }
+
+    @Test
+    fun `the last message preview is stored with the conversation`() {
+        runBlocking {
+            store(
+                Conversation(token = "text", lastMessage = message(actorId = "other", text = "Hello")),
+                Conversation(
+                    token = "file",
+                    lastMessage = message(
+                        actorId = "me",
+                        text = "{file}",
+                        parameters = hashMapOf(
+                            "file" to hashMapOf(
+                                "type" to "file",
+                                "name" to "report.pdf",
+                                "mimetype" to "application/pdf"
+                            )
+                        )
+                    )
+                ),
+                Conversation(token = "empty")
+            )
+
+            val previews = rows().associate { it.token to it.lastMessagePreview }
+            assertEquals(
+                LastMessagePreview(
+                    LastMessagePreview.Kind.TEXT,
+                    "Hello",
+                    LastMessagePreview.Author.OTHER,
+                    "Other",
+                    null
+                ),
+                previews["text"]
+            )
+            assertEquals(
+                LastMessagePreview(
+                    LastMessagePreview.Kind.FILE,
+                    "report.pdf",
+                    LastMessagePreview.Author.SELF,
+                    "Me",
+                    "application/pdf"
+                ),
+                previews["file"]
+            )
+            assertNull(previews["empty"])
+        }
+    }
+
+    @Test
+    fun `a catch-up updates the preview together with the last message`() {
+        runBlocking {
+            store(Conversation(token = ROOM_TOKEN, lastActivity = 10, lastMessage = message(text = "old")))
+            val newMessage = message(id = 2, text = "new")
+
+            db.conversationsDao().updateConversationAndPreviewFromCatchUp(
+                internalId = "$ACCOUNT_ID@$ROOM_TOKEN",
+                lastMessageJson = LoganSquare.serialize(newMessage),
+                lastMessagePreview = newMessage.toLastMessagePreview("me"),
+                lastActivity = 20,
+                unreadMessages = 1
+            )
+
+            assertEquals("new", rows().single().lastMessagePreview?.text)
+        }
+    }
+
+    @Test
+    fun `a preview of a replaced last message is not stored`() {
+        runBlocking {
+            store(Conversation(token = ROOM_TOKEN, lastMessage = message(text = "current")))
+            val replacedMessage = message(id = 0, text = "replaced")
+
+            db.conversationsDao().updateLastMessagePreview(
+                internalId = "$ACCOUNT_ID@$ROOM_TOKEN",
+                lastMessageJson = LoganSquare.serialize(replacedMessage),
+                lastMessagePreview = replacedMessage.toLastMessagePreview("me")
+            )
+
+            assertEquals("current", rows().single().lastMessagePreview?.text)
+        }
+    }
+
+    @Test
+    fun `by default archived, lobby and future event conversations are hidden`() {
+        runBlocking {
+            storeFilterFixtures()
+
+            val visible = filter(mapOf(MENTION to false, UNREAD to false, ARCHIVE to false, DEFAULT to true))
+
+            assertEquals(listOf("mention", "unreadOneToOne", "unreadGroup", "read", "pastEvent"), visible)
+        }
+    }
+
+    @Test
+    fun `the filter chips narrow the rows`() {
+        runBlocking {
+            storeFilterFixtures()
+
+            assertEquals(
+                listOf("mention", "unreadOneToOne"),
+                filter(mapOf(MENTION to true, UNREAD to false, ARCHIVE to false, DEFAULT to true))
+            )
+            assertEquals(
+                listOf("mention", "unreadOneToOne", "unreadGroup"),
+                filter(mapOf(MENTION to false, UNREAD to true, ARCHIVE to false, DEFAULT to true))
+            )
+            assertEquals(
+                listOf("archived"),
+                filter(mapOf(MENTION to false, UNREAD to false, ARCHIVE to true, DEFAULT to true))
+            )
+        }
+    }
+
+    @Test
+    fun `showing all conversations ignores the filters but not the lobby and hidden conversations`() {
+        runBlocking {
+            storeFilterFixtures()
+
+            val visible = filter(
+                mapOf(MENTION to true, UNREAD to false, ARCHIVE to false, DEFAULT to true),
+                showAll = true,
+                hideToken = "read"
+            )
+
+            assertEquals(
+                listOf("mention", "unreadOneToOne", "unreadGroup", "archived", "pastEvent", "futureEvent"),
+                visible
+            )
+        }
+    }
+
+    @Test
+    fun `unchanged rows keep their instance`() {
+        runBlocking {
+            val first = listOf(row("a", unreadMessages = 0), row("b", unreadMessages = 0))
+            val second = listOf(row("a", unreadMessages = 0), row("b", unreadMessages = 1))
+
+            val emissions = flowOf(first, second).reuseUnchangedRows().toList()
+
+            assertSame(first[0], emissions[1][0])
+            assertNotSame(first[1], emissions[1][1])
+            assertEquals(second, emissions[1])
+        }
+    }
+
+    private suspend fun storeFilterFixtures() {
+        store(
+            Conversation(
+                token = "mention",
+                lastActivity = 90,
+                unreadMessages = 1,
+                unreadMention = true,
+                type = ConversationEnums.ConversationType.ROOM_GROUP_CALL
+            ),
+            Conversation(
+                token = "unreadOneToOne",
+                lastActivity = 80,
+                unreadMessages = 2,
+                type = ConversationEnums.ConversationType.ROOM_TYPE_ONE_TO_ONE_CALL
+            ),
+            Conversation(
+                token = "unreadGroup",
+                lastActivity = 70,
+                unreadMessages = 3,
+                type = ConversationEnums.ConversationType.ROOM_GROUP_CALL
+            ),
+            Conversation(token = "read", lastActivity = 60),
+            Conversation(token = "archived", lastActivity = 50, hasArchived = true),
+            Conversation(
+                token = "lobby",
+                lastActivity = 40,
+                objectType = ConversationEnums.ObjectType.ROOM,
+                lobbyState = ConversationEnums.LobbyState.LOBBY_STATE_MODERATORS_ONLY
+            ),
+            Conversation(
+                token = "pastEvent",
+                lastActivity = 30,
+                objectType = ConversationEnums.ObjectType.EVENT,
+                objectId = "${NOW_SECONDS - HOUR_SECONDS}#${NOW_SECONDS}"
+            ),
+            Conversation(
+                token = "futureEvent",
+                lastActivity = 20,
+                objectType = ConversationEnums.ObjectType.EVENT,
+                objectId = "${NOW_SECONDS + 2 * DAY_SECONDS}#${NOW_SECONDS + 2 * DAY_SECONDS + HOUR_SECONDS}"
+            )
+        )
+    }
+
+    private suspend fun filter(
+        filterState: Map<String, Boolean>,
+        showAll: Boolean = false,
+        hideToken: String? = null
+    ): List<String> =
+        ConversationsListViewModel.filterRows(rows(), filterState, showAll, hideToken, NOW_SECONDS).map { it.token }
+
+    private suspend fun store(vararg conversations: Conversation) {
+        val entities = conversations.map { conversation ->
+            conversation.apply { actorId = "me" }.asEntity(ACCOUNT_ID)
+        }
+        db.conversationsDao().upsertConversations(ACCOUNT_ID, entities)
+    }
+
+    private suspend fun rows(): List<ConversationListRow> =
+        db.conversationsDao().getConversationListRows(ACCOUNT_ID).first()
+
+    private fun message(
+        id: Long = 1,
+        actorId: String = "other",
+        text: String,
+        parameters: HashMap<String?, HashMap<String?, String?>>? = null
+    ): ChatMessageJson =
+        ChatMessageJson(
+            id = id,
+            token = ROOM_TOKEN,
+            actorType = "users",
+            actorId = actorId,
+            actorDisplayName = actorId.replaceFirstChar { it.uppercase() },
+            timestamp = id,
+            message = text,
+            messageType = "comment",
+            messageParameters = parameters
+        )
+
+    private fun row(token: String, unreadMessages: Int): ConversationListRow =
+        ConversationListRow(
+            internalId = "$ACCOUNT_ID@$token",
+            accountId = ACCOUNT_ID,
+            token = token,
+            name = token,
+            displayName = token,
+            type = ConversationEnums.ConversationType.ROOM_GROUP_CALL,
+            avatarVersion = "",
+            hasCall = false,
+            favorite = false,
+            lastActivity = 0,
+            lobbyState = ConversationEnums.LobbyState.LOBBY_STATE_ALL_PARTICIPANTS,
+            objectType = ConversationEnums.ObjectType.DEFAULT,
+            objectId = "",
+            remoteServer = null,
+            status = null,
+            statusIcon = null,
+            unreadMention = false,
+            unreadMentionDirect = false,
+            unreadMessages = unreadMessages,
+            hasArchived = false,
+            hasSensitive = false,
+            tagIds = null,
+            messageDraft = null,
+            lastMessagePreview = null
+        )
+
+    companion object {
+        private const val ACCOUNT_ID = 1L
+        private const val BASE_URL = "https://server.example.com"
+        private const val ROOM_TOKEN = "room1"
+        private const val NOW_SECONDS = 1_800_000_000L
+        private const val HOUR_SECONDS = 60L * 60
+        private const val DAY_SECONDS = 24 * HOUR_SECONDS
+    }
+}
@@ -24,6 +24,7 @@ import com.nextcloud.talk.models.json.chat.ChatMessageJson
 import com.nextcloud.talk.models.json.chat.ChatOCS
 import com.nextcloud.talk.models.json.chat.ChatOverall
 import com.nextcloud.talk.models.json.conversations.Conversation
+import com.nextcloud.talk.shareditems.repositories.SharedItemsIndex
 import com.nextcloud.talk.utils.ApiUtils
 import io.reactivex.Observable
 import io.reactivex.android.plugins.RxAndroidPlugins
@@ -82,7 +83,8 @@ class RoomListMessagePrefetchIntegrationTest {
             db.chatBlocksDao(),
             chatNetwork,
             networkMonitor,
-            conversationListUpdater
+            conversationListUpdater,
+            SharedItemsIndex(db.sharedItemsDao())
         )
         repository = OfflineFirstConversationsRepository(
             db.conversationsDao(),
@@ -8,6 +8,7 @@
 package com.nextcloud.talk.conversationlist.ui
 
 import com.nextcloud.talk.R
+import com.nextcloud.talk.avatar.Avatar
 import com.nextcloud.talk.data.user.model.User
 import com.nextcloud.talk.models.domain.ConversationModel
 import com.nextcloud.talk.models.json.capabilities.Capabilities
@@ -16,6 +17,7 @@ import com.nextcloud.talk.models.json.conversations.Conversation
 import com.nextcloud.talk.models.json.conversations.ConversationEnums
 import org.junit.Assert.assertEquals
 import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
 import org.junit.Assert.assertTrue
 import org.junit.Test
 
@@ -25,41 +27,39 @@ class ConversationAvatarContentTest {
     fun `group rooms use the versioned conversation avatar endpoint with the avatar capability`() {
         val content = buildAvatarContent(
             conversation(ConversationEnums.ConversationType.ROOM_GROUP_CALL, avatarVersion = "5"),
-            user(withAvatarCapability = true),
-            isDark = false
+            user(withAvatarCapability = true)
         )
 
-        val url = content as AvatarContent.Url
-        assertTrue(url.versioned)
-        assertTrue(url.url.contains("/room/$ROOM_TOKEN/avatar"))
-        assertTrue(url.url.contains("avatarVersion=5"))
+        val avatar = (content as AvatarContent.Remote).avatar
+        assertEquals(Avatar.Type.CONVERSATION, avatar.type)
+        assertEquals("5", avatar.version)
+        assertTrue(avatar.url.contains("/room/$ROOM_TOKEN/avatar"))
+        assertTrue(avatar.url.contains("avatarVersion=5"))
     }
 
     @Test
     fun `one-to-one rooms use the unversioned conversation avatar endpoint with the avatar capability`() {
         val content = buildAvatarContent(
             conversation(ConversationEnums.ConversationType.ROOM_TYPE_ONE_TO_ONE_CALL, avatarVersion = "3"),
-            user(withAvatarCapability = true),
-            isDark = false
+            user(withAvatarCapability = true)
         )
 
-        val url = content as AvatarContent.Url
-        assertFalse("one-to-one avatars are outside the version scheme", url.versioned)
-        assertTrue(url.url.contains("/room/$ROOM_TOKEN/avatar"))
-        assertFalse(url.url.contains("avatarVersion"))
+        val avatar = (content as AvatarContent.Remote).avatar
+        assertNull("one-to-one avatars are outside the version scheme", avatar.version)
+        assertTrue(avatar.url.contains("/room/$ROOM_TOKEN/avatar"))
+        assertFalse(avatar.url.contains("avatarVersion"))
     }
 
     @Test
     fun `one-to-one endpoint selection depends on the capability only, not on the avatar version`() {
         val content = buildAvatarContent(
             conversation(ConversationEnums.ConversationType.ROOM_TYPE_ONE_TO_ONE_CALL, avatarVersion = ""),
-            user(withAvatarCapability = true),
-            isDark = false
+            user(withAvatarCapability = true)
         )
 
-        val url = content as AvatarContent.Url
-        assertFalse(url.versioned)
-        assertTrue(url.url.contains("/room/$ROOM_TOKEN/avatar"))
+        val avatar = (content as AvatarContent.Remote).avatar
+        assertNull(avatar.version)
+        assertTrue(avatar.url.contains("/room/$ROOM_TOKEN/avatar"))
     }
 
     @Test
@@ -67,18 +67,16 @@ class ConversationAvatarContentTest {
         listOf(
             buildAvatarContent(
                 conversation(ConversationEnums.ConversationType.ROOM_TYPE_ONE_TO_ONE_CALL, avatarVersion = "7"),
-                user(withAvatarCapability = true),
-                isDark = false
+                user(withAvatarCapability = true)
             ),
             buildAvatarContent(
                 conversation(ConversationEnums.ConversationType.ROOM_TYPE_ONE_TO_ONE_CALL, avatarVersion = "7"),
-                user(withAvatarCapability = false),
-                isDark = false
+                user(withAvatarCapability = false)
             )
         ).forEach { content ->
-            val url = content as AvatarContent.Url
-            assertFalse(url.versioned)
-            assertFalse(url.url.contains("avatarVersion"))
+            val avatar = (content as AvatarContent.Remote).avatar
+            assertNull(avatar.version)
+            assertFalse(avatar.url.contains("avatarVersion"))
         }
     }
 
@@ -86,22 +84,22 @@ class ConversationAvatarContentTest {
     fun `one-to-one rooms fall back to the unversioned user avatar endpoint without the capability`() {
         val content = buildAvatarContent(
             conversation(ConversationEnums.ConversationType.ROOM_TYPE_ONE_TO_ONE_CALL),
-            user(withAvatarCapability = false),
-            isDark = false
+            user(withAvatarCapability = false)
         )
 
         // only the endpoint path is asserted: the name segment needs Uri.encode, which is stubbed here
-        val url = content as AvatarContent.Url
-        assertFalse(url.versioned)
-        assertTrue(url.url.contains("/index.php/avatar/"))
+        val avatar = (content as AvatarContent.Remote).avatar
+        assertEquals(Avatar.Type.USER, avatar.type)
+        assertEquals(PEER_NAME, avatar.id)
+        assertNull(avatar.version)
+        assertTrue(avatar.url.contains("/index.php/avatar/"))
     }
 
     @Test
     fun `group rooms fall back to the themed default icon without the capability`() {
         val content = buildAvatarContent(
             conversation(ConversationEnums.ConversationType.ROOM_GROUP_CALL),
-            user(withAvatarCapability = false),
-            isDark = false
+            user(withAvatarCapability = false)
         )
 
         assertEquals(AvatarContent.Res(R.drawable.ic_circular_group), content)
@@ -111,8 +109,7 @@ class ConversationAvatarContentTest {
     fun `public rooms fall back to the themed default icon without the capability`() {
         val content = buildAvatarContent(
             conversation(ConversationEnums.ConversationType.ROOM_PUBLIC_CALL),
-            user(withAvatarCapability = false),
-            isDark = false
+            user(withAvatarCapability = false)
         )
 
         assertEquals(AvatarContent.Res(R.drawable.ic_circular_link), content)
@@ -122,8 +119,7 @@ class ConversationAvatarContentTest {
     fun `an empty avatar version keeps the fallback even with the capability`() {
         val content = buildAvatarContent(
             conversation(ConversationEnums.ConversationType.ROOM_GROUP_CALL, avatarVersion = ""),
-            user(withAvatarCapability = true),
-            isDark = false
+            user(withAvatarCapability = true)
         )
 
         assertEquals(AvatarContent.Res(R.drawable.ic_circular_group), content)
@@ -133,8 +129,7 @@ class ConversationAvatarContentTest {
     fun `note to self is independent of the avatar capability`() {
         val content = buildAvatarContent(
             conversation(ConversationEnums.ConversationType.NOTE_TO_SELF, avatarVersion = "5"),
-            user(withAvatarCapability = true),
-            isDark = false
+            user(withAvatarCapability = true)
         )
 
         assertEquals(AvatarContent.NoteToSelf, content)
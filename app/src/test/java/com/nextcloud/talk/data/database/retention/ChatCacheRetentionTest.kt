@@ -0,0 +1,199 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.data.database.retention
+
+import android.app.Application
+import android.content.Context
+import androidx.room.Room
+import androidx.test.core.app.ApplicationProvider
+import com.nextcloud.talk.chat.data.model.ChatMessage
+import com.nextcloud.talk.data.database.mappers.asEntity
+import com.nextcloud.talk.data.database.model.ChatBlockEntity
+import com.nextcloud.talk.data.database.model.ChatMessageEntity
+import com.nextcloud.talk.data.source.local.TalkDatabase
+import com.nextcloud.talk.data.user.model.UserEntity
+import com.nextcloud.talk.models.json.conversations.Conversation
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+@RunWith(RobolectricTestRunner::class)
+@Config(application = Application::class, sdk = [33])
+class ChatCacheRetentionTest {
+
+    private lateinit var db: TalkDatabase
+    private var now = START_TIME
+
+    @Before
+    fun setUp() {
+        val context = ApplicationProvider.getApplicationContext<Context>()
+        db = Room.inMemoryDatabaseBuilder(context, TalkDatabase::class.java)
+            .allowMainThreadQueries()
+            .build()
+        db.usersDao().saveUser(UserEntity(id = ACCOUNT_ID, userId = "me", username = "me", baseUrl = BASE_URL))
+        runBlocking {
+            db.conversationsDao().upsertConversations(
+                ACCOUNT_ID,
+                listOf(OPENED_ROOM, IDLE_ROOM).map { Conversation(token = it).asEntity(ACCOUNT_ID) }
+            )
+        }
+    }
+
+    @After
+    fun tearDown() {
+        db.close()
+    }
+
+    @Test
+    fun `nothing is trimmed within the budget`() {
+        storeMessages(IDLE_ROOM, 1L..50L)
+
+        val report = retention(maxMessages = 100).trim()
+
+        assertEquals(0, report.deletedMessages)
+        assertEquals(50, db.chatRetentionDao().countChatMessages())
+    }
+
+    @Test
+    fun `the least recently opened conversation is trimmed first`() {
+        storeMessages(OPENED_ROOM, 1L..60L)
+        storeMessages(IDLE_ROOM, 1L..60L)
+        val retention = retention(maxMessages = 100, minMessagesPerConversation = 10)
+        runBlocking { retention.markOpened(ACCOUNT_ID, OPENED_ROOM) }
+
+        val report = retention.trim()
+
+        // trimmed to 80% of the budget, all of it taken from the room that was never opened
+        assertEquals(40, report.deletedMessages)
+        assertEquals(1, report.trimmedConversations)
+        assertEquals(60, messageIds(OPENED_ROOM).size)
+        assertEquals((41L..60L).toList(), messageIds(IDLE_ROOM))
+    }
+
+    @Test
+    fun `every conversation keeps its newest messages`() {
+        storeMessages(OPENED_ROOM, 1L..60L)
+        storeMessages(IDLE_ROOM, 1L..60L)
+
+        retention(maxMessages = 50, minMessagesPerConversation = 30).trim()
+
+        assertEquals((31L..60L).toList(), messageIds(OPENED_ROOM))
+        assertEquals((31L..60L).toList(), messageIds(IDLE_ROOM))
+    }
+
+    @Test
+    fun `chat blocks are cut at the oldest kept message`() {
+        storeMessages(IDLE_ROOM, 1L..100L)
+        storeBlock(IDLE_ROOM, 1L, 20L, hasHistory = false)
+        storeBlock(IDLE_ROOM, 30L, 100L, hasHistory = true)
+
+        val report = retention(maxMessages = 50, minMessagesPerConversation = 10).trim()
+
+        val blocks = runBlocking { db.chatBlocksDao().getChatBlocksForConversation(internalId(IDLE_ROOM)) }
+        assertEquals(1, report.deletedBlocks)
+        assertEquals(1, report.shrunkBlocks)
+        assertEquals(1, blocks.size)
+        assertEquals(61L, blocks.single().oldestMessageId)
+        assertEquals(100L, blocks.single().newestMessageId)
+        assertTrue(blocks.single().hasHistory)
+    }
+
+    @Test
+    fun `temporary messages are never trimmed`() {
+        storeMessages(IDLE_ROOM, 1L..100L)
+        runBlocking {
+            db.chatMessagesDao().upsertChatMessage(message(IDLE_ROOM, 0L).copy(internalId = "temp", isTemporary = true))
+        }
+
+        retention(maxMessages = 50, minMessagesPerConversation = 10).trim()
+
+        assertTrue(
+            runBlocking { db.chatMessagesDao().getChatMessageEntity(internalId(IDLE_ROOM), 0L) }?.isTemporary == true
+        )
+    }
+
+    @Test
+    fun `maintenance reports the database size and vacuums the freed pages`() {
+        storeMessages(IDLE_ROOM, 1L..2_000L)
+
+        val report = retention(maxMessages = 100, minMessagesPerConversation = 10).runMaintenance()
+
+        assertEquals(2_000, report.before.messageCount)
+        assertEquals(80, report.after!!.messageCount)
+        assertTrue(report.before.databaseBytes > 0)
+        assertFalse(report.after!!.databaseBytes > report.before.databaseBytes)
+    }
+
+    private fun retention(maxMessages: Int, minMessagesPerConversation: Int = 10) =
+        ChatCacheRetention(
+            db,
+            db.chatRetentionDao(),
+            ChatCacheRetention.RetentionPolicy(
+                maxMessages = maxMessages,
+                minMessagesPerConversation = minMessagesPerConversation
+            ),
+            clock = { now }
+        )
+
+    private fun storeMessages(token: String, ids: LongRange) {
+        runBlocking { db.chatMessagesDao().upsertChatMessages(ids.map { message(token, it) }) }
+    }
+
+    private fun storeBlock(token: String, oldest: Long, newest: Long, hasHistory: Boolean) {
+        runBlocking {
+            db.chatBlocksDao().upsertChatBlock(
+                ChatBlockEntity(
+                    internalConversationId = internalId(token),
+                    accountId = ACCOUNT_ID,
+                    token = token,
+                    oldestMessageId = oldest,
+                    newestMessageId = newest,
+                    hasHistory = hasHistory
+                )
+            )
+        }
+    }
+
+    private fun messageIds(token: String): List<Long> =
+        db.chatRetentionDao().let { dao ->
+            (0 until dao.countChatMessages()).mapNotNull { dao.getMessageIdAtOffsetFromNewest(internalId(token), it) }
+        }.sorted()
+
+    private fun message(token: String, id: Long) =
+        ChatMessageEntity(
+            internalId = "${internalId(token)}@$id",
+            accountId = ACCOUNT_ID,
+            token = token,
+            id = id,
+            internalConversationId = internalId(token),
+            actorDisplayName = "User",
+            message = "message $id",
+            actorId = "user",
+            actorType = "users",
+            messageType = "comment",
+            systemMessageType = ChatMessage.SystemMessageType.DUMMY,
+            timestamp = id
+        )
+
+    private fun internalId(token: String) = "$ACCOUNT_ID@$token"
+
+    companion object {
+        private const val ACCOUNT_ID = 1L
+        private const val BASE_URL = "https://server.example.com"
+        private const val OPENED_ROOM = "opened"
+        private const val IDLE_ROOM = "idle"
+        private const val START_TIME = 1_700_000_000_000L
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.data.source.local
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class MainThreadQueryDetectorTest {
+
+    private var onMainThread = false
+
+    @Test
+    fun `queries on background threads are ignored`() {
+        val detector = MainThreadQueryDetector(isMainThread = { onMainThread })
+
+        detector.onQuery(QUERY, emptyList())
+
+        assertTrue(detector.mainThreadQueries().isEmpty())
+    }
+
+    @Test
+    fun `main thread queries are recorded per statement`() {
+        val detector = MainThreadQueryDetector(isMainThread = { onMainThread })
+        onMainThread = true
+
+        detector.onQuery(QUERY, listOf(1L))
+        detector.onQuery(QUERY, listOf(2L))
+        detector.onQuery(OTHER_QUERY, emptyList())
+
+        assertEquals(mapOf(QUERY to 2, OTHER_QUERY to 1), detector.mainThreadQueries())
+    }
+
+    @Test(expected = IllegalStateException::class)
+    fun `main thread queries fail in fail mode`() {
+        val detector = MainThreadQueryDetector(MainThreadQueryDetector.Mode.FAIL, isMainThread = { onMainThread })
+        onMainThread = true
+
+        detector.onQuery(QUERY, emptyList())
+    }
+
+    companion object {
+        private const val QUERY = "SELECT * FROM Conversations WHERE accountId = ?"
+        private const val OTHER_QUERY = "SELECT * FROM Users"
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.data.user
+
+import android.app.Application
+import android.content.Context
+import androidx.room.Room
+import androidx.test.core.app.ApplicationProvider
+import com.nextcloud.talk.data.source.local.TalkDatabase
+import com.nextcloud.talk.data.user.model.UserEntity
+import com.nextcloud.talk.models.ExternalSignalingServer
+import com.nextcloud.talk.models.json.capabilities.ServerVersion
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+/**
+ * The background refreshes of the capabilities and signaling settings write their fields only, so a change made to
+ * the account while they were fetching, e.g. a new token, is not overwritten with the copy read before.
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(application = Application::class, sdk = [33])
+class UsersDaoFieldUpdatesTest {
+
+    private lateinit var db: TalkDatabase
+    private lateinit var dao: UsersDao
+
+    @Before
+    fun setUp() {
+        val context = ApplicationProvider.getApplicationContext<Context>()
+        db = Room.inMemoryDatabaseBuilder(context, TalkDatabase::class.java)
+            .allowMainThreadQueries()
+            .build()
+        dao = db.usersDao()
+        dao.saveUser(UserEntity(id = ACCOUNT_ID, userId = "me", username = "me", token = "old"))
+    }
+
+    @After
+    fun tearDown() {
+        db.close()
+    }
+
+    @Test
+    fun `updating the capabilities keeps a token changed meanwhile`() {
+        val fetchedCopy = dao.getUserWithId(ACCOUNT_ID).blockingGet()!!
+        dao.updateUser(fetchedCopy.copy(token = "new"))
+
+        val serverVersion = ServerVersion(major = 32)
+        val rowCounts = dao.updateCapabilities(listOf(fetchedCopy.copy(serverVersion = serverVersion)))
+
+        val stored = dao.getUserWithId(ACCOUNT_ID).blockingGet()!!
+        assertEquals(listOf(1), rowCounts)
+        assertEquals("new", stored.token)
+        assertEquals(serverVersion, stored.serverVersion)
+    }
+
+    @Test
+    fun `updating the signaling server keeps a token changed meanwhile`() {
+        val fetchedCopy = dao.getUserWithId(ACCOUNT_ID).blockingGet()!!
+        dao.updateUser(fetchedCopy.copy(token = "new"))
+
+        val server = ExternalSignalingServer("wss://signaling.example.com", "ticket")
+        val rowCounts = dao.updateExternalSignalingServers(
+            listOf(fetchedCopy.copy(externalSignalingServer = server), fetchedCopy.copy(id = UNKNOWN_ACCOUNT_ID))
+        )
+
+        val stored = dao.getUserWithId(ACCOUNT_ID).blockingGet()!!
+        assertEquals(listOf(1, 0), rowCounts)
+        assertEquals("new", stored.token)
+        assertEquals(server, stored.externalSignalingServer)
+    }
+
+    companion object {
+        private const val ACCOUNT_ID = 1L
+        private const val UNKNOWN_ACCOUNT_ID = 2L
+    }
+}
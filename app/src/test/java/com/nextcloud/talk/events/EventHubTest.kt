@@ -0,0 +1,159 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.events
+
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.asCoroutineDispatcher
+import kotlinx.coroutines.cancel
+import kotlinx.coroutines.test.StandardTestDispatcher
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.runCurrent
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class EventHubTest {
+
+    private val dispatcher = StandardTestDispatcher()
+    private val testScope = TestScope(dispatcher)
+    private var now = 0L
+    private val hub = EventHub(testScope, clock = { now })
+
+    @Test
+    fun `events are delivered in posting order on the subscription's dispatcher`() {
+        val received = mutableListOf<Int>()
+        hub.subscribe<NumberEvent>(dispatcher) { received += it.number }
+
+        (1..5).forEach { hub.post(NumberEvent(it)) }
+        assertTrue(received.isEmpty())
+
+        testScope.runCurrent()
+        assertEquals(listOf(1, 2, 3, 4, 5), received)
+    }
+
+    @Test
+    fun `events are dispatched by their exact type`() {
+        val numbers = mutableListOf<Int>()
+        val texts = mutableListOf<String>()
+        hub.subscribe<NumberEvent>(dispatcher) { numbers += it.number }
+        hub.subscribe<TextEvent>(dispatcher) { texts += it.text }
+
+        hub.post(TextEvent("a"))
+        hub.post(NumberEvent(1))
+        testScope.runCurrent()
+
+        assertEquals(listOf(1), numbers)
+        assertEquals(listOf("a"), texts)
+    }
+
+    @Test
+    fun `a cancelled subscription receives no further events`() {
+        val received = mutableListOf<Int>()
+        val subscription = hub.subscribe<NumberEvent>(dispatcher) { received += it.number }
+
+        hub.post(NumberEvent(1))
+        testScope.runCurrent()
+        subscription.cancel()
+        hub.post(NumberEvent(2))
+        testScope.runCurrent()
+
+        assertEquals(listOf(1), received)
+    }
+
+    @Test
+    fun `sticky events reach later sticky subscriptions only`() {
+        hub.postSticky(NumberEvent(7))
+
+        val sticky = mutableListOf<Int>()
+        val regular = mutableListOf<Int>()
+        hub.subscribe<NumberEvent>(dispatcher, sticky = true) { sticky += it.number }
+        hub.subscribe<NumberEvent>(dispatcher) { regular += it.number }
+        testScope.runCurrent()
+
+        assertEquals(listOf(7), sticky)
+        assertTrue(regular.isEmpty())
+
+        hub.removeStickyEvent(NumberEvent::class.java)
+        val late = mutableListOf<Int>()
+        hub.subscribe<NumberEvent>(dispatcher, sticky = true) { late += it.number }
+        testScope.runCurrent()
+        assertTrue(late.isEmpty())
+    }
+
+    @Test
+    fun `a failing subscriber does not stop the delivery`() {
+        val received = mutableListOf<Int>()
+        hub.subscribe<NumberEvent>(dispatcher) {
+            check(it.number != 1) { "failing on purpose" }
+            received += it.number
+        }
+
+        hub.post(NumberEvent(1))
+        hub.post(NumberEvent(2))
+        testScope.runCurrent()
+
+        assertEquals(listOf(2), received)
+        assertEquals(1L, hub.deliveryStats(NumberEvent::class.java).failed)
+    }
+
+    @Test
+    fun `delivery latency is recorded per event type`() {
+        hub.subscribe<NumberEvent>(dispatcher) { }
+        hub.subscribe<NumberEvent>(dispatcher) { }
+
+        hub.post(NumberEvent(1))
+        now = LATENCY_NANOS
+        testScope.runCurrent()
+        hub.post(NumberEvent(2))
+        testScope.runCurrent()
+
+        val stats = hub.deliveryStats(NumberEvent::class.java)
+        assertEquals(2L, stats.posted)
+        assertEquals(4L, stats.delivered)
+        assertEquals(LATENCY_NANOS, stats.maxLatencyNanos)
+        assertEquals(LATENCY_NANOS / 2, stats.averageLatencyNanos)
+        assertEquals(0L, hub.deliveryStats(TextEvent::class.java).posted)
+    }
+
+    @Test
+    fun `events are delivered to a background subscriber`() {
+        val executor = Executors.newSingleThreadExecutor()
+        val scope = CoroutineScope(SupervisorJob())
+        val realHub = EventHub(scope)
+        val latch = CountDownLatch(EVENT_COUNT)
+        realHub.subscribe<NumberEvent>(executor.asCoroutineDispatcher()) { latch.countDown() }
+
+        repeat(EVENT_COUNT) { realHub.post(NumberEvent(it)) }
+
+        try {
+            assertTrue(latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS))
+            val stats = realHub.deliveryStats(NumberEvent::class.java)
+            assertEquals(EVENT_COUNT.toLong(), stats.delivered)
+            assertTrue(stats.averageLatencyNanos < TimeUnit.SECONDS.toNanos(1))
+        } finally {
+            scope.cancel()
+            executor.shutdownNow()
+        }
+    }
+
+    private data class NumberEvent(val number: Int)
+
+    private data class TextEvent(val text: String)
+
+    companion object {
+        private const val LATENCY_NANOS = 5_000L
+        private const val EVENT_COUNT = 10_000
+        private const val TIMEOUT_SECONDS = 10L
+    }
+}
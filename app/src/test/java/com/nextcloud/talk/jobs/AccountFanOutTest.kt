@@ -0,0 +1,126 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.jobs
+
+import com.github.aurae.retrofit2.LoganSquareConverterFactory
+import com.nextcloud.talk.api.NcApi
+import com.nextcloud.talk.data.user.model.User
+import io.reactivex.schedulers.Schedulers
+import kotlinx.coroutines.rx2.awaitFirst
+import kotlinx.coroutines.runBlocking
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import retrofit2.Retrofit
+import retrofit2.adapter.rxjava2.RxJava2CallAdapterFactory
+import java.util.concurrent.TimeUnit
+
+/**
+ * Fetches capabilities from one server per account, where one server is much slower than the others.
+ */
+class AccountFanOutTest {
+
+    private val ncApi = Retrofit.Builder()
+        .baseUrl("https://nextcloud.com")
+        .addCallAdapterFactory(RxJava2CallAdapterFactory.createWithScheduler(Schedulers.io()))
+        .addConverterFactory(LoganSquareConverterFactory.create())
+        .build()
+        .create(NcApi::class.java)
+
+    private val servers = mutableListOf<MockWebServer>()
+
+    @After
+    fun tearDown() {
+        servers.forEach { it.shutdown() }
+    }
+
+    @Test
+    fun `the refresh takes about as long as the slowest server`() {
+        val users = listOf(user(FAST_MILLIS), user(FAST_MILLIS), user(FAST_MILLIS), user(SLOW_MILLIS))
+
+        val (fetched, elapsed) = fetch(AccountFanOut(), users)
+
+        assertTrue(fetched.all { it.result != null })
+        val sum = FAST_MILLIS * 3 + SLOW_MILLIS
+        assertTrue("took $elapsed ms, the slowest server takes $SLOW_MILLIS ms", elapsed >= SLOW_MILLIS)
+        assertTrue("took $elapsed ms, the servers take $sum ms in total", elapsed < SLOW_MILLIS + MARGIN_MILLIS)
+    }
+
+    @Test
+    fun `a server that times out only fails its own account`() {
+        val users = listOf(user(FAST_MILLIS), user(TIMED_OUT_MILLIS), user(FAST_MILLIS))
+
+        val (fetched, elapsed) = fetch(AccountFanOut(accountTimeoutMillis = TIMEOUT_MILLIS), users)
+
+        assertEquals(users, fetched.map { it.user })
+        assertNotNull(fetched[0].result)
+        assertNull(fetched[1].result)
+        assertNotNull(fetched[2].result)
+        assertTrue("took $elapsed ms", elapsed < TIMEOUT_MILLIS + MARGIN_MILLIS)
+    }
+
+    @Test
+    fun `no more accounts than allowed are fetched at the same time`() {
+        val users = List(4) { user(FAST_MILLIS) }
+
+        val (fetched, elapsed) = fetch(AccountFanOut(maxConcurrentAccounts = 2), users)
+
+        assertTrue(fetched.all { it.result != null })
+        assertTrue("took $elapsed ms", elapsed >= FAST_MILLIS * 2)
+    }
+
+    @Test
+    fun `a failing server only fails its own account`() {
+        val failing = MockWebServer().also { servers += it }
+        failing.enqueue(MockResponse().setResponseCode(500))
+        val users = listOf(user(FAST_MILLIS), User(id = 99L, baseUrl = failing.url("/").toString().removeSuffix("/")))
+
+        val (fetched, _) = fetch(AccountFanOut(), users)
+
+        assertNotNull(fetched[0].result)
+        assertNull(fetched[1].result)
+    }
+
+    private fun fetch(
+        fanOut: AccountFanOut,
+        users: List<User>
+    ): Pair<List<AccountFanOut.Fetched<*>>, Long> {
+        val start = System.nanoTime()
+        val fetched = runBlocking {
+            fanOut.fetch(users) { user ->
+                ncApi.getCapabilities("Basic credentials", user.baseUrl + CAPABILITIES_PATH).awaitFirst()
+            }
+        }
+        return fetched to TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+    }
+
+    private fun user(delayMillis: Long): User {
+        val server = MockWebServer().also { servers += it }
+        server.enqueue(
+            MockResponse()
+                .setBody(CAPABILITIES_JSON)
+                .setBodyDelay(delayMillis, TimeUnit.MILLISECONDS)
+        )
+        return User(id = servers.size.toLong(), baseUrl = server.url("/").toString().removeSuffix("/"))
+    }
+
+    companion object {
+        private const val CAPABILITIES_PATH = "/ocs/v2.php/cloud/capabilities"
+        private const val CAPABILITIES_JSON = """{"ocs":{"data":{"capabilities":{}}}}"""
+        private const val FAST_MILLIS = 300L
+        private const val SLOW_MILLIS = 1_500L
+        private const val TIMED_OUT_MILLIS = 10_000L
+        private const val TIMEOUT_MILLIS = 1_000L
+        private const val MARGIN_MILLIS = 700L
+    }
+}
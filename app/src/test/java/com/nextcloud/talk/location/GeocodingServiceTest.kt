@@ -0,0 +1,159 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.location
+
+import android.app.Application
+import android.content.Context
+import androidx.room.Room
+import androidx.test.core.app.ApplicationProvider
+import com.nextcloud.talk.data.source.local.TalkDatabase
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.io.IOException
+
+@RunWith(RobolectricTestRunner::class)
+@Config(application = Application::class, sdk = [33])
+class GeocodingServiceTest {
+
+    private lateinit var db: TalkDatabase
+    private lateinit var geocoder: FakeGeocoder
+    private var now = START_TIME
+
+    @Before
+    fun setUp() {
+        val context = ApplicationProvider.getApplicationContext<Context>()
+        db = Room.inMemoryDatabaseBuilder(context, TalkDatabase::class.java)
+            .allowMainThreadQueries()
+            .build()
+        geocoder = FakeGeocoder()
+    }
+
+    @After
+    fun tearDown() {
+        db.close()
+    }
+
+    @Test
+    fun `equal searches are answered from the cache`() {
+        val service = service()
+
+        val first = runBlocking { service.search("Brandenburger Tor") }
+        val second = runBlocking { service.search("  brandenburger   TOR ") }
+
+        assertEquals(listOf(BRANDENBURGER_TOR), first)
+        assertEquals(first, second)
+        assertEquals(1, geocoder.searches)
+    }
+
+    @Test
+    fun `reverse lookups in the same grid cell are answered from the cache`() {
+        val service = service()
+
+        val first = runBlocking { service.reverse(LAT, LON) }
+        val nearby = runBlocking { service.reverse(LAT + NEARBY_OFFSET, LON + NEARBY_OFFSET) }
+
+        assertEquals(BRANDENBURGER_TOR, first)
+        assertEquals(BRANDENBURGER_TOR, nearby)
+        assertEquals(1, geocoder.reverses)
+    }
+
+    @Test
+    fun `reverse lookups in another grid cell ask the geocoder`() {
+        val service = service()
+
+        runBlocking { service.reverse(LAT, LON) }
+        runBlocking { service.reverse(LAT + GeocodingService.REVERSE_GRID_DEGREES, LON) }
+
+        assertEquals(2, geocoder.reverses)
+    }
+
+    @Test
+    fun `cached places resolve offline after a restart`() {
+        runBlocking {
+            service().search("Brandenburger Tor")
+            service().reverse(LAT, LON)
+        }
+        geocoder.offline = true
+
+        val restarted = service()
+
+        assertEquals(listOf(BRANDENBURGER_TOR), runBlocking { restarted.search("brandenburger tor") })
+        assertEquals(BRANDENBURGER_TOR, runBlocking { restarted.reverse(LAT, LON) })
+        assertEquals(1, geocoder.searches)
+        assertEquals(1, geocoder.reverses)
+    }
+
+    @Test
+    fun `failed lookups are not cached`() {
+        val service = service()
+        geocoder.offline = true
+
+        assertTrue(runBlocking { service.search("Brandenburger Tor") }.isEmpty())
+        assertNull(runBlocking { service.reverse(LAT, LON) })
+
+        geocoder.offline = false
+
+        assertEquals(listOf(BRANDENBURGER_TOR), runBlocking { service.search("Brandenburger Tor") })
+        assertEquals(BRANDENBURGER_TOR, runBlocking { service.reverse(LAT, LON) })
+    }
+
+    @Test
+    fun `blank searches do not ask the geocoder`() {
+        assertTrue(runBlocking { service().search("   ") }.isEmpty())
+        assertEquals(0, geocoder.searches)
+    }
+
+    @Test
+    fun `the least recently used places are evicted from the database`() {
+        val service = service()
+        runBlocking {
+            repeat(DATABASE_CACHE_SIZE + 1) { service.search("query $it") }
+        }
+
+        assertTrue(db.geocodingDao().getResults(GeocodingService.searchKey("query 0")).isEmpty())
+        assertEquals(1, db.geocodingDao().getResults(GeocodingService.searchKey("query 1")).size)
+    }
+
+    private fun service() =
+        GeocodingService(geocoder, db.geocodingDao(), clock = { now++ }, minRequestIntervalMillis = 0)
+
+    private class FakeGeocoder : Geocoder {
+        var offline = false
+        var searches = 0
+        var reverses = 0
+
+        override fun search(query: String): List<GeocodingResult> {
+            if (offline) throw IOException("offline")
+            searches++
+            return listOf(BRANDENBURGER_TOR)
+        }
+
+        override fun reverse(lat: Double, lon: Double): GeocodingResult {
+            if (offline) throw IOException("offline")
+            reverses++
+            return BRANDENBURGER_TOR
+        }
+    }
+
+    companion object {
+        private const val START_TIME = 1_700_000_000_000L
+        private const val LAT = 52.51627
+        private const val LON = 13.37770
+        private const val NEARBY_OFFSET = 0.0001
+        private const val DATABASE_CACHE_SIZE = 200
+        private val BRANDENBURGER_TOR = GeocodingResult(LAT, LON, "Brandenburger Tor, Pariser Platz, Berlin")
+    }
+}
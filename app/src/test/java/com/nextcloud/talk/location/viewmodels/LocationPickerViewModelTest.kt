@@ -8,13 +8,13 @@ package com.nextcloud.talk.location.viewmodels
 
 import com.nextcloud.talk.api.NcApi
 import com.nextcloud.talk.location.GeocodingResult
+import com.nextcloud.talk.location.GeocodingService
 import com.nextcloud.talk.utils.database.user.CurrentUserProviderOld
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.test.StandardTestDispatcher
 import kotlinx.coroutines.test.resetMain
 import kotlinx.coroutines.test.setMain
-import okhttp3.OkHttpClient
 import org.junit.After
 import org.junit.Assert.assertEquals
 import org.junit.Before
@@ -30,7 +30,7 @@ class LocationPickerViewModelTest {
 
     private val ncApi: NcApi = mock()
     private val userProvider: CurrentUserProviderOld = mock()
-    private val okHttpClient: OkHttpClient = mock()
+    private val geocodingService: GeocodingService = mock()
 
     private val initParams = LocationPickerViewModel.LocationPickerInitParams(
         roomToken = "testRoom",
@@ -38,15 +38,13 @@ class LocationPickerViewModelTest {
         geocodingResult = null,
         moveToCurrentLocation = false,
         mapCenterLat = 52.5163,
-        mapCenterLon = 13.3777,
-        geocoderBaseUrl = "https://nominatim.openstreetmap.org",
-        geocoderEmail = "test@example.com"
+        mapCenterLon = 13.3777
     )
 
     @Before
     fun setUp() {
         Dispatchers.setMain(testDispatcher)
-        viewModel = LocationPickerViewModel(ncApi, userProvider, okHttpClient)
+        viewModel = LocationPickerViewModel(ncApi, userProvider, geocodingService)
         viewModel.initialize(initParams)
     }
 
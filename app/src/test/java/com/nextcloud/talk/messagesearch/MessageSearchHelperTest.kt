@@ -17,12 +17,17 @@ import com.nextcloud.talk.users.UserManager
 import com.nextcloud.talk.utils.database.user.CurrentUserProviderOld
 import com.nextcloud.talk.utils.database.user.CurrentUserProviderOldImpl
 import com.nextcloud.talk.utils.preview.DummyUserDaoImpl
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.runCurrent
 import kotlinx.coroutines.test.runTest
 import org.junit.Assert
 import org.junit.Before
 import org.junit.Test
 import org.mockito.MockitoAnnotations
 
+@OptIn(ExperimentalCoroutinesApi::class)
 class MessageSearchHelperTest {
 
     val repository = FakeUnifiedSearchRepository()
@@ -64,7 +69,8 @@ class MessageSearchHelperTest {
 
             val sut = MessageSearchHelper(
                 repository,
-                currentUser = userProvider.currentUser.blockingGet()
+                currentUser = userProvider.currentUser.blockingGet(),
+                prefetchScope = backgroundScope
             )
 
             val result = sut.startMessageSearch("foo")
@@ -80,7 +86,8 @@ class MessageSearchHelperTest {
 
             val sut = MessageSearchHelper(
                 repository,
-                currentUser = userProvider.currentUser.blockingGet()
+                currentUser = userProvider.currentUser.blockingGet(),
+                prefetchScope = backgroundScope
             )
 
             val result = sut.startMessageSearch("foo")
@@ -96,7 +103,8 @@ class MessageSearchHelperTest {
 
             val sut = MessageSearchHelper(
                 repository,
-                currentUser = userProvider.currentUser.blockingGet()
+                currentUser = userProvider.currentUser.blockingGet(),
+                prefetchScope = backgroundScope
             )
 
             val result = sut.startMessageSearch("foo")
@@ -115,7 +123,8 @@ class MessageSearchHelperTest {
 
             val sut = MessageSearchHelper(
                 repository,
-                currentUser = userProvider.currentUser.blockingGet()
+                currentUser = userProvider.currentUser.blockingGet(),
+                prefetchScope = backgroundScope
             )
 
             val result = sut.startMessageSearch("foo")
@@ -140,7 +149,8 @@ class MessageSearchHelperTest {
 
             val sut = MessageSearchHelper(
                 repository,
-                currentUser = userProvider.currentUser.blockingGet()
+                currentUser = userProvider.currentUser.blockingGet(),
+                prefetchScope = backgroundScope
             )
 
             val result = sut.startMessageSearch("foo")
@@ -158,7 +168,8 @@ class MessageSearchHelperTest {
 
             val sut = MessageSearchHelper(
                 repository,
-                currentUser = userProvider.currentUser.blockingGet()
+                currentUser = userProvider.currentUser.blockingGet(),
+                prefetchScope = backgroundScope
             )
 
             repeat(5) {
@@ -173,7 +184,8 @@ class MessageSearchHelperTest {
         runTest {
             val sut = MessageSearchHelper(
                 repository,
-                currentUser = userProvider.currentUser.blockingGet()
+                currentUser = userProvider.currentUser.blockingGet(),
+                prefetchScope = backgroundScope
             )
             Assert.assertEquals(null, sut.loadMore())
         }
@@ -183,7 +195,8 @@ class MessageSearchHelperTest {
         runTest {
             val sut = MessageSearchHelper(
                 repository,
-                currentUser = userProvider.currentUser.blockingGet()
+                currentUser = userProvider.currentUser.blockingGet(),
+                prefetchScope = backgroundScope
             )
 
             val firstPageEntries = (1..5).map { createMessageEntry() }
@@ -214,7 +227,8 @@ class MessageSearchHelperTest {
         runTest {
             val sut = MessageSearchHelper(
                 repository,
-                currentUser = userProvider.currentUser.blockingGet()
+                currentUser = userProvider.currentUser.blockingGet(),
+                prefetchScope = backgroundScope
             )
 
             val firstPageEntries = listOf(
@@ -248,4 +262,77 @@ class MessageSearchHelperTest {
             Assert.assertEquals(listOf(0, 1, 2), repository.requestedCursors)
             Assert.assertEquals(2, repository.lastRequestedCursor)
         }
+
+    @Test
+    fun search_emitsCachedMatchesBeforeServerResults() =
+        runTest {
+            val cached = createMessageEntry(messageId = "7", threadId = null, title = "cached")
+            val serverOnly = createMessageEntry(messageId = "8", threadId = null, title = "server")
+            repository.cachedMessages = listOf(cached)
+            repository.response = UnifiedSearchRepository.UnifiedSearchResults(2, false, listOf(cached, serverOnly))
+
+            val emissions = createHelper().searchFlow("foo").toList()
+
+            Assert.assertEquals(
+                listOf(
+                    MessageSearchHelper.MessageSearchResults(listOf(cached), false),
+                    MessageSearchHelper.MessageSearchResults(listOf(cached, serverOnly), false)
+                ),
+                emissions
+            )
+        }
+
+    @Test
+    fun sparsePages_nextPageIsPrefetchedWhileResultsAreShown() =
+        runTest {
+            val first = createMessageEntry(messageId = "10", threadId = null, title = "first")
+            val second = createMessageEntry(messageId = "20", threadId = null, title = "second")
+            repository.responsesByCursor[0] =
+                UnifiedSearchRepository.UnifiedSearchResults(1, true, listOf(threadReply("11")))
+            repository.responsesByCursor[1] =
+                UnifiedSearchRepository.UnifiedSearchResults(2, true, listOf(first))
+            repository.responsesByCursor[2] =
+                UnifiedSearchRepository.UnifiedSearchResults(3, true, listOf(threadReply("21"), threadReply("22")))
+            repository.responsesByCursor[3] =
+                UnifiedSearchRepository.UnifiedSearchResults(4, false, listOf(second))
+            val sut = createHelper()
+
+            val firstPageResult = sut.startMessageSearch("foo")
+            Assert.assertEquals(MessageSearchHelper.MessageSearchResults(listOf(first), true), firstPageResult)
+            Assert.assertEquals(listOf(0, 1), repository.requestedCursors)
+
+            // the next page is requested while the first results are shown
+            runCurrent()
+            Assert.assertEquals(listOf(0, 1, 2), repository.requestedCursors)
+
+            val secondPageResult = sut.loadMore()
+            Assert.assertEquals(
+                MessageSearchHelper.MessageSearchResults(listOf(first, second), false),
+                secondPageResult
+            )
+            Assert.assertEquals(listOf(0, 1, 2, 3), repository.requestedCursors)
+        }
+
+    @Test
+    fun newSearch_discardsPageOfPreviousSearch() =
+        runTest {
+            repository.response = UnifiedSearchRepository.UnifiedSearchResults(5, true, listOf(createMessageEntry()))
+            val sut = createHelper()
+
+            sut.startMessageSearch("foo")
+            sut.startMessageSearch("bar")
+            runCurrent()
+
+            Assert.assertEquals(listOf(0, 0, 5), repository.requestedCursors)
+        }
+
+    private fun TestScope.createHelper() =
+        MessageSearchHelper(
+            repository,
+            currentUser = userProvider.currentUser.blockingGet(),
+            prefetchScope = backgroundScope
+        )
+
+    private fun threadReply(messageId: String) =
+        createMessageEntry(messageId = messageId, threadId = "1", title = "reply-$messageId")
 }
@@ -0,0 +1,295 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.outbox
+
+import com.nextcloud.talk.data.database.dao.OutboxDao
+import com.nextcloud.talk.data.database.model.OutboxOperationEntity
+import com.nextcloud.talk.data.database.model.OutboxOperationType
+import com.nextcloud.talk.data.network.NetworkMonitor
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.runTest
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.whenever
+
+/**
+ * Covers coalescing in [Outbox] and ordering, retries and giving up in [OutboxDrainer], with an in-memory outbox table.
+ */
+class OutboxTest {
+
+    private val dao = FakeOutboxDao()
+    private val sender = FakeSender()
+    private val isOnline = MutableStateFlow(true)
+    private val networkMonitor: NetworkMonitor = mock()
+    private var now = 1_000L
+    private var backgroundDrains = 0
+
+    // never advanced, so only the drains a test runs explicitly happen
+    private val idleScope = TestScope()
+
+    private lateinit var drainer: OutboxDrainer
+    private lateinit var outbox: Outbox
+
+    @Before
+    fun setUp() {
+        whenever(networkMonitor.isOnline).thenReturn(isOnline)
+        drainer = OutboxDrainer(dao, sender, networkMonitor, { backgroundDrains++ }, idleScope) { now }
+        outbox = Outbox(dao, drainer) { now }
+    }
+
+    @Test
+    fun `newest read marker of a room replaces a pending one`() =
+        runTest {
+            outbox.enqueueReadMarker(ACCOUNT_ID, ROOM, 10)
+            outbox.enqueueReadMarker(ACCOUNT_ID, ROOM, 12)
+            outbox.enqueueReadMarker(ACCOUNT_ID, OTHER_ROOM, 3)
+
+            assertTrue(drainer.drain())
+
+            assertEquals(listOf("READ_MARKER $ROOM 12", "READ_MARKER $OTHER_ROOM 3"), sender.sent)
+        }
+
+    @Test
+    fun `toggling a pending reaction cancels it`() =
+        runTest {
+            outbox.enqueueReaction(ACCOUNT_ID, ROOM, 7, "👍", add = true)
+            outbox.enqueueReaction(ACCOUNT_ID, ROOM, 7, "👍", add = false)
+
+            assertTrue(dao.getOperations().isEmpty())
+        }
+
+    @Test
+    fun `toggling a reaction while it is being sent sends the opposite afterwards`() =
+        runTest {
+            val inFlight = CompletableDeferred<Unit>()
+            val release = CompletableDeferred<OutboxSendResult>()
+            sender.onSend = {
+                inFlight.complete(Unit)
+                release.await()
+            }
+            outbox.enqueueReaction(ACCOUNT_ID, ROOM, 7, "👍", add = true)
+
+            val drain = launch { drainer.drain() }
+            inFlight.await()
+            outbox.enqueueReaction(ACCOUNT_ID, ROOM, 7, "👍", add = false)
+            release.complete(OutboxSendResult.SENT)
+            drain.join()
+
+            sender.onSend = null
+            assertTrue(drainer.drain())
+            assertEquals(listOf("ADD_REACTION $ROOM 7", "DELETE_REACTION $ROOM 7"), sender.sent)
+        }
+
+    @Test
+    fun `enqueuing an already pending message does not send it twice`() =
+        runTest {
+            outbox.enqueueChatMessage(ACCOUNT_ID, ROOM, "ref-1")
+            outbox.enqueueChatMessage(ACCOUNT_ID, ROOM, "ref-1")
+
+            assertTrue(drainer.drain())
+
+            assertEquals(listOf("SEND_MESSAGE $ROOM ref-1"), sender.sent)
+        }
+
+    @Test
+    fun `newest edit of a message replaces a pending one`() =
+        runTest {
+            outbox.enqueueMessageEdit(ACCOUNT_ID, ROOM, 7, "first")
+            outbox.enqueueMessageEdit(ACCOUNT_ID, ROOM, 7, "second")
+
+            assertEquals(listOf("second"), dao.getOperations().map { it.payload })
+            assertTrue(drainer.drain())
+            assertEquals(listOf("EDIT_MESSAGE $ROOM 7"), sender.sent)
+        }
+
+    @Test
+    fun `deleting a message replaces its pending edit and later edits are ignored`() =
+        runTest {
+            outbox.enqueueMessageEdit(ACCOUNT_ID, ROOM, 7, "edited")
+            outbox.enqueueMessageDeletion(ACCOUNT_ID, ROOM, 7)
+            outbox.enqueueMessageEdit(ACCOUNT_ID, ROOM, 7, "edited again")
+
+            assertTrue(drainer.drain())
+
+            assertEquals(listOf("DELETE_MESSAGE $ROOM 7"), sender.sent)
+        }
+
+    @Test
+    fun `newest pin of a message replaces a pending one`() =
+        runTest {
+            outbox.enqueuePin(ACCOUNT_ID, ROOM, 7, pinUntil = 0)
+            outbox.enqueuePin(ACCOUNT_ID, ROOM, 7, pinUntil = null)
+            outbox.enqueuePin(ACCOUNT_ID, ROOM, 7, pinUntil = 1_700_000_000)
+
+            assertEquals(listOf("1700000000"), dao.getOperations().map { it.payload })
+            assertTrue(drainer.drain())
+            assertEquals(listOf("PIN_MESSAGE $ROOM 7"), sender.sent)
+        }
+
+    @Test
+    fun `a failing message holds back later messages of its room only`() =
+        runTest {
+            sender.results["ref-1"] = ArrayDeque(listOf(OutboxSendResult.RETRY))
+            outbox.enqueueChatMessage(ACCOUNT_ID, ROOM, "ref-1")
+            outbox.enqueueChatMessage(ACCOUNT_ID, ROOM, "ref-2")
+            outbox.enqueueChatMessage(ACCOUNT_ID, OTHER_ROOM, "ref-3")
+
+            assertFalse(drainer.drain())
+            assertEquals(listOf("SEND_MESSAGE $ROOM ref-1", "SEND_MESSAGE $OTHER_ROOM ref-3"), sender.sent.sorted())
+            assertEquals(1, backgroundDrains)
+
+            // not due yet
+            assertFalse(drainer.drain())
+            assertEquals(2, sender.sent.size)
+
+            now += OutboxRetryPolicy.forType(OutboxOperationType.SEND_MESSAGE).backoffMillis(1)
+            assertTrue(drainer.drain())
+            assertEquals(listOf("SEND_MESSAGE $ROOM ref-1", "SEND_MESSAGE $ROOM ref-2"), sender.sent.takeLast(2))
+        }
+
+    @Test
+    fun `operation is given up after its last attempt`() =
+        runTest {
+            val policy = OutboxRetryPolicy.forType(OutboxOperationType.READ_MARKER)
+            sender.results["10"] = ArrayDeque(List(policy.maxAttempts) { OutboxSendResult.RETRY })
+            outbox.enqueueReadMarker(ACCOUNT_ID, ROOM, 10)
+
+            repeat(policy.maxAttempts) {
+                drainer.drain()
+                now += OutboxRetryPolicy.MAX_BACKOFF_MILLIS
+            }
+
+            assertTrue(dao.getOperations().isEmpty())
+            assertEquals(policy.maxAttempts, sender.sent.size)
+            assertEquals(listOf("READ_MARKER $ROOM 10"), sender.gaveUp)
+        }
+
+    @Test
+    fun `rejected operation is given up right away`() =
+        runTest {
+            sender.results["ref-1"] = ArrayDeque(listOf(OutboxSendResult.DROP))
+            outbox.enqueueChatMessage(ACCOUNT_ID, ROOM, "ref-1")
+            outbox.enqueueChatMessage(ACCOUNT_ID, ROOM, "ref-2")
+
+            assertTrue(drainer.drain())
+
+            assertEquals(listOf("SEND_MESSAGE $ROOM ref-1"), sender.gaveUp)
+            assertEquals(listOf("SEND_MESSAGE $ROOM ref-1", "SEND_MESSAGE $ROOM ref-2"), sender.sent)
+        }
+
+    @Test
+    fun `nothing is sent while offline`() =
+        runTest {
+            isOnline.value = false
+            outbox.enqueueReadMarker(ACCOUNT_ID, ROOM, 10)
+
+            assertFalse(drainer.drain())
+
+            assertTrue(sender.sent.isEmpty())
+            assertEquals(1, backgroundDrains)
+        }
+
+    @Test
+    fun `a failing drain does not stop later drains`() =
+        runTest {
+            sender.onSend = {
+                sender.onSend = null
+                error("database closed")
+            }
+            outbox.enqueueChatMessage(ACCOUNT_ID, ROOM, "ref-1")
+            idleScope.advanceUntilIdle()
+            assertEquals(1, backgroundDrains)
+
+            drainer.requestDrain()
+            idleScope.advanceUntilIdle()
+
+            assertEquals(listOf("SEND_MESSAGE $ROOM ref-1", "SEND_MESSAGE $ROOM ref-1"), sender.sent)
+            assertTrue(dao.getOperations().isEmpty())
+        }
+
+    private class FakeSender : OutboxOperationSender {
+        val sent = mutableListOf<String>()
+        val gaveUp = mutableListOf<String>()
+        val results = mutableMapOf<String, ArrayDeque<OutboxSendResult>>()
+        var onSend: (suspend () -> OutboxSendResult)? = null
+
+        override suspend fun send(operation: OutboxOperationEntity): OutboxSendResult {
+            synchronized(sent) { sent.add(operation.describe()) }
+            return onSend?.invoke() ?: results[operation.target()]?.removeFirstOrNull() ?: OutboxSendResult.SENT
+        }
+
+        override suspend fun onGaveUp(operation: OutboxOperationEntity) {
+            gaveUp.add(operation.describe())
+        }
+
+        private fun OutboxOperationEntity.target() = payload.takeIf { type == OutboxOperationType.SEND_MESSAGE }
+            ?: messageId.toString()
+
+        private fun OutboxOperationEntity.describe() = "$type $roomToken ${target()}"
+    }
+
+    private class FakeOutboxDao : OutboxDao {
+        private val operations = mutableMapOf<Long, OutboxOperationEntity>()
+        private var nextId = 1L
+
+        @Synchronized
+        override suspend fun insertOperation(operation: OutboxOperationEntity): Long {
+            check(operations.values.none { it.coalesceKey == operation.coalesceKey })
+            val id = nextId++
+            operations[id] = operation.copy(id = id)
+            return id
+        }
+
+        @Synchronized
+        override suspend fun updateOperation(operation: OutboxOperationEntity) {
+            operations.computeIfPresent(operation.id) { _, _ -> operation.copy() }
+        }
+
+        @Synchronized
+        override suspend fun getOperationByCoalesceKey(coalesceKey: String): OutboxOperationEntity? =
+            operations.values.firstOrNull { it.coalesceKey == coalesceKey }?.copy()
+
+        @Synchronized
+        override suspend fun getOperations(): List<OutboxOperationEntity> =
+            operations.values.sortedBy { it.id }.map { it.copy() }
+
+        @Synchronized
+        override suspend fun deleteOperation(id: Long) {
+            operations.remove(id)
+        }
+
+        @Synchronized
+        override suspend fun deleteHandledOperation(id: Long, revision: Int): Int =
+            if (operations[id]?.revision == revision) {
+                operations.remove(id)
+                1
+            } else {
+                0
+            }
+
+        @Synchronized
+        override suspend fun scheduleRetry(id: Long, revision: Int, attempts: Int, nextAttemptAt: Long): Int {
+            val operation = operations[id]?.takeIf { it.revision == revision } ?: return 0
+            operations[id] = operation.copy(attempts = attempts, nextAttemptAt = nextAttemptAt)
+            return 1
+        }
+    }
+
+    companion object {
+        private const val ACCOUNT_ID = 1L
+        private const val ROOM = "room1"
+        private const val OTHER_ROOM = "room2"
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.participants
+
+import android.app.Application
+import android.content.Context
+import androidx.room.Room
+import androidx.test.core.app.ApplicationProvider
+import com.nextcloud.talk.data.database.mappers.asEntity
+import com.nextcloud.talk.data.source.local.TalkDatabase
+import com.nextcloud.talk.data.user.model.UserEntity
+import com.nextcloud.talk.models.json.conversations.Conversation
+import com.nextcloud.talk.models.json.participants.Participant
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.kotlin.mock
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+@RunWith(RobolectricTestRunner::class)
+@Config(application = Application::class, sdk = [33])
+class ParticipantStoreTest {
+
+    private lateinit var db: TalkDatabase
+    private lateinit var store: ParticipantStore
+    private var now = SYNC_TIME
+
+    @Before
+    fun setUp() {
+        val context = ApplicationProvider.getApplicationContext<Context>()
+        db = Room.inMemoryDatabaseBuilder(context, TalkDatabase::class.java)
+            .allowMainThreadQueries()
+            .build()
+        db.usersDao().saveUser(UserEntity(id = ACCOUNT_ID, userId = "me", username = "me", baseUrl = BASE_URL))
+        runBlocking {
+            db.conversationsDao().upsertConversations(
+                ACCOUNT_ID,
+                listOf(Conversation(token = ROOM_TOKEN).asEntity(ACCOUNT_ID))
+            )
+        }
+        store = ParticipantStore(db.participantsDao(), mock(), clock = { now })
+    }
+
+    @After
+    fun tearDown() {
+        db.close()
+    }
+
+    @Test
+    fun `the server list replaces the stored participants`() {
+        store.storeServerList(ACCOUNT_ID, ROOM_TOKEN, listOf(user("alice"), user("bob")))
+        store.storeServerList(ACCOUNT_ID, ROOM_TOKEN, listOf(user("alice"), user("carol")))
+
+        assertEquals(listOf("alice", "carol"), storedActorIds())
+        assertEquals("Display alice", participant("alice").displayName)
+    }
+
+    @Test
+    fun `the stored list becomes stale after the reconcile interval`() {
+        assertTrue(store.isStale(INTERNAL_CONVERSATION_ID))
+
+        store.storeServerList(ACCOUNT_ID, ROOM_TOKEN, listOf(user("alice")))
+        assertFalse(store.isStale(INTERNAL_CONVERSATION_ID))
+
+        now += ParticipantStore.RECONCILE_INTERVAL_MILLIS + 1
+        assertTrue(store.isStale(INTERNAL_CONVERSATION_ID))
+    }
+
+    @Test
+    fun `signaling updates change the call state of stored participants`() {
+        store.storeServerList(ACCOUNT_ID, ROOM_TOKEN, listOf(user("alice"), user("bob")))
+
+        val hasUnknown = store.applySignalingUpdate(
+            ACCOUNT_ID,
+            ROOM_TOKEN,
+            listOf(session("alice", "s1", Participant.InCallFlags.IN_CALL.toLong())),
+            complete = false
+        )
+
+        assertFalse(hasUnknown)
+        assertEquals(Participant.InCallFlags.IN_CALL.toLong(), participant("alice").inCall)
+        assertEquals(listOf("s1"), participant("alice").sessionIds)
+        assertEquals(0L, participant("bob").inCall)
+    }
+
+    @Test
+    fun `a complete update removes the sessions of participants that are not listed`() {
+        store.storeServerList(
+            ACCOUNT_ID,
+            ROOM_TOKEN,
+            listOf(user("alice", sessionIds = arrayListOf("s1")), user("bob", sessionIds = arrayListOf("s2")))
+        )
+
+        store.applySignalingUpdate(ACCOUNT_ID, ROOM_TOKEN, listOf(session("alice", "s3", 0)), complete = true)
+
+        assertEquals(listOf("s3"), participant("alice").sessionIds)
+        assertTrue(participant("bob").sessionIds.isEmpty())
+    }
+
+    @Test
+    fun `updates with participants that are not stored ask for reconciliation`() {
+        store.storeServerList(ACCOUNT_ID, ROOM_TOKEN, listOf(user("alice")))
+
+        val hasUnknown = store.applySignalingUpdate(
+            ACCOUNT_ID,
+            ROOM_TOKEN,
+            listOf(session("dave", "s4", 0)),
+            complete = false
+        )
+
+        assertTrue(hasUnknown)
+        assertEquals(listOf("alice"), storedActorIds())
+    }
+
+    @Test
+    fun `call participants from the server replace the call state`() {
+        store.storeServerList(
+            ACCOUNT_ID,
+            ROOM_TOKEN,
+            listOf(user("alice", inCall = Participant.InCallFlags.IN_CALL.toLong()), user("bob"))
+        )
+
+        store.applyCallParticipants(
+            ACCOUNT_ID,
+            ROOM_TOKEN,
+            listOf(user("bob", inCall = Participant.InCallFlags.WITH_AUDIO.toLong()))
+        )
+
+        assertEquals(0L, participant("alice").inCall)
+        assertEquals(Participant.InCallFlags.WITH_AUDIO.toLong(), participant("bob").inCall)
+
+        store.applyInCallOfAll(ACCOUNT_ID, ROOM_TOKEN, 0)
+        assertEquals(0L, participant("bob").inCall)
+    }
+
+    private fun storedActorIds(): List<String?> =
+        store.getParticipants(INTERNAL_CONVERSATION_ID).map { it.actorId }.sortedBy { it }
+
+    private fun participant(actorId: String): Participant =
+        store.getParticipants(INTERNAL_CONVERSATION_ID).first { it.actorId == actorId }
+
+    private fun user(actorId: String, inCall: Long = 0, sessionIds: ArrayList<String> = ArrayList(0)) =
+        Participant(
+            attendeeId = actorId.hashCode().toLong(),
+            actorType = Participant.ActorType.USERS,
+            actorId = actorId,
+            type = Participant.ParticipantType.USER,
+            displayName = "Display $actorId",
+            inCall = inCall,
+            sessionIds = sessionIds
+        )
+
+    @Suppress("DEPRECATION")
+    private fun session(userId: String, sessionId: String, inCall: Long) =
+        Participant(
+            userId = userId,
+            sessionId = sessionId,
+            inCall = inCall,
+            lastPing = SYNC_TIME
+        )
+
+    companion object {
+        private const val ACCOUNT_ID = 1L
+        private const val BASE_URL = "https://server.example.com"
+        private const val ROOM_TOKEN = "room1"
+        private const val INTERNAL_CONVERSATION_ID = "$ACCOUNT_ID@$ROOM_TOKEN"
+        private const val SYNC_TIME = 1_700_000_000_000L
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.remotefilebrowser.repositories
+
+import android.app.Application
+import com.nextcloud.talk.data.user.model.User
+import com.nextcloud.talk.filebrowser.webdav.DavUtils
+import io.reactivex.schedulers.Schedulers
+import okhttp3.OkHttpClient
+import okhttp3.mockwebserver.Dispatcher
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okhttp3.mockwebserver.RecordedRequest
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.util.Collections
+
+/**
+ * Runs [RemoteFileBrowserItemsRepositoryImpl] against a local WebDAV stand-in: repeat visits must be served from the
+ * cache after a single depth-0 ETag check, and subfolders must be prefetched.
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(application = Application::class, sdk = [33])
+class RemoteFileBrowserItemsRepositoryImplTest {
+
+    private val server = MockWebServer()
+    private val requests = mutableListOf<RecordedRequest>()
+    private var rootEtag = "root1"
+    private lateinit var user: User
+    private lateinit var repository: RemoteFileBrowserItemsRepositoryImpl
+
+    @Before
+    fun setUp() {
+        DavUtils.registerCustomFactories()
+        server.dispatcher = object : Dispatcher() {
+            override fun dispatch(request: RecordedRequest): MockResponse {
+                synchronized(requests) { requests.add(request) }
+                return when (request.path) {
+                    "$DAV_ROOT/" -> rootResponse(request.getHeader("Depth") == "0")
+                    "$DAV_ROOT/Documents/" -> documentsResponse(request.getHeader("Depth") == "0")
+                    else -> MockResponse().setResponseCode(404)
+                }
+            }
+        }
+        server.start()
+        user = User(
+            id = 1,
+            userId = "me",
+            username = "me",
+            token = "token",
+            baseUrl = server.url("/").toString().trimEnd('/')
+        )
+        repository = RemoteFileBrowserItemsRepositoryImpl(
+            OkHttpClient(),
+            RemoteFolderListingCache(),
+            Schedulers.trampoline()
+        )
+    }
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+    }
+
+    @Test
+    fun `first visit lists the folder with the rendered properties only and prefetches subfolders`() {
+        val emissions = repository.listFolder(user, "/").test().values()
+
+        assertEquals(1, emissions.size)
+        assertEquals(listOf("/Documents/", "/notes.md"), emissions[0].map { it.path })
+        assertEquals(listOf("$DAV_ROOT/", "$DAV_ROOT/Documents/"), requests.map { it.path })
+        val body = requests[0].body.readUtf8()
+        assertTrue(body.contains("getetag"))
+        assertFalse(body.contains("owner-display-name"))
+    }
+
+    @Test
+    fun `repeat visit is served from the cache after a depth-0 check`() {
+        repository.listFolder(user, "/").test()
+        requests.clear()
+
+        val emissions = repository.listFolder(user, "/").test().values()
+
+        assertEquals(1, emissions.size)
+        assertEquals(listOf("/Documents/", "/notes.md"), emissions[0].map { it.path })
+        assertEquals(1, requests.size)
+        assertEquals("0", requests[0].getHeader("Depth"))
+    }
+
+    @Test
+    fun `prefetched subfolder renders from the cache`() {
+        repository.listFolder(user, "/").test()
+        requests.clear()
+
+        val emissions = repository.listFolder(user, "/Documents/").test().values()
+
+        assertEquals(listOf(listOf("/Documents/report.pdf")), emissions.map { items -> items.map { it.path } })
+        assertEquals(listOf("0"), requests.map { it.getHeader("Depth") })
+    }
+
+    @Test
+    fun `changed folder is listed again after the cached listing`() {
+        repository.listFolder(user, "/").test()
+        rootEtag = "root2"
+        requests.clear()
+
+        val emissions = repository.listFolder(user, "/").test().values()
+
+        assertEquals(2, emissions.size)
+        assertEquals(listOf("/Documents/", "/notes.md", "/todo.md"), emissions[1].map { it.path })
+        assertEquals(listOf("0", "1"), requests.map { it.getHeader("Depth") })
+    }
+
+    @Test
+    fun `sorting an emitted listing does not reorder the cached one`() {
+        val first = repository.listFolder(user, "/").test().values().single()
+        Collections.reverse(first)
+
+        val emissions = repository.listFolder(user, "/").test().values()
+
+        assertEquals(listOf("/Documents/", "/notes.md"), emissions.single().map { it.path })
+    }
+
+    private fun rootResponse(depthZero: Boolean): MockResponse {
+        val members = if (depthZero) {
+            ""
+        } else {
+            folder("$DAV_ROOT/Documents/", "docs1") +
+                file("$DAV_ROOT/notes.md", "notes1") +
+                if (rootEtag == "root2") file("$DAV_ROOT/todo.md", "todo1") else ""
+        }
+        return multiStatus(folder("$DAV_ROOT/", rootEtag) + members)
+    }
+
+    private fun documentsResponse(depthZero: Boolean): MockResponse {
+        val members = if (depthZero) "" else file("$DAV_ROOT/Documents/report.pdf", "report1")
+        return multiStatus(folder("$DAV_ROOT/Documents/", "docs1") + members)
+    }
+
+    private fun folder(href: String, etag: String) =
+        response(href, "<d:getetag>\"$etag\"</d:getetag><d:resourcetype><d:collection/></d:resourcetype>")
+
+    private fun file(href: String, etag: String) =
+        response(
+            href,
+            "<d:getetag>\"$etag\"</d:getetag><d:resourcetype/><d:getcontenttype>text/plain</d:getcontenttype>"
+        )
+
+    private fun response(href: String, props: String) =
+        """
+        <d:response>
+            <d:href>$href</d:href>
+            <d:propstat><d:prop>$props</d:prop><d:status>HTTP/1.1 200 OK</d:status></d:propstat>
+        </d:response>
+        """
+
+    private fun multiStatus(responses: String) =
+        MockResponse()
+            .setResponseCode(MULTI_STATUS)
+            .setHeader("Content-Type", "application/xml; charset=utf-8")
+            .setBody(
+                """<?xml version="1.0"?>
+                <d:multistatus xmlns:d="DAV:" xmlns:oc="http://owncloud.org/ns" xmlns:nc="http://nextcloud.org/ns">
+                $responses
+                </d:multistatus>
+                """.trimIndent()
+            )
+
+    companion object {
+        private const val DAV_ROOT = "/remote.php/dav/files/me"
+        private const val MULTI_STATUS = 207
+    }
+}
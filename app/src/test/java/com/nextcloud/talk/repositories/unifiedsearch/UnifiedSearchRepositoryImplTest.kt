@@ -0,0 +1,167 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.repositories.unifiedsearch
+
+import android.app.Application
+import android.content.Context
+import androidx.room.Room
+import androidx.test.core.app.ApplicationProvider
+import com.nextcloud.talk.api.NcApiCoroutines
+import com.nextcloud.talk.chat.data.model.ChatMessage
+import com.nextcloud.talk.data.database.mappers.asEntity
+import com.nextcloud.talk.data.database.model.ChatMessageEntity
+import com.nextcloud.talk.data.source.local.TalkDatabase
+import com.nextcloud.talk.data.user.model.UserEntity
+import com.nextcloud.talk.models.json.conversations.Conversation
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.kotlin.mock
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+/**
+ * Tests for the search of the messages cached in the local database.
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(application = Application::class, sdk = [33])
+class UnifiedSearchRepositoryImplTest {
+
+    private lateinit var db: TalkDatabase
+    private lateinit var repository: UnifiedSearchRepository
+
+    @Before
+    fun setUp() {
+        val context = ApplicationProvider.getApplicationContext<Context>()
+        db = Room.inMemoryDatabaseBuilder(context, TalkDatabase::class.java)
+            .allowMainThreadQueries()
+            .build()
+        db.usersDao().saveUser(UserEntity(id = ACCOUNT_ID, userId = "me", username = "me", baseUrl = BASE_URL))
+        runBlocking {
+            db.conversationsDao().upsertConversations(
+                ACCOUNT_ID,
+                listOf(ROOM, OTHER_ROOM).map { Conversation(token = it).asEntity(ACCOUNT_ID) }
+            )
+        }
+        repository = UnifiedSearchRepositoryImpl(mock<NcApiCoroutines>(), db.chatMessagesDao())
+    }
+
+    @After
+    fun tearDown() {
+        db.close()
+    }
+
+    @Test
+    fun `cached matches are found newest first`() {
+        runBlocking {
+            store(
+                message(ROOM, 1, "hello world"),
+                message(ROOM, 2, "something else"),
+                message(OTHER_ROOM, 3, "Hello again")
+            )
+
+            val matches = repository.searchCachedMessages(ACCOUNT_ID, null, "hello")
+
+            assertEquals(listOf("3", "1"), matches.map { it.messageId })
+            assertEquals(listOf(OTHER_ROOM, ROOM), matches.map { it.conversationToken })
+        }
+    }
+
+    @Test
+    fun `only the given room is searched`() {
+        runBlocking {
+            store(message(ROOM, 1, "hello"), message(OTHER_ROOM, 2, "hello"))
+
+            val matches = repository.searchCachedMessages(ACCOUNT_ID, ROOM, "hello")
+
+            assertEquals(listOf("1"), matches.map { it.messageId })
+        }
+    }
+
+    @Test
+    fun `thread replies, deleted and system messages are left out`() {
+        runBlocking {
+            store(
+                message(ROOM, 1, "hello root", threadId = 1),
+                message(ROOM, 2, "hello reply", threadId = 1),
+                message(ROOM, 3, "hello deleted", deleted = true),
+                message(ROOM, 4, "hello system", messageType = "system")
+            )
+
+            val matches = repository.searchCachedMessages(ACCOUNT_ID, null, "hello")
+
+            assertEquals(listOf("1"), matches.map { it.messageId })
+            assertEquals("1", matches.single().threadId)
+        }
+    }
+
+    @Test
+    fun `wildcards in the search term are matched literally`() {
+        runBlocking {
+            store(message(ROOM, 1, "100% done"), message(ROOM, 2, "100 done"), message(ROOM, 3, "a_b"))
+
+            assertEquals(listOf("1"), repository.searchCachedMessages(ACCOUNT_ID, null, "100%").map { it.messageId })
+            assertEquals(listOf("3"), repository.searchCachedMessages(ACCOUNT_ID, null, "_").map { it.messageId })
+        }
+    }
+
+    @Test
+    fun `placeholders of the excerpt are replaced by their names`() {
+        runBlocking {
+            store(
+                message(ROOM, 1, "hello {mention-user1}").apply {
+                    messageParameters = hashMapOf("mention-user1" to hashMapOf("type" to "user", "name" to "Alice"))
+                }
+            )
+
+            val match = repository.searchCachedMessages(ACCOUNT_ID, null, "hello").single()
+
+            assertEquals("hello Alice", match.messageExcerpt)
+            assertEquals("User", match.title)
+        }
+    }
+
+    private suspend fun store(vararg messages: ChatMessageEntity) {
+        db.chatMessagesDao().upsertChatMessages(messages.toList())
+    }
+
+    @Suppress("LongParameterList")
+    private fun message(
+        token: String,
+        id: Long,
+        text: String,
+        threadId: Long? = null,
+        deleted: Boolean = false,
+        messageType: String = "comment"
+    ) = ChatMessageEntity(
+        internalId = "$ACCOUNT_ID@$token@$id",
+        accountId = ACCOUNT_ID,
+        token = token,
+        id = id,
+        internalConversationId = "$ACCOUNT_ID@$token",
+        threadId = threadId,
+        actorDisplayName = "User",
+        message = text,
+        actorId = "user",
+        actorType = "users",
+        deleted = deleted,
+        messageType = messageType,
+        systemMessageType = ChatMessage.SystemMessageType.DUMMY,
+        timestamp = id
+    )
+
+    companion object {
+        private const val ACCOUNT_ID = 1L
+        private const val BASE_URL = "https://server.example.com"
+        private const val ROOM = "room1"
+        private const val OTHER_ROOM = "room2"
+    }
+}
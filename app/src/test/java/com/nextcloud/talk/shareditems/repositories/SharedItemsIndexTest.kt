@@ -0,0 +1,217 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.shareditems.repositories
+
+import android.app.Application
+import android.content.Context
+import androidx.room.Room
+import androidx.test.core.app.ApplicationProvider
+import com.nextcloud.talk.chat.data.model.ChatMessage
+import com.nextcloud.talk.data.database.mappers.asEntity
+import com.nextcloud.talk.data.source.local.TalkDatabase
+import com.nextcloud.talk.data.user.model.UserEntity
+import com.nextcloud.talk.models.json.chat.ChatMessageJson
+import com.nextcloud.talk.models.json.conversations.Conversation
+import com.nextcloud.talk.shareditems.model.SharedItemType
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+@RunWith(RobolectricTestRunner::class)
+@Config(application = Application::class, sdk = [33])
+class SharedItemsIndexTest {
+
+    private lateinit var db: TalkDatabase
+    private lateinit var index: SharedItemsIndex
+
+    @Before
+    fun setUp() {
+        val context = ApplicationProvider.getApplicationContext<Context>()
+        db = Room.inMemoryDatabaseBuilder(context, TalkDatabase::class.java)
+            .allowMainThreadQueries()
+            .build()
+        db.usersDao().saveUser(UserEntity(id = ACCOUNT_ID, userId = "me", username = "me", baseUrl = BASE_URL))
+        runBlocking {
+            db.conversationsDao().upsertConversations(
+                ACCOUNT_ID,
+                listOf(Conversation(token = ROOM_TOKEN).asEntity(ACCOUNT_ID))
+            )
+        }
+        index = SharedItemsIndex(db.sharedItemsDao())
+    }
+
+    @After
+    fun tearDown() {
+        db.close()
+    }
+
+    @Test
+    fun `messages are filed under the type the server lists them under`() {
+        assertEquals(SharedItemType.MEDIA, typeOf(file("image/png")))
+        assertEquals(SharedItemType.MEDIA, typeOf(file("video/mp4")))
+        assertEquals(SharedItemType.AUDIO, typeOf(file("audio/mpeg")))
+        assertEquals(SharedItemType.FILE, typeOf(file("application/pdf")))
+        assertEquals(SharedItemType.VOICE, typeOf(file("audio/mpeg"), messageType = "voice-message"))
+        assertEquals(SharedItemType.RECORDING, typeOf(file("video/webm"), messageType = "record-video"))
+        assertEquals(SharedItemType.POLL, typeOf(richObject("talk-poll")))
+        assertEquals(SharedItemType.LOCATION, typeOf(richObject("geo-location")))
+        assertEquals(SharedItemType.DECKCARD, typeOf(richObject("deck-card")))
+        assertEquals(SharedItemType.OTHER, typeOf(richObject("calendar-event")))
+        assertNull(typeOf(hashMapOf()))
+        assertNull(
+            SharedItemsIndex.typeOf(
+                "system",
+                file("image/png"),
+                ChatMessage.SystemMessageType.MESSAGE_DELETED
+            )
+        )
+    }
+
+    @Test
+    fun `persisted chat messages are indexed and deleted ones are removed again`() {
+        index.indexMessages(
+            INTERNAL_CONVERSATION_ID,
+            listOf(
+                message(1, file("image/png")),
+                message(2, null),
+                message(3, file("application/pdf")),
+                message(4, file("image/jpeg"))
+            )
+        )
+
+        assertEquals(listOf(4L, 1L), mediaIds())
+        assertEquals(setOf(SharedItemType.MEDIA, SharedItemType.FILE), index.getTypes(INTERNAL_CONVERSATION_ID))
+
+        index.indexMessages(INTERNAL_CONVERSATION_ID, listOf(message(4, file("image/jpeg"), deleted = true)))
+
+        assertEquals(listOf(1L), mediaIds())
+    }
+
+    @Test
+    fun `the newest page is never complete, older pages only once the server confirmed them`() {
+        index.indexMessages(INTERNAL_CONVERSATION_ID, (1L..5L).map { message(it, file("image/png")) })
+
+        assertFalse(page(null, limit = 2).complete)
+        assertFalse(page(lastKnownMessageId = 4, limit = 2).complete)
+
+        index.storeServerPage(
+            ACCOUNT_ID,
+            ROOM_TOKEN,
+            SharedItemType.MEDIA,
+            listOf(json(5, file("image/png")), json(4, file("image/png"))),
+            lastKnownMessageId = null,
+            moreItemsExisting = true
+        )
+        index.storeServerPage(
+            ACCOUNT_ID,
+            ROOM_TOKEN,
+            SharedItemType.MEDIA,
+            listOf(json(3, file("image/png")), json(2, file("image/png"))),
+            lastKnownMessageId = 4,
+            moreItemsExisting = true
+        )
+
+        val secondPage = page(lastKnownMessageId = 4, limit = 2)
+        assertTrue(secondPage.complete)
+        assertEquals(listOf(3L, 2L), secondPage.items.map { it.messageId })
+        // message 1 was never confirmed by the server
+        assertFalse(page(lastKnownMessageId = 2, limit = 2).complete)
+
+        index.storeServerPage(
+            ACCOUNT_ID,
+            ROOM_TOKEN,
+            SharedItemType.MEDIA,
+            emptyList(),
+            lastKnownMessageId = 2,
+            moreItemsExisting = false
+        )
+
+        // the confirmed ranges are merged, so any page down to the first message is served locally
+        val lastPage = page(lastKnownMessageId = 3, limit = 5)
+        assertTrue(lastPage.complete)
+        assertEquals(listOf(2L), lastPage.items.map { it.messageId })
+    }
+
+    @Test
+    fun `a server page replaces stale index entries within its range`() {
+        index.indexMessages(INTERNAL_CONVERSATION_ID, (1L..3L).map { message(it, file("image/png")) })
+
+        index.storeServerPage(
+            ACCOUNT_ID,
+            ROOM_TOKEN,
+            SharedItemType.MEDIA,
+            listOf(json(3, file("image/png")), json(1, file("image/png"))),
+            lastKnownMessageId = null,
+            moreItemsExisting = false
+        )
+
+        assertEquals(listOf(3L, 1L), mediaIds())
+    }
+
+    private fun typeOf(
+        messageParameters: HashMap<String?, HashMap<String?, String?>>,
+        messageType: String = "comment"
+    ): SharedItemType? = SharedItemsIndex.typeOf(messageType, messageParameters)
+
+    private fun page(lastKnownMessageId: Int?, limit: Int): SharedItemsIndex.LocalPage =
+        index.getPage(INTERNAL_CONVERSATION_ID, SharedItemType.MEDIA, lastKnownMessageId, limit)
+
+    private fun mediaIds(): List<Long> = page(null, limit = 10).items.map { it.messageId }
+
+    private fun file(mimeType: String): HashMap<String?, HashMap<String?, String?>> =
+        hashMapOf(
+            "actor" to hashMapOf<String?, String?>("id" to "other", "name" to "Other"),
+            "file" to hashMapOf<String?, String?>("id" to "42", "name" to "file", "mimetype" to mimeType)
+        )
+
+    private fun richObject(objectType: String): HashMap<String?, HashMap<String?, String?>> =
+        hashMapOf(
+            "actor" to hashMapOf<String?, String?>("id" to "other", "name" to "Other"),
+            "object" to hashMapOf<String?, String?>("id" to "1", "name" to "object", "type" to objectType)
+        )
+
+    private fun message(
+        id: Long,
+        messageParameters: HashMap<String?, HashMap<String?, String?>>?,
+        deleted: Boolean = false
+    ) = json(id, messageParameters, deleted).asEntity(ACCOUNT_ID)
+
+    private fun json(
+        id: Long,
+        messageParameters: HashMap<String?, HashMap<String?, String?>>?,
+        deleted: Boolean = false
+    ): ChatMessageJson =
+        ChatMessageJson(
+            id = id,
+            token = ROOM_TOKEN,
+            actorType = "users",
+            actorId = "other",
+            actorDisplayName = "Other",
+            timestamp = id,
+            message = "{file}",
+            messageType = if (deleted) "comment_deleted" else "comment",
+            systemMessageType = ChatMessage.SystemMessageType.DUMMY,
+            messageParameters = messageParameters,
+            deleted = deleted
+        )
+
+    companion object {
+        private const val ACCOUNT_ID = 1L
+        private const val BASE_URL = "https://server.example.com"
+        private const val ROOM_TOKEN = "room1"
+        private const val INTERNAL_CONVERSATION_ID = "$ACCOUNT_ID@$ROOM_TOKEN"
+    }
+}
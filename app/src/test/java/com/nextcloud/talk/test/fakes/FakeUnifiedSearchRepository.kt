@@ -16,6 +16,7 @@ class FakeUnifiedSearchRepository : UnifiedSearchRepository {
     var lastRequestedCursor = -1
     val requestedCursors = mutableListOf<Int>()
     val responsesByCursor = mutableMapOf<Int, UnifiedSearchRepository.UnifiedSearchResults<SearchMessageEntry>>()
+    var cachedMessages: List<SearchMessageEntry> = emptyList()
 
     private fun responseFor(cursor: Int): UnifiedSearchRepository.UnifiedSearchResults<SearchMessageEntry> =
         responsesByCursor[cursor] ?: response
@@ -44,4 +45,11 @@ class FakeUnifiedSearchRepository : UnifiedSearchRepository {
         requestedCursors += cursor
         return responseFor(cursor)
     }
+
+    override suspend fun searchCachedMessages(
+        accountId: Long,
+        roomToken: String?,
+        searchTerm: String,
+        limit: Int
+    ): List<SearchMessageEntry> = cachedMessages
 }
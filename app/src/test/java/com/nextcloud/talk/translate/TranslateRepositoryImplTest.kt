@@ -0,0 +1,165 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.translate
+
+import android.app.Application
+import android.content.Context
+import androidx.room.Room
+import androidx.test.core.app.ApplicationProvider
+import com.nextcloud.talk.api.NcApi
+import com.nextcloud.talk.data.source.local.TalkDatabase
+import com.nextcloud.talk.translate.repositories.TranslateRepositoryImpl
+import com.nextcloud.talk.translate.repositories.model.Language
+import com.nextcloud.talk.translate.repositories.model.LanguagesData
+import com.nextcloud.talk.translate.repositories.model.LanguagesOCS
+import com.nextcloud.talk.translate.repositories.model.LanguagesOverall
+import com.nextcloud.talk.translate.repositories.model.TranslateData
+import com.nextcloud.talk.translate.repositories.model.TranslateOCS
+import com.nextcloud.talk.translate.repositories.model.TranslationRequest
+import com.nextcloud.talk.translate.repositories.model.TranslationsOverall
+import io.reactivex.Observable
+import io.reactivex.subjects.PublishSubject
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.kotlin.any
+import org.mockito.kotlin.anyOrNull
+import org.mockito.kotlin.doReturn
+import org.mockito.kotlin.eq
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.util.concurrent.TimeUnit
+
+@RunWith(RobolectricTestRunner::class)
+@Config(application = Application::class, sdk = [33])
+class TranslateRepositoryImplTest {
+
+    private lateinit var db: TalkDatabase
+    private lateinit var ncApi: NcApi
+    private lateinit var repository: TranslateRepositoryImpl
+    private var now = START_TIME
+
+    @Before
+    fun setUp() {
+        val context = ApplicationProvider.getApplicationContext<Context>()
+        db = Room.inMemoryDatabaseBuilder(context, TalkDatabase::class.java)
+            .allowMainThreadQueries()
+            .build()
+        ncApi = mock {
+            on { translateMessage(any(), any(), any(), any(), anyOrNull()) } doReturn
+                Observable.fromCallable { translation("translated") }
+            on { getLanguages(any(), any()) } doReturn Observable.fromCallable { languages() }
+        }
+        repository = TranslateRepositoryImpl(ncApi, db.translationsDao(), clock = { now })
+    }
+
+    @After
+    fun tearDown() {
+        db.close()
+    }
+
+    @Test
+    fun `a translated message is served from the cache`() {
+        val request = TranslationRequest(MESSAGE_KEY, "Hallo", "en", null)
+
+        assertEquals("translated", translate(request))
+        assertEquals("translated", translate(request))
+
+        verify(ncApi, times(1)).translateMessage(any(), any(), eq("Hallo"), eq("en"), anyOrNull())
+    }
+
+    @Test
+    fun `an edited message is translated again`() {
+        translate(TranslationRequest(TranslationRequest.messageKeyOf("room1", "1", 0), "Hallo", "en", null))
+        translate(TranslationRequest(TranslationRequest.messageKeyOf("room1", "1", EDIT_TIME), "Hallo!", "en", null))
+
+        verify(ncApi, times(2)).translateMessage(any(), any(), any(), eq("en"), anyOrNull())
+    }
+
+    @Test
+    fun `translations are cached per language pair`() {
+        translate(TranslationRequest(MESSAGE_KEY, "Hallo", "en", null))
+        translate(TranslationRequest(MESSAGE_KEY, "Hallo", "en", "de"))
+        translate(TranslationRequest(MESSAGE_KEY, "Hallo", "fr", null))
+
+        verify(ncApi, times(3)).translateMessage(any(), any(), any(), any(), anyOrNull())
+    }
+
+    @Test
+    fun `concurrent requests for the same translation share one server call`() {
+        val response = PublishSubject.create<TranslationsOverall>()
+        whenever(ncApi.translateMessage(any(), any(), any(), any(), anyOrNull())).thenReturn(response)
+        val request = TranslationRequest(MESSAGE_KEY, "Hallo", "en", null)
+
+        val first = repository.translateMessage(AUTH, URL, ACCOUNT_ID, request).test()
+        val second = repository.translateMessage(AUTH, URL, ACCOUNT_ID, request).test()
+        response.onNext(translation("translated"))
+        response.onComplete()
+
+        first.assertValue("translated")
+        second.assertValue("translated")
+        verify(ncApi, times(1)).translateMessage(any(), any(), any(), any(), anyOrNull())
+    }
+
+    @Test
+    fun `expired translations are translated again`() {
+        val request = TranslationRequest(MESSAGE_KEY, "Hallo", "en", null)
+        translate(request)
+
+        now += TimeUnit.DAYS.toMillis(1)
+        repository.deleteExpiredTranslations()
+        translate(request)
+        verify(ncApi, times(1)).translateMessage(any(), any(), any(), any(), anyOrNull())
+
+        now += TimeUnit.DAYS.toMillis(30)
+        repository.deleteExpiredTranslations()
+        translate(request)
+        verify(ncApi, times(2)).translateMessage(any(), any(), any(), any(), anyOrNull())
+    }
+
+    @Test
+    fun `text requests are keyed by the hash of the text`() {
+        val request = TranslationRequest.forText("Hallo", "en", null)
+
+        assertEquals("text/753692ec36adb4c794c973945eb2a99c1649703ea6f76bf259abb4fb838e013e", request.messageKey)
+    }
+
+    @Test
+    fun `languages are fetched again once they expired`() {
+        repository.getLanguages(AUTH, URL, ACCOUNT_ID).test().assertValue(listOf(GERMAN))
+        repository.getLanguages(AUTH, URL, ACCOUNT_ID).test().assertValue(listOf(GERMAN))
+        verify(ncApi, times(1)).getLanguages(any(), any())
+
+        now += TimeUnit.DAYS.toMillis(1) + 1
+        repository.getLanguages(AUTH, URL, ACCOUNT_ID).test().assertValue(listOf(GERMAN))
+        verify(ncApi, times(2)).getLanguages(any(), any())
+    }
+
+    private fun translate(request: TranslationRequest): String =
+        repository.translateMessage(AUTH, URL, ACCOUNT_ID, request).blockingFirst()
+
+    private fun translation(text: String) = TranslationsOverall(TranslateOCS(null, TranslateData(text, "de")))
+
+    private fun languages() = LanguagesOverall(LanguagesOCS(null, LanguagesData(true, listOf(GERMAN))))
+
+    companion object {
+        private const val ACCOUNT_ID = 1L
+        private const val AUTH = "Basic dXNlcjpwYXNz"
+        private const val URL = "https://server.example.com/ocs/v2.php/translation/translate"
+        private const val MESSAGE_KEY = "room1/1/0"
+        private const val START_TIME = 1_700_000_000_000L
+        private const val EDIT_TIME = 1_700_000_100L
+        private val GERMAN = Language("de", "German", "en", "English")
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.utils
+
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import java.security.MessageDigest
+import java.util.UUID
+import kotlin.random.Random
+
+/**
+ * The colors must stay the ones the web frontend and the previous implementation give each username, so
+ * [ColorGenerator.paletteIndex] is compared against the string based algorithm over a large corpus of ids.
+ */
+class ColorGeneratorParityTest {
+
+    @Test
+    fun `palette index matches the string based algorithm`() {
+        corpus().forEach { username ->
+            assertEquals(username, legacyPaletteIndex(username), ColorGenerator.paletteIndex(username))
+        }
+    }
+
+    @Test
+    fun `palette index is stable across threads`() {
+        val usernames = corpus().take(THREAD_CORPUS_SIZE)
+        val expected = usernames.map { legacyPaletteIndex(it) }
+        val failures = mutableListOf<String>()
+
+        val threads = (1..THREADS).map {
+            Thread {
+                usernames.forEachIndexed { index, username ->
+                    if (ColorGenerator.paletteIndex(username) != expected[index]) {
+                        synchronized(failures) { failures += username }
+                    }
+                }
+            }
+        }
+        threads.forEach { it.start() }
+        threads.forEach { it.join() }
+
+        assertEquals(emptyList<String>(), failures)
+    }
+
+    companion object {
+        private const val CORPUS_SIZE = 5_000
+        private const val THREAD_CORPUS_SIZE = 2_000
+        private const val THREADS = 4
+        private const val SEED = 42
+        private const val MAX_NAME_LENGTH = 40
+        private const val NAME_CHARACTERS =
+            "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789 .,-_@äöüßéçøåñ"
+        private val paletteSize = ColorGenerator.paletteColors().size
+
+        /**
+         * The guests' md5 ids, user ids, display names in several scripts, federated ids and uuids in both cases,
+         * plus the fixed names of the instrumented ColorGeneratorTest.
+         */
+        fun corpus(): List<String> {
+            val random = Random(SEED)
+            val fixed = listOf(
+                "", ",", ".", "admin", "Tom Mörtel", "مرحبا بالعالم", "🙈", "admin@cloud.example.com",
+                "123e4567-e89b-12d3-a456-426614174000", "0123-4567-89ab-cdef-0123-4567-89ab-cdef",
+                "0123456789ABCDEF0123456789ABCDEF", "0123-4567-89ab-cdef-0123-4567-89ab-cdeg"
+            )
+            val generated = (0 until CORPUS_SIZE).flatMap { index ->
+                val uuid = UUID(random.nextLong(), random.nextLong()).toString()
+                val name = (0 until random.nextInt(MAX_NAME_LENGTH))
+                    .map { NAME_CHARACTERS[random.nextInt(NAME_CHARACTERS.length)] }
+                    .joinToString("")
+                listOf(
+                    md5Hex("guest$index"),
+                    md5Hex("guest$index").uppercase(),
+                    md5Hex("guest$index").chunked(4).joinToString("-"),
+                    uuid,
+                    uuid.uppercase(),
+                    "user$index",
+                    name,
+                    "$name@server$index.example.com",
+                    "Ψ$name😀"
+                )
+            }
+            return fixed + generated
+        }
+
+        /**
+         * The implementation [ColorGenerator.usernameToColor] had before it was memoized.
+         */
+        fun legacyPaletteIndex(username: String): Int {
+            var hash = username.lowercase()
+
+            val md5Regex = Regex("^([0-9a-f]{4}-?){8}$")
+            if (!hash.matches(md5Regex)) {
+                val digest = MessageDigest.getInstance("MD5").digest(hash.toByteArray(Charsets.UTF_8))
+                hash = digest.joinToString("") { "%02x".format(it) }
+            }
+
+            hash = hash.replace(Regex("[^0-9a-f]"), "")
+
+            val sum = hash.map { it.lowercaseChar().digitToInt(16) % 16 }.sum()
+            return sum % paletteSize
+        }
+
+        private fun md5Hex(value: String): String =
+            MessageDigest.getInstance("MD5").digest(value.toByteArray()).joinToString("") { "%02x".format(it) }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.utils
+
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.mockwebserver.Dispatcher
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okhttp3.mockwebserver.RecordedRequest
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import java.util.Collections
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class TalkHashInterceptorTest {
+
+    private val server = MockWebServer()
+    private val store = InMemoryTalkHashStore()
+    private val refreshes = Collections.synchronizedList(mutableListOf<Long>())
+    private var resolvedAccounts = 0
+
+    @Volatile
+    private var serverHash: String? = "hash1"
+
+    private lateinit var client: OkHttpClient
+
+    @Before
+    fun setUp() {
+        server.dispatcher = object : Dispatcher() {
+            override fun dispatch(request: RecordedRequest): MockResponse {
+                val response = MockResponse().setBody("{}")
+                serverHash?.let { response.addHeader(TalkHashInterceptor.TALK_HASH_HEADER, it) }
+                return response
+            }
+        }
+        server.start()
+        client = client(store)
+    }
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+    }
+
+    @Test
+    fun `repeated responses with the same hash refresh once`() {
+        repeat(REPEATED_REQUESTS) { request(ACCOUNT_1) }
+
+        assertEquals(listOf(ACCOUNT_1), refreshes)
+        assertEquals("hash1", store.getSeenHash(ACCOUNT_1))
+        assertEquals("the account is only resolved for the first response", 1, resolvedAccounts)
+    }
+
+    @Test
+    fun `a changed hash refreshes again`() {
+        repeat(REPEATED_REQUESTS) { request(ACCOUNT_1) }
+        serverHash = "hash2"
+        repeat(REPEATED_REQUESTS) { request(ACCOUNT_1) }
+
+        assertEquals(listOf(ACCOUNT_1, ACCOUNT_1), refreshes)
+        assertEquals("hash2", store.getSeenHash(ACCOUNT_1))
+    }
+
+    @Test
+    fun `each account is refreshed once`() {
+        repeat(REPEATED_REQUESTS) {
+            request(ACCOUNT_1)
+            request(ACCOUNT_2)
+        }
+
+        assertEquals(listOf(ACCOUNT_1, ACCOUNT_2), refreshes)
+    }
+
+    @Test
+    fun `a stored hash that is unchanged does not refresh`() {
+        store.setSeenHash(ACCOUNT_1, "hash1")
+
+        repeat(REPEATED_REQUESTS) { request(ACCOUNT_1) }
+
+        assertEquals(emptyList<Long>(), refreshes)
+    }
+
+    @Test
+    fun `concurrent responses with a new hash refresh once`() {
+        val executor = Executors.newFixedThreadPool(THREADS)
+        repeat(REPEATED_REQUESTS) { executor.execute { request(ACCOUNT_1) } }
+        executor.shutdown()
+        assertTrue(executor.awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS))
+
+        assertEquals(listOf(ACCOUNT_1), refreshes)
+    }
+
+    @Test
+    fun `responses without hash or credentials do not refresh`() {
+        serverHash = null
+        request(ACCOUNT_1)
+        serverHash = "hash1"
+        client.newCall(Request.Builder().url(server.url("/ocs/v2.php/apps/spreed/api/v4/room")).build())
+            .execute()
+            .close()
+
+        assertEquals(emptyList<Long>(), refreshes)
+    }
+
+    @Test
+    fun `up to date only after refreshing with the seen hash`() {
+        request(ACCOUNT_1)
+        assertFalse(store.isUpToDate(ACCOUNT_1))
+
+        store.setRefreshedHash(ACCOUNT_1, "hash1")
+        assertTrue(store.isUpToDate(ACCOUNT_1))
+
+        serverHash = "hash2"
+        request(ACCOUNT_1)
+        assertFalse(store.isUpToDate(ACCOUNT_1))
+    }
+
+    private fun client(store: TalkHashStore): OkHttpClient {
+        val interceptor = TalkHashInterceptor(
+            accountResolver = { request ->
+                resolvedAccounts++
+                request.header("Authorization")?.removePrefix("Basic account")?.toLongOrNull()
+            },
+            store = store,
+            refreshScheduler = { refreshes += it }
+        )
+        return OkHttpClient.Builder().addInterceptor(interceptor).build()
+    }
+
+    private fun request(accountId: Long) {
+        val request = Request.Builder()
+            .url(server.url("/ocs/v2.php/apps/spreed/api/v4/room"))
+            .header("Authorization", "Basic account$accountId")
+            .build()
+        client.newCall(request).execute().close()
+    }
+
+    private class InMemoryTalkHashStore : TalkHashStore {
+        private val seenHashes = HashMap<Long, String>()
+        private val refreshedHashes = HashMap<Long, String>()
+
+        override fun getSeenHash(accountId: Long): String? = seenHashes[accountId]
+
+        override fun setSeenHash(accountId: Long, hash: String) {
+            seenHashes[accountId] = hash
+        }
+
+        override fun getRefreshedHash(accountId: Long): String? = refreshedHashes[accountId]
+
+        override fun setRefreshedHash(accountId: Long, hash: String) {
+            refreshedHashes[accountId] = hash
+        }
+    }
+
+    companion object {
+        private const val ACCOUNT_1 = 1L
+        private const val ACCOUNT_2 = 2L
+        private const val REPEATED_REQUESTS = 20
+        private const val THREADS = 8
+        private const val TIMEOUT_SECONDS = 10L
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.utils
+
+import android.app.Application
+import android.graphics.Bitmap
+import android.graphics.Color
+import kotlinx.coroutines.runBlocking
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import org.robolectric.annotation.GraphicsMode
+import java.io.ByteArrayOutputStream
+import java.io.File
+
+@RunWith(RobolectricTestRunner::class)
+@Config(application = Application::class, sdk = [33])
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+class VideoThumbnailCacheTest {
+
+    @get:Rule
+    val temporaryFolder = TemporaryFolder()
+
+    private lateinit var directory: File
+    private var entryBytes = 0L
+
+    @Before
+    fun setUp() {
+        directory = temporaryFolder.newFolder("video_thumbnails")
+        entryBytes = jpegSize(frame())
+    }
+
+    @Test
+    fun `stored thumbnails are returned`() =
+        runBlocking {
+            val cache = VideoThumbnailCache(directory)
+
+            cache.put("ref1", frame())
+
+            val bitmap = cache.get("ref1", FRAME_WIDTH, FRAME_HEIGHT)
+            assertNotNull(bitmap)
+            assertEquals(FRAME_WIDTH, bitmap!!.width)
+            assertEquals(FRAME_HEIGHT, bitmap.height)
+            assertNull(cache.get("unknown", FRAME_WIDTH, FRAME_HEIGHT))
+        }
+
+    @Test
+    fun `least recently used thumbnails are evicted first`() =
+        runBlocking {
+            val cache = VideoThumbnailCache(directory, maxDiskBytes = 2 * entryBytes)
+            cache.put("ref1", frame())
+            cache.put("ref2", frame())
+            // reading the oldest entry makes the second one the least recently used
+            cache.get("ref1", FRAME_WIDTH, FRAME_HEIGHT)
+
+            cache.put("ref3", frame())
+
+            assertNotNull(cache.get("ref1", FRAME_WIDTH, FRAME_HEIGHT))
+            assertNull(cache.get("ref2", FRAME_WIDTH, FRAME_HEIGHT))
+            assertNotNull(cache.get("ref3", FRAME_WIDTH, FRAME_HEIGHT))
+            assertFalse(File(directory, "ref2.jpg").exists())
+        }
+
+    @Test
+    fun `the cache stays within its byte budget`() =
+        runBlocking {
+            val budget = 3 * entryBytes
+            val cache = VideoThumbnailCache(directory, maxDiskBytes = budget)
+
+            repeat(ENTRIES) { cache.put("ref$it", frame()) }
+
+            val files = directory.listFiles()!!
+            assertEquals(3, files.size)
+            assertTrue(files.sumOf { it.length() } <= budget)
+            assertNotNull(cache.get("ref${ENTRIES - 1}", FRAME_WIDTH, FRAME_HEIGHT))
+            assertNull(cache.get("ref0", FRAME_WIDTH, FRAME_HEIGHT))
+        }
+
+    @Test
+    fun `a new cache evicts the least recently modified files of a previous one`() =
+        runBlocking {
+            VideoThumbnailCache(directory).apply {
+                put("ref1", frame())
+                put("ref2", frame())
+            }
+            File(directory, "ref1.jpg").setLastModified(LATER)
+            File(directory, "ref2.jpg").setLastModified(EARLIER)
+
+            val cache = VideoThumbnailCache(directory, maxDiskBytes = 2 * entryBytes)
+            cache.put("ref3", frame())
+
+            assertNotNull(cache.get("ref1", FRAME_WIDTH, FRAME_HEIGHT))
+            assertNull(cache.get("ref2", FRAME_WIDTH, FRAME_HEIGHT))
+        }
+
+    @Test
+    fun `thumbnails are sampled down to the requested size`() =
+        runBlocking {
+            val cache = VideoThumbnailCache(directory)
+            cache.put("ref1", frame())
+
+            val half = cache.get("ref1", FRAME_WIDTH / 2, FRAME_HEIGHT / 2)!!
+            val quarter = cache.get("ref1", FRAME_WIDTH / 4, FRAME_WIDTH / 4)!!
+            val full = cache.get("ref1", FRAME_WIDTH * 2, FRAME_HEIGHT * 2)!!
+
+            assertEquals(FRAME_WIDTH / 2, half.width)
+            assertEquals(FRAME_HEIGHT / 2, half.height)
+            assertEquals(FRAME_WIDTH / 4, quarter.width)
+            assertEquals(FRAME_HEIGHT / 4, quarter.height)
+            assertEquals(FRAME_WIDTH, full.width)
+        }
+
+    @Test
+    fun `decoded thumbnails are kept in memory`() =
+        runBlocking {
+            val cache = VideoThumbnailCache(directory)
+            cache.put("ref1", frame())
+            val first = cache.get("ref1", FRAME_WIDTH, FRAME_HEIGHT)
+
+            assertTrue(first === cache.get("ref1", FRAME_WIDTH, FRAME_HEIGHT))
+            assertFalse(first === cache.get("ref1", FRAME_WIDTH / 2, FRAME_HEIGHT / 2))
+        }
+
+    @Test
+    fun `replacing a thumbnail drops the decoded copies`() =
+        runBlocking {
+            val cache = VideoThumbnailCache(directory)
+            cache.put("ref1", frame(Color.RED))
+            cache.get("ref1", FRAME_WIDTH, FRAME_HEIGHT)
+
+            cache.put("ref1", frame(Color.BLUE))
+
+            val pixel = cache.get("ref1", FRAME_WIDTH, FRAME_HEIGHT)!!.getPixel(FRAME_WIDTH / 2, FRAME_HEIGHT / 2)
+            assertTrue(Color.blue(pixel) > Color.red(pixel))
+        }
+
+    @Test
+    fun `unreadable thumbnails are removed`() =
+        runBlocking {
+            File(directory, "ref1.jpg").writeText("not a jpeg")
+            val cache = VideoThumbnailCache(directory)
+
+            assertNull(cache.get("ref1", FRAME_WIDTH, FRAME_HEIGHT))
+            assertFalse(File(directory, "ref1.jpg").exists())
+        }
+
+    private fun frame(color: Int = Color.GRAY): Bitmap =
+        Bitmap.createBitmap(FRAME_WIDTH, FRAME_HEIGHT, Bitmap.Config.ARGB_8888).apply { eraseColor(color) }
+
+    private fun jpegSize(bitmap: Bitmap): Long {
+        val out = ByteArrayOutputStream()
+        bitmap.compress(Bitmap.CompressFormat.JPEG, VideoThumbnailCache.JPEG_QUALITY, out)
+        return out.size().toLong()
+    }
+
+    companion object {
+        private const val FRAME_WIDTH = 1280
+        private const val FRAME_HEIGHT = 720
+        private const val ENTRIES = 10
+        private const val EARLIER = 1_000_000_000_000L
+        private const val LATER = 1_100_000_000_000L
+    }
+}
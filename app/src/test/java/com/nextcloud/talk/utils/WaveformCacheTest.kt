@@ -0,0 +1,78 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package com.nextcloud.talk.utils
+
+import org.junit.After
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNull
+import org.junit.Before
+import org.junit.Test
+import java.io.File
+import java.nio.file.Files
+
+class WaveformCacheTest {
+
+    private lateinit var dir: File
+
+    @Before
+    fun setUp() {
+        dir = Files.createTempDirectory("waveforms").toFile()
+    }
+
+    @After
+    fun tearDown() {
+        dir.deleteRecursively()
+    }
+
+    @Test
+    fun put_storesOneBytePerBar() {
+        val waveform = FloatArray(BARS) { it / BARS.toFloat() }
+
+        WaveformCache.put(dir, "1_42", waveform, MAX_ENTRIES)
+
+        assertEquals(BARS.toLong(), File(dir, "1_42").length())
+        assertArrayEquals(waveform, WaveformCache.get(dir, "1_42"), QUANTIZATION_DELTA)
+    }
+
+    @Test
+    fun get_returnsNullForUnknownKey() {
+        assertNull(WaveformCache.get(dir, "1_42"))
+    }
+
+    @Test
+    fun put_evictsLeastRecentlyUsedEntries() {
+        for (i in 0 until MAX_ENTRIES) {
+            WaveformCache.put(dir, "1_$i", FloatArray(BARS), MAX_ENTRIES)
+            File(dir, "1_$i").setLastModified(i * SECOND)
+        }
+        // touch the oldest entry so that the second oldest one gets evicted instead
+        WaveformCache.get(dir, "1_0")
+
+        WaveformCache.put(dir, "1_new", FloatArray(BARS), MAX_ENTRIES)
+
+        assertEquals(MAX_ENTRIES, dir.listFiles()!!.size)
+        assertNotNull(WaveformCache.get(dir, "1_0"))
+        assertNull(WaveformCache.get(dir, "1_1"))
+        assertNotNull(WaveformCache.get(dir, "1_new"))
+    }
+
+    @Test
+    fun key_separatesAccountsAndStripsPathCharacters() {
+        assertEquals("1_42", WaveformCache.key(1, "42"))
+        assertEquals("2_42", WaveformCache.key(2, "42"))
+        assertEquals("1_etcpasswd", WaveformCache.key(1, "../etc/passwd"))
+    }
+
+    companion object {
+        private const val BARS = 500
+        private const val MAX_ENTRIES = 5
+        private const val SECOND = 1000L
+        private const val QUANTIZATION_DELTA = 1f / 255
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package com.nextcloud.talk.utils
+
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class WaveformReducerTest {
+
+    @Test
+    fun result_isEmptyWaveformForShortStreams() {
+        val reducer = WaveformReducer(BARS)
+        repeat(BARS) { reducer.add(1f) }
+
+        assertArrayEquals(FloatArray(BARS), reducer.result(), DELTA)
+    }
+
+    @Test
+    fun result_keepsConstantSignal() {
+        val reducer = WaveformReducer(BARS)
+        repeat(123_457) { reducer.add(0.5f) }
+
+        reducer.result().forEach { assertEquals(0.5f, it, DELTA) }
+    }
+
+    @Test
+    fun result_matchesPlainAveragingForExactMultiples() {
+        val samples = FloatArray(BARS * 64) { (it % 97) / 97f }
+        val reducer = WaveformReducer(BARS)
+        samples.forEach { reducer.add(it) }
+
+        val scale = samples.size / BARS
+        val expected = FloatArray(BARS) { i -> samples.copyOfRange(i * scale, (i + 1) * scale).average().toFloat() }
+
+        assertArrayEquals(expected, reducer.result(), DELTA)
+    }
+
+    @Test
+    fun result_followsRamp() {
+        val total = 10 * 60 * 48_000
+        val reducer = WaveformReducer(BARS)
+        for (i in 0 until total) {
+            reducer.add(i.toFloat() / total)
+        }
+
+        val result = reducer.result()
+        assertEquals(total.toLong(), reducer.sampleCount)
+        for (i in 1 until BARS) {
+            assertTrue(result[i] > result[i - 1])
+        }
+        assertEquals(0f, result.first(), RAMP_DELTA)
+        assertEquals(1f, result.last(), RAMP_DELTA)
+    }
+
+    @Test
+    fun reduce_fitsDecodedWaveformToBars() {
+        val waveform = FloatArray(BARS) { if (it < BARS / 2) 0.2f else 0.8f }
+
+        val reduced = WaveformReducer.reduce(waveform, BARS / 5)
+
+        assertEquals(BARS / 5, reduced.size)
+        assertEquals(0.2f, reduced.first(), DELTA)
+        assertEquals(0.8f, reduced.last(), DELTA)
+    }
+
+    @Test
+    fun reduce_keepsWaveformsWithFewerValuesThanBars() {
+        val waveform = FloatArray(BARS) { it / BARS.toFloat() }
+
+        assertArrayEquals(waveform, WaveformReducer.reduce(waveform, BARS), DELTA)
+    }
+
+    companion object {
+        private const val BARS = 500
+        private const val DELTA = 0.0001f
+        private const val RAMP_DELTA = 0.01f
+    }
+}
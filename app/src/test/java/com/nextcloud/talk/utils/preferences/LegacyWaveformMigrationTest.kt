@@ -0,0 +1,51 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package com.nextcloud.talk.utils.preferences
+
+import androidx.datastore.preferences.core.booleanPreferencesKey
+import androidx.datastore.preferences.core.preferencesOf
+import androidx.datastore.preferences.core.stringPreferencesKey
+import kotlinx.coroutines.test.runTest
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class LegacyWaveformMigrationTest {
+
+    private val waveformKey = stringPreferencesKey("Talk recording from 2024-05-01 10-00-00 (Team).mp3")
+    private val sortingKey = stringPreferencesKey("sorting")
+    private val lastKnownIdKey = stringPreferencesKey("1@abcdef")
+
+    @Test
+    fun `removes the waveforms of voice messages only`() =
+        runTest {
+            val migrated = LegacyWaveformMigration.migrate(
+                preferencesOf(
+                    waveformKey to "[0.1, 0.2]",
+                    sortingKey to "[1, 2]",
+                    lastKnownIdKey to "42"
+                )
+            )
+
+            assertNull(migrated[waveformKey])
+            assertEquals("[1, 2]", migrated[sortingKey])
+            assertEquals("42", migrated[lastKnownIdKey])
+        }
+
+    @Test
+    fun `runs only once`() =
+        runTest {
+            assertTrue(LegacyWaveformMigration.shouldMigrate(preferencesOf(waveformKey to "[0.1, 0.2]")))
+
+            val migrated = LegacyWaveformMigration.migrate(preferencesOf(waveformKey to "[0.1, 0.2]"))
+
+            assertEquals(true, migrated[booleanPreferencesKey("legacy_waveforms_removed")])
+            assertFalse(LegacyWaveformMigration.shouldMigrate(migrated))
+        }
+}
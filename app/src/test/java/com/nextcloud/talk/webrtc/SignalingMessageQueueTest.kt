@@ -0,0 +1,72 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package com.nextcloud.talk.webrtc
+
+import com.nextcloud.talk.models.json.signaling.NCSignalingMessage
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+class SignalingMessageQueueTest {
+
+    private var now = 0L
+    private val queue = SignalingMessageQueue(capacity = 4, maxAgeMillis = 1000) { now }
+
+    @Test
+    fun `only the newest room message is kept`() {
+        queue.enqueueRoomMessage("join room1")
+        queue.enqueueCallMessage("candidate", message("candidate", to = "a"))
+        queue.enqueueRoomMessage("join room2")
+
+        assertEquals(listOf("candidate", "join room2"), queue.drain())
+        assertEquals(1, queue.droppedMessages)
+    }
+
+    @Test
+    fun `new offer supersedes the queued negotiation with the same peer`() {
+        queue.enqueueCallMessage("offer a 1", message("offer", to = "a"))
+        queue.enqueueCallMessage("candidate a 1", message("candidate", to = "a"))
+        queue.enqueueCallMessage("candidate b 1", message("candidate", to = "b"))
+        queue.enqueueCallMessage("screen offer a", message("offer", to = "a", roomType = "screen"))
+        queue.enqueueCallMessage("offer a 2", message("offer", to = "a"))
+
+        assertEquals(listOf("candidate b 1", "screen offer a", "offer a 2"), queue.drain())
+        assertEquals(2, queue.droppedMessages)
+    }
+
+    @Test
+    fun `only the newest typing state per recipient is kept`() {
+        queue.enqueueCallMessage("typing", message("startedTyping", to = "a"))
+        queue.enqueueCallMessage("typing b", message("startedTyping", to = "b"))
+        queue.enqueueCallMessage("not typing", message("stoppedTyping", to = "a"))
+
+        assertEquals(listOf("typing b", "not typing"), queue.drain())
+    }
+
+    @Test
+    fun `stale call messages are dropped, room messages are not`() {
+        queue.enqueueRoomMessage("join")
+        queue.enqueueCallMessage("old", message("unshareScreen", to = "a"))
+        now = 600
+        queue.enqueueCallMessage("recent", message("unshareScreen", to = "b"))
+        now = 1200
+
+        assertEquals(listOf("join", "recent"), queue.drain())
+        assertEquals(0, queue.size)
+    }
+
+    @Test
+    fun `oldest call message is dropped when full`() {
+        queue.enqueueRoomMessage("join")
+        repeat(5) { queue.enqueueCallMessage("candidate $it", message("candidate", to = "peer$it")) }
+
+        assertEquals(listOf("join", "candidate 2", "candidate 3", "candidate 4"), queue.drain())
+        assertEquals(2, queue.droppedMessages)
+    }
+
+    private fun message(type: String, to: String, roomType: String = "video") =
+        NCSignalingMessage(type = type, to = to, roomType = roomType)
+}
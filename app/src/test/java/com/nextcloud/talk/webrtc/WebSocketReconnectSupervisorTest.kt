@@ -0,0 +1,209 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package com.nextcloud.talk.webrtc
+
+import com.nextcloud.talk.models.json.signaling.NCSignalingMessage
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.cancel
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.advanceTimeBy
+import kotlinx.coroutines.test.advanceUntilIdle
+import kotlinx.coroutines.test.currentTime
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.Response
+import okhttp3.WebSocket
+import okhttp3.WebSocketListener
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okhttp3.mockwebserver.SocketPolicy
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.util.Collections
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import kotlin.random.Random
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class WebSocketReconnectSupervisorTest {
+
+    private val isOnline = MutableStateFlow(true)
+    private var connects = 0
+
+    private fun TestScope.supervisor() = WebSocketReconnectSupervisor(isOnline, { connects++ }, backgroundScope)
+
+    @Test
+    fun `repeated loss reports while a reconnect is pending result in one reconnect`() =
+        runTest {
+            val supervisor = supervisor()
+
+            repeat(5) { supervisor.onConnectionLost() }
+            repeat(3) { supervisor.requestReconnect() }
+            advanceUntilIdle()
+
+            assertEquals(1, connects)
+            assertEquals(1, supervisor.reconnects)
+        }
+
+    @Test
+    fun `reconnect request is ignored while connecting`() =
+        runTest {
+            val supervisor = supervisor()
+            supervisor.onConnecting()
+
+            supervisor.requestReconnect()
+            advanceUntilIdle()
+
+            assertEquals(0, connects)
+        }
+
+    @Test
+    fun `backoff grows with failed attempts and resets after connecting`() =
+        runTest {
+            val supervisor = supervisor()
+
+            supervisor.onConnectionLost()
+            advanceUntilIdle()
+            val firstDelay = currentTime
+            supervisor.onConnectionLost()
+            advanceUntilIdle()
+            val secondDelay = currentTime - firstDelay
+            supervisor.onConnected(resumed = false)
+            supervisor.onConnectionLost()
+            advanceUntilIdle()
+            val delayAfterSuccess = currentTime - firstDelay - secondDelay
+
+            assertTrue(firstDelay in 500..1000)
+            assertTrue(secondDelay in 1000..2000)
+            assertTrue(delayAfterSuccess in 500..1000)
+            assertEquals(3, connects)
+        }
+
+    @Test
+    fun `no attempts while offline, reconnects right away when back online`() =
+        runTest {
+            val supervisor = supervisor()
+            isOnline.value = false
+
+            supervisor.onConnectionLost()
+            advanceTimeBy(10 * 60 * 1000L)
+            assertEquals(0, connects)
+
+            isOnline.value = true
+            runCurrent()
+            assertEquals(1, connects)
+        }
+
+    @Test
+    fun `stopped supervisor does not reconnect`() =
+        runTest {
+            val supervisor = supervisor()
+
+            supervisor.onConnectionLost()
+            supervisor.stop()
+            supervisor.reconnectNow()
+            advanceUntilIdle()
+
+            assertEquals(0, connects)
+        }
+
+    @Test
+    fun `resume success rate`() =
+        runTest {
+            val supervisor = supervisor()
+
+            supervisor.onResumeAttempt()
+            supervisor.onConnected(resumed = true)
+            supervisor.onResumeAttempt()
+            supervisor.onConnected(resumed = false)
+            val stats = WebSocketConnectionStats(
+                supervisor.reconnects,
+                supervisor.resumeAttempts,
+                supervisor.resumedSessions,
+                queueDepth = 0,
+                droppedMessages = 0
+            )
+
+            assertEquals(0.5f, stats.resumeSuccessRate)
+        }
+
+    @Test
+    fun `backoff stays within its jitter range and cap`() {
+        val backoff = ReconnectBackoff(initialDelayMillis = 1000, maxDelayMillis = 30_000, random = Random(42))
+
+        for (attempt in 0..20) {
+            val exponential = minOf(1000L shl minOf(attempt, 16), 30_000L)
+            assertTrue(backoff.delayMillis(attempt) in exponential / 2..exponential)
+        }
+    }
+
+    @Test
+    fun `reconnects against a local WebSocket server and flushes the queue`() {
+        val received = Collections.synchronizedList(mutableListOf<String>())
+        val serverReceivedAll = CountDownLatch(2)
+        val server = MockWebServer()
+        server.enqueue(MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START))
+        server.enqueue(
+            MockResponse().withWebSocketUpgrade(object : WebSocketListener() {
+                override fun onMessage(webSocket: WebSocket, text: String) {
+                    received.add(text)
+                    serverReceivedAll.countDown()
+                }
+            })
+        )
+        server.start()
+
+        val scope = CoroutineScope(SupervisorJob() + Dispatchers.IO)
+        // a failed handshake must reach the supervisor instead of being retried by OkHttp
+        val client = OkHttpClient.Builder().retryOnConnectionFailure(false).build()
+        val queue = SignalingMessageQueue()
+        lateinit var supervisor: WebSocketReconnectSupervisor
+        val listener = object : WebSocketListener() {
+            override fun onOpen(webSocket: WebSocket, response: Response) {
+                supervisor.onConnected(resumed = false)
+                queue.drain().forEach { webSocket.send(it) }
+            }
+
+            override fun onFailure(webSocket: WebSocket, t: Throwable, response: Response?) {
+                supervisor.onConnectionLost()
+            }
+        }
+        val connect = { client.newWebSocket(Request.Builder().url(server.url("/spreed")).build(), listener) }
+        supervisor = WebSocketReconnectSupervisor(
+            isOnline,
+            { connect() },
+            scope,
+            ReconnectBackoff(initialDelayMillis = 10, maxDelayMillis = 50)
+        )
+
+        try {
+            queue.enqueueRoomMessage("join")
+            queue.enqueueCallMessage("offer 1", NCSignalingMessage(type = "offer", to = "a", roomType = "video"))
+            queue.enqueueCallMessage("offer 2", NCSignalingMessage(type = "offer", to = "a", roomType = "video"))
+            supervisor.onConnecting()
+            connect()
+
+            assertTrue(serverReceivedAll.await(5, TimeUnit.SECONDS))
+            assertEquals(listOf("join", "offer 2"), received)
+            assertEquals(1, supervisor.reconnects)
+            assertEquals(0, queue.size)
+            assertEquals(1, queue.droppedMessages)
+        } finally {
+            supervisor.stop()
+            scope.cancel()
+            client.dispatcher.executorService.shutdown()
+            server.shutdown()
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+// Microbenchmarks of app code, run in the process of the non-debuggable "benchmark" build of :app:
+// ./gradlew :microbenchmark:connectedGenericBenchmarkAndroidTest
+plugins {
+    id("com.android.test")
+    id("com.android.built-in-kotlin")
+}
+
+android {
+    compileSdk = 37
+
+    namespace = "com.nextcloud.talk.microbenchmark"
+    targetProjectPath = ":app"
+
+    defaultConfig {
+        minSdk = 26
+        targetSdk = 36
+        testInstrumentationRunner = "androidx.benchmark.junit4.AndroidBenchmarkRunner"
+        // results of emulators are only good for spotting regressions of the same emulator
+        testInstrumentationRunnerArguments["androidx.benchmark.suppressErrors"] = "EMULATOR"
+    }
+
+    flavorDimensions += "default"
+
+    productFlavors {
+        create("generic") {
+            dimension = "default"
+        }
+        create("gplay") {
+            dimension = "default"
+        }
+        create("qa") {
+            dimension = "default"
+        }
+    }
+
+    buildTypes {
+        create("benchmark") {
+            isDebuggable = false
+            signingConfig = getByName("debug").signingConfig
+            matchingFallbacks += listOf("release")
+        }
+    }
+
+    compileOptions {
+        sourceCompatibility = JavaVersion.VERSION_17
+        targetCompatibility = JavaVersion.VERSION_17
+    }
+}
+
+androidComponents {
+    // only the benchmark build of the app gives numbers worth comparing
+    beforeVariants(selector().withBuildType("debug")) { it.enable = false }
+}
+
+dependencies {
+    implementation("androidx.benchmark:benchmark-junit4:1.4.1")
+    implementation("androidx.test:runner:1.7.0")
+    implementation("androidx.test.ext:junit:1.3.0")
+    implementation("junit:junit:4.13.2")
+}
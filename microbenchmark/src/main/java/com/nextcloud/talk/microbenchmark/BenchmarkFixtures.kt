@@ -0,0 +1,224 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.microbenchmark
+
+import com.bluelinelabs.logansquare.LoganSquare
+import com.nextcloud.talk.chat.data.model.ChatMessage
+import com.nextcloud.talk.models.json.chat.ChatMessageJson
+import com.nextcloud.talk.models.json.chat.ChatOCS
+import com.nextcloud.talk.models.json.chat.ChatOverall
+import com.nextcloud.talk.models.json.conversations.Conversation
+import com.nextcloud.talk.models.json.conversations.ConversationEnums
+import com.nextcloud.talk.models.json.conversations.RoomsOCS
+import com.nextcloud.talk.models.json.conversations.RoomsOverall
+import com.nextcloud.talk.models.json.generic.GenericMeta
+import com.nextcloud.talk.models.json.participants.Participant
+import kotlin.random.Random
+
+/**
+ * Deterministic fixture corpora for the benchmarks. All generators are seeded, so every run (and every commit)
+ * measures the same data.
+ *
+ * The chat page mixes the message kinds seen in real conversations: plain and markdown text, mentions, file
+ * shares, replies, reactions and system messages. The signaling traffic follows the frames the external signaling
+ * server sends during a call with a few participants.
+ */
+object BenchmarkFixtures {
+
+    const val CHAT_PAGE_SIZE = 10_000
+    const val ROOM_LIST_SIZE = 1_000
+    const val SIGNALING_FRAME_COUNT = 5_000
+
+    const val ACCOUNT_ID = 1L
+    const val ROOM_TOKEN = "benchmarkroom"
+    private const val SEED = 42
+    private const val FIRST_TIMESTAMP = 1_700_000_000L
+    private const val PARTICIPANT_COUNT = 25
+
+    val chatMessages: List<ChatMessageJson> by lazy { generateChatMessages(CHAT_PAGE_SIZE) }
+
+    val chatPageJson: String by lazy {
+        LoganSquare.serialize(ChatOverall(ChatOCS(okMeta(), chatMessages)))
+    }
+
+    val conversations: List<Conversation> by lazy { generateConversations(ROOM_LIST_SIZE) }
+
+    val roomListJson: String by lazy {
+        LoganSquare.serialize(RoomsOverall(RoomsOCS(okMeta(), conversations)))
+    }
+
+    val signalingFrames: List<String> by lazy { generateSignalingFrames(SIGNALING_FRAME_COUNT) }
+
+    private fun okMeta() = GenericMeta(status = "ok", statusCode = 200, message = "OK")
+
+    fun generateChatMessages(count: Int): List<ChatMessageJson> {
+        val random = Random(SEED)
+        return (1..count).map { index ->
+            val id = index.toLong()
+            val actor = "user${random.nextInt(PARTICIPANT_COUNT)}"
+            val message = ChatMessageJson(
+                id = id,
+                token = ROOM_TOKEN,
+                actorType = "users",
+                actorId = actor,
+                actorDisplayName = "User ${actor.removePrefix("user")}",
+                timestamp = FIRST_TIMESTAMP + id * random.nextInt(1, 120),
+                messageType = "comment",
+                systemMessageType = ChatMessage.SystemMessageType.DUMMY,
+                replyable = true,
+                referenceId = "ref$id"
+            )
+            when (random.nextInt(10)) {
+                0 -> message.apply {
+                    this.message = "{mention-user1} have a look at this"
+                    val mentioned = "user${random.nextInt(PARTICIPANT_COUNT)}"
+                    messageParameters = hashMapOf("mention-user1" to mention(mentioned))
+                }
+                1 -> message.apply {
+                    this.message = "{file}"
+                    messageParameters = hashMapOf("file" to file(id, random.nextBoolean()))
+                }
+                2 -> message.apply {
+                    this.message = "{actor} joined the conversation"
+                    messageType = "system"
+                    systemMessageType = ChatMessage.SystemMessageType.USER_ADDED
+                    replyable = false
+                    messageParameters = hashMapOf("actor" to mention(actor))
+                }
+                3 -> message.apply {
+                    this.message = "**Release notes** for _build_ $id:\n- item one\n- item two\n`code` block"
+                    renderMarkdown = true
+                }
+                else -> message.apply {
+                    this.message = LOREM.substring(0, random.nextInt(MIN_TEXT_LENGTH, LOREM.length))
+                }
+            }
+            if (id > 1 && random.nextInt(REPLY_RATIO) == 0) {
+                message.parentMessage = ChatMessageJson(
+                    id = id - 1,
+                    token = ROOM_TOKEN,
+                    actorType = "users",
+                    actorId = actor,
+                    actorDisplayName = message.actorDisplayName,
+                    message = "parent of $id",
+                    messageType = "comment",
+                    systemMessageType = ChatMessage.SystemMessageType.DUMMY
+                )
+            }
+            if (random.nextInt(REACTION_RATIO) == 0) {
+                message.reactions = linkedMapOf("👍" to random.nextInt(1, 5), "🎉" to 1)
+                message.reactionsSelf = arrayListOf("👍")
+            }
+            message
+        }
+    }
+
+    fun generateConversations(count: Int): List<Conversation> {
+        val random = Random(SEED)
+        val messages = generateChatMessages(count)
+        return (0 until count).map { index ->
+            Conversation(
+                token = "room$index",
+                name = "room-$index",
+                displayName = "Conversation $index",
+                description = if (random.nextBoolean()) LOREM else "",
+                type = ConversationEnums.ConversationType.entries[1 + random.nextInt(GROUP_TYPES)],
+                participantType = Participant.ParticipantType.USER,
+                actorId = "me",
+                actorType = "users",
+                favorite = random.nextInt(FAVORITE_RATIO) == 0,
+                lastActivity = FIRST_TIMESTAMP + index,
+                unreadMessages = random.nextInt(UNREAD_BOUND),
+                unreadMention = random.nextInt(MENTION_RATIO) == 0,
+                lastMessage = messages[index].copy(token = "room$index"),
+                lastReadMessage = index,
+                lastCommonReadMessage = index
+            )
+        }
+    }
+
+    fun generateSignalingFrames(count: Int): List<String> {
+        val random = Random(SEED)
+        return (0 until count).map { index ->
+            val sender = "session${random.nextInt(PARTICIPANT_COUNT)}"
+            when (random.nextInt(6)) {
+                0 -> participantsUpdateFrame(random)
+                1 -> candidateFrame(sender, index)
+                2 -> offerFrame(sender)
+                3 -> """{"type":"event","event":{"target":"room","type":"join","join":[""" +
+                    """{"sessionid":"$sender","userid":"user$index","roomsessionid":"r$index"}]}}"""
+                4 -> """{"type":"room","room":{"roomid":"$ROOM_TOKEN","properties":""" +
+                    """{"name":"Benchmark","type":2}}}"""
+                else -> """{"type":"message","message":{"sender":{"type":"session","sessionid":"$sender"},""" +
+                    """"data":{"type":"unshareScreen","from":"$sender","roomType":"screen"}}}"""
+            }
+        }
+    }
+
+    private fun participantsUpdateFrame(random: Random): String {
+        val users = (0 until PARTICIPANT_COUNT).joinToString(",") { participant ->
+            """{"inCall":${random.nextInt(IN_CALL_FLAGS)},"lastPing":${FIRST_TIMESTAMP + participant},""" +
+                """"sessionId":"session$participant","participantType":3,"userId":"user$participant",""" +
+                """"nextcloudSessionId":"nc$participant","participantPermissions":254}"""
+        }
+        return """{"type":"event","event":{"target":"participants","type":"update",""" +
+            """"update":{"roomid":"$ROOM_TOKEN","users":[$users]}}}"""
+    }
+
+    private fun candidateFrame(sender: String, index: Int): String =
+        """{"type":"message","message":{"sender":{"type":"session","sessionid":"$sender"},""" +
+            """"data":{"to":"me","from":"$sender","type":"candidate","roomType":"video","sid":"$index",""" +
+            """"payload":{"candidate":{"candidate":"candidate:$index 1 UDP 2122252543 192.168.1.$index """ +
+            """5$index typ host","sdpMLineIndex":0,"sdpMid":"0"}}}}}"""
+
+    private fun offerFrame(sender: String): String =
+        """{"type":"message","message":{"sender":{"type":"session","sessionid":"$sender"},""" +
+            """"data":{"to":"me","from":"$sender","type":"offer","roomType":"video","sid":"1",""" +
+            """"payload":{"type":"offer","nick":"User","sdp":"${SDP.replace("\n", "\\r\\n")}"}}}}"""
+
+    private fun mention(userId: String): HashMap<String?, String?> =
+        hashMapOf("type" to "user", "id" to userId, "name" to "User ${userId.removePrefix("user")}")
+
+    private fun file(id: Long, image: Boolean): HashMap<String?, String?> =
+        hashMapOf(
+            "type" to "file",
+            "id" to id.toString(),
+            "name" to if (image) "photo$id.jpg" else "document$id.pdf",
+            "size" to "${id * FILE_SIZE_FACTOR}",
+            "path" to "Talk/file$id",
+            "link" to "https://server.example.com/f/$id",
+            "mimetype" to if (image) "image/jpeg" else "application/pdf",
+            "preview-available" to "yes",
+            "width" to "1920",
+            "height" to "1080"
+        )
+
+    private const val MIN_TEXT_LENGTH = 8
+    private const val REPLY_RATIO = 8
+    private const val REACTION_RATIO = 6
+    private const val GROUP_TYPES = 3
+    private const val FAVORITE_RATIO = 10
+    private const val UNREAD_BOUND = 30
+    private const val MENTION_RATIO = 15
+    private const val IN_CALL_FLAGS = 8
+    private const val FILE_SIZE_FACTOR = 1_024
+
+    private const val LOREM =
+        "Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor incididunt ut labore et " +
+            "dolore magna aliqua. Ut enim ad minim veniam, quis nostrud exercitation ullamco laboris nisi ut " +
+            "aliquip ex ea commodo consequat."
+
+    private const val SDP =
+        "v=0\no=- 4611731400430051336 2 IN IP4 127.0.0.1\ns=-\nt=0 0\na=group:BUNDLE 0 1\n" +
+            "m=audio 9 UDP/TLS/RTP/SAVPF 111 103 104 9 0 8 106 105 13 110 112 113 126\nc=IN IP4 0.0.0.0\n" +
+            "a=rtcp:9 IN IP4 0.0.0.0\na=ice-ufrag:abcd\na=ice-pwd:abcdefghijklmnopqrstuvwx\n" +
+            "a=fingerprint:sha-256 00:11:22:33:44:55:66:77:88:99:AA:BB:CC:DD:EE:FF:00:11:22:33:44:55:66:77\n" +
+            "a=setup:actpass\na=mid:0\na=sendrecv\na=rtpmap:111 opus/48000/2\n" +
+            "m=video 9 UDP/TLS/RTP/SAVPF 96 97 98 99 100 101 102\nc=IN IP4 0.0.0.0\na=mid:1\na=sendrecv\n" +
+            "a=rtpmap:96 VP8/90000\na=rtpmap:98 VP9/90000\na=rtpmap:100 H264/90000\n"
+}
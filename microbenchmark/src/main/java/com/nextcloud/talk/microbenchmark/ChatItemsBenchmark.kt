@@ -0,0 +1,64 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.microbenchmark
+
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.nextcloud.talk.chat.ui.model.toUiModel
+import com.nextcloud.talk.chat.viewmodels.ChatViewModel
+import com.nextcloud.talk.data.database.mappers.toDomainModel
+import com.nextcloud.talk.data.user.model.User
+import org.junit.Assert.assertTrue
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * The work [ChatViewModel] does on every change of the loaded messages: grouping them and building the chat list
+ * items with date headers, the unread marker and collapsed system messages.
+ */
+@RunWith(AndroidJUnit4::class)
+class ChatItemsBenchmark {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private val pageSize = BenchmarkFixtures.CHAT_PAGE_SIZE
+    private val user = User(id = BenchmarkFixtures.ACCOUNT_ID, userId = "me", baseUrl = "https://server.example.com")
+
+    @Test
+    fun groupMessages() {
+        val messages = BenchmarkFixtures.chatMessages.map { it.toDomainModel() }
+        benchmarkRule.measureRepeated {
+            ChatViewModel.groupMessages(messages)
+        }
+    }
+
+    @Test
+    fun buildChatItems() {
+        val messages = BenchmarkFixtures.chatMessages.map { it.toDomainModel() }
+        ChatViewModel.groupMessages(messages)
+        val messagesById = messages.associateBy { it.jsonMessageId.toLong() }
+        val uiMessages = messages.map { message ->
+            message.toUiModel(
+                user = user,
+                chatMessage = message,
+                lastCommonReadMessageId = pageSize / 2,
+                parentMessage = message.parentMessageId?.let { messagesById[it] }
+            )
+        }
+        val unreadMarkerMessageId = pageSize / 2 + 1
+
+        val items = ChatViewModel.buildChatItems(uiMessages, unreadMarkerMessageId)
+        assertTrue(items.any { it is ChatViewModel.ChatItem.UnreadMessagesMarkerItem })
+        benchmarkRule.measureRepeated {
+            ChatViewModel.buildChatItems(uiMessages, unreadMarkerMessageId)
+        }
+    }
+}
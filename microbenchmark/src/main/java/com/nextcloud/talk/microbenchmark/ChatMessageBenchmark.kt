@@ -0,0 +1,85 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.microbenchmark
+
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.bluelinelabs.logansquare.LoganSquare
+import com.nextcloud.talk.chat.ui.model.toUiModel
+import com.nextcloud.talk.data.database.mappers.asEntity
+import com.nextcloud.talk.data.database.mappers.toDomainModel
+import com.nextcloud.talk.data.user.model.User
+import com.nextcloud.talk.models.json.chat.ChatOverall
+import org.junit.Assert.assertEquals
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Chat page hot paths: parsing a 10k message page, mapping it to entities and domain models and building the UI
+ * models the chat list renders.
+ */
+@RunWith(AndroidJUnit4::class)
+class ChatMessageBenchmark {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private val pageSize = BenchmarkFixtures.CHAT_PAGE_SIZE
+    private val user = User(id = BenchmarkFixtures.ACCOUNT_ID, userId = "me", baseUrl = "https://server.example.com")
+
+    @Test
+    fun parseChatPage() {
+        val json = BenchmarkFixtures.chatPageJson
+        assertEquals(pageSize, LoganSquare.parse(json, ChatOverall::class.java).ocs!!.data!!.size)
+        benchmarkRule.measureRepeated {
+            LoganSquare.parse(json, ChatOverall::class.java)
+        }
+    }
+
+    @Test
+    fun mapJsonToEntity() {
+        val messages = BenchmarkFixtures.chatMessages
+        benchmarkRule.measureRepeated {
+            messages.map { it.asEntity(BenchmarkFixtures.ACCOUNT_ID) }
+        }
+    }
+
+    @Test
+    fun mapEntityToDomainModel() {
+        val entities = BenchmarkFixtures.chatMessages.map { it.asEntity(BenchmarkFixtures.ACCOUNT_ID) }
+        benchmarkRule.measureRepeated {
+            entities.map { it.toDomainModel() }
+        }
+    }
+
+    @Test
+    fun mapJsonToDomainModel() {
+        val messages = BenchmarkFixtures.chatMessages
+        benchmarkRule.measureRepeated {
+            messages.map { it.toDomainModel() }
+        }
+    }
+
+    @Test
+    fun buildUiModels() {
+        val messages = BenchmarkFixtures.chatMessages.map { it.toDomainModel() }
+        val messagesById = messages.associateBy { it.jsonMessageId.toLong() }
+        benchmarkRule.measureRepeated {
+            messages.map { message ->
+                message.toUiModel(
+                    user = user,
+                    chatMessage = message,
+                    lastCommonReadMessageId = pageSize / 2,
+                    parentMessage = message.parentMessageId?.let { messagesById[it] }
+                )
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.microbenchmark
+
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.bluelinelabs.logansquare.LoganSquare
+import com.nextcloud.talk.data.database.mappers.asEntity
+import com.nextcloud.talk.data.database.mappers.toDomainModel
+import com.nextcloud.talk.models.json.conversations.RoomsOverall
+import org.junit.Assert.assertEquals
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Room list hot paths: parsing a list of 1,000 conversations and mapping it to entities and domain models.
+ */
+@RunWith(AndroidJUnit4::class)
+class ConversationListBenchmark {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    @Test
+    fun parseRoomList() {
+        val json = BenchmarkFixtures.roomListJson
+        assertEquals(
+            BenchmarkFixtures.ROOM_LIST_SIZE,
+            LoganSquare.parse(json, RoomsOverall::class.java).ocs!!.data!!.size
+        )
+        benchmarkRule.measureRepeated {
+            LoganSquare.parse(json, RoomsOverall::class.java)
+        }
+    }
+
+    @Test
+    fun mapConversationToEntity() {
+        val conversations = BenchmarkFixtures.conversations
+        benchmarkRule.measureRepeated {
+            conversations.map { it.asEntity(BenchmarkFixtures.ACCOUNT_ID) }
+        }
+    }
+
+    @Test
+    fun mapEntityToDomainModel() {
+        val entities = BenchmarkFixtures.conversations.map { it.asEntity(BenchmarkFixtures.ACCOUNT_ID) }
+        benchmarkRule.measureRepeated {
+            entities.map { it.toDomainModel() }
+        }
+    }
+}
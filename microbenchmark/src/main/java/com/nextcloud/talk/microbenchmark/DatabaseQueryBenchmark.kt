@@ -0,0 +1,105 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.microbenchmark
+
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.room.Room
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import com.nextcloud.talk.data.database.mappers.asEntity
+import com.nextcloud.talk.data.source.local.TalkDatabase
+import com.nextcloud.talk.data.user.model.UserEntity
+import com.nextcloud.talk.models.json.conversations.Conversation
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * The queries behind opening a chat and emitting the conversation list, against an in-memory [TalkDatabase] with
+ * 10k cached messages in one room and 1,000 conversations. Key derivation and disk I/O are not part of it.
+ */
+@RunWith(AndroidJUnit4::class)
+class DatabaseQueryBenchmark {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private lateinit var db: TalkDatabase
+
+    @Before
+    fun setUp() {
+        val context = InstrumentationRegistry.getInstrumentation().targetContext
+        db = Room.inMemoryDatabaseBuilder(context, TalkDatabase::class.java).build()
+        db.usersDao().saveUser(UserEntity(id = BenchmarkFixtures.ACCOUNT_ID, userId = "me", username = "me"))
+        val conversations = BenchmarkFixtures.conversations + Conversation(token = BenchmarkFixtures.ROOM_TOKEN)
+        runBlocking {
+            db.conversationsDao().upsertConversations(
+                BenchmarkFixtures.ACCOUNT_ID,
+                conversations.map { it.asEntity(BenchmarkFixtures.ACCOUNT_ID) }
+            )
+            db.chatMessagesDao().upsertChatMessages(
+                BenchmarkFixtures.chatMessages.map { it.asEntity(BenchmarkFixtures.ACCOUNT_ID) }
+            )
+        }
+    }
+
+    @After
+    fun tearDown() {
+        db.close()
+    }
+
+    @Test
+    fun newestChatPage() {
+        val dao = db.chatMessagesDao()
+        val newerThanAll = BenchmarkFixtures.CHAT_PAGE_SIZE + 1L
+        val page = runBlocking {
+            dao.getMessagesForConversationBefore(INTERNAL_CONVERSATION_ID, newerThanAll, PAGE_LIMIT, null).first()
+        }
+        assertEquals(PAGE_LIMIT, page.size)
+        benchmarkRule.measureRepeated {
+            runBlocking {
+                dao.getMessagesForConversationBefore(INTERNAL_CONVERSATION_ID, newerThanAll, PAGE_LIMIT, null).first()
+            }
+        }
+    }
+
+    @Test
+    fun allMessagesOfChat() {
+        val dao = db.chatMessagesDao()
+        benchmarkRule.measureRepeated {
+            runBlocking { dao.getMessagesForConversation(INTERNAL_CONVERSATION_ID, null).first() }
+        }
+    }
+
+    @Test
+    fun conversationListRows() {
+        val dao = db.conversationsDao()
+        benchmarkRule.measureRepeated {
+            runBlocking { dao.getConversationListRows(BenchmarkFixtures.ACCOUNT_ID).first() }
+        }
+    }
+
+    @Test
+    fun conversationEntities() {
+        val dao = db.conversationsDao()
+        benchmarkRule.measureRepeated {
+            runBlocking { dao.getConversationsForUser(BenchmarkFixtures.ACCOUNT_ID).first() }
+        }
+    }
+
+    companion object {
+        private const val INTERNAL_CONVERSATION_ID = "${BenchmarkFixtures.ACCOUNT_ID}@${BenchmarkFixtures.ROOM_TOKEN}"
+        private const val PAGE_LIMIT = 100
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.microbenchmark
+
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.bluelinelabs.logansquare.LoganSquare
+import com.nextcloud.talk.models.json.websocket.BaseWebSocketMessage
+import com.nextcloud.talk.models.json.websocket.CallOverallWebSocketMessage
+import com.nextcloud.talk.models.json.websocket.EventOverallWebSocketMessage
+import com.nextcloud.talk.models.json.websocket.JoinedRoomOverallWebSocketMessage
+import org.junit.Assert.assertEquals
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Parsing of external signaling frames the way `WebSocketInstance.onMessage` does it: the frame is parsed once to
+ * read its type and a second time into the typed message.
+ */
+@RunWith(AndroidJUnit4::class)
+class SignalingFrameBenchmark {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private val frames = BenchmarkFixtures.signalingFrames
+
+    @Test
+    fun parseFrameType() {
+        benchmarkRule.measureRepeated {
+            frames.map { LoganSquare.parse(it, BaseWebSocketMessage::class.java).type }
+        }
+    }
+
+    @Test
+    fun parseFrames() {
+        assertEquals(frames.size, frames.count { parseFrame(it) != null })
+        benchmarkRule.measureRepeated {
+            frames.map { parseFrame(it) }
+        }
+    }
+
+    private fun parseFrame(frame: String): Any? =
+        when (LoganSquare.parse(frame, BaseWebSocketMessage::class.java).type) {
+            "room" -> LoganSquare.parse(frame, JoinedRoomOverallWebSocketMessage::class.java)
+            "event" -> LoganSquare.parse(frame, EventOverallWebSocketMessage::class.java)
+            "message" -> LoganSquare.parse(frame, CallOverallWebSocketMessage::class.java)
+            else -> null
+        }
+}
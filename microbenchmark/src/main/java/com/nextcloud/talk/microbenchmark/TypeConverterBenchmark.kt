@@ -0,0 +1,94 @@
+/*
+ * Nextcloud Talk - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+package com.nextcloud.talk.microbenchmark
+
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.nextcloud.talk.data.source.local.converters.ArrayListConverter
+import com.nextcloud.talk.data.source.local.converters.HashMapHashMapConverter
+import com.nextcloud.talk.data.source.local.converters.LinkedHashMapConverter
+import com.nextcloud.talk.utils.ColorGenerator
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Room type converters that run for every chat message row that is written or read, and the author color that is
+ * looked up for every rendered message.
+ */
+@RunWith(AndroidJUnit4::class)
+class TypeConverterBenchmark {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private val messages = BenchmarkFixtures.chatMessages
+    private val messageParameters = messages.mapNotNull { it.messageParameters }
+    private val reactions = messages.mapNotNull { it.reactions }
+    private val reactionsSelf = messages.mapNotNull { it.reactionsSelf }
+
+    @Test
+    fun messageParametersToString() {
+        val converter = HashMapHashMapConverter()
+        benchmarkRule.measureRepeated {
+            messageParameters.map { converter.fromDoubleHashMapToString(it) }
+        }
+    }
+
+    @Test
+    fun stringToMessageParameters() {
+        val converter = HashMapHashMapConverter()
+        val serialized = messageParameters.map { converter.fromDoubleHashMapToString(it) }
+        benchmarkRule.measureRepeated {
+            serialized.map { converter.fromStringToDoubleHashMap(it) }
+        }
+    }
+
+    @Test
+    fun reactionsToString() {
+        val converter = LinkedHashMapConverter()
+        benchmarkRule.measureRepeated {
+            reactions.map { converter.linkedHashMapToString(it) }
+        }
+    }
+
+    @Test
+    fun stringToReactions() {
+        val converter = LinkedHashMapConverter()
+        val serialized = reactions.map { converter.linkedHashMapToString(it) }
+        benchmarkRule.measureRepeated {
+            serialized.map { converter.stringToLinkedHashMap(it) }
+        }
+    }
+
+    @Test
+    fun reactionsSelfToString() {
+        val converter = ArrayListConverter()
+        benchmarkRule.measureRepeated {
+            reactionsSelf.map { converter.arrayListToString(it) }
+        }
+    }
+
+    @Test
+    fun stringToReactionsSelf() {
+        val converter = ArrayListConverter()
+        val serialized = reactionsSelf.map { converter.arrayListToString(it) }
+        benchmarkRule.measureRepeated {
+            serialized.map { converter.stringToArrayList(it) }
+        }
+    }
+
+    @Test
+    fun usernameToColorForChatPage() {
+        val authors = messages.map { it.actorDisplayName!! }
+        benchmarkRule.measureRepeated {
+            authors.sumOf { ColorGenerator.usernameToColor(it) }
+        }
+    }
+}